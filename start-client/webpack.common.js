@@ -59,7 +59,7 @@ const config = {
             loader: 'file-loader',
             options: {
               name: '[hash].[ext]',
-              outputPath: 'fonts/',
+              outputPath: 'assets/fonts/',
             },
           },
         ],
@@ -103,6 +103,7 @@ const config = {
       background_color: '#6db33f',
       inject: true,
       fingerprints: true,
+      filename: 'assets/manifest.[hash].[ext]',
       ios: true,
       start_url: '/',
       crossorigin: null,
@@ -110,6 +111,7 @@ const config = {
         {
           src: path.resolve('src/images/initializr-icon.png'),
           sizes: [48, 72, 96, 144, 192, 256, 384, 512],
+          destination: path.join('assets', 'icons'),
         },
       ],
     }),
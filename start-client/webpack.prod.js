@@ -8,8 +8,64 @@ const BundleAnalyzerPlugin =
 const WebpackBundleSizeAnalyzerPlugin =
   require('webpack-bundle-size-analyzer').WebpackBundleSizeAnalyzerPlugin
 const path = require('path')
+const zlib = require('zlib')
+const { promisify } = require('util')
 var LodashWebpackPlugin = require('lodash-webpack-plugin')
 
+const gzip = promisify(zlib.gzip)
+const brotliCompress = promisify(zlib.brotliCompress)
+
+// Emits .gz and .br siblings of text assets, served by start-site when the
+// client accepts them, so that they are not compressed for each request
+class PrecompressPlugin {
+  constructor(options = {}) {
+    this.test = options.test || /\.(js|css|html|json|svg|map|txt)$/
+    this.threshold = options.threshold || 1024
+  }
+  apply(compiler) {
+    compiler.hooks.thisCompilation.tap('precompress', compilation => {
+      compilation.hooks.processAssets.tapPromise(
+        {
+          name: 'precompress',
+          stage: webpack.Compilation.PROCESS_ASSETS_STAGE_TRANSFER,
+        },
+        assets =>
+          Promise.all(
+            Object.keys(assets)
+              .filter(name => this.test.test(name))
+              .map(name => this.compress(compilation, name, assets[name]))
+          )
+      )
+    })
+  }
+  async compress(compilation, name, asset) {
+    const content = asset.buffer()
+    if (content.length < this.threshold) {
+      return
+    }
+    const variants = {
+      gz: gzip(content, { level: zlib.constants.Z_BEST_COMPRESSION }),
+      br: brotliCompress(content, {
+        params: {
+          [zlib.constants.BROTLI_PARAM_QUALITY]:
+            zlib.constants.BROTLI_MAX_QUALITY,
+          [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+        },
+      }),
+    }
+    for (const [extension, variant] of Object.entries(variants)) {
+      const compressed = await variant
+      if (compressed.length < content.length) {
+        compilation.emitAsset(
+          `${name}.${extension}`,
+          new webpack.sources.RawSource(compressed),
+          { compressed: true }
+        )
+      }
+    }
+  }
+}
+
 const config = {
   mode: 'production',
   devtool: 'source-map',
@@ -21,6 +77,9 @@ const config = {
   },
   output: {
     publicPath: './',
+    // Content-hashed names under assets/ are served as immutable by start-site
+    filename: 'assets/main.[id].[contenthash].js',
+    chunkFilename: 'assets/[id].[contenthash].js',
   },
   plugins: [
     new BundleAnalyzerPlugin({
@@ -34,6 +93,7 @@ const config = {
       paths: true,
     }),
     new WebpackBundleSizeAnalyzerPlugin('../analysis/bundle-size-analyzer.log'),
+    new PrecompressPlugin(),
   ],
 }
 
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.sun.management.OperatingSystemMXBean;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.DefaultProjectRequestPlatformVersionTransformer;
+import io.spring.initializr.web.project.DefaultProjectRequestToDescriptionConverter;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.archive.ProjectArchiver;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmarks the writing of the archive of a generated project, with the writer of
+ * Initializr and with the {@link ProjectArchiver} used by the service. As large entries
+ * may be compressed by other threads, the CPU time of the process per archive is
+ * reported at the end of each iteration, alongside the size of the archive.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveBenchmark {
+
+	@Param({ "MINIMAL", "NTH_FULL_STACK" })
+	private RepresentativeRequest request;
+
+	@Param
+	private Format format;
+
+	@Param
+	private Writer writer;
+
+	private ConfigurableApplicationContext context;
+
+	private ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker;
+
+	private Path root;
+
+	private ExecutorService executor;
+
+	private ProjectArchiver archiver;
+
+	private long archiveSize;
+
+	private long archives;
+
+	private long cpuTime;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.context = BenchmarkApplication.start();
+		this.projectGenerationInvoker = new ProjectGenerationInvoker<>(this.context,
+				new DefaultProjectRequestToDescriptionConverter(new DefaultProjectRequestPlatformVersionTransformer()));
+		ProjectRequest projectRequest = this.request
+			.create(this.context.getBean(InitializrMetadataProvider.class).get());
+		ProjectGenerationResult result = this.projectGenerationInvoker
+			.invokeProjectStructureGeneration(projectRequest);
+		this.root = result.getRootDirectory();
+		this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		this.archiver = new ProjectArchiver(this.executor, 128 * 1024, Map.of());
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration() {
+		this.archives = 0;
+		this.cpuTime = getProcessCpuTime();
+	}
+
+	@TearDown(Level.Iteration)
+	public void reportIteration() {
+		long cpuTimePerArchive = (this.archives > 0) ? (getProcessCpuTime() - this.cpuTime) / this.archives : 0;
+		System.out.printf("%n%s %s: %d bytes, %d us of CPU time per archive%n", this.writer, this.format,
+				this.archiveSize, TimeUnit.NANOSECONDS.toMicros(cpuTimePerArchive));
+	}
+
+	private long getProcessCpuTime() {
+		return ((OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.executor.shutdown();
+		this.projectGenerationInvoker.cleanTempFiles(this.root);
+		this.context.close();
+	}
+
+	@Benchmark
+	public long writeArchive() throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		this.writer.write(this, out);
+		this.archives++;
+		this.archiveSize = out.count;
+		return out.count;
+	}
+
+	/**
+	 * The archive format.
+	 */
+	public enum Format {
+
+		/**
+		 * A zip archive.
+		 */
+		ZIP,
+
+		/**
+		 * A gzip-compressed tar archive.
+		 */
+		TGZ,
+
+		/**
+		 * A Zstandard-compressed tar archive.
+		 */
+		TAR_ZST,
+
+		/**
+		 * An uncompressed tar archive.
+		 */
+		TAR
+
+	}
+
+	/**
+	 * The archive writer to benchmark.
+	 */
+	public enum Writer {
+
+		/**
+		 * The writer of Initializr, deflating every entry on the calling thread.
+		 */
+		DEFAULT {
+
+			@Override
+			void write(ArchiveBenchmark benchmark, OutputStream out) throws IOException {
+				if (benchmark.format == Format.ZIP) {
+					writeEntries(benchmark.root, new ZipArchiveOutputStream(out), ZipArchiveEntry::new);
+				}
+				else if (benchmark.format == Format.TGZ) {
+					writeEntries(benchmark.root, new TarArchiveOutputStream(new GzipCompressorOutputStream(out)),
+							TarArchiveEntry::new);
+				}
+				else if (benchmark.format == Format.TAR_ZST) {
+					writeEntries(benchmark.root, new TarArchiveOutputStream(new ZstdCompressorOutputStream(out)),
+							TarArchiveEntry::new);
+				}
+				else {
+					writeEntries(benchmark.root, new TarArchiveOutputStream(out), TarArchiveEntry::new);
+				}
+			}
+
+			private <T extends ArchiveEntry> void writeEntries(Path root, ArchiveOutputStream<T> output,
+					EntryFactory<T> entryFactory) throws IOException {
+				try (output; Stream<Path> paths = Files.walk(root)) {
+					for (Path path : paths.filter((candidate) -> !candidate.equals(root)).toList()) {
+						String name = root.relativize(path).toString();
+						T entry = entryFactory.create(path.toFile(), Files.isDirectory(path) ? name + "/" : name);
+						output.putArchiveEntry(entry);
+						if (!Files.isDirectory(path)) {
+							Files.copy(path, output);
+						}
+						output.closeArchiveEntry();
+					}
+				}
+			}
+
+		},
+
+		/**
+		 * The {@link ProjectArchiver} used by the service.
+		 */
+		START {
+
+			@Override
+			void write(ArchiveBenchmark benchmark, OutputStream out) throws IOException {
+				if (benchmark.format == Format.ZIP) {
+					benchmark.archiver.writeZip(benchmark.root, "mvnw", out);
+				}
+				else if (benchmark.format == Format.TGZ) {
+					benchmark.archiver.writeTgz(benchmark.root, "mvnw", out);
+				}
+				else if (benchmark.format == Format.TAR_ZST) {
+					benchmark.archiver.writeTarZst(benchmark.root, "mvnw", out);
+				}
+				else {
+					benchmark.archiver.writeTar(benchmark.root, "mvnw", out);
+				}
+			}
+
+		};
+
+		abstract void write(ArchiveBenchmark benchmark, OutputStream out) throws IOException;
+
+	}
+
+	@FunctionalInterface
+	interface EntryFactory<T extends ArchiveEntry> {
+
+		T create(File file, String name);
+
+	}
+
+	static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			this.count += len;
+		}
+
+	}
+
+}
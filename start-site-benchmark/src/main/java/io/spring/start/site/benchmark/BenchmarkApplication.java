@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import io.spring.start.site.StartApplication;
+import io.spring.start.site.support.CacheableMavenVersionResolver;
+import io.spring.start.testsupport.TemporaryFiles;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Starts {@link StartApplication} for benchmarks, without a web server and with
+ * offline stand-ins for the remote services it uses.
+ *
+ * @author agent
+ */
+public final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * Start the application without a web server, with the {@code nth} profile enabled
+	 * so that the NTH dependencies are available.
+	 * @return the application context
+	 */
+	public static ConfigurableApplicationContext start() {
+		return start(WebApplicationType.NONE);
+	}
+
+	/**
+	 * Start the application with the {@code test} and {@code nth} profiles enabled.
+	 * @param webApplicationType the type of web application to start
+	 * @param properties additional properties, in the {@code key=value} form
+	 * @return the application context
+	 */
+	public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+		return new SpringApplicationBuilder(StartApplication.class, OfflineConfiguration.class)
+			.web(webApplicationType)
+			.profiles("test", "nth")
+			.properties("application.maven-version-resolver.cache-directory="
+					+ TemporaryFiles.getTempDir().resolve("maven-version-resolver-cache"))
+			.properties("logging.level.root=warn")
+			.properties(properties)
+			.run();
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class OfflineConfiguration {
+
+		@Bean
+		@Primary
+		CacheableMavenVersionResolver offlineMavenVersionResolver() {
+			return new CacheableMavenVersionResolver(new OfflineMavenVersionResolver());
+		}
+
+		@Bean
+		@Primary
+		OfflineNexusArtifactResolver offlineNexusArtifactResolver() {
+			return new OfflineNexusArtifactResolver();
+		}
+
+	}
+
+}
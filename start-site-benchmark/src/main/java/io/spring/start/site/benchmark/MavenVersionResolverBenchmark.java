@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.versionresolver.MavenVersionResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmarks lookups of the {@code CacheableMavenVersionResolver}, as performed while
+ * generating a project once the metadata cache is warm.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenVersionResolverBenchmark {
+
+	private static final String GROUP_ID = "org.springframework.boot";
+
+	private static final String ARTIFACT_ID = "spring-boot-dependencies";
+
+	private ConfigurableApplicationContext context;
+
+	private MavenVersionResolver resolver;
+
+	private String bootVersion;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.context = BenchmarkApplication.start();
+		this.resolver = this.context.getBean(MavenVersionResolver.class);
+		this.bootVersion = this.context.getBean(InitializrMetadataProvider.class)
+			.get()
+			.getBootVersions()
+			.getDefault()
+			.getId();
+		// Populate the cache
+		this.resolver.resolveDependencies(GROUP_ID, ARTIFACT_ID, this.bootVersion);
+		this.resolver.resolvePlugins(GROUP_ID, ARTIFACT_ID, this.bootVersion);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Map<String, String> resolveDependencies() {
+		return this.resolver.resolveDependencies(GROUP_ID, ARTIFACT_ID, this.bootVersion);
+	}
+
+	@Benchmark
+	public Map<String, String> resolvePlugins() {
+		return this.resolver.resolvePlugins(GROUP_ID, ARTIFACT_ID, this.bootVersion);
+	}
+
+}
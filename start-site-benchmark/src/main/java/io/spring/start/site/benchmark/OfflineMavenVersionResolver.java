@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.initializr.versionresolver.MavenVersionResolver;
+import io.spring.start.testsupport.TemporaryFiles;
+
+/**
+ * A {@link MavenVersionResolver} for benchmarks, which uses the same cache directory
+ * as the tests and keeps resolved BOMs in memory. Once a BOM has been resolved, further
+ * lookups never reach a remote repository, so measurements are not affected by the
+ * network.
+ *
+ * @author agent
+ */
+public class OfflineMavenVersionResolver implements MavenVersionResolver {
+
+	private final MavenVersionResolver delegate = MavenVersionResolver
+		.withCacheLocation(TemporaryFiles.getTempDir().resolve("maven-version-resolver-cache"));
+
+	private final Map<String, Map<String, String>> dependencies = new ConcurrentHashMap<>();
+
+	private final Map<String, Map<String, String>> plugins = new ConcurrentHashMap<>();
+
+	@Override
+	public Map<String, String> resolveDependencies(String groupId, String artifactId, String version) {
+		return this.dependencies.computeIfAbsent(key(groupId, artifactId, version),
+				(key) -> this.delegate.resolveDependencies(groupId, artifactId, version));
+	}
+
+	@Override
+	public Map<String, String> resolvePlugins(String groupId, String artifactId, String version) {
+		return this.plugins.computeIfAbsent(key(groupId, artifactId, version),
+				(key) -> this.delegate.resolvePlugins(groupId, artifactId, version));
+	}
+
+	private String key(String groupId, String artifactId, String version) {
+		return groupId + ":" + artifactId + ":" + version;
+	}
+
+}
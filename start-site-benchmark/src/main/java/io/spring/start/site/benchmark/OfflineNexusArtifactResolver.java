@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import io.spring.start.site.extension.nth.ArtifactResolveResource;
+import io.spring.start.site.extension.nth.NexusArtifactResolver;
+
+/**
+ * A {@link NexusArtifactResolver} that stands in for Nexus and resolves every artifact
+ * to a fixed version.
+ *
+ * @author agent
+ */
+public class OfflineNexusArtifactResolver extends NexusArtifactResolver {
+
+	static final String VERSION = "1.0.0";
+
+	@Override
+	public ArtifactResolveResource resolve(String groupId, String artifactId, String version, String repository) {
+		ArtifactResolveResource resource = new ArtifactResolveResource();
+		resource.setGroupId(groupId);
+		resource.setArtifactId(artifactId);
+		resource.setBaseVersion(VERSION);
+		resource.setVersion(VERSION);
+		return resource;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.DefaultProjectRequestPlatformVersionTransformer;
+import io.spring.initializr.web.project.DefaultProjectRequestToDescriptionConverter;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.ProjectRequestPlatformVersionTransformer;
+import io.spring.initializr.web.project.ProjectRequestToDescriptionConverter;
+import io.spring.start.site.generation.ProjectGenerationConfigurationIndex;
+import io.spring.start.site.generation.StartProjectGenerationInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmarks the generation of the structure of a project, from the request to the
+ * generated files on disk.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectGenerationBenchmark {
+
+	@Param
+	private RepresentativeRequest request;
+
+	@Param
+	private Invoker invoker;
+
+	private ConfigurableApplicationContext context;
+
+	private ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker;
+
+	private ProjectRequest projectRequest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.context = BenchmarkApplication.start();
+		ProjectRequestPlatformVersionTransformer platformVersionTransformer = this.context
+			.getBeanProvider(ProjectRequestPlatformVersionTransformer.class)
+			.getIfAvailable(DefaultProjectRequestPlatformVersionTransformer::new);
+		this.projectGenerationInvoker = this.invoker.create(this.context,
+				new DefaultProjectRequestToDescriptionConverter(platformVersionTransformer));
+		this.projectRequest = this.request
+			.create(this.context.getBean(InitializrMetadataProvider.class).get());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public ProjectGenerationResult generateProjectStructure() {
+		ProjectGenerationResult result = this.projectGenerationInvoker
+			.invokeProjectStructureGeneration(this.projectRequest);
+		this.projectGenerationInvoker.cleanTempFiles(result.getRootDirectory());
+		return result;
+	}
+
+	@Benchmark
+	public byte[] generateBuild() {
+		return this.projectGenerationInvoker.invokeBuildGeneration(this.projectRequest);
+	}
+
+	/**
+	 * The {@link ProjectGenerationInvoker} to benchmark. Comparing both measures the
+	 * per-request savings of the service's generation pipeline.
+	 */
+	public enum Invoker {
+
+		/**
+		 * The invoker provided by Initializr, registering and parsing every project
+		 * generation configuration for each request.
+		 */
+		DEFAULT {
+
+			@Override
+			ProjectGenerationInvoker<ProjectRequest> create(ApplicationContext context,
+					ProjectRequestToDescriptionConverter<ProjectRequest> converter) {
+				return new ProjectGenerationInvoker<>(context, converter);
+			}
+
+		},
+
+		/**
+		 * The invoker used by the service.
+		 */
+		START {
+
+			@Override
+			ProjectGenerationInvoker<ProjectRequest> create(ApplicationContext context,
+					ProjectRequestToDescriptionConverter<ProjectRequest> converter) {
+				return new StartProjectGenerationInvoker(context, converter,
+						context.getBean(ProjectGenerationConfigurationIndex.class), null, null, null);
+			}
+
+		};
+
+		abstract ProjectGenerationInvoker<ProjectRequest> create(ApplicationContext context,
+				ProjectRequestToDescriptionConverter<ProjectRequest> converter);
+
+	}
+
+}
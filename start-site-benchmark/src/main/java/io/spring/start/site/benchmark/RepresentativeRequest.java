@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark;
+
+import java.util.List;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.WebProjectRequest;
+
+/**
+ * Representative project requests.
+ *
+ * @author agent
+ */
+public enum RepresentativeRequest {
+
+	/**
+	 * A project without any dependency.
+	 */
+	MINIMAL("maven-project"),
+
+	/**
+	 * A typical web application backed by a database.
+	 */
+	WEB_JPA_SECURITY("maven-project", "web", "data-jpa", "security"),
+
+	/**
+	 * An application using the NTH stack, which resolves versions against Nexus.
+	 */
+	NTH_FULL_STACK("maven-project", "web", "thymeleaf", "nth-common-data-jpa", "nth-common-bcdb",
+			"nth-common-cloud-config", "nth-common-leader-election", "nth-common-mail",
+			"nth-common-logging-error-mail", "nth-common-watcher", "nth-common-utils", "nth-spring-modules",
+			"nth-inspinia-thymeleaf", "nth-kendoui-professional", "nth-acf-starter-sso"),
+
+	/**
+	 * A Gradle project using the Kotlin DSL. The NTH metadata only offers Java, so the
+	 * language cannot be Kotlin as well.
+	 */
+	KOTLIN_GRADLE("gradle-project-kotlin", "web", "actuator"),
+
+	/**
+	 * A web application compiled to a native image.
+	 */
+	NATIVE("maven-project", "web", "native");
+
+	private final String type;
+
+	private final List<String> dependencies;
+
+	RepresentativeRequest(String type, String... dependencies) {
+		this.type = type;
+		this.dependencies = List.of(dependencies);
+	}
+
+	/**
+	 * Create a {@link ProjectRequest} using the defaults of the specified metadata.
+	 * @param metadata the metadata to use
+	 * @return the request
+	 */
+	public ProjectRequest create(InitializrMetadata metadata) {
+		WebProjectRequest request = new WebProjectRequest();
+		request.initialize(metadata);
+		request.setType(this.type);
+		request.setDependencies(this.dependencies);
+		return request;
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * The HTTP endpoints driven by a load test.
+ *
+ * @author agent
+ */
+enum Endpoint {
+
+	STARTER_ZIP("starter.zip", "type=maven-project"),
+
+	STARTER_TGZ("starter.tgz", "type=maven-project"),
+
+	STARTER_TAR_ZST("starter.tar.zst", "type=maven-project"),
+
+	STARTER_TAR("starter.tar", "type=maven-project"),
+
+	POM("pom.xml", "type=maven-build"),
+
+	BUILD_GRADLE("build.gradle", "type=gradle-build"),
+
+	METADATA_CLIENT("metadata/client", null);
+
+	private final String path;
+
+	private final String query;
+
+	Endpoint(String path, String query) {
+		this.path = path;
+		this.query = query;
+	}
+
+	String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Return the path and query to request.
+	 * @param dependencies the dependencies of the project to generate
+	 * @return the path and query, relative to the root of the application
+	 */
+	String getRequestPath(String dependencies) {
+		if (this.query == null) {
+			return "/" + this.path;
+		}
+		return "/" + this.path + "?" + this.query + "&dependencies=" + dependencies;
+	}
+
+	static Endpoint fromPath(String path) {
+		String candidate = (path.startsWith("/")) ? path.substring(1) : path;
+		return Arrays.stream(values())
+			.filter((endpoint) -> endpoint.path.equals(candidate))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown endpoint '" + path + "'"));
+	}
+
+}
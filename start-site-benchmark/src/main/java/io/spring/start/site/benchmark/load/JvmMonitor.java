@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Monitors the collections performed by the garbage collectors and the heap usage of
+ * the current JVM while a load test runs.
+ *
+ * @author agent
+ */
+class JvmMonitor implements AutoCloseable {
+
+	private static final long SAMPLING_INTERVAL_MILLIS = 100;
+
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+		.stream()
+		.filter((pool) -> pool.getType() == MemoryType.HEAP)
+		.toList();
+
+	private final Map<String, CollectorStatistics> collections = new ConcurrentHashMap<>();
+
+	private final AtomicLong heapHighWaterMark = new AtomicLong();
+
+	private final NotificationListener listener = this::onNotification;
+
+	private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+		Thread thread = new Thread(runnable, "heap-sampler");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Start monitoring.
+	 */
+	void start() {
+		this.heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+		for (GarbageCollectorMXBean collector : this.collectors) {
+			if (collector instanceof NotificationEmitter emitter) {
+				emitter.addNotificationListener(this.listener, null, null);
+			}
+		}
+		this.sampler.scheduleAtFixedRate(this::sampleHeap, 0, SAMPLING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	private void onNotification(Notification notification, Object handback) {
+		if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+			GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+				.from((CompositeData) notification.getUserData());
+			this.collections.computeIfAbsent(info.getGcName(), (name) -> new CollectorStatistics())
+				.record(info.getGcInfo().getDuration());
+		}
+	}
+
+	private void sampleHeap() {
+		long used = this.heapPools.stream().mapToLong((pool) -> pool.getUsage().getUsed()).sum();
+		this.heapHighWaterMark.accumulateAndGet(used, Math::max);
+	}
+
+	/**
+	 * Return the highest heap usage observed by sampling.
+	 * @return the heap high-water mark, in bytes
+	 */
+	long getHeapHighWaterMark() {
+		return this.heapHighWaterMark.get();
+	}
+
+	/**
+	 * Return the peak usage of each heap pool, as tracked by the JVM.
+	 * @return the peak usage of each pool, in bytes
+	 */
+	Map<String, Long> getHeapPoolPeaks() {
+		Map<String, Long> peaks = new TreeMap<>();
+		this.heapPools.forEach((pool) -> peaks.put(pool.getName(), pool.getPeakUsage().getUsed()));
+		return peaks;
+	}
+
+	/**
+	 * Return the collections performed by each garbage collector.
+	 * @return the collection statistics, keyed by collector name
+	 */
+	Map<String, CollectorStatistics> getCollections() {
+		return new TreeMap<>(this.collections);
+	}
+
+	@Override
+	public void close() {
+		this.sampler.shutdownNow();
+		for (GarbageCollectorMXBean collector : this.collectors) {
+			if (collector instanceof NotificationEmitter emitter) {
+				try {
+					emitter.removeNotificationListener(this.listener);
+				}
+				catch (ListenerNotFoundException ex) {
+					// Ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collections performed by a garbage collector. For concurrent collectors, the
+	 * duration covers the whole cycle rather than only the pauses.
+	 */
+	static final class CollectorStatistics {
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong totalMillis = new AtomicLong();
+
+		private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+		private void record(long durationMillis) {
+			this.count.incrementAndGet();
+			this.totalMillis.addAndGet(durationMillis);
+			this.maxMillis.accumulate(durationMillis);
+		}
+
+		long getCount() {
+			return this.count.get();
+		}
+
+		long getTotalMillis() {
+			return this.totalMillis.get();
+		}
+
+		long getMaxMillis() {
+			return this.maxMillis.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Drives the endpoints of a running application from a fixed number of concurrent
+ * clients, each sending its next request as soon as the previous one completes.
+ *
+ * @author agent
+ */
+class LoadGenerator {
+
+	static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+	private final URI baseUri;
+
+	private final LoadTestSettings settings;
+
+	private final HttpClient httpClient;
+
+	LoadGenerator(URI baseUri, LoadTestSettings settings) {
+		this.baseUri = baseUri;
+		this.settings = settings;
+		this.httpClient = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+	}
+
+	/**
+	 * Apply load for the specified duration.
+	 * @param duration how long to apply load
+	 * @return the statistics of each endpoint
+	 * @throws InterruptedException if interrupted while waiting for the clients
+	 */
+	Map<Endpoint, EndpointStatistics> run(Duration duration) throws InterruptedException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Map<Endpoint, EndpointStatistics> statistics = new EnumMap<>(Endpoint.class);
+		this.settings.endpoints()
+			.forEach((candidate) -> statistics.put(candidate.endpoint(),
+					new EndpointStatistics(candidate.endpoint(), registry)));
+		long deadline = System.nanoTime() + duration.toNanos();
+		ExecutorService clients = Executors.newFixedThreadPool(this.settings.concurrency());
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < this.settings.concurrency(); i++) {
+				futures.add(clients.submit(() -> drive(deadline, statistics)));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException("Client failed", ex);
+				}
+			}
+		}
+		finally {
+			clients.shutdownNow();
+			clients.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		return statistics;
+	}
+
+	private void drive(long deadline, Map<Endpoint, EndpointStatistics> statistics) {
+		while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted()) {
+			Endpoint endpoint = this.settings.nextEndpoint();
+			HttpRequest request = HttpRequest
+				.newBuilder(this.baseUri.resolve(endpoint.getRequestPath(this.settings.dependencies())))
+				.timeout(Duration.ofSeconds(60))
+				.GET()
+				.build();
+			long start = System.nanoTime();
+			try {
+				HttpResponse<InputStream> response = this.httpClient.send(request,
+						HttpResponse.BodyHandlers.ofInputStream());
+				try (InputStream body = response.body()) {
+					body.transferTo(OutputStream.nullOutputStream());
+				}
+				statistics.get(endpoint).record(response.statusCode(), System.nanoTime() - start);
+			}
+			catch (IOException ex) {
+				statistics.get(endpoint).recordError(System.nanoTime() - start);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Statistics of the requests sent to an endpoint.
+	 */
+	static final class EndpointStatistics {
+
+		private final Timer latency;
+
+		private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+		private final LongAdder errors = new LongAdder();
+
+		private EndpointStatistics(Endpoint endpoint, SimpleMeterRegistry registry) {
+			this.latency = Timer.builder("load.request")
+				.tag("endpoint", endpoint.getPath())
+				.publishPercentiles(PERCENTILES)
+				.percentilePrecision(3)
+				.distributionStatisticExpiry(Duration.ofDays(1))
+				.distributionStatisticBufferLength(1)
+				.register(registry);
+		}
+
+		private void record(int status, long nanos) {
+			this.latency.record(nanos, TimeUnit.NANOSECONDS);
+			this.statuses.computeIfAbsent(status, (key) -> new LongAdder()).increment();
+		}
+
+		private void recordError(long nanos) {
+			this.latency.record(nanos, TimeUnit.NANOSECONDS);
+			this.errors.increment();
+		}
+
+		Timer getLatency() {
+			return this.latency;
+		}
+
+		Map<Integer, Long> getStatuses() {
+			Map<Integer, Long> statuses = new TreeMap<>();
+			this.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+			return statuses;
+		}
+
+		long getErrors() {
+			return this.errors.sum();
+		}
+
+	}
+
+}
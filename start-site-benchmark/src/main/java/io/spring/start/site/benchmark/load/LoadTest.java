@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark.load;
+
+import java.net.URI;
+import java.util.Map;
+
+import io.spring.start.site.benchmark.BenchmarkApplication;
+import io.spring.start.site.benchmark.load.LoadGenerator.EndpointStatistics;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs a load test against the HTTP generation endpoints of an application started in
+ * the same JVM, with offline stand-ins for Nexus and Maven version resolution. Accepts
+ * the following arguments:
+ * <ul>
+ * <li>{@code --concurrency}: the number of concurrent clients, 16 by default</li>
+ * <li>{@code --warmup}: how long to apply load before measuring, 30s by default</li>
+ * <li>{@code --duration}: how long to measure, 60s by default</li>
+ * <li>{@code --mix}: the endpoints to drive and their weight, such as
+ * {@code starter.zip=40,pom.xml=20}</li>
+ * <li>{@code --dependencies}: the dependencies of the generated projects</li>
+ * <li>{@code --report}: the file to write the JSON report to</li>
+ * <li>{@code --profiles}: the additional profiles of the application, such as
+ * {@code virtual-threads}</li>
+ * </ul>
+ * Garbage collections and heap usage are those of the whole JVM, clients included.
+ *
+ * @author agent
+ */
+public final class LoadTest {
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestSettings settings = LoadTestSettings.parse(args);
+		String[] properties = (settings.profiles().isEmpty()) ? new String[] { "server.port=0" }
+				: new String[] { "server.port=0", "spring.profiles.active=" + settings.profiles() };
+		try (ConfigurableApplicationContext context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+				properties)) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port), settings);
+			System.out.printf("Warming up for %s with %d clients%n", settings.warmup(), settings.concurrency());
+			generator.run(settings.warmup());
+			System.gc();
+			System.out.printf("Measuring for %s%n", settings.duration());
+			try (JvmMonitor monitor = new JvmMonitor()) {
+				monitor.start();
+				Map<Endpoint, EndpointStatistics> statistics = generator.run(settings.duration());
+				LoadTestReport report = LoadTestReport.of(settings, statistics, monitor);
+				report.print(System.out);
+				report.write(settings.report());
+				System.out.printf("Report written to %s%n", settings.report().toAbsolutePath());
+			}
+		}
+	}
+
+}
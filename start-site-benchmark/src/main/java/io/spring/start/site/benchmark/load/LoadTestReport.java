@@ -0,0 +1,140 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.spring.start.site.benchmark.load.JvmMonitor.CollectorStatistics;
+import io.spring.start.site.benchmark.load.LoadGenerator.EndpointStatistics;
+
+/**
+ * The outcome of a load test.
+ *
+ * @param concurrency the number of concurrent clients
+ * @param durationSeconds how long load was measured
+ * @param throughput the number of completed requests per second, for all endpoints
+ * @param endpoints the statistics of each endpoint
+ * @param garbageCollectors the collections performed by each garbage collector
+ * @param heapHighWaterMarkBytes the highest heap usage observed by sampling
+ * @param heapPoolPeakBytes the peak usage of each heap pool
+ * @author agent
+ */
+record LoadTestReport(int concurrency, double durationSeconds, double throughput, List<EndpointReport> endpoints,
+		Map<String, GarbageCollectorReport> garbageCollectors, long heapHighWaterMarkBytes,
+		Map<String, Long> heapPoolPeakBytes) {
+
+	static LoadTestReport of(LoadTestSettings settings, Map<Endpoint, EndpointStatistics> statistics,
+			JvmMonitor monitor) {
+		double seconds = settings.duration().toMillis() / 1000.0;
+		List<EndpointReport> endpoints = new ArrayList<>();
+		statistics.forEach((endpoint, endpointStatistics) -> endpoints
+			.add(EndpointReport.of(endpoint, endpointStatistics, seconds)));
+		double throughput = endpoints.stream().mapToDouble(EndpointReport::throughput).sum();
+		Map<String, GarbageCollectorReport> collectors = new LinkedHashMap<>();
+		monitor.getCollections()
+			.forEach((name, collections) -> collectors.put(name, GarbageCollectorReport.of(collections)));
+		return new LoadTestReport(settings.concurrency(), seconds, throughput, endpoints, collectors,
+				monitor.getHeapHighWaterMark(), monitor.getHeapPoolPeaks());
+	}
+
+	void print(PrintStream out) {
+		out.printf("Concurrency: %d, duration: %.0fs, throughput: %.1f req/s%n", this.concurrency,
+				this.durationSeconds, this.throughput);
+		out.printf("%-16s %10s %10s %10s %10s %10s %10s %10s  %s%n", "endpoint", "requests", "req/s", "mean ms",
+				"p50 ms", "p90 ms", "p99 ms", "max ms", "statuses");
+		for (EndpointReport endpoint : this.endpoints) {
+			Map<String, Double> p = endpoint.percentilesMillis();
+			out.printf("%-16s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f  %s%n", endpoint.endpoint(),
+					endpoint.requests(), endpoint.throughput(), endpoint.meanMillis(), p.get("p50"), p.get("p90"),
+					p.get("p99"), endpoint.maxMillis(), endpoint.statuses());
+		}
+		this.garbageCollectors.forEach((name, collector) -> out.printf(
+				"GC %-26s %6d collections, %6d ms total, %5d ms max%n", name, collector.count(),
+				collector.totalMillis(), collector.maxMillis()));
+		out.printf("Heap high-water mark: %d MB%n", this.heapHighWaterMarkBytes / (1024 * 1024));
+	}
+
+	void write(Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+	}
+
+	/**
+	 * Statistics of an endpoint.
+	 *
+	 * @param endpoint the path of the endpoint
+	 * @param requests the number of requests sent
+	 * @param throughput the number of requests per second
+	 * @param meanMillis the mean latency
+	 * @param maxMillis the maximum latency
+	 * @param percentilesMillis the latency percentiles
+	 * @param statuses the number of responses per HTTP status
+	 * @param errors the number of requests that failed without a response
+	 */
+	record EndpointReport(String endpoint, long requests, double throughput, double meanMillis, double maxMillis,
+			Map<String, Double> percentilesMillis, Map<Integer, Long> statuses, long errors) {
+
+		static EndpointReport of(Endpoint endpoint, EndpointStatistics statistics, double seconds) {
+			HistogramSnapshot snapshot = statistics.getLatency().takeSnapshot();
+			Map<String, Double> percentiles = new LinkedHashMap<>();
+			for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+				percentiles.put(label(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+			}
+			return new EndpointReport(endpoint.getPath(), snapshot.count(), snapshot.count() / seconds,
+					snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS), percentiles,
+					statistics.getStatuses(), statistics.getErrors());
+		}
+
+		private static String label(double percentile) {
+			return "p" + BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros().toPlainString();
+		}
+
+	}
+
+	/**
+	 * Collections performed by a garbage collector.
+	 *
+	 * @param count the number of collections
+	 * @param totalMillis the cumulated duration of the collections
+	 * @param maxMillis the longest collection
+	 */
+	record GarbageCollectorReport(long count, long totalMillis, long maxMillis) {
+
+		static GarbageCollectorReport of(CollectorStatistics statistics) {
+			return new GarbageCollectorReport(statistics.getCount(), statistics.getTotalMillis(),
+					statistics.getMaxMillis());
+		}
+
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.benchmark.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Settings of a load test, parsed from {@code --name=value} arguments.
+ *
+ * @param concurrency the number of concurrent clients
+ * @param warmup how long to apply load before measuring
+ * @param duration how long to measure
+ * @param endpoints the endpoints to drive, with their weight in the mix
+ * @param dependencies the dependencies of the generated projects
+ * @param report the file to write the JSON report to
+ * @param profiles the additional profiles of the application, comma-separated, or an
+ * empty string
+ * @author agent
+ */
+record LoadTestSettings(int concurrency, Duration warmup, Duration duration, List<WeightedEndpoint> endpoints,
+		String dependencies, Path report, String profiles) {
+
+	private static final String DEFAULT_MIX = "starter.zip=40,starter.tgz=10,pom.xml=20,build.gradle=10,"
+			+ "metadata/client=20";
+
+	static LoadTestSettings parse(String... args) {
+		SimpleCommandLinePropertySource arguments = new SimpleCommandLinePropertySource(args);
+		return new LoadTestSettings(Integer.parseInt(get(arguments, "concurrency", "16")),
+				DurationStyle.detectAndParse(get(arguments, "warmup", "30s")),
+				DurationStyle.detectAndParse(get(arguments, "duration", "60s")),
+				parseMix(get(arguments, "mix", DEFAULT_MIX)), get(arguments, "dependencies", "web,data-jpa,security"),
+				Path.of(get(arguments, "report", "target/load-test-report.json")), get(arguments, "profiles", ""));
+	}
+
+	private static String get(SimpleCommandLinePropertySource arguments, String name, String defaultValue) {
+		String value = arguments.getProperty(name);
+		return (StringUtils.hasText(value)) ? value : defaultValue;
+	}
+
+	private static List<WeightedEndpoint> parseMix(String mix) {
+		List<WeightedEndpoint> endpoints = new ArrayList<>();
+		for (String entry : StringUtils.commaDelimitedListToStringArray(mix)) {
+			String[] nameAndWeight = StringUtils.split(entry.trim(), "=");
+			Assert.notNull(nameAndWeight, () -> "Invalid mix entry '" + entry + "', expected <endpoint>=<weight>");
+			Endpoint endpoint = Endpoint.fromPath(nameAndWeight[0]);
+			int weight = Integer.parseInt(nameAndWeight[1]);
+			if (weight > 0) {
+				endpoints.add(new WeightedEndpoint(endpoint, weight));
+			}
+		}
+		Assert.state(!endpoints.isEmpty(), "The mix must include at least one endpoint");
+		return List.copyOf(endpoints);
+	}
+
+	/**
+	 * Pick an endpoint at random according to the mix.
+	 * @return the next endpoint to drive
+	 */
+	Endpoint nextEndpoint() {
+		int totalWeight = this.endpoints.stream().mapToInt(WeightedEndpoint::weight).sum();
+		int value = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (WeightedEndpoint candidate : this.endpoints) {
+			value -= candidate.weight();
+			if (value < 0) {
+				return candidate.endpoint();
+			}
+		}
+		throw new IllegalStateException("Unreachable");
+	}
+
+	/**
+	 * An endpoint and its weight in the mix.
+	 *
+	 * @param endpoint the endpoint
+	 * @param weight the weight
+	 */
+	record WeightedEndpoint(Endpoint endpoint, int weight) {
+
+	}
+
+}
@@ -19,24 +19,90 @@ package io.spring.start.site;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
+import io.spring.initializr.metadata.DefaultMetadataElement;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
 import io.spring.initializr.versionresolver.MavenVersionResolver;
+import io.spring.initializr.web.controller.ProjectGenerationController;
+import io.spring.initializr.web.controller.ProjectMetadataController;
+import io.spring.initializr.web.project.DefaultProjectRequestPlatformVersionTransformer;
+import io.spring.initializr.web.project.DefaultProjectRequestToDescriptionConverter;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.ProjectRequestPlatformVersionTransformer;
+import io.spring.start.site.StartConfigurationProperties.Generation.Admission;
+import io.spring.start.site.StartConfigurationProperties.Generation.Archive;
+import io.spring.start.site.StartConfigurationProperties.Generation.Bulk;
+import io.spring.start.site.StartConfigurationProperties.Generation.Profiling;
+import io.spring.start.site.StartConfigurationProperties.Generation.Warming;
+import io.spring.start.site.StartConfigurationProperties.Generation.Warmup;
+import io.spring.start.site.StartConfigurationProperties.Generation.Workspace;
+import io.spring.start.site.archive.ProjectArchiver;
+import io.spring.start.site.cache.SharedCacheConfiguration;
+import io.spring.start.site.cache.SharedCacheRegion;
+import io.spring.start.site.cache.SharedCacheRegions;
 import io.spring.start.site.container.SimpleDockerServiceResolver;
+import io.spring.start.site.extension.nth.NexusArtifactResolver;
+import io.spring.start.site.generation.BuildFileCache;
+import io.spring.start.site.generation.BulkProjectGenerator;
+import io.spring.start.site.generation.CanonicalProjectRequest;
+import io.spring.start.site.generation.CacheWarmer;
+import io.spring.start.site.generation.GenerationProfileEndpoint;
+import io.spring.start.site.generation.GenerationProfiler;
+import io.spring.start.site.generation.GenerationScheduler;
+import io.spring.start.site.generation.GenerationWarmup;
+import io.spring.start.site.generation.GenerationWorkspace;
+import io.spring.start.site.generation.PopularRequests;
+import io.spring.start.site.generation.PopularRequestsEndpoint;
+import io.spring.start.site.generation.ProjectGenerationConfigurationIndex;
+import io.spring.start.site.generation.StartProjectGenerationInvoker;
+import io.spring.start.site.multimodule.AggregatorBuildCustomizer;
+import io.spring.start.site.multimodule.MultiModuleProjectGenerator;
 import io.spring.start.site.project.ProjectDescriptionCustomizerConfiguration;
+import io.spring.start.site.stats.StatsConfiguration;
 import io.spring.start.site.support.CacheableMavenVersionResolver;
+import io.spring.start.site.support.CdsTrainingConfiguration;
+import io.spring.start.site.support.PrecompiledMustacheTemplateRenderer;
 import io.spring.start.site.support.StartInitializrMetadataUpdateStrategy;
+import io.spring.start.site.support.StartupInitializers;
+import io.spring.start.site.web.BulkProjectGenerationController;
+import io.spring.start.site.web.ClientAssetsConfigurer;
+import io.spring.start.site.web.GenerationAdmissionFilter;
+import io.spring.start.site.web.GenerationCancellationFilter;
 import io.spring.start.site.web.HomeController;
+import io.spring.start.site.web.StartProjectGenerationController;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -44,16 +110,45 @@ import org.springframework.util.StringUtils;
  *
  * @author Stephane Nicoll
  */
-@EnableAutoConfiguration
+@EnableAutoConfiguration(excludeName = "io.spring.initializr.actuate.autoconfigure.InitializrStatsAutoConfiguration")
 @SpringBootConfiguration
-@Import(ProjectDescriptionCustomizerConfiguration.class)
+@Import({ ProjectDescriptionCustomizerConfiguration.class, StatsConfiguration.class, SharedCacheConfiguration.class,
+		CdsTrainingConfiguration.class })
 @EnableCaching
 @EnableAsync
 @EnableConfigurationProperties(StartConfigurationProperties.class)
 public class StartApplication {
 
+	private static final String[] SINGLE_GENERATION_URL_PATTERNS = { "/starter.zip", "/starter.tgz",
+			"/starter.tar.zst", "/starter.tar", "/pom", "/pom.xml", "/build", "/build.gradle" };
+
+	private static final String[] BULK_GENERATION_URL_PATTERNS = { "/starter-bulk.zip", "/starter-multimodule.zip" };
+
+	private static final int STARTUP_TIMELINE_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(StartApplication.class, args);
+		SpringApplication application = new SpringApplication(StartApplication.class);
+		if (isStartupTimelineEnabled(args)) {
+			// Exposes the startup timeline on the startup actuator endpoint
+			application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+		}
+		application.run(args);
+	}
+
+	private static boolean isStartupTimelineEnabled(String[] args) {
+		// The application startup is set before the configuration files are loaded
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		return environment.getProperty("application.startup.timeline", Boolean.class, false);
+	}
+
+	@Bean
+	public static LazyInitializationExcludeFilter criticalBeansLazyInitializationExcludeFilter() {
+		// Beans that serve the first requests are created on startup, even in lazy mode
+		return LazyInitializationExcludeFilter.forBeanTypes(HomeController.class, ProjectMetadataController.class,
+				ProjectGenerationController.class, StartProjectGenerationInvoker.class,
+				InitializrMetadataProvider.class, PrecompiledMustacheTemplateRenderer.class,
+				StartupInitializers.class);
 	}
 
 	@Bean
@@ -61,6 +156,162 @@ public class StartApplication {
 		return new HomeController();
 	}
 
+	@Bean
+	public ClientAssetsConfigurer clientAssetsConfigurer(WebProperties webProperties) {
+		return new ClientAssetsConfigurer(webProperties.getResources().getStaticLocations());
+	}
+
+	@Bean
+	public StartProjectGenerationInvoker projectGenerationInvoker(
+			ObjectProvider<ProjectRequestPlatformVersionTransformer> platformVersionTransformer,
+			ProjectGenerationConfigurationIndex configurationIndex, ObjectProvider<BuildFileCache> buildFileCache,
+			ObjectProvider<GenerationProfiler> generationProfiler, ObjectProvider<GenerationWorkspace> workspace,
+			ApplicationContext applicationContext) {
+		return new StartProjectGenerationInvoker(applicationContext,
+				new DefaultProjectRequestToDescriptionConverter(
+						platformVersionTransformer.getIfAvailable(DefaultProjectRequestPlatformVersionTransformer::new)),
+				configurationIndex, buildFileCache.getIfAvailable(), generationProfiler.getIfAvailable(),
+				workspace.getIfAvailable());
+	}
+
+	@Bean
+	public ProjectGenerationController<ProjectRequest> projectGenerationController(
+			InitializrMetadataProvider metadataProvider, StartProjectGenerationInvoker projectGenerationInvoker,
+			ObjectProvider<ProjectArchiver> projectArchiver, ObjectProvider<BuildFileCache> buildFileCache) {
+		return new StartProjectGenerationController(metadataProvider, projectGenerationInvoker,
+				projectArchiver.getIfAvailable(), buildFileCache.getIfAvailable());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.bulk.enabled")
+	public BulkProjectGenerationController bulkProjectGenerationController(InitializrMetadataProvider metadataProvider,
+			StartProjectGenerationInvoker projectGenerationInvoker, ObjectProvider<ProjectArchiver> projectArchiver,
+			ObjectMapper objectMapper, StartConfigurationProperties properties,
+			ObjectProvider<AggregatorBuildCustomizer> aggregatorBuildCustomizers,
+			ObjectProvider<GenerationScheduler> generationScheduler) {
+		Bulk bulk = properties.getGeneration().getBulk();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bulk-generation-");
+		threadFactory.setDaemon(true);
+		BulkProjectGenerator generator = new BulkProjectGenerator(projectGenerationInvoker,
+				Executors.newFixedThreadPool(bulk.getParallelism(), threadFactory), bulk.getMaxProjects(),
+				generationScheduler.getIfAvailable());
+		MultiModuleProjectGenerator multiModuleGenerator = new MultiModuleProjectGenerator(projectGenerationInvoker,
+				generator, aggregatorBuildCustomizers.orderedStream().toList());
+		return new BulkProjectGenerationController(metadataProvider, projectGenerationInvoker, generator,
+				multiModuleGenerator, projectArchiver.getIfAvailable(), objectMapper);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.archive.enabled", matchIfMissing = true)
+	public ProjectArchiver projectArchiver(StartConfigurationProperties properties) {
+		Archive archive = properties.getGeneration().getArchive();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("archive-");
+		threadFactory.setDaemon(true);
+		return new ProjectArchiver(Executors.newFixedThreadPool(archive.getParallelism(), threadFactory),
+				(int) archive.getChunkSize().toBytes(), archive.getCompressionLevel(), archive.getSharedFiles(),
+				archive.getSharedFilesCacheSize().toBytes());
+	}
+
+	@Bean
+	public ProjectGenerationConfigurationIndex projectGenerationConfigurationIndex(
+			ApplicationContext applicationContext) {
+		return ProjectGenerationConfigurationIndex.load(applicationContext.getClassLoader());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.build-file-cache.enabled", matchIfMissing = true)
+	public BuildFileCache buildFileCache(StartConfigurationProperties properties, MeterRegistry meterRegistry,
+			ObjectProvider<SharedCacheRegions> sharedCacheRegions) {
+		SharedCacheRegions regions = sharedCacheRegions.getIfAvailable();
+		SharedCacheRegion sharedRegion = (regions != null && properties.getSharedCache().isBuildFiles())
+				? regions.getRegion("initializr.build-files") : null;
+		// Versions resolved at Nexus can change without the metadata changing
+		Predicate<CanonicalProjectRequest> cacheable = (request) -> request.getDependencies()
+			.stream()
+			.noneMatch(NexusArtifactResolver::isResolved);
+		return new BuildFileCache(properties.getGeneration().getBuildFileCache().getMaxEntries(), meterRegistry,
+				sharedRegion, cacheable);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.workspace.directory")
+	public GenerationWorkspace generationWorkspace(StartConfigurationProperties properties,
+			MeterRegistry meterRegistry) throws IOException {
+		Workspace workspace = properties.getGeneration().getWorkspace();
+		return new GenerationWorkspace(Path.of(workspace.getDirectory()), workspace.getMaxSize().toBytes(),
+				workspace.getMaxInodes(), workspace.getProjectSizeEstimate().toBytes(),
+				workspace.getProjectInodesEstimate(), workspace.getCleanupBatchSize(), meterRegistry);
+	}
+
+	@Bean
+	public PopularRequests popularRequests(StartConfigurationProperties properties) {
+		return new PopularRequests(properties.getGeneration().getPopularity().getCapacity());
+	}
+
+	@Bean
+	public PopularRequestsEndpoint popularRequestsEndpoint(PopularRequests popularRequests) {
+		return new PopularRequestsEndpoint(popularRequests);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.warming.enabled", matchIfMissing = true)
+	public CacheWarmer cacheWarmer(PopularRequests popularRequests,
+			StartProjectGenerationInvoker projectGenerationInvoker, InitializrMetadataProvider metadataProvider,
+			StartConfigurationProperties properties) {
+		Warming warming = properties.getGeneration().getWarming();
+		Path snapshot = StringUtils.hasText(warming.getSnapshotFile()) ? Path.of(warming.getSnapshotFile()) : null;
+		return new CacheWarmer(popularRequests, projectGenerationInvoker, metadataProvider, warming.getRequests(),
+				properties.getGeneration().getTimeout(), snapshot);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.warmup.enabled")
+	public GenerationWarmup generationWarmup(StartProjectGenerationInvoker projectGenerationInvoker,
+			InitializrMetadataProvider metadataProvider, PopularRequests popularRequests,
+			StartConfigurationProperties properties) {
+		Warmup warmup = properties.getGeneration().getWarmup();
+		return new GenerationWarmup(projectGenerationInvoker, metadataProvider, popularRequests,
+				warmup.getRequests(), warmup.getPopularRequests(), warmup.getIterations(), warmup.getWindow(),
+				warmup.getPlateauTolerance(), warmup.getMaxDuration(), properties.getGeneration().getTimeout());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.startup.parallel-initialization")
+	public StartupInitializers startupInitializers(InitializrMetadataProvider metadataProvider,
+			MavenVersionResolver mavenVersionResolver, ApplicationStartup applicationStartup,
+			ApplicationContext applicationContext, StartConfigurationProperties properties) {
+		Map<String, Runnable> initializers = new LinkedHashMap<>();
+		initializers.put("metadata", () -> resolveDefaultPlatform(metadataProvider.get(), mavenVersionResolver));
+		initializers.put("generation-configurations",
+				() -> loadProjectGenerationConfigurations(applicationContext.getClassLoader()));
+		return new StartupInitializers(initializers, applicationStartup,
+				properties.getStartup().getInitializationTimeout());
+	}
+
+	private static void resolveDefaultPlatform(InitializrMetadata metadata, MavenVersionResolver versionResolver) {
+		DefaultMetadataElement bootVersion = metadata.getBootVersions().getDefault();
+		if (bootVersion != null) {
+			versionResolver.resolveDependencies("org.springframework.boot", "spring-boot-dependencies",
+					bootVersion.getId());
+			versionResolver.resolvePlugins("org.springframework.boot", "spring-boot-dependencies",
+					bootVersion.getId());
+		}
+	}
+
+	private static void loadProjectGenerationConfigurations(ClassLoader classLoader) {
+		for (String className : SpringFactoriesLoader.loadFactoryNames(ProjectGenerationConfiguration.class,
+				classLoader)) {
+			ClassUtils.resolveClassName(className, classLoader);
+		}
+	}
+
+	@Bean
+	public PrecompiledMustacheTemplateRenderer templateRenderer(ObjectProvider<CacheManager> cacheManager) {
+		CacheManager templateCacheManager = cacheManager.getIfAvailable();
+		return new PrecompiledMustacheTemplateRenderer("classpath:/templates",
+				(templateCacheManager != null) ? templateCacheManager.getCache("initializr.templates") : null);
+	}
+
 	@Bean
 	public StartInitializrMetadataUpdateStrategy initializrMetadataUpdateStrategy(
 			RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper) {
@@ -85,4 +336,54 @@ public class StartApplication {
 		return new SimpleDockerServiceResolver();
 	}
 
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.admission.enabled", matchIfMissing = true)
+	public GenerationScheduler generationScheduler(StartConfigurationProperties properties,
+			MeterRegistry meterRegistry) {
+		Admission admission = properties.getGeneration().getAdmission();
+		return new GenerationScheduler(admission.getMaxConcurrentGenerations(), admission.getQueueCapacity(),
+				admission.getMaxQueueTime(), meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.admission.enabled", matchIfMissing = true)
+	public FilterRegistrationBean<GenerationAdmissionFilter> generationAdmissionFilter(
+			GenerationScheduler generationScheduler, StartConfigurationProperties properties) {
+		GenerationAdmissionFilter filter = new GenerationAdmissionFilter(generationScheduler,
+				properties.getGeneration().getAdmission().getRetryAfter());
+		FilterRegistrationBean<GenerationAdmissionFilter> registration = new FilterRegistrationBean<>(filter);
+		// Bulk generations acquire a permit for each of their projects
+		registration.addUrlPatterns(SINGLE_GENERATION_URL_PATTERNS);
+		registration.setOrder(Ordered.LOWEST_PRECEDENCE - 20);
+		return registration;
+	}
+
+	@Bean
+	public FilterRegistrationBean<GenerationCancellationFilter> generationCancellationFilter(
+			StartConfigurationProperties properties, MeterRegistry meterRegistry) {
+		GenerationCancellationFilter filter = new GenerationCancellationFilter(
+				properties.getGeneration().getTimeout(), meterRegistry);
+		FilterRegistrationBean<GenerationCancellationFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns(SINGLE_GENERATION_URL_PATTERNS);
+		registration.addUrlPatterns(BULK_GENERATION_URL_PATTERNS);
+		// Start the clock once the generation has been admitted
+		registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+		return registration;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.profiling.enabled")
+	public GenerationProfiler generationProfiler(StartConfigurationProperties properties,
+			MeterRegistry meterRegistry) {
+		Profiling profiling = properties.getGeneration().getProfiling();
+		return new GenerationProfiler(meterRegistry, profiling.getRecentGenerations(),
+				profiling.getAllocationSamplingInterval());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.generation.profiling.enabled")
+	public GenerationProfileEndpoint generationProfileEndpoint(GenerationProfiler generationProfiler) {
+		return new GenerationProfileEndpoint(generationProfiler);
+	}
+
 }
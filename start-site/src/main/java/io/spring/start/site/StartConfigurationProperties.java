@@ -16,7 +16,14 @@
 
 package io.spring.start.site;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Configuration properties for the application.
@@ -31,10 +38,46 @@ public class StartConfigurationProperties {
 	 */
 	private final MavenVersionResolver mavenVersionResolver = new MavenVersionResolver();
 
+	/**
+	 * Configuration for project generation.
+	 */
+	private final Generation generation = new Generation();
+
+	/**
+	 * Configuration for the publication of statistics.
+	 */
+	private final Stats stats = new Stats();
+
+	/**
+	 * Configuration for the cache shared by the nodes of a cluster.
+	 */
+	private final SharedCache sharedCache = new SharedCache();
+
+	/**
+	 * Configuration for the startup of the application.
+	 */
+	private final Startup startup = new Startup();
+
 	public MavenVersionResolver getMavenVersionResolver() {
 		return this.mavenVersionResolver;
 	}
 
+	public Generation getGeneration() {
+		return this.generation;
+	}
+
+	public Stats getStats() {
+		return this.stats;
+	}
+
+	public SharedCache getSharedCache() {
+		return this.sharedCache;
+	}
+
+	public Startup getStartup() {
+		return this.startup;
+	}
+
 	public static class MavenVersionResolver {
 
 		/**
@@ -53,4 +96,1036 @@ public class StartConfigurationProperties {
 
 	}
 
+	public static class Generation {
+
+		/**
+		 * Maximum time a project generation request can take. Generations that are still
+		 * running past this deadline are abandoned.
+		 */
+		private Duration timeout = Duration.ofSeconds(30);
+
+		/**
+		 * Configuration for admission control of project generations.
+		 */
+		private final Admission admission = new Admission();
+
+		/**
+		 * Configuration for the profiling of generation extensions.
+		 */
+		private final Profiling profiling = new Profiling();
+
+		/**
+		 * Configuration for the cache of rendered build files.
+		 */
+		private final BuildFileCache buildFileCache = new BuildFileCache();
+
+		/**
+		 * Configuration for the tracking of popular requests.
+		 */
+		private final Popularity popularity = new Popularity();
+
+		/**
+		 * Configuration for the warming of caches with popular requests.
+		 */
+		private final Warming warming = new Warming();
+
+		/**
+		 * Configuration for the warm-up of the generation pipeline at startup.
+		 */
+		private final Warmup warmup = new Warmup();
+
+		/**
+		 * Configuration for the workspace in which projects are generated.
+		 */
+		private final Workspace workspace = new Workspace();
+
+		/**
+		 * Configuration for the writing of project archives.
+		 */
+		private final Archive archive = new Archive();
+
+		/**
+		 * Configuration for the generation of several projects in one call.
+		 */
+		private final Bulk bulk = new Bulk();
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+		public Admission getAdmission() {
+			return this.admission;
+		}
+
+		public Profiling getProfiling() {
+			return this.profiling;
+		}
+
+		public BuildFileCache getBuildFileCache() {
+			return this.buildFileCache;
+		}
+
+		public Popularity getPopularity() {
+			return this.popularity;
+		}
+
+		public Warming getWarming() {
+			return this.warming;
+		}
+
+		public Warmup getWarmup() {
+			return this.warmup;
+		}
+
+		public Workspace getWorkspace() {
+			return this.workspace;
+		}
+
+		public Archive getArchive() {
+			return this.archive;
+		}
+
+		public Bulk getBulk() {
+			return this.bulk;
+		}
+
+		public static class Admission {
+
+			/**
+			 * Whether to limit the number of concurrent project generations.
+			 */
+			private boolean enabled = true;
+
+			/**
+			 * Maximum number of project generations that can run concurrently.
+			 */
+			private int maxConcurrentGenerations = Runtime.getRuntime().availableProcessors() * 2;
+
+			/**
+			 * Maximum number of project generations that can wait for a slot. Further
+			 * requests are rejected immediately.
+			 */
+			private int queueCapacity = 100;
+
+			/**
+			 * Maximum time a project generation can wait for a slot before being rejected.
+			 */
+			private Duration maxQueueTime = Duration.ofSeconds(10);
+
+			/**
+			 * Delay to advertise to rejected clients using the "Retry-After" header.
+			 */
+			private Duration retryAfter = Duration.ofSeconds(5);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxConcurrentGenerations() {
+				return this.maxConcurrentGenerations;
+			}
+
+			public void setMaxConcurrentGenerations(int maxConcurrentGenerations) {
+				this.maxConcurrentGenerations = maxConcurrentGenerations;
+			}
+
+			public int getQueueCapacity() {
+				return this.queueCapacity;
+			}
+
+			public void setQueueCapacity(int queueCapacity) {
+				this.queueCapacity = queueCapacity;
+			}
+
+			public Duration getMaxQueueTime() {
+				return this.maxQueueTime;
+			}
+
+			public void setMaxQueueTime(Duration maxQueueTime) {
+				this.maxQueueTime = maxQueueTime;
+			}
+
+			public Duration getRetryAfter() {
+				return this.retryAfter;
+			}
+
+			public void setRetryAfter(Duration retryAfter) {
+				this.retryAfter = retryAfter;
+			}
+
+		}
+
+		public static class Profiling {
+
+			/**
+			 * Whether to record the time taken by each customizer and contributor. As
+			 * every extension of every generation is instrumented, profiling is meant to
+			 * be enabled for a diagnosis rather than permanently.
+			 */
+			private boolean enabled;
+
+			/**
+			 * Number of recent generations to keep to rank extensions.
+			 */
+			private int recentGenerations = 500;
+
+			/**
+			 * Measure thread allocations every n-th generation. Set to 0 to disable
+			 * allocation sampling.
+			 */
+			private int allocationSamplingInterval = 10;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getRecentGenerations() {
+				return this.recentGenerations;
+			}
+
+			public void setRecentGenerations(int recentGenerations) {
+				this.recentGenerations = recentGenerations;
+			}
+
+			public int getAllocationSamplingInterval() {
+				return this.allocationSamplingInterval;
+			}
+
+			public void setAllocationSamplingInterval(int allocationSamplingInterval) {
+				this.allocationSamplingInterval = allocationSamplingInterval;
+			}
+
+		}
+
+		public static class BuildFileCache {
+
+			/**
+			 * Whether to cache the build files served by the "/pom.xml" and
+			 * "/build.gradle" endpoints.
+			 */
+			private boolean enabled = true;
+
+			/**
+			 * Maximum number of build files to keep.
+			 */
+			private int maxEntries = 512;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxEntries() {
+				return this.maxEntries;
+			}
+
+			public void setMaxEntries(int maxEntries) {
+				this.maxEntries = maxEntries;
+			}
+
+		}
+
+		public static class Popularity {
+
+			/**
+			 * Number of requests and of dependencies to track.
+			 */
+			private int capacity = 100;
+
+			public int getCapacity() {
+				return this.capacity;
+			}
+
+			public void setCapacity(int capacity) {
+				this.capacity = capacity;
+			}
+
+		}
+
+		public static class Warming {
+
+			/**
+			 * Whether to generate the build files of the most popular requests at startup
+			 * and when the metadata is refreshed.
+			 */
+			private boolean enabled = true;
+
+			/**
+			 * Number of popular requests to generate.
+			 */
+			private int requests = 20;
+
+			/**
+			 * File to store popular requests to on shutdown, and to restore them from on
+			 * startup. Should be in a directory that only the application can access, as
+			 * it holds the attributes of user requests. If not set, popular requests are
+			 * not stored.
+			 */
+			private String snapshotFile;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getRequests() {
+				return this.requests;
+			}
+
+			public void setRequests(int requests) {
+				this.requests = requests;
+			}
+
+			public String getSnapshotFile() {
+				return this.snapshotFile;
+			}
+
+			public void setSnapshotFile(String snapshotFile) {
+				this.snapshotFile = snapshotFile;
+			}
+
+		}
+
+		public static class Warmup {
+
+			/**
+			 * Whether to generate projects before the application accepts traffic, until
+			 * their latency reaches a plateau.
+			 */
+			private boolean enabled;
+
+			/**
+			 * Synthetic requests to generate, each defined by the attributes that differ
+			 * from the defaults, such as "dependencies: web,data-jpa".
+			 */
+			private List<Map<String, String>> requests = new ArrayList<>();
+
+			/**
+			 * Number of popular requests, recorded by previous runs, to generate.
+			 */
+			private int popularRequests = 10;
+
+			/**
+			 * Number of generations after which the warm-up completes, even if the latency
+			 * has not reached a plateau.
+			 */
+			private int iterations = 500;
+
+			/**
+			 * Number of generations whose median latency is compared to the previous one
+			 * to detect a plateau.
+			 */
+			private int window = 50;
+
+			/**
+			 * Relative difference between two median latencies below which the latency
+			 * has reached a plateau.
+			 */
+			private double plateauTolerance = 0.05;
+
+			/**
+			 * Maximum duration of the warm-up.
+			 */
+			private Duration maxDuration = Duration.ofMinutes(2);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public List<Map<String, String>> getRequests() {
+				return this.requests;
+			}
+
+			public void setRequests(List<Map<String, String>> requests) {
+				this.requests = requests;
+			}
+
+			public int getPopularRequests() {
+				return this.popularRequests;
+			}
+
+			public void setPopularRequests(int popularRequests) {
+				this.popularRequests = popularRequests;
+			}
+
+			public int getIterations() {
+				return this.iterations;
+			}
+
+			public void setIterations(int iterations) {
+				this.iterations = iterations;
+			}
+
+			public int getWindow() {
+				return this.window;
+			}
+
+			public void setWindow(int window) {
+				this.window = window;
+			}
+
+			public double getPlateauTolerance() {
+				return this.plateauTolerance;
+			}
+
+			public void setPlateauTolerance(double plateauTolerance) {
+				this.plateauTolerance = plateauTolerance;
+			}
+
+			public Duration getMaxDuration() {
+				return this.maxDuration;
+			}
+
+			public void setMaxDuration(Duration maxDuration) {
+				this.maxDuration = maxDuration;
+			}
+
+		}
+
+		public static class Workspace {
+
+			/**
+			 * Directory in which projects are generated, such as a tmpfs mount. The
+			 * directory must not be shared as its content is deleted on startup. If not
+			 * set, projects are generated in the temporary directory and deleted on the
+			 * request thread.
+			 */
+			private String directory;
+
+			/**
+			 * Maximum size of the workspace. New generations are refused once it is
+			 * reached.
+			 */
+			private DataSize maxSize = DataSize.ofGigabytes(1);
+
+			/**
+			 * Maximum number of files and directories in the workspace. New generations
+			 * are refused once it is reached.
+			 */
+			private long maxInodes = 500000;
+
+			/**
+			 * Size reserved for a project while it is being generated, so that
+			 * concurrent generations are accounted for before they complete.
+			 */
+			private DataSize projectSizeEstimate = DataSize.ofKilobytes(256);
+
+			/**
+			 * Number of files and directories reserved for a project while it is being
+			 * generated.
+			 */
+			private long projectInodesEstimate = 64;
+
+			/**
+			 * Maximum number of finished projects to delete in a batch.
+			 */
+			private int cleanupBatchSize = 64;
+
+			public String getDirectory() {
+				return this.directory;
+			}
+
+			public void setDirectory(String directory) {
+				this.directory = directory;
+			}
+
+			public DataSize getMaxSize() {
+				return this.maxSize;
+			}
+
+			public void setMaxSize(DataSize maxSize) {
+				this.maxSize = maxSize;
+			}
+
+			public long getMaxInodes() {
+				return this.maxInodes;
+			}
+
+			public void setMaxInodes(long maxInodes) {
+				this.maxInodes = maxInodes;
+			}
+
+			public DataSize getProjectSizeEstimate() {
+				return this.projectSizeEstimate;
+			}
+
+			public void setProjectSizeEstimate(DataSize projectSizeEstimate) {
+				this.projectSizeEstimate = projectSizeEstimate;
+			}
+
+			public long getProjectInodesEstimate() {
+				return this.projectInodesEstimate;
+			}
+
+			public void setProjectInodesEstimate(long projectInodesEstimate) {
+				this.projectInodesEstimate = projectInodesEstimate;
+			}
+
+			public int getCleanupBatchSize() {
+				return this.cleanupBatchSize;
+			}
+
+			public void setCleanupBatchSize(int cleanupBatchSize) {
+				this.cleanupBatchSize = cleanupBatchSize;
+			}
+
+		}
+
+		public static class Archive {
+
+			/**
+			 * Whether to write archives with the service's archiver, that stores files
+			 * that are already compressed and deflates large entries in parallel.
+			 */
+			private boolean enabled = true;
+
+			/**
+			 * Number of threads that deflate large entries.
+			 */
+			private int parallelism = Runtime.getRuntime().availableProcessors();
+
+			/**
+			 * Size of the chunks that are deflated in parallel.
+			 */
+			private DataSize chunkSize = DataSize.ofKilobytes(128);
+
+			/**
+			 * Compression level per archive format, from 0 to 9 for "zip" and "tgz" and
+			 * from 1 to 22 for "zst". Formats that are not listed use the default level
+			 * of 6, or 3 for "zst".
+			 */
+			private final Map<String, Integer> compressionLevel = new HashMap<>();
+
+			/**
+			 * Ant-style patterns of the files that are identical in every project and
+			 * whose compressed content is kept in memory to be spliced in zip archives.
+			 */
+			private List<String> sharedFiles = new ArrayList<>(List.of("**/mvnw", "**/mvnw.cmd", "**/gradlew",
+					"**/gradlew.bat", "**/.mvn/wrapper/*", "**/gradle/wrapper/*", "**/src/main/resources/static/**",
+					"**/.gitlab-ci.yml", "**/assembly.xml"));
+
+			/**
+			 * Maximum size of the compressed shared files kept in memory.
+			 */
+			private DataSize sharedFilesCacheSize = DataSize.ofMegabytes(16);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getParallelism() {
+				return this.parallelism;
+			}
+
+			public void setParallelism(int parallelism) {
+				this.parallelism = parallelism;
+			}
+
+			public DataSize getChunkSize() {
+				return this.chunkSize;
+			}
+
+			public void setChunkSize(DataSize chunkSize) {
+				this.chunkSize = chunkSize;
+			}
+
+			public Map<String, Integer> getCompressionLevel() {
+				return this.compressionLevel;
+			}
+
+			public List<String> getSharedFiles() {
+				return this.sharedFiles;
+			}
+
+			public void setSharedFiles(List<String> sharedFiles) {
+				this.sharedFiles = sharedFiles;
+			}
+
+			public DataSize getSharedFilesCacheSize() {
+				return this.sharedFilesCacheSize;
+			}
+
+			public void setSharedFilesCacheSize(DataSize sharedFilesCacheSize) {
+				this.sharedFilesCacheSize = sharedFilesCacheSize;
+			}
+
+		}
+
+		public static class Bulk {
+
+			/**
+			 * Whether to expose the endpoints that generate several projects, or a
+			 * multi-module project, in one call.
+			 */
+			private boolean enabled;
+
+			/**
+			 * Maximum number of projects that can be generated in one call.
+			 */
+			private int maxProjects = 50;
+
+			/**
+			 * Number of threads that generate the projects of bulk requests, shared by all
+			 * requests.
+			 */
+			private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxProjects() {
+				return this.maxProjects;
+			}
+
+			public void setMaxProjects(int maxProjects) {
+				this.maxProjects = maxProjects;
+			}
+
+			public int getParallelism() {
+				return this.parallelism;
+			}
+
+			public void setParallelism(int parallelism) {
+				this.parallelism = parallelism;
+			}
+
+		}
+
+	}
+
+	public static class Stats {
+
+		/**
+		 * Maximum number of statistics documents waiting to be published. Further
+		 * documents are spooled to disk.
+		 */
+		private int queueCapacity = 10000;
+
+		/**
+		 * Maximum number of statistics documents to publish in a single bulk request.
+		 */
+		private int batchSize = 500;
+
+		/**
+		 * Maximum time a statistics document waits for its batch to be full.
+		 */
+		private Duration flushInterval = Duration.ofSeconds(5);
+
+		/**
+		 * Configuration for the spool of statistics documents that could not be
+		 * published.
+		 */
+		private final Spool spool = new Spool();
+
+		public int getQueueCapacity() {
+			return this.queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Duration getFlushInterval() {
+			return this.flushInterval;
+		}
+
+		public void setFlushInterval(Duration flushInterval) {
+			this.flushInterval = flushInterval;
+		}
+
+		public Spool getSpool() {
+			return this.spool;
+		}
+
+		public static class Spool {
+
+			/**
+			 * Directory to use for the spool. Should only be accessible by the
+			 * application, as the spool holds client details. If not set, a directory
+			 * named after the current user in the temporary directory will be used.
+			 */
+			private String directory;
+
+			/**
+			 * Maximum size of the spool. The oldest documents are discarded when it is
+			 * exceeded.
+			 */
+			private DataSize maxSize = DataSize.ofMegabytes(256);
+
+			/**
+			 * Size at which a spool file is closed and a new one is started.
+			 */
+			private DataSize segmentSize = DataSize.ofMegabytes(4);
+
+			public String getDirectory() {
+				return this.directory;
+			}
+
+			public void setDirectory(String directory) {
+				this.directory = directory;
+			}
+
+			public DataSize getMaxSize() {
+				return this.maxSize;
+			}
+
+			public void setMaxSize(DataSize maxSize) {
+				this.maxSize = maxSize;
+			}
+
+			public DataSize getSegmentSize() {
+				return this.segmentSize;
+			}
+
+			public void setSegmentSize(DataSize segmentSize) {
+				this.segmentSize = segmentSize;
+			}
+
+		}
+
+	}
+
+	public static class SharedCache {
+
+		/**
+		 * Type of the shared store. If not set, caches are local to each node.
+		 */
+		private Type type = Type.NONE;
+
+		/**
+		 * Namespace of the shared keys. If not set, the commit or version of the
+		 * application is used so that nodes running different versions do not exchange
+		 * entries.
+		 */
+		private String namespace;
+
+		/**
+		 * Time after which shared entries expire.
+		 */
+		private Duration timeToLive = Duration.ofHours(12);
+
+		/**
+		 * Interval at which invalidations by other nodes are checked.
+		 */
+		private Duration invalidationInterval = Duration.ofSeconds(10);
+
+		/**
+		 * Names of the application caches that are backed by the shared store.
+		 */
+		private List<String> cacheNames = new ArrayList<>(List.of("initializr.metadata"));
+
+		/**
+		 * Whether rendered build files are shared.
+		 */
+		private boolean buildFiles = true;
+
+		/**
+		 * Configuration for the filesystem store.
+		 */
+		private final Filesystem filesystem = new Filesystem();
+
+		/**
+		 * Configuration for the Redis store.
+		 */
+		private final Redis redis = new Redis();
+
+		public Type getType() {
+			return this.type;
+		}
+
+		public void setType(Type type) {
+			this.type = type;
+		}
+
+		public String getNamespace() {
+			return this.namespace;
+		}
+
+		public void setNamespace(String namespace) {
+			this.namespace = namespace;
+		}
+
+		public Duration getTimeToLive() {
+			return this.timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public Duration getInvalidationInterval() {
+			return this.invalidationInterval;
+		}
+
+		public void setInvalidationInterval(Duration invalidationInterval) {
+			this.invalidationInterval = invalidationInterval;
+		}
+
+		public List<String> getCacheNames() {
+			return this.cacheNames;
+		}
+
+		public void setCacheNames(List<String> cacheNames) {
+			this.cacheNames = cacheNames;
+		}
+
+		public boolean isBuildFiles() {
+			return this.buildFiles;
+		}
+
+		public void setBuildFiles(boolean buildFiles) {
+			this.buildFiles = buildFiles;
+		}
+
+		public Filesystem getFilesystem() {
+			return this.filesystem;
+		}
+
+		public Redis getRedis() {
+			return this.redis;
+		}
+
+		public enum Type {
+
+			/**
+			 * No shared store.
+			 */
+			NONE,
+
+			/**
+			 * A directory shared by the nodes, such as an NFS mount.
+			 */
+			FILESYSTEM,
+
+			/**
+			 * A server that speaks the Redis protocol.
+			 */
+			REDIS
+
+		}
+
+		public static class Filesystem {
+
+			/**
+			 * Shared directory to store entries in.
+			 */
+			private String directory;
+
+			public String getDirectory() {
+				return this.directory;
+			}
+
+			public void setDirectory(String directory) {
+				this.directory = directory;
+			}
+
+		}
+
+		public static class Redis {
+
+			/**
+			 * Host of the server.
+			 */
+			private String host = "localhost";
+
+			/**
+			 * Port of the server.
+			 */
+			private int port = 6379;
+
+			/**
+			 * Connect and read timeout.
+			 */
+			private Duration timeout = Duration.ofSeconds(1);
+
+			/**
+			 * Maximum number of idle connections to keep for reuse.
+			 */
+			private int maxIdleConnections = 8;
+
+			/**
+			 * User to authenticate as. If not set, the default user is used.
+			 */
+			private String username;
+
+			/**
+			 * Password to authenticate with. If not set, connections are not
+			 * authenticated.
+			 */
+			private String password;
+
+			private final Ssl ssl = new Ssl();
+
+			public String getHost() {
+				return this.host;
+			}
+
+			public void setHost(String host) {
+				this.host = host;
+			}
+
+			public int getPort() {
+				return this.port;
+			}
+
+			public void setPort(int port) {
+				this.port = port;
+			}
+
+			public Duration getTimeout() {
+				return this.timeout;
+			}
+
+			public void setTimeout(Duration timeout) {
+				this.timeout = timeout;
+			}
+
+			public int getMaxIdleConnections() {
+				return this.maxIdleConnections;
+			}
+
+			public void setMaxIdleConnections(int maxIdleConnections) {
+				this.maxIdleConnections = maxIdleConnections;
+			}
+
+			public String getUsername() {
+				return this.username;
+			}
+
+			public void setUsername(String username) {
+				this.username = username;
+			}
+
+			public String getPassword() {
+				return this.password;
+			}
+
+			public void setPassword(String password) {
+				this.password = password;
+			}
+
+			public Ssl getSsl() {
+				return this.ssl;
+			}
+
+			public static class Ssl {
+
+				/**
+				 * Whether to connect over TLS. Implied if a bundle is set.
+				 */
+				private boolean enabled;
+
+				/**
+				 * SSL bundle to use. If not set, the default trust store of the JVM is
+				 * used.
+				 */
+				private String bundle;
+
+				public boolean isEnabled() {
+					return this.enabled;
+				}
+
+				public void setEnabled(boolean enabled) {
+					this.enabled = enabled;
+				}
+
+				public String getBundle() {
+					return this.bundle;
+				}
+
+				public void setBundle(String bundle) {
+					this.bundle = bundle;
+				}
+
+			}
+
+		}
+
+	}
+
+	public static class Startup {
+
+		/**
+		 * Whether to run independent initializers, such as the retrieval of the
+		 * metadata, in parallel while the application starts.
+		 */
+		private boolean parallelInitialization;
+
+		/**
+		 * Maximum time to wait for the initializers before the application is ready.
+		 */
+		private Duration initializationTimeout = Duration.ofMinutes(1);
+
+		/**
+		 * Whether to record the startup timeline and expose it on the startup actuator
+		 * endpoint. Only read from the command line, system properties and environment
+		 * variables as it applies before the configuration files are loaded.
+		 */
+		private boolean timeline;
+
+		public boolean isParallelInitialization() {
+			return this.parallelInitialization;
+		}
+
+		public void setParallelInitialization(boolean parallelInitialization) {
+			this.parallelInitialization = parallelInitialization;
+		}
+
+		public Duration getInitializationTimeout() {
+			return this.initializationTimeout;
+		}
+
+		public void setInitializationTimeout(Duration initializationTimeout) {
+			this.initializationTimeout = initializationTimeout;
+		}
+
+		public boolean isTimeline() {
+			return this.timeline;
+		}
+
+		public void setTimeline(boolean timeline) {
+			this.timeline = timeline;
+		}
+
+	}
+
 }
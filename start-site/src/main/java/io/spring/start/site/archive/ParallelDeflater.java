@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+import org.springframework.util.Assert;
+
+/**
+ * Produces raw deflate streams by compressing fixed-size chunks in parallel, in the
+ * manner of {@code pigz}. Each chunk is primed with the last 32KB of the previous one so
+ * that the compression ratio is close to the one of a sequential stream, and every chunk
+ * but the last one ends with a sync flush so that the compressed chunks can be
+ * concatenated.
+ *
+ * @author agent
+ */
+final class ParallelDeflater {
+
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+
+	private final Executor executor;
+
+	private final int chunkSize;
+
+	private final ThreadLocal<Deflater[]> deflaters = ThreadLocal.withInitial(() -> new Deflater[11]);
+
+	/**
+	 * Create a new instance.
+	 * @param executor the executor to compress chunks with, or {@code null} to compress
+	 * them on the calling thread
+	 * @param chunkSize the size of a chunk, in bytes
+	 */
+	ParallelDeflater(Executor executor, int chunkSize) {
+		Assert.isTrue(chunkSize >= DICTIONARY_SIZE, "'chunkSize' must be at least " + DICTIONARY_SIZE);
+		this.executor = executor;
+		this.chunkSize = chunkSize;
+	}
+
+	int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	/**
+	 * Compress the specified content as a complete raw deflate stream.
+	 * @param content the content to compress
+	 * @param level the compression level
+	 * @return the compressed content
+	 */
+	CompletableFuture<byte[]> deflate(byte[] content, int level) {
+		List<CompletableFuture<byte[]>> chunks = new ArrayList<>();
+		int offset = 0;
+		do {
+			int chunkLength = Math.min(this.chunkSize, content.length - offset);
+			boolean last = offset + chunkLength == content.length;
+			int dictionaryOffset = Math.max(0, offset - DICTIONARY_SIZE);
+			chunks.add(deflateAsync(content, offset, chunkLength, content, dictionaryOffset,
+					offset - dictionaryOffset, level, last));
+			offset += chunkLength;
+		}
+		while (offset < content.length);
+		return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply((ignored) -> {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+			chunks.forEach((chunk) -> compressed.writeBytes(chunk.join()));
+			return compressed.toByteArray();
+		});
+	}
+
+	/**
+	 * Compress the specified chunk, primed with the end of the previous one.
+	 * @param chunk the chunk to compress
+	 * @param length the length of the chunk
+	 * @param previous the previous chunk or {@code null}
+	 * @param previousLength the length of the previous chunk
+	 * @param level the compression level
+	 * @param last whether this is the last chunk of the stream
+	 * @return the compressed chunk
+	 */
+	CompletableFuture<byte[]> deflateAsync(byte[] chunk, int length, byte[] previous, int previousLength, int level,
+			boolean last) {
+		int dictionaryLength = (previous != null) ? Math.min(DICTIONARY_SIZE, previousLength) : 0;
+		return deflateAsync(chunk, 0, length, previous, previousLength - dictionaryLength, dictionaryLength, level,
+				last);
+	}
+
+	private CompletableFuture<byte[]> deflateAsync(byte[] content, int offset, int length, byte[] dictionary,
+			int dictionaryOffset, int dictionaryLength, int level, boolean last) {
+		if (this.executor == null) {
+			Deflater deflater = new Deflater(level, true);
+			try {
+				byte[] compressed = deflateChunk(deflater, content, offset, length, dictionary, dictionaryOffset,
+						dictionaryLength, last);
+				return CompletableFuture.completedFuture(compressed);
+			}
+			finally {
+				deflater.end();
+			}
+		}
+		return CompletableFuture.supplyAsync(() -> deflateChunk(deflater(level), content, offset, length, dictionary,
+				dictionaryOffset, dictionaryLength, last), this.executor);
+	}
+
+	private Deflater deflater(int level) {
+		// Compression threads are long-lived, keep a deflater per level rather than
+		// allocating its native state for each chunk
+		Deflater[] deflaters = this.deflaters.get();
+		Deflater deflater = deflaters[level + 1];
+		if (deflater == null) {
+			deflater = new Deflater(level, true);
+			deflaters[level + 1] = deflater;
+		}
+		deflater.reset();
+		return deflater;
+	}
+
+	/**
+	 * Compress the specified content with the specified deflater.
+	 * @param deflater a deflater that has been reset
+	 * @param content the content to compress
+	 * @param offset the offset of the content
+	 * @param length the length of the content
+	 * @param dictionary the preset dictionary or {@code null}
+	 * @param dictionaryOffset the offset of the dictionary
+	 * @param dictionaryLength the length of the dictionary
+	 * @param last whether the content ends the stream
+	 * @return the compressed content
+	 */
+	static byte[] deflateChunk(Deflater deflater, byte[] content, int offset, int length, byte[] dictionary,
+			int dictionaryOffset, int dictionaryLength, boolean last) {
+		if (dictionary != null && dictionaryLength > 0) {
+			deflater.setDictionary(dictionary, dictionaryOffset, dictionaryLength);
+		}
+		deflater.setInput(content, offset, length);
+		if (last) {
+			deflater.finish();
+		}
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+		byte[] buffer = new byte[Math.max(512, Math.min(length, 64 * 1024))];
+		while (true) {
+			int count = deflater.deflate(buffer, 0, buffer.length, (last) ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+			compressed.write(buffer, 0, count);
+			if ((last) ? deflater.finished() : count < buffer.length) {
+				return compressed.toByteArray();
+			}
+		}
+	}
+
+}
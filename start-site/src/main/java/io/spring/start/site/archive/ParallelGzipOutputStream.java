@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link OutputStream} that writes the GZIP format, compressing chunks of the
+ * content in parallel using a {@link ParallelDeflater}. Content that is known not to
+ * compress, such as the content of a jar, can be {@link #setCompressible(boolean)
+ * flagged} so that it is stored rather than deflated.
+ *
+ * @author agent
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private static final int MAX_PENDING_CHUNKS = 16;
+
+	private final OutputStream out;
+
+	private final ParallelDeflater deflater;
+
+	private final int level;
+
+	private final CRC32 crc = new CRC32();
+
+	private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+	private byte[] buffer;
+
+	private int count;
+
+	private byte[] previous;
+
+	private int previousLength;
+
+	private long size;
+
+	private boolean compressible = true;
+
+	private boolean finished;
+
+	ParallelGzipOutputStream(OutputStream out, ParallelDeflater deflater, int level) throws IOException {
+		this.out = out;
+		this.deflater = deflater;
+		this.level = level;
+		this.buffer = new byte[deflater.getChunkSize()];
+		out.write(HEADER);
+	}
+
+	/**
+	 * Specify whether the content written next is worth compressing.
+	 * @param compressible whether the content should be compressed
+	 * @throws IOException if an I/O error occurs
+	 */
+	void setCompressible(boolean compressible) throws IOException {
+		if (this.compressible != compressible) {
+			if (this.count > 0) {
+				submit(false);
+			}
+			this.compressible = compressible;
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.crc.update(b, off, len);
+		this.size += len;
+		int offset = off;
+		int remaining = len;
+		while (remaining > 0) {
+			int length = Math.min(remaining, this.buffer.length - this.count);
+			System.arraycopy(b, offset, this.buffer, this.count, length);
+			this.count += length;
+			offset += length;
+			remaining -= length;
+			if (this.count == this.buffer.length) {
+				submit(false);
+			}
+		}
+	}
+
+	private void submit(boolean last) throws IOException {
+		int chunkLevel = (this.compressible) ? this.level : Deflater.NO_COMPRESSION;
+		this.pending.add(this.deflater.deflateAsync(this.buffer, this.count, this.previous, this.previousLength,
+				chunkLevel, last));
+		// Chunks are not reused as they are still being compressed
+		this.previous = this.buffer;
+		this.previousLength = this.count;
+		this.buffer = new byte[this.buffer.length];
+		this.count = 0;
+		while (this.pending.size() > MAX_PENDING_CHUNKS) {
+			this.out.write(this.pending.removeFirst().join());
+		}
+	}
+
+	/**
+	 * Finish writing compressed data without closing the underlying stream.
+	 * @throws IOException if an I/O error occurs
+	 */
+	void finish() throws IOException {
+		if (this.finished) {
+			return;
+		}
+		this.finished = true;
+		submit(true);
+		while (!this.pending.isEmpty()) {
+			this.out.write(this.pending.removeFirst().join());
+		}
+		writeInt((int) this.crc.getValue());
+		writeInt((int) this.size);
+	}
+
+	private void writeInt(int value) throws IOException {
+		this.out.write(value & 0xff);
+		this.out.write((value >> 8) & 0xff);
+		this.out.write((value >> 16) & 0xff);
+		this.out.write((value >> 24) & 0xff);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		}
+		finally {
+			this.out.close();
+		}
+	}
+
+}
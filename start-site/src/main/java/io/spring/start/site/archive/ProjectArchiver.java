@@ -0,0 +1,365 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import io.spring.start.site.archive.SharedBlobs.Blob;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.StringUtils;
+
+/**
+ * Writes a generated project as a {@code zip}, a {@code tgz}, a {@code tar.zst} or an
+ * uncompressed {@code tar} archive. Files that are
+ * already compressed, such as jars, images and fonts, are stored as is. Large entries
+ * are deflated in parallel chunks. Files that are identical in every project, such as
+ * the wrapper scripts and jars, can be encoded once and spliced in each {@code zip}
+ * archive.
+ * <p>
+ * If the executor used to compress large entries is an {@link ExecutorService}, it is
+ * shut down when this instance is destroyed.
+ *
+ * @author agent
+ */
+public class ProjectArchiver implements DisposableBean {
+
+	/**
+	 * Extensions of the files that are already compressed.
+	 */
+	static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of("jar", "war", "zip", "gz", "tgz", "bz2", "xz", "zst",
+			"7z", "png", "jpg", "jpeg", "gif", "webp", "ico", "woff", "woff2", "eot", "mp3", "mp4", "pdf");
+
+	/**
+	 * The default Zstandard compression level.
+	 */
+	static final int DEFAULT_ZSTD_COMPRESSION_LEVEL = 3;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_PENDING_ENTRIES = 16;
+
+	private final Executor executor;
+
+	private final ParallelDeflater deflater;
+
+	private final Map<String, Integer> compressionLevels;
+
+	private final SharedBlobs sharedBlobs;
+
+	/**
+	 * Create a new instance that encodes every file for each archive.
+	 * @param executor the executor to compress large entries with, or {@code null} to
+	 * compress them on the calling thread
+	 * @param chunkSize the size of the chunks that are compressed in parallel, in bytes
+	 * @param compressionLevels the compression level per archive format, such as
+	 * {@code zip}, {@code tgz} or {@code zst}
+	 */
+	public ProjectArchiver(Executor executor, int chunkSize, Map<String, Integer> compressionLevels) {
+		this(executor, chunkSize, compressionLevels, Collections.emptyList(), 0);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param executor the executor to compress large entries with, or {@code null} to
+	 * compress them on the calling thread
+	 * @param chunkSize the size of the chunks that are compressed in parallel, in bytes
+	 * @param compressionLevels the compression level per archive format, such as
+	 * {@code zip}, {@code tgz} or {@code zst}
+	 * @param sharedFiles the ant-style patterns of the entries that are identical in
+	 * every project
+	 * @param sharedFilesCacheSize the maximum size of the encoded shared files kept in
+	 * memory, in bytes
+	 */
+	public ProjectArchiver(Executor executor, int chunkSize, Map<String, Integer> compressionLevels,
+			List<String> sharedFiles, long sharedFilesCacheSize) {
+		this.executor = executor;
+		this.deflater = new ParallelDeflater(executor, chunkSize);
+		this.compressionLevels = Map.copyOf(compressionLevels);
+		this.sharedBlobs = (!sharedFiles.isEmpty() && sharedFilesCacheSize > 0)
+				? new SharedBlobs(sharedFiles, sharedFilesCacheSize) : null;
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor instanceof ExecutorService executorService) {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Return the compression level of the specified archive format.
+	 * @param format the archive format
+	 * @return the compression level
+	 */
+	public int getCompressionLevel(String format) {
+		int defaultLevel = ("zst".equals(format)) ? DEFAULT_ZSTD_COMPRESSION_LEVEL : Deflater.DEFAULT_COMPRESSION;
+		return this.compressionLevels.getOrDefault(format, defaultLevel);
+	}
+
+	/**
+	 * Write the specified project as a {@code zip} archive.
+	 * @param root the root directory of the project
+	 * @param wrapperScript the name of the wrapper script, which is made executable
+	 * @param out the stream to write to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void writeZip(Path root, String wrapperScript, OutputStream out) throws IOException {
+		writeZip(List.of(new ArchivedProject(root, wrapperScript)), out);
+	}
+
+	/**
+	 * Write the specified projects as a single {@code zip} archive. The entries of each
+	 * project are named relative to its root directory, so each project should be
+	 * generated in a distinct base directory. Directories shared by several projects are
+	 * only written once.
+	 * @param projects the projects to write
+	 * @param out the stream to write to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void writeZip(List<ArchivedProject> projects, OutputStream out) throws IOException {
+		int level = getCompressionLevel("zip");
+		Deque<CompletableFuture<ZipEntryContent>> pending = new ArrayDeque<>();
+		Set<String> directories = new HashSet<>();
+		Deflater deflater = new Deflater(level, true);
+		try (ZipArchiveOutputStream output = new ZipArchiveOutputStream(out)) {
+			for (ArchivedProject project : projects) {
+				for (Path path : entries(project.root())) {
+					String name = getEntryName(project.root(), path);
+					if (Files.isDirectory(path) && !directories.add(name)) {
+						continue;
+					}
+					ZipArchiveEntry entry = new ZipArchiveEntry(path.toFile(), name);
+					entry.setUnixMode(getUnixMode(project.wrapperScript(), name, path));
+					pending.addLast(zipEntryContent(entry, path, level, deflater));
+					// Entries are written in order so that only a few are held in memory
+					while (pending.size() > MAX_PENDING_ENTRIES) {
+						write(output, pending.removeFirst().join());
+					}
+				}
+			}
+			while (!pending.isEmpty()) {
+				write(output, pending.removeFirst().join());
+			}
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private void write(ZipArchiveOutputStream output, ZipEntryContent entry) throws IOException {
+		if (entry.content() == null) {
+			output.putArchiveEntry(entry.entry());
+			output.closeArchiveEntry();
+		}
+		else {
+			output.addRawArchiveEntry(entry.entry(), new ByteArrayInputStream(entry.content()));
+		}
+	}
+
+	private CompletableFuture<ZipEntryContent> zipEntryContent(ZipArchiveEntry entry, Path path, int level,
+			Deflater deflater) throws IOException {
+		if (Files.isDirectory(path)) {
+			return CompletableFuture.completedFuture(new ZipEntryContent(entry, null));
+		}
+		byte[] content = Files.readAllBytes(path);
+		String name = entry.getName();
+		if (this.sharedBlobs == null || !this.sharedBlobs.isShared(name)) {
+			return encode(name, content, level, deflater).thenApply((blob) -> zipEntryContent(entry, blob));
+		}
+		Blob shared = this.sharedBlobs.get(name, content, level);
+		if (shared != null) {
+			return CompletableFuture.completedFuture(zipEntryContent(entry, shared));
+		}
+		return encode(name, content, level, deflater).thenApply((blob) -> {
+			this.sharedBlobs.put(name, level, blob);
+			return zipEntryContent(entry, blob);
+		});
+	}
+
+	private CompletableFuture<Blob> encode(String name, byte[] content, int level, Deflater deflater) {
+		if (isPrecompressed(name) || level == Deflater.NO_COMPRESSION) {
+			return CompletableFuture.completedFuture(stored(content));
+		}
+		if (content.length > this.deflater.getChunkSize()) {
+			return this.deflater.deflate(content, level).thenApply((compressed) -> deflated(content, compressed));
+		}
+		// Small entries are not worth handing over to another thread
+		deflater.reset();
+		byte[] compressed = ParallelDeflater.deflateChunk(deflater, content, 0, content.length, null, 0, 0, true);
+		return CompletableFuture.completedFuture(deflated(content, compressed));
+	}
+
+	private Blob stored(byte[] content) {
+		return new Blob(content, ZipEntry.STORED, content, crc(content));
+	}
+
+	private Blob deflated(byte[] content, byte[] compressed) {
+		if (compressed.length >= content.length) {
+			return stored(content);
+		}
+		return new Blob(content, ZipEntry.DEFLATED, compressed, crc(content));
+	}
+
+	private ZipEntryContent zipEntryContent(ZipArchiveEntry entry, Blob blob) {
+		entry.setMethod(blob.method());
+		entry.setSize(blob.content().length);
+		entry.setCompressedSize(blob.data().length);
+		entry.setCrc(blob.crc());
+		return new ZipEntryContent(entry, blob.data());
+	}
+
+	private long crc(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		return crc.getValue();
+	}
+
+	/**
+	 * Write the specified project as a {@code tgz} archive.
+	 * @param root the root directory of the project
+	 * @param wrapperScript the name of the wrapper script, which is made executable
+	 * @param out the stream to write to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void writeTgz(Path root, String wrapperScript, OutputStream out) throws IOException {
+		ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(out, this.deflater, getCompressionLevel("tgz"));
+		writeTar(root, wrapperScript, gzip, gzip::setCompressible);
+	}
+
+	/**
+	 * Write the specified project as a Zstandard-compressed {@code tar} archive.
+	 * @param root the root directory of the project
+	 * @param wrapperScript the name of the wrapper script, which is made executable
+	 * @param out the stream to write to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void writeTarZst(Path root, String wrapperScript, OutputStream out) throws IOException {
+		ZstdOutputStream zstd = new ZstdOutputStream(out, getCompressionLevel("zst"));
+		writeTar(root, wrapperScript, new BufferedOutputStream(zstd, BUFFER_SIZE), null);
+	}
+
+	/**
+	 * Write the specified project as an uncompressed {@code tar} archive.
+	 * @param root the root directory of the project
+	 * @param wrapperScript the name of the wrapper script, which is made executable
+	 * @param out the stream to write to
+	 * @throws IOException if the archive could not be written
+	 */
+	public void writeTar(Path root, String wrapperScript, OutputStream out) throws IOException {
+		writeTar(root, wrapperScript, new BufferedOutputStream(out, BUFFER_SIZE), null);
+	}
+
+	private void writeTar(Path root, String wrapperScript, OutputStream out, Consumer<Boolean> compressible)
+			throws IOException {
+		// Records are written as they are complete so that stored content is flagged
+		try (TarArchiveOutputStream output = new TarArchiveOutputStream(out, 512)) {
+			output.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+			for (Path path : entries(root)) {
+				String name = getEntryName(root, path);
+				TarArchiveEntry entry = new TarArchiveEntry(path.toFile(), name);
+				entry.setMode(getUnixMode(wrapperScript, name, path));
+				output.putArchiveEntry(entry);
+				if (!Files.isDirectory(path)) {
+					if (compressible != null) {
+						compressible.accept(!isPrecompressed(name));
+					}
+					Files.copy(path, output);
+				}
+				output.closeArchiveEntry();
+				if (compressible != null) {
+					compressible.accept(true);
+				}
+			}
+		}
+	}
+
+	private List<Path> entries(Path root) throws IOException {
+		try (Stream<Path> paths = Files.walk(root)) {
+			return paths.filter((path) -> !path.equals(root)).toList();
+		}
+	}
+
+	private String getEntryName(Path root, Path path) {
+		String entryName = root.relativize(path).toString().replace('\\', '/');
+		return (Files.isDirectory(path)) ? entryName + "/" : entryName;
+	}
+
+	private int getUnixMode(String wrapperScript, String entryName, Path path) {
+		if (Files.isDirectory(path)) {
+			return UnixStat.DIR_FLAG | UnixStat.DEFAULT_DIR_PERM;
+		}
+		if (entryName.equals(wrapperScript) || entryName.endsWith("/" + wrapperScript)) {
+			return UnixStat.FILE_FLAG | 0755;
+		}
+		return UnixStat.FILE_FLAG | UnixStat.DEFAULT_FILE_PERM;
+	}
+
+	static boolean isPrecompressed(String name) {
+		String extension = StringUtils.getFilenameExtension(name);
+		return extension != null && PRECOMPRESSED_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * A generated project to write in an archive.
+	 *
+	 * @param root the root directory of the project
+	 * @param wrapperScript the name of the wrapper script, which is made executable
+	 */
+	public record ArchivedProject(Path root, String wrapperScript) {
+
+	}
+
+	/**
+	 * A zip entry and its raw content.
+	 *
+	 * @param entry the entry
+	 * @param content the content as it should be written in the archive, or {@code null}
+	 * for a directory
+	 */
+	private record ZipEntryContent(ZipArchiveEntry entry, byte[] content) {
+
+	}
+
+}
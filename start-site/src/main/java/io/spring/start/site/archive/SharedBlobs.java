@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.archive;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * Keeps the encoded content and the CRC of files that are identical in every generated
+ * project, such as the wrapper scripts and jars, so that they are spliced in an archive
+ * rather than compressed for each request. A file is only served from a blob if its
+ * content is the same as the one that has been encoded, so a file that has been
+ * customized is never served stale. Blobs are evicted, least recently used first, once
+ * they exceed the maximum size.
+ *
+ * @author agent
+ */
+class SharedBlobs {
+
+	private final List<String> patterns;
+
+	private final long maxSize;
+
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	private final Map<Key, Blob> blobs = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private long size;
+
+	/**
+	 * Create a new instance.
+	 * @param patterns the ant-style patterns of the entries that are shared, such as
+	 * {@code **}{@code /mvnw}
+	 * @param maxSize the maximum size of the blobs, in bytes
+	 */
+	SharedBlobs(List<String> patterns, long maxSize) {
+		this.patterns = List.copyOf(patterns);
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Return whether the specified entry is expected to be identical in every project.
+	 * @param entryName the name of the entry
+	 * @return whether the entry is shared
+	 */
+	boolean isShared(String entryName) {
+		for (String pattern : this.patterns) {
+			if (this.pathMatcher.match(pattern, entryName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the blob of the specified entry, if its content has already been encoded
+	 * with the specified compression level.
+	 * @param entryName the name of the entry
+	 * @param content the content of the entry
+	 * @param level the compression level
+	 * @return the blob or {@code null}
+	 */
+	Blob get(String entryName, byte[] content, int level) {
+		Blob blob;
+		synchronized (this) {
+			blob = this.blobs.get(new Key(StringUtils.getFilename(entryName), content.length, level));
+		}
+		if (blob == null || !Arrays.equals(blob.content(), content)) {
+			return null;
+		}
+		this.hits.incrementAndGet();
+		return blob;
+	}
+
+	/**
+	 * Keep the specified blob.
+	 * @param entryName the name of the entry
+	 * @param level the compression level the blob has been encoded with
+	 * @param blob the blob
+	 */
+	synchronized void put(String entryName, int level, Blob blob) {
+		if (blob.size() > this.maxSize) {
+			return;
+		}
+		Blob previous = this.blobs.put(new Key(StringUtils.getFilename(entryName), blob.content().length, level),
+				blob);
+		this.size += blob.size() - ((previous != null) ? previous.size() : 0);
+		Iterator<Blob> eldest = this.blobs.values().iterator();
+		while (this.size > this.maxSize && eldest.hasNext()) {
+			this.size -= eldest.next().size();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Return the number of entries that have been served from a blob.
+	 * @return the number of hits
+	 */
+	long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Return the size of the blobs, in bytes.
+	 * @return the size
+	 */
+	synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * The content of an entry, as it is written in an archive.
+	 *
+	 * @param content the content of the entry
+	 * @param method the zip compression method
+	 * @param data the content as it is written in the archive
+	 * @param crc the CRC-32 of the content
+	 */
+	record Blob(byte[] content, int method, byte[] data, long crc) {
+
+		long size() {
+			return (this.content == this.data) ? this.content.length
+					: (long) this.content.length + this.data.length;
+		}
+
+	}
+
+	private record Key(String fileName, int length, int level) {
+
+	}
+
+}
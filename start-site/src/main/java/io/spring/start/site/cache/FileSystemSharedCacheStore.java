@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * A {@link SharedCacheStore} that stores each key in a file of a directory shared by the
+ * nodes, such as an NFS mount. Files are replaced atomically and counters are
+ * incremented under a file lock. Expired entries are removed as they are read.
+ *
+ * @author agent
+ */
+public class FileSystemSharedCacheStore implements SharedCacheStore {
+
+	private static final int HEADER_SIZE = Long.BYTES;
+
+	private static final Object INCREMENT_LOCK = new Object();
+
+	private final Path directory;
+
+	/**
+	 * Create a new instance.
+	 * @param directory the shared directory
+	 */
+	public FileSystemSharedCacheStore(Path directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public byte[] get(String key) {
+		Path file = resolve(key);
+		try {
+			byte[] content = Files.readAllBytes(file);
+			if (content.length < HEADER_SIZE) {
+				return null;
+			}
+			long expiresAt = ByteBuffer.wrap(content).getLong();
+			if (expiresAt != 0 && expiresAt < System.currentTimeMillis()) {
+				Files.deleteIfExists(file);
+				return null;
+			}
+			byte[] value = new byte[content.length - HEADER_SIZE];
+			System.arraycopy(content, HEADER_SIZE, value, 0, value.length);
+			return value;
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public void put(String key, byte[] value, Duration timeToLive) {
+		try {
+			write(resolve(key), System.currentTimeMillis() + timeToLive.toMillis(), value);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public void delete(String key) {
+		try {
+			Files.deleteIfExists(resolve(key));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public long increment(String key) {
+		Path file = resolve(key);
+		// File locks are held by the process, other threads are excluded by the monitor
+		synchronized (INCREMENT_LOCK) {
+			try (FileChannel channel = openLockFile(file); FileLock lock = channel.lock()) {
+				byte[] current = get(key);
+				long value = (current != null) ? Long.parseLong(new String(current, StandardCharsets.US_ASCII)) + 1
+						: 1;
+				write(file, 0, Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+				return value;
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+	private FileChannel openLockFile(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+		return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+	}
+
+	private void write(Path file, long expiresAt, byte[] value) throws IOException {
+		Files.createDirectories(file.getParent());
+		Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + value.length);
+			content.putLong(expiresAt).put(value);
+			Files.write(temp, content.array());
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private Path resolve(String key) {
+		// Keys are hashed as they may not be valid file names
+		String hash = HexFormat.of().formatHex(sha256(key));
+		return this.directory.resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	private static byte[] sha256(String key) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link SharedCacheStore} backed by a server that speaks the Redis serialization
+ * protocol, such as Redis or Valkey. Only the {@code AUTH}, {@code GET}, {@code SET},
+ * {@code DEL} and {@code INCR} commands are used. Connections are opened on demand,
+ * optionally over TLS and authenticated, and a bounded number of them are kept for reuse.
+ * <p>
+ * A client library such as Lettuce would bring Netty and Project Reactor to the
+ * application for these few blocking commands, so the protocol is implemented directly.
+ * A shared cache that needs more of Redis should use such a client instead.
+ *
+ * @author agent
+ */
+public class RedisSharedCacheStore implements SharedCacheStore, Closeable {
+
+	private final String host;
+
+	private final int port;
+
+	private final int timeout;
+
+	private final BlockingQueue<Connection> idleConnections;
+
+	private final String username;
+
+	private final String password;
+
+	private final SSLSocketFactory sslSocketFactory;
+
+	/**
+	 * Create a new instance.
+	 * @param host the host of the server
+	 * @param port the port of the server
+	 * @param timeout the connect and read timeout
+	 * @param maxIdleConnections the maximum number of connections to keep for reuse
+	 */
+	public RedisSharedCacheStore(String host, int port, Duration timeout, int maxIdleConnections) {
+		this(host, port, timeout, maxIdleConnections, null, null, null);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param host the host of the server
+	 * @param port the port of the server
+	 * @param timeout the connect and read timeout
+	 * @param maxIdleConnections the maximum number of connections to keep for reuse
+	 * @param username the user to authenticate as, or {@code null} to use the default
+	 * user
+	 * @param password the password to authenticate with, or {@code null} to not
+	 * authenticate
+	 * @param sslSocketFactory the factory to use to connect over TLS, or {@code null} to
+	 * use a plain connection
+	 */
+	public RedisSharedCacheStore(String host, int port, Duration timeout, int maxIdleConnections, String username,
+			String password, SSLSocketFactory sslSocketFactory) {
+		this.host = host;
+		this.port = port;
+		this.timeout = (int) timeout.toMillis();
+		this.idleConnections = new ArrayBlockingQueue<>(Math.max(1, maxIdleConnections));
+		this.username = username;
+		this.password = password;
+		this.sslSocketFactory = sslSocketFactory;
+	}
+
+	@Override
+	public byte[] get(String key) {
+		return (byte[]) execute(bytes("GET"), bytes(key));
+	}
+
+	@Override
+	public void put(String key, byte[] value, Duration timeToLive) {
+		execute(bytes("SET"), bytes(key), value, bytes("PX"), bytes(Long.toString(timeToLive.toMillis())));
+	}
+
+	@Override
+	public void delete(String key) {
+		execute(bytes("DEL"), bytes(key));
+	}
+
+	@Override
+	public long increment(String key) {
+		return (Long) execute(bytes("INCR"), bytes(key));
+	}
+
+	@Override
+	public void close() {
+		Connection connection;
+		while ((connection = this.idleConnections.poll()) != null) {
+			connection.close();
+		}
+	}
+
+	private Object execute(byte[]... command) {
+		Connection connection = this.idleConnections.poll();
+		boolean replied = false;
+		try {
+			if (connection == null) {
+				connection = connect();
+			}
+			Object reply = connection.execute(command);
+			replied = true;
+			if (reply instanceof ErrorReply error) {
+				throw new IllegalStateException("Command %s failed: %s"
+					.formatted(new String(command[0], StandardCharsets.UTF_8), error.message()));
+			}
+			return reply;
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		finally {
+			// The state of the connection is unknown unless a complete reply was read
+			if (connection != null && !(replied && this.idleConnections.offer(connection))) {
+				connection.close();
+			}
+		}
+	}
+
+	private Connection connect() throws IOException {
+		Connection connection = new Connection(this.host, this.port, this.timeout, this.sslSocketFactory);
+		if (!StringUtils.hasText(this.password)) {
+			return connection;
+		}
+		try {
+			byte[][] command = StringUtils.hasText(this.username)
+					? new byte[][] { bytes("AUTH"), bytes(this.username), bytes(this.password) }
+					: new byte[][] { bytes("AUTH"), bytes(this.password) };
+			if (connection.execute(command) instanceof ErrorReply error) {
+				throw new IllegalStateException("Authentication failed: " + error.message());
+			}
+			return connection;
+		}
+		catch (IOException | RuntimeException ex) {
+			connection.close();
+			throw ex;
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * An error reply of the server.
+	 *
+	 * @param message the error message
+	 */
+	private record ErrorReply(String message) {
+
+	}
+
+	/**
+	 * A connection to the server.
+	 */
+	private static final class Connection {
+
+		private final Socket socket;
+
+		private final InputStream in;
+
+		private final OutputStream out;
+
+		private Connection(String host, int port, int timeout, SSLSocketFactory sslSocketFactory) throws IOException {
+			Socket socket = new Socket();
+			try {
+				socket.connect(new InetSocketAddress(host, port), timeout);
+				socket.setSoTimeout(timeout);
+				socket.setTcpNoDelay(true);
+				if (sslSocketFactory != null) {
+					socket = startTls(sslSocketFactory.createSocket(socket, host, port, true));
+				}
+				this.in = new BufferedInputStream(socket.getInputStream());
+				this.out = new BufferedOutputStream(socket.getOutputStream());
+			}
+			catch (IOException ex) {
+				socket.close();
+				throw ex;
+			}
+			this.socket = socket;
+		}
+
+		private static Socket startTls(Socket socket) throws IOException {
+			SSLSocket sslSocket = (SSLSocket) socket;
+			try {
+				SSLParameters parameters = sslSocket.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(parameters);
+				sslSocket.startHandshake();
+				return sslSocket;
+			}
+			catch (IOException ex) {
+				sslSocket.close();
+				throw ex;
+			}
+		}
+
+		private Object execute(byte[]... command) throws IOException {
+			this.out.write(("*" + command.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			for (byte[] argument : command) {
+				this.out.write(("$" + argument.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+				this.out.write(argument);
+				this.out.write('\r');
+				this.out.write('\n');
+			}
+			this.out.flush();
+			return readReply();
+		}
+
+		private Object readReply() throws IOException {
+			int type = this.in.read();
+			String line = readLine();
+			if (type == '+') {
+				return line;
+			}
+			if (type == '-') {
+				return new ErrorReply(line);
+			}
+			if (type == ':') {
+				return Long.parseLong(line);
+			}
+			if (type == '$') {
+				int length = Integer.parseInt(line);
+				if (length < 0) {
+					return null;
+				}
+				byte[] value = this.in.readNBytes(length);
+				if (value.length < length || this.in.read() != '\r' || this.in.read() != '\n') {
+					throw new EOFException("Incomplete bulk reply");
+				}
+				return value;
+			}
+			throw new IOException("Unsupported reply type '" + (char) type + "'");
+		}
+
+		private String readLine() throws IOException {
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			int previous = -1;
+			for (int current = this.in.read(); current != -1; current = this.in.read()) {
+				if (previous == '\r' && current == '\n') {
+					byte[] content = line.toByteArray();
+					return new String(content, 0, content.length - 1, StandardCharsets.UTF_8);
+				}
+				line.write(current);
+				previous = current;
+			}
+			throw new EOFException("Connection closed by the server");
+		}
+
+		private void close() {
+			try {
+				this.socket.close();
+			}
+			catch (IOException ex) {
+				// Ignore
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.nio.file.Path;
+
+import javax.net.ssl.SSLSocketFactory;
+
+import io.spring.start.site.StartConfigurationProperties;
+import io.spring.start.site.StartConfigurationProperties.SharedCache;
+import io.spring.start.site.StartConfigurationProperties.SharedCache.Redis;
+import io.spring.start.site.StartConfigurationProperties.SharedCache.Redis.Ssl;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.info.GitProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Configuration for the cache shared by the nodes of a cluster. The
+ * {@link SharedCache#getCacheNames() configured caches} of the application use the shared
+ * store as their second level.
+ *
+ * @author agent
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("'${application.shared-cache.type:none}'.toLowerCase() != 'none'")
+public class SharedCacheConfiguration {
+
+	@Bean
+	@ConditionalOnProperty(name = "application.shared-cache.type", havingValue = "filesystem")
+	FileSystemSharedCacheStore fileSystemSharedCacheStore(StartConfigurationProperties properties) {
+		String directory = properties.getSharedCache().getFilesystem().getDirectory();
+		Assert.state(StringUtils.hasText(directory), "'application.shared-cache.filesystem.directory' must be set");
+		return new FileSystemSharedCacheStore(Path.of(directory));
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "application.shared-cache.type", havingValue = "redis")
+	RedisSharedCacheStore redisSharedCacheStore(StartConfigurationProperties properties,
+			ObjectProvider<SslBundles> sslBundles) {
+		Redis redis = properties.getSharedCache().getRedis();
+		return new RedisSharedCacheStore(redis.getHost(), redis.getPort(), redis.getTimeout(),
+				redis.getMaxIdleConnections(), redis.getUsername(), redis.getPassword(),
+				getSslSocketFactory(redis.getSsl(), sslBundles));
+	}
+
+	private SSLSocketFactory getSslSocketFactory(Ssl ssl, ObjectProvider<SslBundles> sslBundles) {
+		if (StringUtils.hasText(ssl.getBundle())) {
+			return sslBundles.getObject().getBundle(ssl.getBundle()).createSslContext().getSocketFactory();
+		}
+		return (ssl.isEnabled()) ? (SSLSocketFactory) SSLSocketFactory.getDefault() : null;
+	}
+
+	@Bean
+	SharedCacheRegions sharedCacheRegions(SharedCacheStore store, StartConfigurationProperties properties,
+			ObjectProvider<GitProperties> gitProperties, ObjectProvider<BuildProperties> buildProperties) {
+		SharedCache sharedCache = properties.getSharedCache();
+		return new SharedCacheRegions(store, getNamespace(sharedCache, gitProperties, buildProperties),
+				sharedCache.getTimeToLive(), sharedCache.getInvalidationInterval());
+	}
+
+	private String getNamespace(SharedCache sharedCache, ObjectProvider<GitProperties> gitProperties,
+			ObjectProvider<BuildProperties> buildProperties) {
+		if (StringUtils.hasText(sharedCache.getNamespace())) {
+			return sharedCache.getNamespace();
+		}
+		GitProperties git = gitProperties.getIfAvailable();
+		if (git != null && StringUtils.hasText(git.getShortCommitId())) {
+			return "start-" + git.getShortCommitId();
+		}
+		BuildProperties build = buildProperties.getIfAvailable();
+		return (build != null) ? "start-" + build.getVersion() : "start";
+	}
+
+	@Bean
+	static SharedCacheManagerPostProcessor sharedCacheManagerPostProcessor(ObjectProvider<SharedCacheRegions> regions,
+			Environment environment) {
+		// Post-processors are created before configuration properties are bound
+		SharedCache sharedCache = Binder.get(environment)
+			.bind("application.shared-cache", SharedCache.class)
+			.orElseGet(SharedCache::new);
+		return new SharedCacheManagerPostProcessor(regions, sharedCache.getCacheNames());
+	}
+
+}
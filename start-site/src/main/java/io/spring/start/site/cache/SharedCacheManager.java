@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * A {@link CacheManager} that backs some of the caches of another {@link CacheManager}
+ * with a {@link SharedCacheRegion region} of the same name.
+ *
+ * @author agent
+ * @see TieredCache
+ */
+class SharedCacheManager implements CacheManager {
+
+	private final CacheManager delegate;
+
+	private final SharedCacheRegions regions;
+
+	private final Set<String> sharedCacheNames;
+
+	private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+	SharedCacheManager(CacheManager delegate, SharedCacheRegions regions, Set<String> sharedCacheNames) {
+		this.delegate = delegate;
+		this.regions = regions;
+		this.sharedCacheNames = sharedCacheNames;
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		if (!this.sharedCacheNames.contains(name)) {
+			return this.delegate.getCache(name);
+		}
+		return this.caches.computeIfAbsent(name, (key) -> {
+			Cache local = this.delegate.getCache(key);
+			return (local != null) ? new TieredCache(local, this.regions.getRegion(key)) : null;
+		});
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.delegate.getCacheNames();
+	}
+
+}
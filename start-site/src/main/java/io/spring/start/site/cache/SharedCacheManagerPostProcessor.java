@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+
+/**
+ * A {@link BeanPostProcessor} that wraps the {@link CacheManager} of the application in a
+ * {@link SharedCacheManager}.
+ *
+ * @author agent
+ */
+class SharedCacheManagerPostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<SharedCacheRegions> regions;
+
+	private final List<String> sharedCacheNames;
+
+	SharedCacheManagerPostProcessor(ObjectProvider<SharedCacheRegions> regions, List<String> sharedCacheNames) {
+		this.regions = regions;
+		this.sharedCacheNames = sharedCacheNames;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof CacheManager cacheManager && !(bean instanceof SharedCacheManager)) {
+			return new SharedCacheManager(cacheManager, this.regions.getObject(), new HashSet<>(this.sharedCacheNames));
+		}
+		return bean;
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A named region of a {@link SharedCacheStore}, used as the second level of a local
+ * cache. The keys of a region are prefixed by its version: {@link #invalidate()
+ * invalidating} a region increments its version, so that the entries stored so far are no
+ * longer visible to any node, and notifies the listeners of each node as it
+ * {@link #refresh() notices} the new version so that they clear their local cache.
+ * <p>
+ * The shared store is an optimization: if it cannot be reached, lookups miss and updates
+ * are ignored. Once a call has failed, the store is no longer used until a
+ * {@link #refresh() refresh} succeeds, so that requests do not wait for an unreachable
+ * store.
+ *
+ * @author agent
+ */
+public class SharedCacheRegion {
+
+	private static final Log logger = LogFactory.getLog(SharedCacheRegion.class);
+
+	private final SharedCacheStore store;
+
+	private final String prefix;
+
+	private final Duration timeToLive;
+
+	private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+	private final AtomicBoolean available = new AtomicBoolean(true);
+
+	private volatile long version;
+
+	/**
+	 * Create a new instance.
+	 * @param store the shared store
+	 * @param namespace the namespace of the keys, shared by the nodes that can exchange
+	 * entries
+	 * @param name the name of the region
+	 * @param timeToLive the time after which entries expire
+	 */
+	public SharedCacheRegion(SharedCacheStore store, String namespace, String name, Duration timeToLive) {
+		this.store = store;
+		this.prefix = namespace + ":" + name;
+		this.timeToLive = timeToLive;
+		this.version = readVersion(0);
+	}
+
+	/**
+	 * Return the value of the specified key.
+	 * @param key the key
+	 * @return the value, or {@code null} if it is not present or the store cannot be
+	 * reached
+	 */
+	public byte[] get(String key) {
+		if (!this.available.get()) {
+			return null;
+		}
+		try {
+			byte[] value = this.store.get(entryKey(key));
+			available();
+			return value;
+		}
+		catch (RuntimeException ex) {
+			unavailable(ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Set the value of the specified key.
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(String key, byte[] value) {
+		if (!this.available.get()) {
+			return;
+		}
+		try {
+			this.store.put(entryKey(key), value, this.timeToLive);
+			available();
+		}
+		catch (RuntimeException ex) {
+			unavailable(ex);
+		}
+	}
+
+	/**
+	 * Remove the specified key.
+	 * @param key the key
+	 */
+	public void evict(String key) {
+		if (!this.available.get()) {
+			return;
+		}
+		try {
+			this.store.delete(entryKey(key));
+			available();
+		}
+		catch (RuntimeException ex) {
+			unavailable(ex);
+		}
+	}
+
+	/**
+	 * Invalidate the entries of this region on every node.
+	 */
+	public void invalidate() {
+		if (!this.available.get()) {
+			return;
+		}
+		try {
+			updateVersion(this.store.increment(versionKey()));
+			available();
+		}
+		catch (RuntimeException ex) {
+			unavailable(ex);
+		}
+	}
+
+	/**
+	 * Register a listener to invoke when the region has been invalidated, by this node or
+	 * another one.
+	 * @param listener the listener
+	 */
+	public void addInvalidationListener(Runnable listener) {
+		this.invalidationListeners.add(listener);
+	}
+
+	/**
+	 * Check whether the region has been invalidated by another node, notifying the
+	 * listeners if so. The store is used again if it was unavailable and the check
+	 * succeeds.
+	 */
+	public void refresh() {
+		updateVersion(readVersion(this.version));
+	}
+
+	private long readVersion(long defaultVersion) {
+		try {
+			byte[] value = this.store.get(versionKey());
+			available();
+			return (value != null) ? Long.parseLong(new String(value, StandardCharsets.US_ASCII)) : 0;
+		}
+		catch (RuntimeException ex) {
+			unavailable(ex);
+			return defaultVersion;
+		}
+	}
+
+	private void updateVersion(long version) {
+		synchronized (this.invalidationListeners) {
+			if (version == this.version) {
+				return;
+			}
+			this.version = version;
+		}
+		this.invalidationListeners.forEach(Runnable::run);
+	}
+
+	private String entryKey(String key) {
+		return this.prefix + ":" + this.version + ":" + key;
+	}
+
+	private String versionKey() {
+		return this.prefix + ":version";
+	}
+
+	private void available() {
+		if (this.available.compareAndSet(false, true)) {
+			logger.info("Shared cache region '" + this.prefix + "' is available again");
+		}
+	}
+
+	private void unavailable(RuntimeException ex) {
+		if (this.available.compareAndSet(true, false)) {
+			logger.warn("Shared cache region '" + this.prefix + "' is unavailable, using the local cache only", ex);
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("Shared cache region '" + this.prefix + "' is still unavailable", ex);
+		}
+	}
+
+}
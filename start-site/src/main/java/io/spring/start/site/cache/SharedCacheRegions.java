@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * The {@link SharedCacheRegion regions} of a {@link SharedCacheStore}. While running,
+ * regions are periodically refreshed so that the invalidations of other nodes are
+ * noticed.
+ *
+ * @author agent
+ */
+public class SharedCacheRegions implements SmartLifecycle {
+
+	private final SharedCacheStore store;
+
+	private final String namespace;
+
+	private final Duration timeToLive;
+
+	private final Duration invalidationInterval;
+
+	private final Map<String, SharedCacheRegion> regions = new ConcurrentHashMap<>();
+
+	private volatile ScheduledExecutorService executor;
+
+	/**
+	 * Create a new instance.
+	 * @param store the shared store
+	 * @param namespace the namespace of the keys
+	 * @param timeToLive the time after which entries expire
+	 * @param invalidationInterval the interval at which invalidations are checked
+	 */
+	public SharedCacheRegions(SharedCacheStore store, String namespace, Duration timeToLive,
+			Duration invalidationInterval) {
+		this.store = store;
+		this.namespace = namespace;
+		this.timeToLive = timeToLive;
+		this.invalidationInterval = invalidationInterval;
+	}
+
+	/**
+	 * Return the region with the specified name, creating it if necessary.
+	 * @param name the name of the region
+	 * @return the region
+	 */
+	public SharedCacheRegion getRegion(String name) {
+		return this.regions.computeIfAbsent(name,
+				(key) -> new SharedCacheRegion(this.store, this.namespace, key, this.timeToLive));
+	}
+
+	/**
+	 * Check whether any region has been invalidated by another node.
+	 */
+	public void refresh() {
+		this.regions.values().forEach(SharedCacheRegion::refresh);
+	}
+
+	@Override
+	public void start() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shared-cache-");
+		threadFactory.setDaemon(true);
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		long interval = this.invalidationInterval.toMillis();
+		executor.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+		this.executor = executor;
+	}
+
+	@Override
+	public void stop() {
+		ScheduledExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.executor != null;
+	}
+
+}
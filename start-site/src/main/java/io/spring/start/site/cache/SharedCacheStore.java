@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.time.Duration;
+
+/**
+ * A key-value store shared by the nodes of a cluster. Implementations are thread-safe and
+ * throw an unchecked exception, such as {@link java.io.UncheckedIOException}, if the
+ * store cannot be reached.
+ *
+ * @author agent
+ * @see SharedCacheRegion
+ */
+public interface SharedCacheStore {
+
+	/**
+	 * Return the value of the specified key.
+	 * @param key the key
+	 * @return the value or {@code null} if the key is not present or has expired
+	 */
+	byte[] get(String key);
+
+	/**
+	 * Set the value of the specified key.
+	 * @param key the key
+	 * @param value the value
+	 * @param timeToLive the time after which the key expires
+	 */
+	void put(String key, byte[] value, Duration timeToLive);
+
+	/**
+	 * Remove the specified key, if present.
+	 * @param key the key
+	 */
+	void delete(String key);
+
+	/**
+	 * Atomically increment the counter held by the specified key, starting from
+	 * {@code 0} if the key is not present. The counter does not expire and its value is
+	 * available as a decimal string through {@link #get(String)}.
+	 * @param key the key of the counter
+	 * @return the value of the counter after the increment
+	 */
+	long increment(String key);
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * A {@link Cache} that uses a {@link SharedCacheRegion} as the second level of a local
+ * cache. Only strings and maps of strings, such as the versions of a BOM, are shared.
+ * They are exchanged as JSON so that reading an entry never instantiates arbitrary
+ * types. Clearing the cache invalidates the local cache of every node.
+ *
+ * @author agent
+ */
+class TieredCache implements Cache {
+
+	private static final TypeReference<LinkedHashMap<String, String>> STRING_MAP = new TypeReference<>() {
+	};
+
+	private static final Log logger = LogFactory.getLog(TieredCache.class);
+
+	private final Cache local;
+
+	private final SharedCacheRegion region;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	TieredCache(Cache local, SharedCacheRegion region) {
+		this.local = local;
+		this.region = region;
+		region.addInvalidationListener(local::clear);
+	}
+
+	@Override
+	public String getName() {
+		return this.local.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.local.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		ValueWrapper value = this.local.get(key);
+		if (value != null) {
+			return value;
+		}
+		Object shared = getShared(key);
+		if (shared == null) {
+			return null;
+		}
+		this.local.put(key, shared);
+		return new SimpleValueWrapper(shared);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null) ? wrapper.get() : null;
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return this.local.get(key, () -> {
+			Object shared = getShared(key);
+			if (shared != null) {
+				return (T) shared;
+			}
+			T value = valueLoader.call();
+			putShared(key, value);
+			return value;
+		});
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.local.put(key, value);
+		putShared(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.local.evict(key);
+		this.region.evict(key.toString());
+	}
+
+	@Override
+	public void clear() {
+		this.local.clear();
+		this.region.invalidate();
+	}
+
+	private Object getShared(Object key) {
+		byte[] content = this.region.get(key.toString());
+		if (content == null) {
+			return null;
+		}
+		try {
+			JsonNode node = this.objectMapper.readTree(content);
+			if (node.isTextual()) {
+				return node.textValue();
+			}
+			if (node.isObject()) {
+				return this.objectMapper.convertValue(node, STRING_MAP);
+			}
+			return null;
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			// Written by an incompatible version, for instance
+			logger.debug("Failed to read shared entry '" + key + "' of cache '" + getName() + "'", ex);
+			return null;
+		}
+	}
+
+	private void putShared(Object key, Object value) {
+		if (!isShareable(value)) {
+			return;
+		}
+		try {
+			this.region.put(key.toString(), this.objectMapper.writeValueAsBytes(value));
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to write shared entry '" + key + "' of cache '" + getName() + "'", ex);
+		}
+	}
+
+	private static boolean isShareable(Object value) {
+		if (value instanceof String) {
+			return true;
+		}
+		if (value instanceof Map<?, ?> map) {
+			return map.entrySet()
+				.stream()
+				.allMatch((entry) -> entry.getKey() instanceof String && entry.getValue() instanceof String);
+		}
+		return false;
+	}
+
+}
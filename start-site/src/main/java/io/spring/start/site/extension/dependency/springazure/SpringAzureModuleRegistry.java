@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2023 the original author or authors.
+ * Copyright 2012-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import io.spring.initializr.generator.buildsystem.DependencyScope;
 import io.spring.initializr.generator.spring.documentation.HelpDocument;
 import io.spring.start.site.support.implicit.ImplicitDependency;
 import io.spring.start.site.support.implicit.ImplicitDependency.Builder;
+import io.spring.start.site.support.implicit.ImplicitDependencyIndex;
 
 /**
  * A registry of available Spring Azure modules.
@@ -36,6 +37,17 @@ import io.spring.start.site.support.implicit.ImplicitDependency.Builder;
  */
 abstract class SpringAzureModuleRegistry {
 
+	private static final ImplicitDependencyIndex SPRING_BOOT_INDEX = ImplicitDependencyIndex
+		.of(createSpringBootRegistry());
+
+	/**
+	 * Return the {@link ImplicitDependencyIndex index} of the Spring Boot registry.
+	 * @return the index of the Spring Boot registry
+	 */
+	static ImplicitDependencyIndex springBootIndex() {
+		return SPRING_BOOT_INDEX;
+	}
+
 	static Iterable<ImplicitDependency> createSpringBootRegistry() {
 		return create(
 				onDependencies("actuator").customizeBuild(addDependency("spring-cloud-azure-starter-actuator"))
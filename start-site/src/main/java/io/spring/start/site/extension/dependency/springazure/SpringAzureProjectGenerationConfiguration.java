@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2023 the original author or authors.
+ * Copyright 2012-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,8 @@ package io.spring.start.site.extension.dependency.springazure;
 
 import io.spring.initializr.generator.buildsystem.Build;
 import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
-import io.spring.start.site.support.implicit.ImplicitDependency;
 import io.spring.start.site.support.implicit.ImplicitDependencyBuildCustomizer;
+import io.spring.start.site.support.implicit.ImplicitDependencyEvaluation;
 import io.spring.start.site.support.implicit.ImplicitDependencyHelpDocumentCustomizer;
 
 import org.springframework.context.annotation.Bean;
@@ -34,10 +34,10 @@ import org.springframework.context.annotation.Bean;
 @ProjectGenerationConfiguration
 class SpringAzureProjectGenerationConfiguration {
 
-	private final Iterable<ImplicitDependency> azureDependencies;
+	private final ImplicitDependencyEvaluation azureDependencies;
 
 	SpringAzureProjectGenerationConfiguration() {
-		this.azureDependencies = SpringAzureModuleRegistry.createSpringBootRegistry();
+		this.azureDependencies = SpringAzureModuleRegistry.springBootIndex().newEvaluation();
 	}
 
 	@Bean
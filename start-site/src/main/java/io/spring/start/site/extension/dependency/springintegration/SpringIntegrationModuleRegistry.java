@@ -26,6 +26,7 @@ import io.spring.initializr.generator.buildsystem.DependencyScope;
 import io.spring.initializr.generator.spring.documentation.HelpDocument;
 import io.spring.start.site.support.implicit.ImplicitDependency;
 import io.spring.start.site.support.implicit.ImplicitDependency.Builder;
+import io.spring.start.site.support.implicit.ImplicitDependencyIndex;
 
 /**
  * A registry of available Spring Integration modules.
@@ -35,6 +36,16 @@ import io.spring.start.site.support.implicit.ImplicitDependency.Builder;
  */
 abstract class SpringIntegrationModuleRegistry {
 
+	private static final ImplicitDependencyIndex INDEX = ImplicitDependencyIndex.of(create());
+
+	/**
+	 * Return the {@link ImplicitDependencyIndex index} of the available modules.
+	 * @return the index of the modules
+	 */
+	static ImplicitDependencyIndex index() {
+		return INDEX;
+	}
+
 	static Iterable<ImplicitDependency> create() {
 		return create(
 				onDependencies("activemq", "artemis").customizeBuild(addDependency("jms"))
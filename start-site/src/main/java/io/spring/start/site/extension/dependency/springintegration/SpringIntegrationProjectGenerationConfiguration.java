@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2021 the original author or authors.
+ * Copyright 2012-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,8 @@ package io.spring.start.site.extension.dependency.springintegration;
 import io.spring.initializr.generator.buildsystem.Build;
 import io.spring.initializr.generator.condition.ConditionalOnRequestedDependency;
 import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
-import io.spring.start.site.support.implicit.ImplicitDependency;
 import io.spring.start.site.support.implicit.ImplicitDependencyBuildCustomizer;
+import io.spring.start.site.support.implicit.ImplicitDependencyEvaluation;
 import io.spring.start.site.support.implicit.ImplicitDependencyHelpDocumentCustomizer;
 
 import org.springframework.context.annotation.Bean;
@@ -35,10 +35,10 @@ import org.springframework.context.annotation.Bean;
 @ConditionalOnRequestedDependency("integration")
 class SpringIntegrationProjectGenerationConfiguration {
 
-	private final Iterable<ImplicitDependency> dependencies;
+	private final ImplicitDependencyEvaluation dependencies;
 
 	SpringIntegrationProjectGenerationConfiguration() {
-		this.dependencies = SpringIntegrationModuleRegistry.create();
+		this.dependencies = SpringIntegrationModuleRegistry.index().newEvaluation();
 	}
 
 	@Bean
@@ -30,6 +30,7 @@ import io.spring.initializr.generator.version.VersionParser;
 import io.spring.initializr.generator.version.VersionRange;
 import io.spring.start.site.support.implicit.ImplicitDependency;
 import io.spring.start.site.support.implicit.ImplicitDependency.Builder;
+import io.spring.start.site.support.implicit.ImplicitDependencyIndex;
 
 /**
  * A registry of available Testcontainers modules.
@@ -42,6 +43,22 @@ abstract class TestcontainersModuleRegistry {
 
 	private static final VersionRange SPRING_BOOT_3_3_OR_LATER = VersionParser.DEFAULT.parseRange("3.3.0");
 
+	private static final ImplicitDependencyIndex SPRING_BOOT_3_3_OR_LATER_INDEX = ImplicitDependencyIndex
+		.of(create(VersionParser.DEFAULT.parse("3.3.0")));
+
+	private static final ImplicitDependencyIndex EARLIER_INDEX = ImplicitDependencyIndex
+		.of(create(VersionParser.DEFAULT.parse("3.2.0")));
+
+	/**
+	 * Return the {@link ImplicitDependencyIndex index} of the modules available for the
+	 * specified platform version.
+	 * @param platformVersion the platform version
+	 * @return the index of the modules
+	 */
+	static ImplicitDependencyIndex index(Version platformVersion) {
+		return (SPRING_BOOT_3_3_OR_LATER.match(platformVersion)) ? SPRING_BOOT_3_3_OR_LATER_INDEX : EARLIER_INDEX;
+	}
+
 	static Iterable<ImplicitDependency> create(Version platformVersion) {
 		List<ImplicitDependency.Builder> builders = new ArrayList<>();
 		if (SPRING_BOOT_3_3_OR_LATER.match(platformVersion)) {
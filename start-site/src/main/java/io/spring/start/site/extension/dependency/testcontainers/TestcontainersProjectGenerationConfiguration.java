@@ -30,8 +30,8 @@ import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
 import io.spring.initializr.generator.spring.build.BuildCustomizer;
 import io.spring.start.site.container.ServiceConnections;
 import io.spring.start.site.container.ServiceConnectionsCustomizer;
-import io.spring.start.site.support.implicit.ImplicitDependency;
 import io.spring.start.site.support.implicit.ImplicitDependencyBuildCustomizer;
+import io.spring.start.site.support.implicit.ImplicitDependencyEvaluation;
 import io.spring.start.site.support.implicit.ImplicitDependencyHelpDocumentCustomizer;
 
 import org.springframework.beans.factory.ObjectProvider;
@@ -49,10 +49,11 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnRequestedDependency("testcontainers")
 public class TestcontainersProjectGenerationConfiguration {
 
-	private final Iterable<ImplicitDependency> dependencies;
+	private final ImplicitDependencyEvaluation dependencies;
 
 	public TestcontainersProjectGenerationConfiguration(ProjectDescription projectDescription) {
-		this.dependencies = TestcontainersModuleRegistry.create(projectDescription.getPlatformVersion());
+		this.dependencies = TestcontainersModuleRegistry.index(projectDescription.getPlatformVersion())
+			.newEvaluation();
 	}
 
 	@Bean
@@ -16,13 +16,21 @@
 
 package io.spring.start.site.extension.nth;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import io.spring.initializr.generator.buildsystem.Dependency;
 import io.spring.initializr.generator.version.VersionReference;
+import io.spring.start.site.generation.jfr.NexusLookupEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 public class NexusArtifactResolver {
@@ -31,6 +39,35 @@ public class NexusArtifactResolver {
 
 	private final String url = "http://dev1-git1.int.ch:8675/nexus/service/local/artifact/maven/resolve?g={g}&a={a}&v={v}&r={r}";
 
+	private final RestTemplate restTemplate;
+
+	private final Executor executor;
+
+	public NexusArtifactResolver() {
+		this(new RestTemplate(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Return whether the version of the dependency with the specified id is resolved at
+	 * Nexus for each generation, so that the build that declares it can change without
+	 * the metadata changing.
+	 * @param dependencyId the id of the dependency
+	 * @return whether the version of the dependency is resolved at Nexus
+	 */
+	public static boolean isResolved(String dependencyId) {
+		return dependencyId.startsWith("nth-");
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param restTemplate the rest template to use to query Nexus
+	 * @param executor the executor to use to resolve several artifacts concurrently
+	 */
+	public NexusArtifactResolver(RestTemplate restTemplate, Executor executor) {
+		this.restTemplate = restTemplate;
+		this.executor = executor;
+	}
+
 	/**
 	 * Resolve artifact at Nexus.
 	 * @param groupId group id of the artifact (Required).
@@ -43,7 +80,7 @@ public class NexusArtifactResolver {
 	public ArtifactResolveResource resolve(String groupId, String artifactId, String version, String repository) {
 		log.info("resolve(groupId={}, artifactId={}, version={}, repository={})", groupId, artifactId, version,
 				repository);
-		ArtifactResolveResource data = new RestTemplate()
+		ArtifactResolveResource data = this.restTemplate
 			.getForObject(this.url, ArtifactResolveResourceResponse.class, groupId, artifactId, version, repository)
 			.getData();
 		log.info("Resolved: {}", data);
@@ -65,4 +102,55 @@ public class NexusArtifactResolver {
 				Optional.ofNullable(dependency.getVersion()).map(VersionReference::getValue).orElse(null));
 	}
 
+	/**
+	 * Resolve the versions of the specified dependencies concurrently. Dependencies
+	 * whose version could not be resolved are not present in the result.
+	 * @param dependencies the dependencies to resolve, keyed by id
+	 * @return the resolved versions, keyed by dependency id
+	 */
+	public Map<String, String> resolveVersions(Map<String, Dependency> dependencies) {
+		Map<String, CompletableFuture<String>> resolutions = new LinkedHashMap<>();
+		dependencies.forEach((id, dependency) -> {
+			// Created on the calling thread to be attributed to its generation
+			NexusLookupEvent event = new NexusLookupEvent(dependency.getGroupId(), dependency.getArtifactId(),
+					Optional.ofNullable(dependency.getVersion()).map(VersionReference::getValue).orElse(null));
+			resolutions.put(id,
+					CompletableFuture.supplyAsync(() -> resolveVersion(id, dependency, event), this.executor));
+		});
+		Map<String, String> versions = new LinkedHashMap<>();
+		resolutions.forEach((id, resolution) -> {
+			String version = resolution.join();
+			if (version != null) {
+				versions.put(id, version);
+			}
+		});
+		return versions;
+	}
+
+	private String resolveVersion(String id, Dependency dependency, NexusLookupEvent event) {
+		event.begin();
+		String version = resolveVersion(id, dependency);
+		event.setResolvedVersion(version);
+		event.complete();
+		return version;
+	}
+
+	private String resolveVersion(String id, Dependency dependency) {
+		try {
+			ArtifactResolveResource resolveResource = resolve(dependency);
+			if (resolveResource == null) {
+				return null;
+			}
+			String version = resolveResource.getBaseVersion();
+			if (!StringUtils.hasText(version)) {
+				version = resolveResource.getVersion();
+			}
+			return (StringUtils.hasText(version)) ? version : null;
+		}
+		catch (RestClientException ex) {
+			log.error("Error resolving dependency {} at Nexus - {}", id, ex.getMessage());
+			return null;
+		}
+	}
+
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.extension.nth;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.buildsystem.MavenRepository;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+
+/**
+ * Build configuration shared by the NTH projects. Applied to the build of each project,
+ * or once to the aggregator build of a multi-module project.
+ *
+ * @author agent
+ */
+final class NthBuildConventions {
+
+	private NthBuildConventions() {
+	}
+
+	/**
+	 * Add the NTH Nexus repositories.
+	 * @param build the build to customize
+	 */
+	static void addRepositories(Build build) {
+		build.repositories()
+			.add(MavenRepository
+				.withIdAndUrl("nth-nexus-releases",
+						"https://dev1-git1.int.ch:8676/nexus/content/repositories/releases")
+				.name("NTH Nexus Releases")
+				.snapshotsEnabled(false)
+				.releasesEnabled(true));
+		build.repositories()
+			.add(MavenRepository
+				.withIdAndUrl("nth-nexus-snapshots",
+						"https://dev1-git1.int.ch:8676/nexus/content/repositories/snapshot-policy")
+				.name("NTH Nexus Snapshots")
+				.snapshotsEnabled(true)
+				.releasesEnabled(false));
+	}
+
+	/**
+	 * Add the distribution management of the NTH Nexus.
+	 * @param build the build to customize
+	 */
+	static void addDistributionManagement(MavenBuild build) {
+		build.distributionManagement()
+			.snapshotRepository((repository) -> repository.id("deployment")
+				.uniqueVersion(false)
+				.url("https://dev1-git1.int.ch:8676/nexus/content/repositories/snapshot-policy"));
+		build.distributionManagement()
+			.repository((repository) -> repository.id("deployment")
+				.url("https://dev1-git1.int.ch:8676/nexus/content/releases"));
+	}
+
+	/**
+	 * Add the {@code maven-enforcer-plugin} with the NTH rules.
+	 * @param build the build to customize
+	 */
+	static void addEnforcerPlugin(MavenBuild build) {
+		build.plugins().add("org.apache.maven.plugins", "maven-enforcer-plugin", (plugin) -> {
+			plugin.execution("enforce-banned-dependencies", (execution) -> execution.goal("enforce"));
+			plugin.configuration((configuration) -> {
+				configuration.configure("rules", (rules) -> {
+					rules.add("bannedDependencies", (bannedDependencies) -> {
+						bannedDependencies.configure("excludes", (excludes) -> {
+							excludes.add("exclude", "commons-logging:*");
+							excludes.add("exclude", "org.codehaus.jackson:*");
+						});
+						bannedDependencies.add("searchTransitive", "true");
+					});
+					rules.add("banDuplicateClasses",
+							(banDuplicateClasses) -> banDuplicateClasses.add("findAllDuplicates", "true"));
+					/**
+					 * Currently this is not rendering valid xml, initializr generator
+					 * does not have support for xml attributes of node
+					 * rules.add("restrictImports
+					 * implementation=\"de.skuzzle.enforcer.restrictimports.rule.RestrictImports\"",
+					 * (restrictImports) -> { restrictImports.add("reason", "Use new
+					 * Jackson (com.fasterxml.jackson)");
+					 * restrictImports.add("bannedImport", "org.codehaus.jackson.**");
+					 * }); rules.add("restrictImports
+					 * implementation=\"de.skuzzle.enforcer.restrictimports.rule.RestrictImports\"",
+					 * (restrictImports) -> { restrictImports.add("reason", "Use
+					 * DatatypeConverter.printBase64Binary instead of
+					 * BASE64Encoder.encode"); restrictImports.add("bannedImport",
+					 * "sun.misc.BASE64Encoder"); }); rules.add("restrictImports
+					 * implementation=\"de.skuzzle.enforcer.restrictimports.rule.RestrictImports\"",
+					 * (restrictImports) -> { restrictImports.add("reason", "Use Java
+					 * 8 Time instead of Joda if possible
+					 * (https://www.oracle.com/technical-resources/articles/java/jf14-date-time.html)");
+					 * restrictImports.add("bannedImport", "org.joda.**");
+					 * restrictImports.add("failBuild", "false"); });
+					 */
+				});
+				configuration.add("fail", "true");
+			});
+			plugin.dependency("org.codehaus.mojo", "extra-enforcer-rules", "1.5.1");
+			plugin.dependency("de.skuzzle.enforcer", "restrict-imports-enforcer-rule", "2.0.0");
+		});
+	}
+
+}
@@ -18,17 +18,24 @@ package io.spring.start.site.extension.nth;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import io.spring.initializr.metadata.DefaultMetadataElement;
 import io.spring.initializr.metadata.InitializrMetadataBuilder;
 import io.spring.initializr.metadata.InitializrProperties;
 import io.spring.initializr.web.support.DefaultInitializrMetadataProvider;
 import io.spring.initializr.web.support.InitializrMetadataUpdateStrategy;
+import io.spring.start.site.multimodule.AggregatorBuildCustomizer;
 
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 @Configuration
 @EnableConfigurationProperties(NthInitializrProperties.class)
@@ -83,4 +90,27 @@ public class NthInitializrConfiguration {
 				initializrMetadataUpdateStrategy);
 	}
 
+	@Bean
+	AggregatorBuildCustomizer nthAggregatorBuildCustomizer() {
+		return (build) -> {
+			NthBuildConventions.addRepositories(build);
+			NthBuildConventions.addDistributionManagement(build);
+			NthBuildConventions.addEnforcerPlugin(build);
+		};
+	}
+
+	@Bean
+	NexusArtifactResolver nexusArtifactResolver(RestTemplateBuilder restTemplateBuilder, Environment environment) {
+		return new NexusArtifactResolver(restTemplateBuilder.build(), nexusResolutionExecutor(environment));
+	}
+
+	private Executor nexusResolutionExecutor(Environment environment) {
+		if (Threading.VIRTUAL.isActive(environment)) {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("nexus-");
+			executor.setVirtualThreads(true);
+			return executor;
+		}
+		return ForkJoinPool.commonPool();
+	}
+
 }
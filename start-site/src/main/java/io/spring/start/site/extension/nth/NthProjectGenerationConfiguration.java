@@ -23,11 +23,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import io.spring.initializr.generator.buildsystem.Build;
 import io.spring.initializr.generator.buildsystem.Dependency;
 import io.spring.initializr.generator.buildsystem.DependencyScope;
-import io.spring.initializr.generator.buildsystem.MavenRepository;
 import io.spring.initializr.generator.buildsystem.gradle.GradleBuild;
 import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
 import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
@@ -48,8 +49,9 @@ import io.spring.initializr.generator.spring.build.BuildCustomizer;
 import io.spring.initializr.generator.spring.code.MainApplicationTypeCustomizer;
 import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomizer;
 import io.spring.initializr.generator.version.VersionReference;
-import org.slf4j.LoggerFactory;
+import io.spring.start.site.multimodule.ProjectModule;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -57,7 +59,6 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestClientException;
 
 @ProjectGenerationConfiguration
 public class NthProjectGenerationConfiguration {
@@ -254,16 +255,14 @@ public class NthProjectGenerationConfiguration {
 	}
 
 	@Bean
-	public BuildCustomizer<MavenBuild> nthMavenBuildBuildCustomizer(ProjectDescription projectDescription) {
+	public BuildCustomizer<MavenBuild> nthMavenBuildBuildCustomizer(ProjectDescription projectDescription,
+			ObjectProvider<ProjectModule> projectModule) {
 		return (build) -> {
-			// add our distribution management
-			build.distributionManagement()
-				.snapshotRepository((repository) -> repository.id("deployment")
-					.uniqueVersion(false)
-					.url("https://dev1-git1.int.ch:8676/nexus/content/repositories/snapshot-policy"));
-			build.distributionManagement()
-				.repository((repository) -> repository.id("deployment")
-					.url("https://dev1-git1.int.ch:8676/nexus/content/releases"));
+			// A module inherits the shared configuration of its aggregator build
+			boolean module = projectModule.getIfAvailable() != null;
+			if (!module) {
+				NthBuildConventions.addDistributionManagement(build);
+			}
 
 			// configure spring-boot-maven-plugin
 			build.plugins().add("org.springframework.boot", "spring-boot-maven-plugin", (plugin) -> {
@@ -297,47 +296,9 @@ public class NthProjectGenerationConfiguration {
 				});
 			});
 
-			// add maven-enforcer-plugin
-			build.plugins().add("org.apache.maven.plugins", "maven-enforcer-plugin", (plugin) -> {
-				plugin.execution("enforce-banned-dependencies", (execution) -> execution.goal("enforce"));
-				plugin.configuration((configuration) -> {
-					configuration.configure("rules", (rules) -> {
-						rules.add("bannedDependencies", (bannedDependencies) -> {
-							bannedDependencies.configure("excludes", (excludes) -> {
-								excludes.add("exclude", "commons-logging:*");
-								excludes.add("exclude", "org.codehaus.jackson:*");
-							});
-							bannedDependencies.add("searchTransitive", "true");
-						});
-						rules.add("banDuplicateClasses",
-								(banDuplicateClasses) -> banDuplicateClasses.add("findAllDuplicates", "true"));
-						/**
-						 * Currently this is not rendering valid xml, initializr generator
-						 * does not have support for xml attributes of node
-						 * rules.add("restrictImports
-						 * implementation=\"de.skuzzle.enforcer.restrictimports.rule.RestrictImports\"",
-						 * (restrictImports) -> { restrictImports.add("reason", "Use new
-						 * Jackson (com.fasterxml.jackson)");
-						 * restrictImports.add("bannedImport", "org.codehaus.jackson.**");
-						 * }); rules.add("restrictImports
-						 * implementation=\"de.skuzzle.enforcer.restrictimports.rule.RestrictImports\"",
-						 * (restrictImports) -> { restrictImports.add("reason", "Use
-						 * DatatypeConverter.printBase64Binary instead of
-						 * BASE64Encoder.encode"); restrictImports.add("bannedImport",
-						 * "sun.misc.BASE64Encoder"); }); rules.add("restrictImports
-						 * implementation=\"de.skuzzle.enforcer.restrictimports.rule.RestrictImports\"",
-						 * (restrictImports) -> { restrictImports.add("reason", "Use Java
-						 * 8 Time instead of Joda if possible
-						 * (https://www.oracle.com/technical-resources/articles/java/jf14-date-time.html)");
-						 * restrictImports.add("bannedImport", "org.joda.**");
-						 * restrictImports.add("failBuild", "false"); });
-						 */
-					});
-					configuration.add("fail", "true");
-				});
-				plugin.dependency("org.codehaus.mojo", "extra-enforcer-rules", "1.5.1");
-				plugin.dependency("de.skuzzle.enforcer", "restrict-imports-enforcer-rule", "2.0.0");
-			});
+			if (!module) {
+				NthBuildConventions.addEnforcerPlugin(build);
+			}
 		};
 	}
 
@@ -367,23 +328,13 @@ public class NthProjectGenerationConfiguration {
 	@Order
 	@Bean
 	public BuildCustomizer<Build> nthRepositoriesAndDependencyVersionsBuildCustomizer(
-			ProjectDescription projectDescription) {
+			ProjectDescription projectDescription, ObjectProvider<NexusArtifactResolver> nexusArtifactResolver,
+			ObjectProvider<ProjectModule> projectModule) {
 		return (build) -> {
-			// add our repositories
-			build.repositories()
-				.add(MavenRepository
-					.withIdAndUrl("nth-nexus-releases",
-							"https://dev1-git1.int.ch:8676/nexus/content/repositories/releases")
-					.name("NTH Nexus Releases")
-					.snapshotsEnabled(false)
-					.releasesEnabled(true));
-			build.repositories()
-				.add(MavenRepository
-					.withIdAndUrl("nth-nexus-snapshots",
-							"https://dev1-git1.int.ch:8676/nexus/content/repositories/snapshot-policy")
-					.name("NTH Nexus Snapshots")
-					.snapshotsEnabled(true)
-					.releasesEnabled(false));
+			if (!(build instanceof MavenBuild) || projectModule.getIfAvailable() == null) {
+				// A module inherits the repositories of its aggregator build
+				NthBuildConventions.addRepositories(build);
+			}
 
 			if (StringUtils.hasText(projectDescription.getLanguage().jvmVersion())) {
 				if (!"1.8".equals(projectDescription.getLanguage().jvmVersion())) {
@@ -395,28 +346,16 @@ public class NthProjectGenerationConfiguration {
 			// add configuration-processor
 			build.dependencies().add("configuration-processor");
 
-			NexusArtifactResolver resolver = new NexusArtifactResolver();
 			// replace LATEST and RELEASE versions with real versions from Nexus
-			build.dependencies().ids().parallel().filter((id) -> id.startsWith("nth-")).forEach((id) -> {
-				Dependency dependency = build.dependencies().get(id);
-				try {
-					ArtifactResolveResource resolveResource = resolver.resolve(dependency);
-					if (resolveResource != null) {
-						String version = resolveResource.getBaseVersion();
-						if (!StringUtils.hasText(version)) {
-							version = resolveResource.getVersion();
-						}
-						if (StringUtils.hasText(version)) {
-							build.dependencies()
-								.add(id, Dependency.from(dependency).version(VersionReference.ofValue(version)));
-						}
-					}
-				}
-				catch (RestClientException ex) {
-					LoggerFactory.getLogger(getClass())
-						.error("Error resolving dependency {} at Nexus - {}", id, ex.getMessage());
-				}
-			});
+			Map<String, Dependency> nthDependencies = new LinkedHashMap<>();
+			build.dependencies()
+				.ids()
+				.filter(NexusArtifactResolver::isResolved)
+				.forEach((id) -> nthDependencies.put(id, build.dependencies().get(id)));
+			NexusArtifactResolver resolver = nexusArtifactResolver.getIfAvailable(NexusArtifactResolver::new);
+			resolver.resolveVersions(nthDependencies)
+				.forEach((id, version) -> build.dependencies()
+					.add(id, Dependency.from(nthDependencies.get(id)).version(VersionReference.ofValue(version))));
 		};
 	}
 
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.time.Duration;
+
+/**
+ * State of the project generation running on the current thread. Tracks whether the
+ * generation should be abandoned, either because it exceeded its deadline or because
+ * it was explicitly cancelled.
+ *
+ * @author agent
+ */
+public final class ActiveGeneration implements AutoCloseable {
+
+	private static final ThreadLocal<ActiveGeneration> CURRENT = new ThreadLocal<>();
+
+	private final long deadline;
+
+	private final ActiveGeneration previous;
+
+	private final ActiveGeneration parent;
+
+	private final boolean warmup;
+
+	private volatile String cancellationReason;
+
+	private volatile CanonicalProjectRequest request;
+
+	private ActiveGeneration(long deadline, ActiveGeneration previous, ActiveGeneration parent, boolean warmup) {
+		this.deadline = deadline;
+		this.previous = previous;
+		this.parent = parent;
+		this.warmup = warmup;
+	}
+
+	/**
+	 * Start tracking a generation on the current thread.
+	 * @param timeout the maximum time the generation is allowed to take
+	 * @return the active generation, to close once the generation has completed
+	 */
+	public static ActiveGeneration start(Duration timeout) {
+		return start(timeout, false);
+	}
+
+	/**
+	 * Start tracking a generation on the current thread that is not triggered by a
+	 * client, but run to warm up caches. Such generations are not part of the
+	 * statistics.
+	 * @param timeout the maximum time the generation is allowed to take
+	 * @return the active generation, to close once the generation has completed
+	 */
+	public static ActiveGeneration startWarmup(Duration timeout) {
+		return start(timeout, true);
+	}
+
+	/**
+	 * Start tracking a generation on the current thread that is part of the specified
+	 * generation, usually running on another thread. The generation shares the deadline
+	 * of its parent and is cancelled along with it.
+	 * @param parent the parent generation
+	 * @return the active generation, to close once the generation has completed
+	 */
+	public static ActiveGeneration startWithin(ActiveGeneration parent) {
+		return start(new ActiveGeneration(parent.deadline, CURRENT.get(), parent, parent.warmup));
+	}
+
+	private static ActiveGeneration start(Duration timeout, boolean warmup) {
+		return start(new ActiveGeneration(System.nanoTime() + timeout.toNanos(), CURRENT.get(), null, warmup));
+	}
+
+	private static ActiveGeneration start(ActiveGeneration generation) {
+		CURRENT.set(generation);
+		return generation;
+	}
+
+	/**
+	 * Return the generation running on the current thread, if any.
+	 * @return the active generation or {@code null}
+	 */
+	public static ActiveGeneration current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Abort the generation running on the current thread, if any, if it has been
+	 * cancelled or if its deadline has passed.
+	 * @throws GenerationCancelledException if the generation should not proceed
+	 */
+	public static void checkNotCancelled() {
+		ActiveGeneration generation = CURRENT.get();
+		if (generation != null) {
+			generation.check();
+		}
+	}
+
+	/**
+	 * Return the request of the generation running on the current thread, if known.
+	 * @return the canonical request or {@code null}
+	 */
+	public static CanonicalProjectRequest currentRequest() {
+		ActiveGeneration generation = CURRENT.get();
+		return (generation != null) ? generation.request : null;
+	}
+
+	/**
+	 * Return whether the generation running on the current thread, if any, is a
+	 * {@link #startWarmup(Duration) warm-up}.
+	 * @return {@code true} if a warm-up generation is running on the current thread
+	 */
+	public static boolean isWarmup() {
+		ActiveGeneration generation = CURRENT.get();
+		return generation != null && generation.warmup;
+	}
+
+	/**
+	 * Return the request being generated, if known.
+	 * @return the canonical request or {@code null}
+	 */
+	public CanonicalProjectRequest getRequest() {
+		return this.request;
+	}
+
+	/**
+	 * Set the request being generated.
+	 * @param request the canonical request
+	 */
+	public void setRequest(CanonicalProjectRequest request) {
+		this.request = request;
+	}
+
+	/**
+	 * Request this generation, and those started within it, to stop at their next
+	 * checkpoint. Used when the client is known to have gone away while the generation
+	 * is running.
+	 * @param reason the reason of the cancellation
+	 */
+	public void cancel(String reason) {
+		this.cancellationReason = reason;
+	}
+
+	private void check() {
+		String reason = this.cancellationReason;
+		if (reason == null && this.parent != null) {
+			reason = this.parent.cancellationReason;
+		}
+		if (reason == null && System.nanoTime() - this.deadline > 0) {
+			reason = GenerationCancelledException.DEADLINE;
+		}
+		if (reason != null) {
+			throw new GenerationCancelledException(reason);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.previous != null) {
+			CURRENT.set(this.previous);
+		}
+		else {
+			CURRENT.remove();
+		}
+	}
+
+}
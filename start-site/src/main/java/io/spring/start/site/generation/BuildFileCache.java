@@ -0,0 +1,271 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.metadata.DefaultMetadataElement;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.start.site.cache.SharedCacheRegion;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * A bounded, least recently used cache of rendered build files, keyed by the
+ * {@link CanonicalProjectRequest canonical request}. Entries are only valid for the
+ * {@link InitializrMetadata metadata} they have been rendered with: the cache is cleared
+ * as soon as a different metadata instance is used, for instance once it has been
+ * refreshed.
+ * <p>
+ * If a {@link SharedCacheRegion shared region} is configured, build files that are not
+ * in the local cache are looked up in the region, keyed by the request and the Spring
+ * Boot versions of the metadata, before being rendered. A node that notices a change of
+ * these versions invalidates the region, which clears the local cache of every node.
+ * <p>
+ * Requests that are not cacheable, such as those whose build depends on versions resolved
+ * for each generation, are always rendered: they are neither kept locally nor written to
+ * the shared region, as its key only covers the Spring Boot versions.
+ * <p>
+ * The {@code ETag} of a build file is computed once, when it is added to the local cache,
+ * rather than each time it is served.
+ *
+ * @author agent
+ */
+public class BuildFileCache {
+
+	private final int maxEntries;
+
+	private final Map<CanonicalProjectRequest, CachedBuildFile> entries;
+
+	private final Counter hits;
+
+	private final Counter sharedHits;
+
+	private final Counter misses;
+
+	private final Counter bypasses;
+
+	private final SharedCacheRegion sharedRegion;
+
+	private final Predicate<CanonicalProjectRequest> cacheable;
+
+	private InitializrMetadata metadata;
+
+	private String fingerprint;
+
+	/**
+	 * Create a new instance.
+	 * @param maxEntries the maximum number of build files to keep
+	 * @param meterRegistry the registry to use
+	 */
+	public BuildFileCache(int maxEntries, MeterRegistry meterRegistry) {
+		this(maxEntries, meterRegistry, null);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param maxEntries the maximum number of build files to keep
+	 * @param meterRegistry the registry to use
+	 * @param sharedRegion the region shared by the nodes of the cluster, or {@code null}
+	 */
+	public BuildFileCache(int maxEntries, MeterRegistry meterRegistry, SharedCacheRegion sharedRegion) {
+		this(maxEntries, meterRegistry, sharedRegion, (request) -> true);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param maxEntries the maximum number of build files to keep
+	 * @param meterRegistry the registry to use
+	 * @param sharedRegion the region shared by the nodes of the cluster, or {@code null}
+	 * @param cacheable whether the build file of a request can be cached
+	 */
+	public BuildFileCache(int maxEntries, MeterRegistry meterRegistry, SharedCacheRegion sharedRegion,
+			Predicate<CanonicalProjectRequest> cacheable) {
+		Assert.isTrue(maxEntries > 0, "'maxEntries' must be positive");
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CanonicalProjectRequest, CachedBuildFile> eldest) {
+				return size() > BuildFileCache.this.maxEntries;
+			}
+
+		};
+		this.hits = Counter.builder("initializr.build-files.cache")
+			.description("Number of build file requests served from the cache")
+			.tag("result", "hit")
+			.register(meterRegistry);
+		this.sharedHits = Counter.builder("initializr.build-files.cache")
+			.description("Number of build file requests served from the cache")
+			.tag("result", "shared-hit")
+			.register(meterRegistry);
+		this.misses = Counter.builder("initializr.build-files.cache")
+			.description("Number of build file requests served from the cache")
+			.tag("result", "miss")
+			.register(meterRegistry);
+		this.bypasses = Counter.builder("initializr.build-files.cache")
+			.description("Number of build file requests served from the cache")
+			.tag("result", "bypass")
+			.register(meterRegistry);
+		this.sharedRegion = sharedRegion;
+		this.cacheable = cacheable;
+		if (sharedRegion != null) {
+			sharedRegion.addInvalidationListener(this::clear);
+		}
+	}
+
+	/**
+	 * Return the build file for the specified request, rendering it if necessary. The
+	 * returned content is shared and must not be modified.
+	 * @param request the canonical request
+	 * @param metadata the metadata the build file is rendered with
+	 * @param renderer renders the build file on a cache miss
+	 * @param onHit invoked when the build file is served from the cache
+	 * @return the content of the build file
+	 */
+	public byte[] get(CanonicalProjectRequest request, InitializrMetadata metadata, Supplier<byte[]> renderer,
+			Runnable onHit) {
+		if (!this.cacheable.test(request)) {
+			this.bypasses.increment();
+			return renderer.get();
+		}
+		byte[] content = getIfAvailable(request, metadata);
+		if (content != null) {
+			this.hits.increment();
+			onHit.run();
+			return content;
+		}
+		String sharedKey = (this.sharedRegion != null) ? getSharedKey(request, metadata) : null;
+		content = (sharedKey != null) ? this.sharedRegion.get(sharedKey) : null;
+		if (content != null) {
+			this.sharedHits.increment();
+			onHit.run();
+		}
+		else {
+			this.misses.increment();
+			content = renderer.get();
+			if (sharedKey != null) {
+				this.sharedRegion.put(sharedKey, content);
+			}
+		}
+		CachedBuildFile buildFile = new CachedBuildFile(content, DigestUtils.md5DigestAsHex(content));
+		synchronized (this.entries) {
+			if (this.metadata == metadata) {
+				this.entries.put(request, buildFile);
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * Return the {@code ETag} of the specified build file, as returned by
+	 * {@link #get(CanonicalProjectRequest, InitializrMetadata, Supplier, Runnable)}. The
+	 * tag of a cached build file is not computed again.
+	 * @param request the canonical request
+	 * @param content the content of the build file
+	 * @return the hex-encoded MD5 digest of the content
+	 */
+	public String getETag(CanonicalProjectRequest request, byte[] content) {
+		CachedBuildFile buildFile;
+		synchronized (this.entries) {
+			buildFile = this.entries.get(request);
+		}
+		return (buildFile != null && buildFile.content() == content) ? buildFile.eTag()
+				: DigestUtils.md5DigestAsHex(content);
+	}
+
+	private byte[] getIfAvailable(CanonicalProjectRequest request, InitializrMetadata metadata) {
+		boolean invalidate = false;
+		CachedBuildFile buildFile;
+		synchronized (this.entries) {
+			if (this.metadata != metadata) {
+				this.entries.clear();
+				this.metadata = metadata;
+				String previousFingerprint = this.fingerprint;
+				this.fingerprint = fingerprint(metadata);
+				invalidate = previousFingerprint != null && !previousFingerprint.equals(this.fingerprint);
+				buildFile = null;
+			}
+			else {
+				buildFile = this.entries.get(request);
+			}
+		}
+		if (invalidate && this.sharedRegion != null) {
+			this.sharedRegion.invalidate();
+		}
+		return (buildFile != null) ? buildFile.content() : null;
+	}
+
+	private String getSharedKey(CanonicalProjectRequest request, InitializrMetadata metadata) {
+		synchronized (this.entries) {
+			return (this.metadata == metadata) ? this.fingerprint + ":" + request.getHash() : null;
+		}
+	}
+
+	private void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	private static String fingerprint(InitializrMetadata metadata) {
+		// The other attributes of the metadata only change with the application
+		StringBuilder versions = new StringBuilder();
+		DefaultMetadataElement defaultVersion = metadata.getBootVersions().getDefault();
+		versions.append((defaultVersion != null) ? defaultVersion.getId() : "");
+		metadata.getBootVersions().getContent().forEach((version) -> versions.append(',').append(version.getId()));
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+				.digest(versions.toString().getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest, 0, 8);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Return the number of build files in the cache.
+	 * @return the number of cached build files
+	 */
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * A cached build file.
+	 *
+	 * @param content the content of the build file
+	 * @param eTag the {@code ETag} of the build file
+	 */
+	private record CachedBuildFile(byte[] content, String eTag) {
+
+	}
+
+}
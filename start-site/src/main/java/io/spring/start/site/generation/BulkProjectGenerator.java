@@ -0,0 +1,289 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.generation.GenerationScheduler.Permit;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Generates several projects concurrently, each in its own base directory. The projects
+ * are generated as part of the {@link ActiveGeneration active generation} of the calling
+ * thread, if any, so that they share its deadline. If a project cannot be generated, the
+ * projects that have not started yet are skipped and those that have been generated
+ * are cleaned up.
+ * <p>
+ * When a {@link GenerationScheduler} is set, each project acquires its own permit before
+ * it is generated, as an automated request, so that a bulk request is accounted for the
+ * generations it actually runs.
+ *
+ * @author agent
+ */
+public class BulkProjectGenerator {
+
+	private final ProjectGenerationInvoker<ProjectRequest> invoker;
+
+	private final Executor executor;
+
+	private final int maxProjects;
+
+	private final GenerationScheduler scheduler;
+
+	/**
+	 * Create a new instance.
+	 * @param invoker the invoker to use to generate each project
+	 * @param executor the executor to generate projects with
+	 * @param maxProjects the maximum number of projects that can be generated at once
+	 */
+	public BulkProjectGenerator(ProjectGenerationInvoker<ProjectRequest> invoker, Executor executor,
+			int maxProjects) {
+		this(invoker, executor, maxProjects, null);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param invoker the invoker to use to generate each project
+	 * @param executor the executor to generate projects with
+	 * @param maxProjects the maximum number of projects that can be generated at once
+	 * @param scheduler the scheduler to acquire a permit from for each project, or
+	 * {@code null}
+	 */
+	public BulkProjectGenerator(ProjectGenerationInvoker<ProjectRequest> invoker, Executor executor, int maxProjects,
+			GenerationScheduler scheduler) {
+		this.invoker = invoker;
+		this.executor = executor;
+		this.maxProjects = maxProjects;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Shut down the executor, if it is an {@link ExecutorService}. Projects in progress
+	 * are still generated, but no new project can be submitted.
+	 */
+	public void shutdown() {
+		if (this.executor instanceof ExecutorService executorService) {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Return the maximum number of projects that can be generated at once.
+	 * @return the maximum number of projects
+	 */
+	public int getMaxProjects() {
+		return this.maxProjects;
+	}
+
+	/**
+	 * Generate the specified projects.
+	 * @param requests the requests of the projects to generate
+	 * @return the result of each generation, in the order of the requests
+	 * @throws IllegalArgumentException if there are no requests or too many of them
+	 * @see #generate(List, Listener)
+	 */
+	public List<ProjectGenerationResult> generate(List<? extends ProjectRequest> requests) {
+		return generate(requests, new Listener() {
+		});
+	}
+
+	/**
+	 * Generate the specified projects. Each project is generated in a distinct base
+	 * directory, named after the base directory or the artifact id of its request. The
+	 * listener is notified on the calling thread, as projects complete.
+	 * @param requests the requests of the projects to generate
+	 * @param listener the listener to notify of the progress of the generation
+	 * @return the result of each generation, in the order of the requests
+	 * @throws IllegalArgumentException if there are no requests or too many of them
+	 */
+	public List<ProjectGenerationResult> generate(List<? extends ProjectRequest> requests, Listener listener) {
+		Assert.notEmpty(requests, "'requests' must not be empty");
+		Assert.isTrue(requests.size() <= this.maxProjects,
+				() -> "At most %d projects can be generated at once".formatted(this.maxProjects));
+		assignBaseDirectories(requests);
+		ActiveGeneration parent = ActiveGeneration.current();
+		AtomicBoolean failed = new AtomicBoolean();
+		BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+		List<CompletableFuture<ProjectGenerationResult>> generations = new ArrayList<>();
+		for (int i = 0; i < requests.size(); i++) {
+			int index = i;
+			ProjectRequest request = requests.get(i);
+			CompletableFuture<ProjectGenerationResult> generation = CompletableFuture
+				.supplyAsync(() -> generate(parent, request, failed), this.executor);
+			generation.whenComplete((result, ex) -> {
+				if (ex != null) {
+					failed.set(true);
+				}
+				completed.add(index);
+			});
+			generations.add(generation);
+		}
+		RuntimeException failure = awaitCompletion(requests, generations, completed, failed, listener);
+		List<ProjectGenerationResult> results = generations.stream()
+			.filter((generation) -> !generation.isCompletedExceptionally())
+			.map(CompletableFuture::join)
+			.toList();
+		if (failure != null) {
+			results.forEach((result) -> this.invoker.cleanTempFiles(result.getRootDirectory()));
+			throw failure;
+		}
+		return results;
+	}
+
+	private ProjectGenerationResult generate(ActiveGeneration parent, ProjectRequest request, AtomicBoolean failed) {
+		if (failed.get()) {
+			throw new SkippedGenerationException();
+		}
+		try (Permit permit = acquirePermit();
+				ActiveGeneration generation = (parent != null) ? ActiveGeneration.startWithin(parent) : null) {
+			return this.invoker.invokeProjectStructureGeneration(request);
+		}
+	}
+
+	private Permit acquirePermit() {
+		if (this.scheduler == null) {
+			return null;
+		}
+		try {
+			return this.scheduler.acquire(ClientType.OTHER);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new GenerationRejectedException("Interrupted while waiting for a generation slot");
+		}
+	}
+
+	private RuntimeException awaitCompletion(List<? extends ProjectRequest> requests,
+			List<CompletableFuture<ProjectGenerationResult>> generations, BlockingQueue<Integer> completed,
+			AtomicBoolean failed, Listener listener) {
+		RuntimeException failure = null;
+		boolean interrupted = false;
+		for (int remaining = generations.size(); remaining > 0;) {
+			int index;
+			try {
+				index = completed.take();
+			}
+			catch (InterruptedException ex) {
+				// Projects that are being generated must complete to be cleaned up
+				interrupted = true;
+				continue;
+			}
+			remaining--;
+			Throwable cause = getFailure(generations.get(index));
+			if (cause instanceof SkippedGenerationException) {
+				continue;
+			}
+			if (cause != null && failure == null) {
+				failure = (cause instanceof RuntimeException runtimeException) ? runtimeException
+						: new IllegalStateException(cause.getMessage(), cause);
+			}
+			try {
+				if (cause != null) {
+					listener.onFailed(index, requests.get(index), cause);
+				}
+				else {
+					listener.onGenerated(index, requests.get(index));
+				}
+			}
+			catch (RuntimeException ex) {
+				failed.set(true);
+				failure = (failure != null) ? failure : ex;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return failure;
+	}
+
+	private Throwable getFailure(CompletableFuture<ProjectGenerationResult> generation) {
+		try {
+			generation.join();
+			return null;
+		}
+		catch (CompletionException ex) {
+			return (ex.getCause() != null) ? ex.getCause() : ex;
+		}
+	}
+
+	private void assignBaseDirectories(List<? extends ProjectRequest> requests) {
+		Set<String> names = new HashSet<>();
+		for (ProjectRequest request : requests) {
+			String candidate = StringUtils.hasText(request.getBaseDir()) ? request.getBaseDir()
+					: request.getArtifactId();
+			if (!StringUtils.hasText(candidate)) {
+				candidate = "project";
+			}
+			String name = candidate;
+			for (int i = 2; !names.add(name); i++) {
+				name = candidate + "-" + i;
+			}
+			request.setBaseDir(name);
+		}
+	}
+
+	/**
+	 * Callback interface notified of the progress of a bulk generation.
+	 */
+	public interface Listener {
+
+		/**
+		 * Invoked when a project has been generated.
+		 * @param index the index of the request
+		 * @param request the request
+		 */
+		default void onGenerated(int index, ProjectRequest request) {
+		}
+
+		/**
+		 * Invoked when a project could not be generated.
+		 * @param index the index of the request
+		 * @param request the request
+		 * @param failure the failure
+		 */
+		default void onFailed(int index, ProjectRequest request, Throwable failure) {
+		}
+
+	}
+
+	/**
+	 * Thrown for a generation that was not started as another one failed.
+	 */
+	private static final class SkippedGenerationException extends RuntimeException {
+
+		SkippedGenerationException() {
+			super(null, null, false, false);
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.generation.HeavyHitters.Estimate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Generates the build files of the {@link PopularRequests most popular requests} so that
+ * they are cached before clients ask for them, at startup and whenever a generation
+ * reveals that the metadata has been refreshed. The popular requests are stored on
+ * shutdown so that the ranking survives a restart.
+ *
+ * @author agent
+ */
+public class CacheWarmer implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(CacheWarmer.class);
+
+	private final PopularRequests popularRequests;
+
+	private final ProjectGenerationInvoker<ProjectRequest> invoker;
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final int requests;
+
+	private final Duration timeout;
+
+	private final Path snapshot;
+
+	private final AtomicReference<InitializrMetadata> warmedMetadata = new AtomicReference<>();
+
+	private volatile boolean running;
+
+	private ExecutorService executor;
+
+	/**
+	 * Create a new instance.
+	 * @param popularRequests the popular requests
+	 * @param invoker the invoker to use to generate build files
+	 * @param metadataProvider the metadata provider
+	 * @param requests the number of popular requests to generate
+	 * @param timeout the maximum time a single generation can take
+	 * @param snapshot the file to store the popular requests to, or {@code null}
+	 */
+	public CacheWarmer(PopularRequests popularRequests, ProjectGenerationInvoker<ProjectRequest> invoker,
+			InitializrMetadataProvider metadataProvider, int requests, Duration timeout, Path snapshot) {
+		this.popularRequests = popularRequests;
+		this.invoker = invoker;
+		this.metadataProvider = metadataProvider;
+		this.requests = requests;
+		this.timeout = timeout;
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	public void start() {
+		if (this.snapshot != null && Files.exists(this.snapshot)) {
+			try {
+				this.popularRequests.restore(this.snapshot);
+			}
+			catch (IOException ex) {
+				logger.warn("Failed to restore popular requests from " + this.snapshot, ex);
+			}
+		}
+		this.executor = Executors.newSingleThreadExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "cache-warmer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.running = true;
+		this.executor.execute(() -> warm(this.metadataProvider.get()));
+	}
+
+	@EventListener
+	public void onProjectGenerated(ProjectGeneratedEvent event) {
+		InitializrMetadata metadata = event.getMetadata();
+		InitializrMetadata previous = this.warmedMetadata.get();
+		if (this.running && !ActiveGeneration.isWarmup() && previous != null && previous != metadata
+				&& this.warmedMetadata.compareAndSet(previous, metadata)) {
+			this.executor.execute(() -> warm(metadata));
+		}
+	}
+
+	private void warm(InitializrMetadata metadata) {
+		this.warmedMetadata.set(metadata);
+		List<Estimate<CanonicalProjectRequest>> popular = this.popularRequests.getRequests(this.requests);
+		int warmed = 0;
+		for (Estimate<CanonicalProjectRequest> estimate : popular) {
+			if (!this.running) {
+				return;
+			}
+			try (ActiveGeneration generation = ActiveGeneration.startWarmup(this.timeout)) {
+				this.invoker.invokeBuildGeneration(estimate.item().toProjectRequest());
+				warmed++;
+			}
+			catch (RuntimeException ex) {
+				logger.debug("Failed to warm up request " + estimate.item(), ex);
+			}
+		}
+		if (!popular.isEmpty()) {
+			logger.info("Warmed up " + warmed + " of " + popular.size() + " popular requests");
+		}
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+		if (this.snapshot != null) {
+			try {
+				this.popularRequests.store(this.snapshot);
+			}
+			catch (IOException ex) {
+				logger.warn("Failed to store popular requests to " + this.snapshot, ex);
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+}
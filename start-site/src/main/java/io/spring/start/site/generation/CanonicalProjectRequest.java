@@ -0,0 +1,227 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import io.spring.initializr.web.project.ProjectRequest;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * A canonical form of a {@link ProjectRequest}: requests that only differ by the order
+ * or repetition of their dependencies share the same canonical form, and therefore the
+ * same {@link #getHash() hash}.
+ *
+ * @author agent
+ */
+public final class CanonicalProjectRequest {
+
+	private static final String DEPENDENCIES = "dependencies";
+
+	private static final List<String> ATTRIBUTES = List.of("type", "language", "bootVersion", "javaVersion",
+			"packaging", "groupId", "artifactId", "version", "name", "description", "packageName", "applicationName",
+			"baseDir", DEPENDENCIES);
+
+	private final String canonicalForm;
+
+	private final Map<String, String> attributes;
+
+	private final List<String> dependencies;
+
+	private volatile String hash;
+
+	private CanonicalProjectRequest(String canonicalForm, Map<String, String> attributes, List<String> dependencies) {
+		this.canonicalForm = canonicalForm;
+		this.attributes = attributes;
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Create the canonical form of the specified {@link ProjectRequest}.
+	 * @param request the request
+	 * @return the canonical request
+	 */
+	public static CanonicalProjectRequest of(ProjectRequest request) {
+		Map<String, String> attributes = new LinkedHashMap<>();
+		attributes.put("type", request.getType());
+		attributes.put("language", request.getLanguage());
+		attributes.put("bootVersion", request.getBootVersion());
+		attributes.put("javaVersion", request.getJavaVersion());
+		attributes.put("packaging", request.getPackaging());
+		attributes.put("groupId", request.getGroupId());
+		attributes.put("artifactId", request.getArtifactId());
+		attributes.put("version", request.getVersion());
+		attributes.put("name", request.getName());
+		attributes.put("description", request.getDescription());
+		attributes.put("packageName", request.getPackageName());
+		attributes.put("applicationName", request.getApplicationName());
+		attributes.put("baseDir", request.getBaseDir());
+		attributes.put(DEPENDENCIES, String.join(",", new TreeSet<>(request.getDependencies())));
+		return of(attributes);
+	}
+
+	/**
+	 * Create a canonical request from its {@link #getAttributes() attributes}.
+	 * @param attributes the attributes of the request
+	 * @return the canonical request
+	 */
+	public static CanonicalProjectRequest of(Map<String, String> attributes) {
+		Map<String, String> canonicalAttributes = new LinkedHashMap<>();
+		StringBuilder canonicalForm = new StringBuilder();
+		for (String name : ATTRIBUTES) {
+			String value = attributes.get(name);
+			if (name.equals(DEPENDENCIES)) {
+				value = (StringUtils.hasLength(value))
+						? String.join(",", new TreeSet<>(StringUtils.commaDelimitedListToSet(value))) : "";
+			}
+			canonicalAttributes.put(name, value);
+			appendAttribute(canonicalForm, name, value);
+		}
+		String dependencies = canonicalAttributes.get(DEPENDENCIES);
+		return new CanonicalProjectRequest(canonicalForm.toString(), Collections.unmodifiableMap(canonicalAttributes),
+				StringUtils.hasLength(dependencies) ? List.of(dependencies.split(",")) : List.of());
+	}
+
+	private static void appendAttribute(StringBuilder canonicalForm, String name, String value) {
+		// Values are length-prefixed so that no value can be mistaken for another attribute
+		canonicalForm.append(name).append('=');
+		if (value != null) {
+			canonicalForm.append(value.length()).append(':').append(value);
+		}
+		canonicalForm.append('\n');
+	}
+
+	/**
+	 * Create a {@link ProjectRequest} that is equivalent to this canonical request.
+	 * @return a new project request
+	 */
+	public ProjectRequest toProjectRequest() {
+		ProjectRequest request = new ProjectRequest();
+		request.setType(this.attributes.get("type"));
+		request.setLanguage(this.attributes.get("language"));
+		request.setBootVersion(this.attributes.get("bootVersion"));
+		request.setJavaVersion(this.attributes.get("javaVersion"));
+		request.setPackaging(this.attributes.get("packaging"));
+		request.setGroupId(this.attributes.get("groupId"));
+		request.setArtifactId(this.attributes.get("artifactId"));
+		request.setVersion(this.attributes.get("version"));
+		request.setName(this.attributes.get("name"));
+		request.setDescription(this.attributes.get("description"));
+		request.setPackageName(this.attributes.get("packageName"));
+		request.setApplicationName(this.attributes.get("applicationName"));
+		request.setBaseDir(this.attributes.get("baseDir"));
+		request.setDependencies(new ArrayList<>(this.dependencies));
+		return request;
+	}
+
+	/**
+	 * Return the attributes of the request, dependencies being a sorted comma-separated
+	 * list.
+	 * @return the attributes
+	 */
+	public Map<String, String> getAttributes() {
+		return this.attributes;
+	}
+
+	/**
+	 * Return the canonical form of the request.
+	 * @return the canonical form
+	 */
+	public String getCanonicalForm() {
+		return this.canonicalForm;
+	}
+
+	/**
+	 * Return the ids of the requested dependencies, sorted and without duplicates.
+	 * @return the dependency ids
+	 */
+	public List<String> getDependencies() {
+		return this.dependencies;
+	}
+
+	/**
+	 * Return the number of distinct requested dependencies.
+	 * @return the dependency count
+	 */
+	public int getDependencyCount() {
+		return this.dependencies.size();
+	}
+
+	/**
+	 * Return the SHA-256 hash of the canonical form, hex-encoded.
+	 * @return the hash of the request
+	 */
+	public String getHash() {
+		String hash = this.hash;
+		if (hash == null) {
+			hash = HexFormat.of().formatHex(sha256(this.canonicalForm));
+			this.hash = hash;
+		}
+		return hash;
+	}
+
+	/**
+	 * Return the first 64 bits of the {@link #getHash() hash} of the canonical form.
+	 * @return a 64-bit hash of the request
+	 */
+	public long getLongHash() {
+		return HexFormat.fromHexDigitsToLong(getHash(), 0, 16);
+	}
+
+	private static byte[] sha256(String content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		CanonicalProjectRequest other = (CanonicalProjectRequest) obj;
+		return this.canonicalForm.equals(other.canonicalForm);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.canonicalForm);
+	}
+
+	@Override
+	public String toString() {
+		return getHash();
+	}
+
+}
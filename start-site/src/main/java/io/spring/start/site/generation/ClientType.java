@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.Locale;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * The type of client requesting a project generation, used to keep queuing fair between
+ * interactive users and automated tools.
+ *
+ * @author agent
+ */
+public enum ClientType {
+
+	/**
+	 * The web UI or any other browser.
+	 */
+	BROWSER,
+
+	/**
+	 * A command-line tool such as {@code curl}, {@code HTTPie} or the Spring Boot CLI.
+	 */
+	CLI,
+
+	/**
+	 * An IDE integration.
+	 */
+	IDE,
+
+	/**
+	 * Any other client.
+	 */
+	OTHER;
+
+	private static final String[] CLI_AGENTS = { "curl", "httpie", "springbootcli", "wget" };
+
+	private static final String[] IDE_AGENTS = { "intellij", "sts", "eclipse", "vscode", "netbeans", "jbossforge" };
+
+	/**
+	 * Return the {@link ClientType} matching the specified {@code User-Agent} header.
+	 * @param userAgent the user agent, or {@code null}
+	 * @return the client type
+	 */
+	public static ClientType fromUserAgent(String userAgent) {
+		if (!StringUtils.hasText(userAgent)) {
+			return OTHER;
+		}
+		String candidate = userAgent.toLowerCase(Locale.ROOT);
+		if (startsWithAny(candidate, CLI_AGENTS)) {
+			return CLI;
+		}
+		if (startsWithAny(candidate, IDE_AGENTS)) {
+			return IDE;
+		}
+		if (candidate.startsWith("mozilla")) {
+			return BROWSER;
+		}
+		return OTHER;
+	}
+
+	private static boolean startsWithAny(String candidate, String[] prefixes) {
+		for (String prefix : prefixes) {
+			if (candidate.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import org.springframework.util.Assert;
+
+/**
+ * A Count-Min Sketch: estimates the frequency of items in a stream using a fixed amount
+ * of memory. Estimates are never lower than the actual frequency, and exceed it by at
+ * most {@code e / width} of the total count with a probability of
+ * {@code 1 - e^-depth}. Counters are updated conservatively to reduce over-estimation.
+ * Not thread-safe.
+ *
+ * @author agent
+ */
+final class CountMinSketch {
+
+	private final int width;
+
+	private final int depth;
+
+	private final long[] counters;
+
+	/**
+	 * Create a new instance.
+	 * @param width the number of counters per row
+	 * @param depth the number of rows
+	 */
+	CountMinSketch(int width, int depth) {
+		Assert.isTrue(width > 0 && depth > 0, "'width' and 'depth' must be positive");
+		this.width = width;
+		this.depth = depth;
+		this.counters = new long[width * depth];
+	}
+
+	/**
+	 * Add the specified count to the item with the specified hash.
+	 * @param hash the hash of the item
+	 * @param count the count to add
+	 * @return the estimated frequency of the item, including this addition
+	 */
+	long add(long hash, long count) {
+		long h1 = mix(hash);
+		long h2 = mix(h1);
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < this.depth; row++) {
+			estimate = Math.min(estimate, this.counters[index(row, h1, h2)]);
+		}
+		estimate += count;
+		for (int row = 0; row < this.depth; row++) {
+			int index = index(row, h1, h2);
+			this.counters[index] = Math.max(this.counters[index], estimate);
+		}
+		return estimate;
+	}
+
+	private int index(int row, long h1, long h2) {
+		return row * this.width + (int) Long.remainderUnsigned(h1 + row * h2, this.width);
+	}
+
+	private static long mix(long value) {
+		// Finalizer of MurmurHash3
+		long hash = value;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+}
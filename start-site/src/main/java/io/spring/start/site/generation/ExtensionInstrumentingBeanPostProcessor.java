@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomizer;
+import io.spring.start.site.container.ComposeFileCustomizer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * A {@link BeanPostProcessor} for project generation contexts that records the time
+ * taken by each invocation of a customizer in a {@link GenerationProfile}. Customizers
+ * are invoked by the generator itself so they are instrumented using a class-based proxy
+ * that can still be injected as their concrete type. Lambdas, which can only be
+ * referenced by their interface, use an interface-based proxy and final classes are left
+ * as is. Also checks before each invocation whether the {@link ActiveGeneration active
+ * generation} should be abandoned. Project contributors are timed by
+ * {@link StartProjectAssetGenerator} directly.
+ *
+ * @author agent
+ */
+class ExtensionInstrumentingBeanPostProcessor implements BeanPostProcessor {
+
+	private static final Map<Class<?>, String> EXTENSION_TYPES;
+
+	static {
+		Map<Class<?>, String> types = new LinkedHashMap<>();
+		types.put(BuildCustomizer.class, "build-customizer");
+		types.put(HelpDocumentCustomizer.class, "help-document-customizer");
+		types.put(ComposeFileCustomizer.class, "compose-file-customizer");
+		EXTENSION_TYPES = types;
+	}
+
+	private static final String LAMBDA_MARKER = "$$Lambda";
+
+	private final GenerationProfile profile;
+
+	ExtensionInstrumentingBeanPostProcessor(GenerationProfile profile) {
+		this.profile = profile;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		String type = getExtensionType(bean);
+		if (type == null) {
+			return bean;
+		}
+		Class<?> beanClass = ClassUtils.getUserClass(bean);
+		boolean lambda = beanClass.getName().contains(LAMBDA_MARKER);
+		if (!lambda && Modifier.isFinal(beanClass.getModifiers())) {
+			return bean;
+		}
+		ProxyFactory proxyFactory = new ProxyFactory(bean);
+		proxyFactory.setProxyTargetClass(!lambda);
+		proxyFactory.addAdvice(new ExtensionInterceptor(this.profile, type, getExtensionName(bean, beanName)));
+		return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+	}
+
+	private String getExtensionType(Object bean) {
+		for (Map.Entry<Class<?>, String> entry : EXTENSION_TYPES.entrySet()) {
+			if (entry.getKey().isInstance(bean)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	private String getExtensionName(Object bean, String beanName) {
+		String className = ClassUtils.getUserClass(bean).getName();
+		int lambda = className.indexOf(LAMBDA_MARKER);
+		if (lambda != -1) {
+			// Lambdas are named after the configuration class that declares the bean
+			return className.substring(0, lambda) + "#" + beanName;
+		}
+		return className;
+	}
+
+	private static final class ExtensionInterceptor implements MethodInterceptor {
+
+		private final GenerationProfile profile;
+
+		private final String type;
+
+		private final String extension;
+
+		private ExtensionInterceptor(GenerationProfile profile, String type, String extension) {
+			this.profile = profile;
+			this.type = type;
+			this.extension = extension;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			if (!isExtensionCallback(invocation.getMethod())) {
+				return invocation.proceed();
+			}
+			ActiveGeneration.checkNotCancelled();
+			try (GenerationProfile.Invocation ignored = this.profile.begin(this.type, this.extension)) {
+				return invocation.proceed();
+			}
+		}
+
+		private boolean isExtensionCallback(Method method) {
+			return !ReflectionUtils.isObjectMethod(method) && !method.getName().equals("getOrder");
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+/**
+ * Thrown when a project generation is abandoned before completion.
+ *
+ * @author agent
+ * @see ActiveGeneration
+ */
+public class GenerationCancelledException extends RuntimeException {
+
+	/**
+	 * Reason used when the generation did not complete in time.
+	 */
+	public static final String DEADLINE = "deadline";
+
+	/**
+	 * Reason used when the client of a bulk generation that streams its progress went
+	 * away before the generation completed.
+	 */
+	public static final String DISCONNECT = "disconnect";
+
+	/**
+	 * Reason used when the {@link GenerationWorkspace workspace} has reached its quota.
+	 */
+	public static final String WORKSPACE_FULL = "workspace-full";
+
+	private final String reason;
+
+	public GenerationCancelledException(String reason) {
+		super("Project generation cancelled (%s)".formatted(reason));
+		this.reason = reason;
+	}
+
+	/**
+	 * Return the reason of the cancellation.
+	 * @return the reason
+	 */
+	public String getReason() {
+		return this.reason;
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Timings, and optionally allocations, of the extensions invoked by a single project
+ * generation. Reported to its {@link GenerationProfiler} once the generation context is
+ * closed.
+ *
+ * @author agent
+ */
+public class GenerationProfile implements DisposableBean {
+
+	private final GenerationProfiler profiler;
+
+	private final boolean allocationSampled;
+
+	private final long initialAllocatedBytes;
+
+	private final Map<String, ExtensionSample> samples = new ConcurrentHashMap<>();
+
+	private volatile long allocatedBytes = -1;
+
+	private final ThreadLocal<Invocation> current = new ThreadLocal<>();
+
+	GenerationProfile(GenerationProfiler profiler, boolean allocationSampled) {
+		this.profiler = profiler;
+		this.allocationSampled = allocationSampled;
+		this.initialAllocatedBytes = (allocationSampled) ? ThreadAllocations.currentThreadAllocatedBytes() : -1;
+	}
+
+	/**
+	 * Return whether allocations are sampled for this generation.
+	 * @return {@code true} if allocations should be measured
+	 */
+	public boolean isAllocationSampled() {
+		return this.allocationSampled && this.initialAllocatedBytes >= 0;
+	}
+
+	/**
+	 * Start timing an invocation of an extension on the current thread. The returned
+	 * {@link Invocation} must be {@link Invocation#close() closed} once the extension
+	 * returns. Time spent in invocations that are nested in this one is not accounted to
+	 * it.
+	 * @param type the type of extension
+	 * @param extension the name of the extension
+	 * @return the invocation
+	 */
+	public Invocation begin(String type, String extension) {
+		Invocation invocation = new Invocation(type, extension, this.current.get());
+		this.current.set(invocation);
+		return invocation;
+	}
+
+	/**
+	 * Record an invocation of an extension.
+	 * @param type the type of extension
+	 * @param extension the name of the extension
+	 * @param nanos the time the invocation took
+	 * @param allocatedBytes the bytes allocated by the invocation or {@code -1} if not
+	 * sampled
+	 */
+	public void record(String type, String extension, long nanos, long allocatedBytes) {
+		this.samples.computeIfAbsent(extension, (key) -> new ExtensionSample(type, extension))
+			.add(nanos, allocatedBytes);
+		this.profiler.recordInvocation(type, extension, nanos);
+	}
+
+	/**
+	 * Return the bytes allocated by the thread that ran this generation, or {@code -1}
+	 * if allocations were not sampled.
+	 * @return the allocated bytes
+	 */
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	Collection<ExtensionSample> getSamples() {
+		return List.copyOf(this.samples.values());
+	}
+
+	@Override
+	public void destroy() {
+		if (isAllocationSampled()) {
+			this.allocatedBytes = ThreadAllocations.currentThreadAllocatedBytes() - this.initialAllocatedBytes;
+		}
+		this.profiler.complete(this);
+	}
+
+	/**
+	 * An extension invocation in progress. Its own figures exclude those of the
+	 * invocations nested in it.
+	 */
+	public final class Invocation implements AutoCloseable {
+
+		private final String type;
+
+		private final String extension;
+
+		private final Invocation parent;
+
+		private final long initialAllocatedBytes;
+
+		private final long start;
+
+		private long nestedNanos;
+
+		private long nestedAllocatedBytes;
+
+		private Invocation(String type, String extension, Invocation parent) {
+			this.type = type;
+			this.extension = extension;
+			this.parent = parent;
+			this.initialAllocatedBytes = (isAllocationSampled()) ? ThreadAllocations.currentThreadAllocatedBytes()
+					: -1;
+			this.start = System.nanoTime();
+		}
+
+		@Override
+		public void close() {
+			long nanos = System.nanoTime() - this.start;
+			long allocatedBytes = (this.initialAllocatedBytes >= 0)
+					? ThreadAllocations.currentThreadAllocatedBytes() - this.initialAllocatedBytes : -1;
+			if (this.parent != null) {
+				this.parent.nestedNanos += nanos;
+				this.parent.nestedAllocatedBytes += Math.max(allocatedBytes, 0);
+				GenerationProfile.this.current.set(this.parent);
+			}
+			else {
+				GenerationProfile.this.current.remove();
+			}
+			record(this.type, this.extension, nanos - this.nestedNanos,
+					(allocatedBytes >= 0) ? allocatedBytes - this.nestedAllocatedBytes : -1);
+		}
+
+	}
+
+	/**
+	 * Aggregated invocations of a single extension.
+	 */
+	static final class ExtensionSample {
+
+		private final String type;
+
+		private final String extension;
+
+		private int invocations;
+
+		private long nanos;
+
+		private long maxNanos;
+
+		private int sampledInvocations;
+
+		private long allocatedBytes;
+
+		ExtensionSample(String type, String extension) {
+			this.type = type;
+			this.extension = extension;
+		}
+
+		synchronized void add(long nanos, long allocatedBytes) {
+			this.invocations++;
+			this.nanos += nanos;
+			this.maxNanos = Math.max(this.maxNanos, nanos);
+			if (allocatedBytes >= 0) {
+				this.sampledInvocations++;
+				this.allocatedBytes += allocatedBytes;
+			}
+		}
+
+		String getType() {
+			return this.type;
+		}
+
+		String getExtension() {
+			return this.extension;
+		}
+
+		synchronized int getInvocations() {
+			return this.invocations;
+		}
+
+		synchronized long getNanos() {
+			return this.nanos;
+		}
+
+		synchronized long getMaxNanos() {
+			return this.maxNanos;
+		}
+
+		synchronized int getSampledInvocations() {
+			return this.sampledInvocations;
+		}
+
+		synchronized long getAllocatedBytes() {
+			return this.allocatedBytes;
+		}
+
+	}
+
+}
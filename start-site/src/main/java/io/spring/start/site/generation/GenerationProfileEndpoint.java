@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.List;
+
+import io.spring.start.site.generation.GenerationProfiler.ExtensionStatistics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * An {@link Endpoint @Endpoint} that ranks the generation extensions that take the most
+ * time and allocate the most memory across recent project generations.
+ *
+ * @author agent
+ */
+@Endpoint(id = "generationprofile")
+public class GenerationProfileEndpoint {
+
+	private static final int LIMIT = 20;
+
+	private final GenerationProfiler profiler;
+
+	public GenerationProfileEndpoint(GenerationProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	@ReadOperation
+	public GenerationProfileDescriptor profile() {
+		return new GenerationProfileDescriptor(this.profiler.getRecentGenerations(),
+				this.profiler.getSlowestExtensions(LIMIT), this.profiler.getMostAllocatingExtensions(LIMIT));
+	}
+
+	/**
+	 * Description of the profile of recent generations.
+	 *
+	 * @param generations the number of generations the rankings are based on
+	 * @param slowest the extensions that took the most time
+	 * @param allocations the extensions that allocated the most memory per invocation
+	 */
+	public record GenerationProfileDescriptor(int generations, List<ExtensionStatistics> slowest,
+			List<ExtensionStatistics> allocations) {
+
+	}
+
+}
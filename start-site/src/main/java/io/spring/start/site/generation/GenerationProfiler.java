@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.spring.start.site.generation.GenerationProfile.ExtensionSample;
+
+import org.springframework.util.Assert;
+
+/**
+ * Records how long each generation extension takes, both as Micrometer timers and as a
+ * bounded history of recent generations that can be used to rank extensions.
+ *
+ * @author agent
+ * @see GenerationProfileEndpoint
+ */
+public class GenerationProfiler {
+
+	private final MeterRegistry meterRegistry;
+
+	private final int recentGenerations;
+
+	private final int allocationSamplingInterval;
+
+	private final AtomicLong generations = new AtomicLong();
+
+	private final Deque<GenerationProfile> profiles = new ArrayDeque<>();
+
+	/**
+	 * Create a new instance.
+	 * @param meterRegistry the registry to use
+	 * @param recentGenerations the number of generations to keep for ranking
+	 * @param allocationSamplingInterval measure allocations every n-th generation, or
+	 * never if {@code 0}
+	 */
+	public GenerationProfiler(MeterRegistry meterRegistry, int recentGenerations, int allocationSamplingInterval) {
+		Assert.isTrue(recentGenerations > 0, "'recentGenerations' must be positive");
+		Assert.isTrue(allocationSamplingInterval >= 0, "'allocationSamplingInterval' must not be negative");
+		this.meterRegistry = meterRegistry;
+		this.recentGenerations = recentGenerations;
+		this.allocationSamplingInterval = allocationSamplingInterval;
+	}
+
+	/**
+	 * Start profiling a new generation.
+	 * @return the profile of the generation
+	 */
+	public GenerationProfile startProfile() {
+		long generation = this.generations.getAndIncrement();
+		boolean sampled = this.allocationSamplingInterval > 0 && generation % this.allocationSamplingInterval == 0;
+		return new GenerationProfile(this, sampled);
+	}
+
+	void recordInvocation(String type, String extension, long nanos) {
+		Timer.builder("initializr.generation.extension")
+			.description("Time spent invoking a project generation extension")
+			.tag("type", type)
+			.tag("extension", extension)
+			.register(this.meterRegistry)
+			.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	void complete(GenerationProfile profile) {
+		if (profile.getAllocatedBytes() >= 0) {
+			DistributionSummary.builder("initializr.generation.allocation")
+				.description("Bytes allocated by the thread running a project generation")
+				.baseUnit("bytes")
+				.register(this.meterRegistry)
+				.record(profile.getAllocatedBytes());
+		}
+		synchronized (this.profiles) {
+			if (this.profiles.size() == this.recentGenerations) {
+				this.profiles.removeFirst();
+			}
+			this.profiles.addLast(profile);
+		}
+	}
+
+	/**
+	 * Return the extensions that took the most time across recent generations.
+	 * @param limit the maximum number of extensions to return
+	 * @return the slowest extensions, slowest first
+	 */
+	public List<ExtensionStatistics> getSlowestExtensions(int limit) {
+		return aggregate().stream()
+			.sorted(Comparator.comparing(ExtensionStatistics::totalTime).reversed())
+			.limit(limit)
+			.toList();
+	}
+
+	/**
+	 * Return the extensions that allocated the most memory across recent generations
+	 * for which allocations were sampled.
+	 * @param limit the maximum number of extensions to return
+	 * @return the most allocation-heavy extensions, heaviest first
+	 */
+	public List<ExtensionStatistics> getMostAllocatingExtensions(int limit) {
+		return aggregate().stream()
+			.filter((statistics) -> statistics.sampledInvocations() > 0)
+			.sorted(Comparator.comparingLong(ExtensionStatistics::allocatedBytesPerInvocation).reversed())
+			.limit(limit)
+			.toList();
+	}
+
+	/**
+	 * Return the number of generations the rankings are based on.
+	 * @return the number of recent generations
+	 */
+	public int getRecentGenerations() {
+		synchronized (this.profiles) {
+			return this.profiles.size();
+		}
+	}
+
+	private List<ExtensionStatistics> aggregate() {
+		List<GenerationProfile> snapshot;
+		synchronized (this.profiles) {
+			snapshot = new ArrayList<>(this.profiles);
+		}
+		Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+		for (GenerationProfile profile : snapshot) {
+			for (ExtensionSample sample : profile.getSamples()) {
+				accumulators.computeIfAbsent(sample.getExtension(), (key) -> new Accumulator(sample.getType()))
+					.add(sample);
+			}
+		}
+		List<ExtensionStatistics> statistics = new ArrayList<>();
+		accumulators.forEach((extension, accumulator) -> statistics.add(accumulator.toStatistics(extension)));
+		return statistics;
+	}
+
+	/**
+	 * Statistics of an extension across recent generations.
+	 *
+	 * @param extension the name of the extension
+	 * @param type the type of the extension
+	 * @param invocations the number of invocations
+	 * @param totalTime the cumulated time of all invocations
+	 * @param maxTime the longest invocation
+	 * @param sampledInvocations the number of invocations whose allocations were measured
+	 * @param allocatedBytes the bytes allocated by sampled invocations
+	 */
+	public record ExtensionStatistics(String extension, String type, int invocations, Duration totalTime,
+			Duration maxTime, int sampledInvocations, long allocatedBytes) {
+
+		/**
+		 * Return the average time of an invocation.
+		 * @return the mean time
+		 */
+		public Duration meanTime() {
+			return (this.invocations > 0) ? this.totalTime.dividedBy(this.invocations) : Duration.ZERO;
+		}
+
+		/**
+		 * Return the average bytes allocated by a sampled invocation.
+		 * @return the mean allocated bytes
+		 */
+		public long allocatedBytesPerInvocation() {
+			return (this.sampledInvocations > 0) ? this.allocatedBytes / this.sampledInvocations : 0;
+		}
+
+	}
+
+	private static final class Accumulator {
+
+		private final String type;
+
+		private int invocations;
+
+		private long nanos;
+
+		private long maxNanos;
+
+		private int sampledInvocations;
+
+		private long allocatedBytes;
+
+		Accumulator(String type) {
+			this.type = type;
+		}
+
+		void add(ExtensionSample sample) {
+			this.invocations += sample.getInvocations();
+			this.nanos += sample.getNanos();
+			this.maxNanos = Math.max(this.maxNanos, sample.getMaxNanos());
+			this.sampledInvocations += sample.getSampledInvocations();
+			this.allocatedBytes += sample.getAllocatedBytes();
+		}
+
+		ExtensionStatistics toStatistics(String extension) {
+			return new ExtensionStatistics(extension, this.type, this.invocations, Duration.ofNanos(this.nanos),
+					Duration.ofNanos(this.maxNanos), this.sampledInvocations, this.allocatedBytes);
+		}
+
+	}
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.util.Assert;
+
+/**
+ * Admission control for project generations. At most a configurable number of
+ * generations run concurrently; additional requests wait in a bounded queue and are
+ * rejected if the queue is full or if they waited too long. Waiting requests are
+ * dispatched in a round-robin fashion across {@link ClientType client types} so that a
+ * burst of automated requests cannot starve interactive users.
+ *
+ * @author agent
+ */
+public class GenerationScheduler {
+
+	private static final ClientType[] CLIENT_TYPES = ClientType.values();
+
+	private final int maxConcurrentGenerations;
+
+	private final int queueCapacity;
+
+	private final Duration maxQueueTime;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<ClientType, Deque<Waiter>> queues = new EnumMap<>(ClientType.class);
+
+	private final MeterRegistry meterRegistry;
+
+	private int active;
+
+	private int queued;
+
+	private int nextQueue;
+
+	public GenerationScheduler(int maxConcurrentGenerations, int queueCapacity, Duration maxQueueTime,
+			MeterRegistry meterRegistry) {
+		Assert.isTrue(maxConcurrentGenerations > 0, "'maxConcurrentGenerations' must be positive");
+		Assert.isTrue(queueCapacity >= 0, "'queueCapacity' must not be negative");
+		this.maxConcurrentGenerations = maxConcurrentGenerations;
+		this.queueCapacity = queueCapacity;
+		this.maxQueueTime = maxQueueTime;
+		this.meterRegistry = meterRegistry;
+		for (ClientType clientType : CLIENT_TYPES) {
+			this.queues.put(clientType, new ArrayDeque<>());
+		}
+		Gauge.builder("initializr.generation.active", this, GenerationScheduler::getActive)
+			.description("Number of project generations in progress")
+			.register(meterRegistry);
+		Gauge.builder("initializr.generation.queued", this, GenerationScheduler::getQueued)
+			.description("Number of project generations waiting to be processed")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Acquire a {@link Permit} to run a generation, waiting if necessary.
+	 * @param clientType the type of the client requesting the generation
+	 * @return a permit that must be closed once the generation has completed
+	 * @throws GenerationRejectedException if the generation cannot be admitted
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public Permit acquire(ClientType clientType) throws InterruptedException {
+		long start = System.nanoTime();
+		this.lock.lock();
+		try {
+			if (this.active < this.maxConcurrentGenerations && this.queued == 0) {
+				this.active++;
+				return permit(clientType, start);
+			}
+			if (this.queued >= this.queueCapacity) {
+				throw reject(clientType, "queue-full");
+			}
+			Waiter waiter = new Waiter(this.lock.newCondition());
+			this.queues.get(clientType).addLast(waiter);
+			this.queued++;
+			awaitTurn(clientType, waiter);
+			return permit(clientType, start);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void awaitTurn(ClientType clientType, Waiter waiter) throws InterruptedException {
+		long remaining = this.maxQueueTime.toNanos();
+		try {
+			while (!waiter.granted && remaining > 0) {
+				remaining = waiter.condition.awaitNanos(remaining);
+			}
+		}
+		catch (InterruptedException ex) {
+			if (waiter.granted) {
+				// The slot was handed over to us already, pass it on
+				releaseSlot();
+			}
+			else {
+				dequeue(clientType, waiter);
+			}
+			throw ex;
+		}
+		if (!waiter.granted) {
+			dequeue(clientType, waiter);
+			throw reject(clientType, "timeout");
+		}
+	}
+
+	private void dequeue(ClientType clientType, Waiter waiter) {
+		this.queues.get(clientType).remove(waiter);
+		this.queued--;
+	}
+
+	private Permit permit(ClientType clientType, long start) {
+		Timer.builder("initializr.generation.queue.wait")
+			.description("Time spent waiting for a generation slot")
+			.tag("client", tagValue(clientType))
+			.register(this.meterRegistry)
+			.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return new Permit();
+	}
+
+	private GenerationRejectedException reject(ClientType clientType, String reason) {
+		Counter.builder("initializr.generation.rejected")
+			.description("Number of project generations rejected by admission control")
+			.tag("client", tagValue(clientType))
+			.tag("reason", reason)
+			.register(this.meterRegistry)
+			.increment();
+		return new GenerationRejectedException(
+				"Too many concurrent project generations (%s), try again later".formatted(reason));
+	}
+
+	private void release() {
+		this.lock.lock();
+		try {
+			releaseSlot();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void releaseSlot() {
+		Waiter next = pollNextWaiter();
+		if (next != null) {
+			// Hand the slot over directly so that newcomers cannot overtake the queue
+			this.queued--;
+			next.granted = true;
+			next.condition.signal();
+		}
+		else {
+			this.active--;
+		}
+	}
+
+	private Waiter pollNextWaiter() {
+		for (int i = 0; i < CLIENT_TYPES.length; i++) {
+			ClientType clientType = CLIENT_TYPES[this.nextQueue];
+			this.nextQueue = (this.nextQueue + 1) % CLIENT_TYPES.length;
+			Waiter waiter = this.queues.get(clientType).pollFirst();
+			if (waiter != null) {
+				return waiter;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the number of generations currently running.
+	 * @return the number of active generations
+	 */
+	public int getActive() {
+		this.lock.lock();
+		try {
+			return this.active;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of generations waiting for a slot.
+	 * @return the queue depth
+	 */
+	public int getQueued() {
+		this.lock.lock();
+		try {
+			return this.queued;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private static String tagValue(ClientType clientType) {
+		return clientType.name().toLowerCase(Locale.ROOT);
+	}
+
+	private static final class Waiter {
+
+		private final Condition condition;
+
+		private boolean granted;
+
+		private Waiter(Condition condition) {
+			this.condition = condition;
+		}
+
+	}
+
+	/**
+	 * A permit to run a project generation. Must be closed once the generation has
+	 * completed.
+	 */
+	public final class Permit implements AutoCloseable {
+
+		private boolean released;
+
+		private Permit() {
+		}
+
+		@Override
+		public void close() {
+			if (!this.released) {
+				this.released = true;
+				release();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.generation.HeavyHitters.Estimate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+/**
+ * Warms up the generation pipeline before the application accepts traffic, so that the
+ * first generations are not slowed down by the JIT compiler and cold caches. Synthetic
+ * requests, and the {@link PopularRequests most popular requests} recorded by previous
+ * runs, are generated in turn until a target number of iterations is reached or the
+ * latency of generations reaches a plateau.
+ * <p>
+ * As an {@link ApplicationRunner}, the warm-up runs before the readiness of the
+ * application is switched to accepting traffic. Warm-up generations are not recorded as
+ * popular requests nor published as statistics.
+ *
+ * @author agent
+ */
+public class GenerationWarmup implements ApplicationRunner {
+
+	private static final Log logger = LogFactory.getLog(GenerationWarmup.class);
+
+	private final ProjectGenerationInvoker<ProjectRequest> invoker;
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final PopularRequests popularRequests;
+
+	private final List<Map<String, String>> requests;
+
+	private final int popularRequestCount;
+
+	private final int iterations;
+
+	private final int window;
+
+	private final double plateauTolerance;
+
+	private final Duration maxDuration;
+
+	private final Duration timeout;
+
+	/**
+	 * Create a new instance.
+	 * @param invoker the invoker to use to generate projects
+	 * @param metadataProvider the metadata provider, used for the default attributes of
+	 * synthetic requests
+	 * @param popularRequests the popular requests, or {@code null}
+	 * @param requests the attributes of the synthetic requests
+	 * @param popularRequestCount the number of popular requests to generate
+	 * @param iterations the number of generations after which the warm-up completes
+	 * @param window the number of generations whose median latency is compared to the
+	 * previous one to detect a plateau
+	 * @param plateauTolerance the relative difference between two median latencies below
+	 * which the latency has reached a plateau
+	 * @param maxDuration the maximum duration of the warm-up
+	 * @param timeout the maximum time a single generation can take
+	 */
+	public GenerationWarmup(ProjectGenerationInvoker<ProjectRequest> invoker,
+			InitializrMetadataProvider metadataProvider, PopularRequests popularRequests,
+			List<Map<String, String>> requests, int popularRequestCount, int iterations, int window,
+			double plateauTolerance, Duration maxDuration, Duration timeout) {
+		this.invoker = invoker;
+		this.metadataProvider = metadataProvider;
+		this.popularRequests = popularRequests;
+		this.requests = requests;
+		this.popularRequestCount = popularRequestCount;
+		this.iterations = iterations;
+		this.window = window;
+		this.plateauTolerance = plateauTolerance;
+		this.maxDuration = maxDuration;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		warmUp();
+	}
+
+	/**
+	 * Warm up the generation pipeline.
+	 * @return the outcome of the warm-up
+	 */
+	public Result warmUp() {
+		List<CanonicalProjectRequest> requests = getRequests();
+		if (requests.isEmpty()) {
+			logger.info("Skipping warm-up as no request is available");
+			return new Result(0, 0, false, Duration.ZERO);
+		}
+		long start = System.nanoTime();
+		long deadline = start + this.maxDuration.toNanos();
+		LatencyPlateau plateau = new LatencyPlateau(this.window, this.plateauTolerance);
+		int iteration = 0;
+		int failures = 0;
+		boolean plateaued = false;
+		while (iteration < this.iterations && !plateaued && System.nanoTime() - deadline < 0) {
+			long latency = generate(requests.get(iteration % requests.size()));
+			iteration++;
+			if (latency >= 0) {
+				plateaued = plateau.record(latency);
+			}
+			else if (++failures == iteration && iteration >= requests.size()) {
+				// Every request fails, most likely for a reason unrelated to warming up
+				break;
+			}
+		}
+		Result result = new Result(iteration, failures, plateaued, Duration.ofNanos(System.nanoTime() - start));
+		logger.info("Warmed up with %d generations (%d failed) in %d ms, %s".formatted(result.iterations(),
+				result.failures(), result.elapsed().toMillis(),
+				(plateaued) ? "latency reached a plateau at " + plateau.getLatency().toMillis() + " ms"
+						: "latency did not reach a plateau"));
+		return result;
+	}
+
+	private List<CanonicalProjectRequest> getRequests() {
+		Set<CanonicalProjectRequest> requests = new LinkedHashSet<>();
+		if (!this.requests.isEmpty()) {
+			// Synthetic requests only specify the attributes that differ from the defaults
+			WebProjectRequest defaultRequest = new WebProjectRequest();
+			defaultRequest.initialize(this.metadataProvider.get());
+			Map<String, String> defaults = CanonicalProjectRequest.of(defaultRequest).getAttributes();
+			for (Map<String, String> attributes : this.requests) {
+				Map<String, String> request = new LinkedHashMap<>(defaults);
+				request.putAll(attributes);
+				requests.add(CanonicalProjectRequest.of(request));
+			}
+		}
+		if (this.popularRequests != null && this.popularRequestCount > 0) {
+			for (Estimate<CanonicalProjectRequest> estimate : this.popularRequests
+				.getRequests(this.popularRequestCount)) {
+				requests.add(estimate.item());
+			}
+		}
+		return new ArrayList<>(requests);
+	}
+
+	private long generate(CanonicalProjectRequest request) {
+		long start = System.nanoTime();
+		try (ActiveGeneration generation = ActiveGeneration.startWarmup(this.timeout)) {
+			ProjectGenerationResult result = this.invoker.invokeProjectStructureGeneration(request.toProjectRequest());
+			this.invoker.cleanTempFiles(result.getRootDirectory());
+			return System.nanoTime() - start;
+		}
+		catch (RuntimeException ex) {
+			logger.debug("Failed to warm up with request " + request, ex);
+			return -1;
+		}
+	}
+
+	/**
+	 * The outcome of a warm-up.
+	 *
+	 * @param iterations the number of generations
+	 * @param failures the number of generations that failed
+	 * @param plateau whether the latency reached a plateau
+	 * @param elapsed the duration of the warm-up
+	 */
+	public record Result(int iterations, int failures, boolean plateau, Duration elapsed) {
+
+	}
+
+	/**
+	 * Detects that latencies have reached a plateau, comparing the median latency of each
+	 * window of measures to the one of the previous window.
+	 */
+	static class LatencyPlateau {
+
+		private final long[] latencies;
+
+		private final double tolerance;
+
+		private int count;
+
+		private long previousMedian = -1;
+
+		LatencyPlateau(int window, double tolerance) {
+			this.latencies = new long[Math.max(1, window)];
+			this.tolerance = tolerance;
+		}
+
+		/**
+		 * Record the specified latency.
+		 * @param latency the latency in nanoseconds
+		 * @return {@code true} if the latency has reached a plateau
+		 */
+		boolean record(long latency) {
+			this.latencies[this.count++] = latency;
+			if (this.count < this.latencies.length) {
+				return false;
+			}
+			this.count = 0;
+			long[] sorted = this.latencies.clone();
+			Arrays.sort(sorted);
+			long median = sorted[sorted.length / 2];
+			long previous = this.previousMedian;
+			this.previousMedian = median;
+			return previous >= 0 && Math.abs(median - previous) <= this.tolerance * previous;
+		}
+
+		/**
+		 * Return the median latency of the last complete window.
+		 * @return the latency
+		 */
+		Duration getLatency() {
+			return Duration.ofNanos(Math.max(0, this.previousMedian));
+		}
+
+	}
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Manages the directory in which projects are generated, typically a {@code tmpfs}
+ * mount. New generations are refused once the size or the number of inodes used by
+ * the workspace reaches its quota. An estimate of the footprint of a project is reserved
+ * as soon as its directory is created, and replaced by its actual footprint once it has
+ * been generated, so that concurrent generations are accounted for. Finished projects are deleted in batches by a
+ * background thread rather than on the request thread. Entries that are present when
+ * the workspace is created are left over by a previous run and are deleted as well.
+ *
+ * @author agent
+ */
+public class GenerationWorkspace implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(GenerationWorkspace.class);
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private final long maxInodes;
+
+	private final int cleanupBatchSize;
+
+	private final long projectSizeEstimate;
+
+	private final long projectInodesEstimate;
+
+	private final AtomicLong size = new AtomicLong();
+
+	private final AtomicLong inodes = new AtomicLong();
+
+	private final Map<Path, Project> projects = new ConcurrentHashMap<>();
+
+	private final BlockingQueue<Project> pendingDeletions = new LinkedBlockingQueue<>();
+
+	private final Counter deleted;
+
+	private volatile boolean running;
+
+	private Thread cleaner;
+
+	/**
+	 * Create a new instance.
+	 * @param directory the directory of the workspace
+	 * @param maxSize the maximum size of the workspace, in bytes
+	 * @param maxInodes the maximum number of files and directories of the workspace
+	 * @param cleanupBatchSize the maximum number of projects to delete in a batch
+	 * @param meterRegistry the registry to use to report the usage of the workspace
+	 * @throws IOException if the workspace could not be created
+	 */
+	public GenerationWorkspace(Path directory, long maxSize, long maxInodes, int cleanupBatchSize,
+			MeterRegistry meterRegistry) throws IOException {
+		this(directory, maxSize, maxInodes, 0, 0, cleanupBatchSize, meterRegistry);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param directory the directory of the workspace
+	 * @param maxSize the maximum size of the workspace, in bytes
+	 * @param maxInodes the maximum number of files and directories of the workspace
+	 * @param projectSizeEstimate the size to reserve for a project until it has been
+	 * generated, in bytes
+	 * @param projectInodesEstimate the number of files and directories to reserve for a
+	 * project until it has been generated
+	 * @param cleanupBatchSize the maximum number of projects to delete in a batch
+	 * @param meterRegistry the registry to use to report the usage of the workspace
+	 * @throws IOException if the workspace could not be created
+	 */
+	public GenerationWorkspace(Path directory, long maxSize, long maxInodes, long projectSizeEstimate,
+			long projectInodesEstimate, int cleanupBatchSize, MeterRegistry meterRegistry) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxSize = maxSize;
+		this.maxInodes = maxInodes;
+		this.projectSizeEstimate = projectSizeEstimate;
+		this.projectInodesEstimate = projectInodesEstimate;
+		this.cleanupBatchSize = cleanupBatchSize;
+		this.deleted = Counter.builder("initializr.workspace.deleted")
+			.description("Number of projects deleted from the generation workspace")
+			.register(meterRegistry);
+		Gauge.builder("initializr.workspace.size", this.size, AtomicLong::get)
+			.description("Size of the generation workspace")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("initializr.workspace.inodes", this.inodes, AtomicLong::get)
+			.description("Number of files and directories in the generation workspace")
+			.register(meterRegistry);
+		Gauge.builder("initializr.workspace.pending-deletions", this.pendingDeletions, BlockingQueue::size)
+			.description("Number of projects waiting to be deleted from the generation workspace")
+			.register(meterRegistry);
+		sweepOrphans();
+	}
+
+	private void sweepOrphans() throws IOException {
+		try (Stream<Path> entries = Files.list(this.directory)) {
+			for (Path entry : entries.toList()) {
+				Project orphan = new Project(entry);
+				orphan.add(0, 1);
+				orphan.measure(entry);
+				this.pendingDeletions.add(orphan);
+			}
+		}
+		if (!this.pendingDeletions.isEmpty()) {
+			logger.info("Deleting " + this.pendingDeletions.size() + " orphaned entries from " + this.directory);
+		}
+	}
+
+	/**
+	 * Create the root directory of a new project.
+	 * @return the project root
+	 * @throws IOException if the directory could not be created
+	 * @throws GenerationCancelledException if the workspace has reached its quota
+	 */
+	public Path createProjectDirectory() throws IOException {
+		if (this.size.get() >= this.maxSize || this.inodes.get() >= this.maxInodes) {
+			throw new GenerationCancelledException(GenerationCancelledException.WORKSPACE_FULL);
+		}
+		Path root = Files.createTempDirectory(this.directory, "project-");
+		Project project = new Project(root);
+		project.add(0, 1);
+		project.reserve(this.projectSizeEstimate, this.projectInodesEstimate);
+		this.projects.put(root, project);
+		return root;
+	}
+
+	/**
+	 * Account for the content of the specified project root, once it has been generated,
+	 * in place of the footprint that was reserved for it.
+	 * @param root the project root
+	 * @throws IOException if the project could not be measured
+	 */
+	public void record(Path root) throws IOException {
+		Project project = this.projects.get(root);
+		if (project != null) {
+			project.measure(root);
+			project.reserve(0, 0);
+		}
+	}
+
+	/**
+	 * Associate the specified file, such as an archive of the project, with the
+	 * specified project root so that it is deleted with it.
+	 * @param root the project root
+	 * @param file the file
+	 */
+	public void addFile(Path root, Path file) {
+		Project project = this.projects.get(root);
+		if (project != null) {
+			project.files.add(file);
+		}
+	}
+
+	/**
+	 * Schedule the deletion of the specified project root and of its files.
+	 * @param root the project root
+	 * @param cleanup an additional cleanup to run once the project has been deleted, or
+	 * {@code null}
+	 * @return {@code true} if the project belongs to this workspace and will be deleted
+	 */
+	public boolean release(Path root, Runnable cleanup) {
+		Project project = this.projects.remove(root);
+		if (project == null) {
+			return false;
+		}
+		for (Path file : project.files) {
+			try {
+				project.measure(file);
+			}
+			catch (IOException ex) {
+				// The file has not been written
+			}
+		}
+		project.cleanup = cleanup;
+		this.pendingDeletions.add(project);
+		return true;
+	}
+
+	/**
+	 * Return the size of the workspace.
+	 * @return the size, in bytes
+	 */
+	public long getSize() {
+		return this.size.get();
+	}
+
+	/**
+	 * Return the number of files and directories of the workspace.
+	 * @return the number of inodes
+	 */
+	public long getInodes() {
+		return this.inodes.get();
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+		this.cleaner = new Thread(this::clean, "workspace-cleaner");
+		this.cleaner.setDaemon(true);
+		this.cleaner.start();
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		if (this.cleaner != null) {
+			// Projects that are still pending are deleted on the next start
+			this.cleaner.interrupt();
+			this.cleaner = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	private void clean() {
+		List<Project> batch = new ArrayList<>(this.cleanupBatchSize);
+		while (this.running) {
+			try {
+				batch.add(this.pendingDeletions.take());
+				this.pendingDeletions.drainTo(batch, this.cleanupBatchSize - 1);
+				for (Project project : batch) {
+					try {
+						delete(project);
+					}
+					catch (RuntimeException ex) {
+						logger.warn("Failed to clean up " + project.root, ex);
+					}
+				}
+				this.deleted.increment(batch.size());
+				batch.clear();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void delete(Project project) {
+		try {
+			FileSystemUtils.deleteRecursively(project.root);
+			for (Path file : project.files) {
+				Files.deleteIfExists(file);
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to delete " + project.root, ex);
+		}
+		project.release();
+		if (project.cleanup != null) {
+			project.cleanup.run();
+		}
+	}
+
+	private final class Project {
+
+		private final Path root;
+
+		private final List<Path> files = new CopyOnWriteArrayList<>();
+
+		private long size;
+
+		private long inodes;
+
+		private long reservedSize;
+
+		private long reservedInodes;
+
+		private volatile Runnable cleanup;
+
+		private Project(Path root) {
+			this.root = root;
+		}
+
+		void measure(Path path) throws IOException {
+			long[] usage = new long[2];
+			Files.walkFileTree(path, new SimpleFileVisitor<>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+					usage[1]++;
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+					usage[0] += attributes.size();
+					usage[1]++;
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+			if (path.equals(this.root)) {
+				// The root has been accounted for when it was created
+				usage[1]--;
+			}
+			add(usage[0], usage[1]);
+		}
+
+		synchronized void add(long size, long inodes) {
+			this.size += size;
+			this.inodes += inodes;
+			GenerationWorkspace.this.size.addAndGet(size);
+			GenerationWorkspace.this.inodes.addAndGet(inodes);
+		}
+
+		synchronized void reserve(long size, long inodes) {
+			add(size - this.reservedSize, inodes - this.reservedInodes);
+			this.reservedSize = size;
+			this.reservedInodes = inodes;
+		}
+
+		synchronized void release() {
+			add(-this.size, -this.inodes);
+		}
+
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.springframework.util.Assert;
+
+/**
+ * Tracks the most frequent items of a stream with bounded memory. Frequencies are
+ * estimated by a {@link CountMinSketch} and only the items with the highest estimates
+ * are retained, up to the configured capacity. Items are hashed in the sketch with
+ * {@link Object#hashCode()} unless a wider hash function is specified.
+ *
+ * @param <T> the type of the items
+ * @author agent
+ */
+public final class HeavyHitters<T> {
+
+	private final CountMinSketch sketch;
+
+	private final ToLongFunction<? super T> hashFunction;
+
+	private final int capacity;
+
+	private final Map<T, Long> candidates;
+
+	private long threshold;
+
+	private long total;
+
+	/**
+	 * Create a new instance.
+	 * @param capacity the maximum number of items to retain
+	 * @param width the number of counters per row of the sketch
+	 * @param depth the number of rows of the sketch
+	 */
+	public HeavyHitters(int capacity, int width, int depth) {
+		this(capacity, width, depth, Object::hashCode);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param capacity the maximum number of items to retain
+	 * @param width the number of counters per row of the sketch
+	 * @param depth the number of rows of the sketch
+	 * @param hashFunction the function that hashes an item in the sketch
+	 */
+	public HeavyHitters(int capacity, int width, int depth, ToLongFunction<? super T> hashFunction) {
+		Assert.isTrue(capacity > 0, "'capacity' must be positive");
+		this.sketch = new CountMinSketch(width, depth);
+		this.hashFunction = hashFunction;
+		this.capacity = capacity;
+		this.candidates = new HashMap<>(capacity * 2);
+	}
+
+	/**
+	 * Record an occurrence of the specified item.
+	 * @param item the item
+	 * @return the estimated frequency of the item
+	 */
+	public long add(T item) {
+		return add(item, 1);
+	}
+
+	/**
+	 * Record the specified number of occurrences of the specified item.
+	 * @param item the item
+	 * @param count the number of occurrences
+	 * @return the estimated frequency of the item
+	 */
+	public synchronized long add(T item, long count) {
+		this.total += count;
+		long estimate = this.sketch.add(this.hashFunction.applyAsLong(item), count);
+		if (this.candidates.containsKey(item) || this.candidates.size() < this.capacity) {
+			this.candidates.put(item, estimate);
+		}
+		else if (estimate > this.threshold) {
+			// The threshold is a lower bound of the smallest retained estimate
+			Map.Entry<T, Long> smallest = null;
+			for (Map.Entry<T, Long> candidate : this.candidates.entrySet()) {
+				if (smallest == null || candidate.getValue() < smallest.getValue()) {
+					smallest = candidate;
+				}
+			}
+			this.threshold = smallest.getValue();
+			if (estimate > smallest.getValue()) {
+				this.candidates.remove(smallest.getKey());
+				this.candidates.put(item, estimate);
+			}
+		}
+		return estimate;
+	}
+
+	/**
+	 * Return the items with the highest estimated frequency, most frequent first.
+	 * @param limit the maximum number of items to return
+	 * @return the most frequent items
+	 */
+	public synchronized List<Estimate<T>> top(int limit) {
+		return this.candidates.entrySet()
+			.stream()
+			.sorted(Map.Entry.<T, Long>comparingByValue(Comparator.reverseOrder()))
+			.limit(limit)
+			.map((entry) -> new Estimate<>(entry.getKey(), entry.getValue()))
+			.toList();
+	}
+
+	/**
+	 * Return the total number of occurrences recorded.
+	 * @return the total count
+	 */
+	public synchronized long total() {
+		return this.total;
+	}
+
+	/**
+	 * The estimated frequency of an item.
+	 *
+	 * @param item the item
+	 * @param count the estimated number of occurrences
+	 * @param <T> the type of the item
+	 */
+	public record Estimate<T>(T item, long count) {
+
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.start.site.generation.HeavyHitters.Estimate;
+
+import org.springframework.context.event.EventListener;
+
+/**
+ * Tracks the {@link CanonicalProjectRequest requests} and the dependencies that are
+ * generated the most, with bounded memory. Warm-up generations are not tracked.
+ *
+ * @author agent
+ */
+public class PopularRequests {
+
+	private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+	private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+	private static final int SKETCH_WIDTH = 4096;
+
+	private static final int SKETCH_DEPTH = 4;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final HeavyHitters<CanonicalProjectRequest> requests;
+
+	private final HeavyHitters<String> dependencies;
+
+	/**
+	 * Create a new instance.
+	 * @param capacity the number of requests and of dependencies to track
+	 */
+	public PopularRequests(int capacity) {
+		this.requests = new HeavyHitters<>(capacity, SKETCH_WIDTH, SKETCH_DEPTH, CanonicalProjectRequest::getLongHash);
+		this.dependencies = new HeavyHitters<>(capacity, SKETCH_WIDTH, SKETCH_DEPTH);
+	}
+
+	@EventListener
+	public void onProjectGenerated(ProjectGeneratedEvent event) {
+		if (ActiveGeneration.isWarmup()) {
+			return;
+		}
+		CanonicalProjectRequest request = ActiveGeneration.currentRequest();
+		record((request != null) ? request : CanonicalProjectRequest.of(event.getRequest()), 1);
+	}
+
+	void record(CanonicalProjectRequest request, long count) {
+		this.requests.add(request, count);
+		for (String dependency : request.getDependencies()) {
+			this.dependencies.add(dependency, count);
+		}
+	}
+
+	/**
+	 * Return the requests that have been generated the most, most popular first.
+	 * @param limit the maximum number of requests to return
+	 * @return the most popular requests
+	 */
+	public List<Estimate<CanonicalProjectRequest>> getRequests(int limit) {
+		return this.requests.top(limit);
+	}
+
+	/**
+	 * Return the ids of the dependencies that have been requested the most, most popular
+	 * first.
+	 * @param limit the maximum number of dependencies to return
+	 * @return the most popular dependencies
+	 */
+	public List<Estimate<String>> getDependencies(int limit) {
+		return this.dependencies.top(limit);
+	}
+
+	/**
+	 * Return the number of generations that have been tracked.
+	 * @return the number of generations
+	 */
+	public long getTotal() {
+		return this.requests.total();
+	}
+
+	/**
+	 * Write the most popular requests to the specified file. As the file holds the
+	 * attributes of user requests, it is only readable by its owner on file systems that
+	 * support POSIX permissions, as is its directory if it has to be created.
+	 * @param file the file to write
+	 * @throws IOException if the file could not be written
+	 */
+	public void store(Path file) throws IOException {
+		List<Snapshot> snapshots = getRequests(Integer.MAX_VALUE).stream()
+			.map((estimate) -> new Snapshot(estimate.item().getAttributes(), estimate.count()))
+			.toList();
+		Path temp = createOwnerOnlyTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString());
+		try {
+			OBJECT_MAPPER.writeValue(temp.toFile(), snapshots);
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static Path createOwnerOnlyTempFile(Path directory, String prefix) throws IOException {
+		if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			Files.createDirectories(directory);
+			return Files.createTempFile(directory, prefix, ".tmp");
+		}
+		Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+		return Files.createTempFile(directory, prefix, ".tmp", PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+	}
+
+	/**
+	 * Track the requests of the specified file, as written by {@link #store(Path)}.
+	 * Restored frequencies are halved so that the ranking follows recent traffic.
+	 * @param file the file to read
+	 * @throws IOException if the file could not be read
+	 */
+	public void restore(Path file) throws IOException {
+		List<Snapshot> snapshots = OBJECT_MAPPER.readValue(file.toFile(), new TypeReference<>() {
+		});
+		for (Snapshot snapshot : snapshots) {
+			long count = snapshot.count() / 2;
+			if (count > 0) {
+				record(CanonicalProjectRequest.of(snapshot.attributes()), count);
+			}
+		}
+	}
+
+	record Snapshot(Map<String, String> attributes, long count) {
+
+	}
+
+}
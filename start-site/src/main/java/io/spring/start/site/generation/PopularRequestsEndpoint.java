@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * An {@link Endpoint @Endpoint} that lists the requests and the dependencies that are
+ * generated the most.
+ *
+ * @author agent
+ */
+@Endpoint(id = "popularrequests")
+public class PopularRequestsEndpoint {
+
+	private static final int LIMIT = 20;
+
+	private final PopularRequests popularRequests;
+
+	public PopularRequestsEndpoint(PopularRequests popularRequests) {
+		this.popularRequests = popularRequests;
+	}
+
+	@ReadOperation
+	public PopularRequestsDescriptor popularRequests() {
+		List<PopularRequest> requests = this.popularRequests.getRequests(LIMIT)
+			.stream()
+			.map((estimate) -> new PopularRequest(estimate.item().getHash(), estimate.item().getAttributes(),
+					estimate.count()))
+			.toList();
+		List<PopularDependency> dependencies = this.popularRequests.getDependencies(LIMIT)
+			.stream()
+			.map((estimate) -> new PopularDependency(estimate.item(), estimate.count()))
+			.toList();
+		return new PopularRequestsDescriptor(this.popularRequests.getTotal(), requests, dependencies);
+	}
+
+	/**
+	 * Description of the most popular requests and dependencies.
+	 *
+	 * @param generations the number of generations the rankings are based on
+	 * @param requests the most popular requests
+	 * @param dependencies the most popular dependencies
+	 */
+	public record PopularRequestsDescriptor(long generations, List<PopularRequest> requests,
+			List<PopularDependency> dependencies) {
+
+	}
+
+	/**
+	 * A popular request.
+	 *
+	 * @param hash the hash of the request
+	 * @param attributes the attributes of the request
+	 * @param count the estimated number of generations
+	 */
+	public record PopularRequest(String hash, Map<String, String> attributes, long count) {
+
+	}
+
+	/**
+	 * A popular dependency.
+	 *
+	 * @param id the id of the dependency
+	 * @param count the estimated number of generations
+	 */
+	public record PopularDependency(String id, long count) {
+
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.Set;
+
+import io.spring.initializr.generator.project.ProjectDescription;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+
+/**
+ * A {@link BeanDefinitionRegistryPostProcessor} that removes the project generation
+ * configurations that cannot match the {@link ProjectDescription} before the
+ * configuration classes of the generation context are processed.
+ *
+ * @author agent
+ * @see ProjectGenerationConfigurationIndex
+ */
+class ProjectGenerationConfigurationFilter implements BeanDefinitionRegistryPostProcessor {
+
+	private final ProjectGenerationConfigurationIndex index;
+
+	ProjectGenerationConfigurationFilter(ProjectGenerationConfigurationIndex index) {
+		this.index = index;
+	}
+
+	@Override
+	public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+		if (!(registry instanceof BeanFactory beanFactory)) {
+			return;
+		}
+		ProjectDescription description = beanFactory.getBean(ProjectDescription.class);
+		Set<String> excluded = this.index.getExcludedConfigurations(description);
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition beanDefinition = registry.getBeanDefinition(beanName);
+			if (excluded.contains(beanDefinition.getBeanClassName())) {
+				registry.removeBeanDefinition(beanName);
+			}
+		}
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+	}
+
+}
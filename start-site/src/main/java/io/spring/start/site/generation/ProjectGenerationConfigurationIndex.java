@@ -0,0 +1,232 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.initializr.generator.buildsystem.BuildSystem;
+import io.spring.initializr.generator.condition.ConditionalOnBuildSystem;
+import io.spring.initializr.generator.condition.ConditionalOnLanguage;
+import io.spring.initializr.generator.condition.ConditionalOnPackaging;
+import io.spring.initializr.generator.condition.ConditionalOnPlatformVersion;
+import io.spring.initializr.generator.condition.ConditionalOnRequestedDependency;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.generator.version.VersionParser;
+import io.spring.initializr.generator.version.VersionRange;
+
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * A dispatch table of the {@link ProjectGenerationConfiguration project generation
+ * configurations}, built once from the conditions declared on each configuration class.
+ * Configurations are indexed by the dependency ids they require, and their build system,
+ * language, packaging and platform version conditions are evaluated once per distinct
+ * combination of these attributes. This identifies the configurations that cannot match a
+ * given {@link ProjectDescription} without registering them in the generation context.
+ * <p>
+ * The selection is conservative: a configuration is only excluded if one of its
+ * class-level conditions is known not to match. Any other condition is still evaluated
+ * by the generation context.
+ *
+ * @author agent
+ */
+public final class ProjectGenerationConfigurationIndex {
+
+	private static final int MAX_ENVIRONMENTS = 256;
+
+	private final List<Entry> entries;
+
+	private final Map<String, BitSet> byDependency;
+
+	private final BitSet withoutDependency;
+
+	private final Map<Environment, BitSet> environments = new ConcurrentHashMap<>();
+
+	private ProjectGenerationConfigurationIndex(List<Entry> entries) {
+		this.entries = entries;
+		this.byDependency = new HashMap<>();
+		this.withoutDependency = new BitSet(entries.size());
+		for (int index = 0; index < entries.size(); index++) {
+			String dependency = entries.get(index).dependency();
+			if (dependency != null) {
+				this.byDependency.computeIfAbsent(dependency, (id) -> new BitSet(entries.size())).set(index);
+			}
+			else {
+				this.withoutDependency.set(index);
+			}
+		}
+	}
+
+	/**
+	 * Build an index of the project generation configurations registered in
+	 * {@code META-INF/spring.factories}.
+	 * @param classLoader the class loader to use
+	 * @return an index of the project generation configurations
+	 */
+	public static ProjectGenerationConfigurationIndex load(ClassLoader classLoader) {
+		return of(SpringFactoriesLoader.loadFactoryNames(ProjectGenerationConfiguration.class, classLoader),
+				classLoader);
+	}
+
+	/**
+	 * Build an index of the specified project generation configurations. Configuration
+	 * classes are introspected without being loaded.
+	 * @param classNames the names of the configuration classes
+	 * @param classLoader the class loader to use
+	 * @return an index of the project generation configurations
+	 */
+	public static ProjectGenerationConfigurationIndex of(Collection<String> classNames, ClassLoader classLoader) {
+		MetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory(classLoader);
+		List<Entry> entries = new ArrayList<>();
+		for (String className : new LinkedHashSet<>(classNames)) {
+			try {
+				entries.add(Entry.of(className,
+						metadataReaderFactory.getMetadataReader(className).getAnnotationMetadata()));
+			}
+			catch (IOException ex) {
+				// Leave it to the generation context to handle the configuration
+			}
+		}
+		return new ProjectGenerationConfigurationIndex(List.copyOf(entries));
+	}
+
+	/**
+	 * Return the names of the configuration classes that cannot match the specified
+	 * {@link ProjectDescription}.
+	 * @param description the description of the project to generate
+	 * @return the names of the configurations that can be skipped
+	 */
+	public Set<String> getExcludedConfigurations(ProjectDescription description) {
+		BitSet candidates = (BitSet) this.withoutDependency.clone();
+		for (String id : description.getRequestedDependencies().keySet()) {
+			BitSet triggered = this.byDependency.get(id);
+			if (triggered != null) {
+				candidates.or(triggered);
+			}
+		}
+		candidates.and(getEnvironmentCandidates(Environment.of(description)));
+		Set<String> excluded = new LinkedHashSet<>();
+		for (int index = candidates.nextClearBit(0); index < this.entries.size();
+				index = candidates.nextClearBit(index + 1)) {
+			excluded.add(this.entries.get(index).className());
+		}
+		return excluded;
+	}
+
+	private BitSet getEnvironmentCandidates(Environment environment) {
+		BitSet candidates = this.environments.get(environment);
+		if (candidates == null) {
+			candidates = new BitSet(this.entries.size());
+			for (int index = 0; index < this.entries.size(); index++) {
+				if (this.entries.get(index).matches(environment)) {
+					candidates.set(index);
+				}
+			}
+			// Platform versions are user input, do not let the table grow unbounded
+			if (this.environments.size() < MAX_ENVIRONMENTS) {
+				this.environments.put(environment, candidates);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * The attributes of a {@link ProjectDescription} that configurations can be
+	 * conditional on, besides the requested dependencies. Any attribute may be
+	 * {@code null}.
+	 */
+	private record Environment(String buildSystem, String dialect, String language, String packaging,
+			Version platformVersion) {
+
+		static Environment of(ProjectDescription description) {
+			BuildSystem buildSystem = description.getBuildSystem();
+			return new Environment((buildSystem != null) ? buildSystem.id() : null,
+					(buildSystem != null) ? buildSystem.dialect() : null,
+					(description.getLanguage() != null) ? description.getLanguage().id() : null,
+					(description.getPackaging() != null) ? description.getPackaging().id() : null,
+					description.getPlatformVersion());
+		}
+
+	}
+
+	private record Entry(String className, String dependency, String buildSystem, String dialect, String language,
+			String packaging, List<VersionRange> platformVersions) {
+
+		static Entry of(String className, AnnotationMetadata metadata) {
+			// Attributes are resolved the same way as the conditions themselves
+			Map<String, Object> buildSystem = metadata
+				.getAnnotationAttributes(ConditionalOnBuildSystem.class.getName());
+			Map<String, Object> platformVersion = metadata
+				.getAnnotationAttributes(ConditionalOnPlatformVersion.class.getName());
+			return new Entry(className, value(metadata, ConditionalOnRequestedDependency.class),
+					(buildSystem != null) ? (String) buildSystem.get("value") : null,
+					(buildSystem != null) ? (String) buildSystem.get("dialect") : null,
+					value(metadata, ConditionalOnLanguage.class), value(metadata, ConditionalOnPackaging.class),
+					(platformVersion != null) ? Arrays.stream((String[]) platformVersion.get("value"))
+						.map(VersionParser.DEFAULT::parseRange)
+						.toList() : null);
+		}
+
+		private static String value(AnnotationMetadata metadata, Class<? extends Annotation> annotationType) {
+			Map<String, Object> attributes = metadata.getAnnotationAttributes(annotationType.getName());
+			return (attributes != null) ? (String) attributes.get("value") : null;
+		}
+
+		boolean matches(Environment environment) {
+			return matchesBuildSystem(environment.buildSystem(), environment.dialect())
+					&& matches(this.language, environment.language())
+					&& matches(this.packaging, environment.packaging())
+					&& matchesPlatformVersion(environment.platformVersion());
+		}
+
+		private static boolean matches(String expected, String actual) {
+			return expected == null || actual == null || expected.equals(actual);
+		}
+
+		private boolean matchesBuildSystem(String buildSystem, String dialect) {
+			if (this.buildSystem == null || buildSystem == null) {
+				return true;
+			}
+			return this.buildSystem.equals(buildSystem)
+					&& (!StringUtils.hasText(this.dialect) || this.dialect.equals(dialect));
+		}
+
+		private boolean matchesPlatformVersion(Version platformVersion) {
+			return this.platformVersions == null || platformVersion == null
+					|| this.platformVersions.stream().anyMatch((range) -> range.match(platformVersion));
+		}
+
+	}
+
+}
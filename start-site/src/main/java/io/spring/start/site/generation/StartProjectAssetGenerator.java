@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.spring.initializr.generator.project.ProjectAssetGenerator;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDirectoryFactory;
+import io.spring.initializr.generator.project.ProjectGenerationContext;
+import io.spring.initializr.generator.project.contributor.ProjectContributor;
+import io.spring.start.site.generation.jfr.ProjectContributionEvent;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * A {@link ProjectAssetGenerator} that generates a project structure by invoking the
+ * available {@link ProjectContributor contributors}, checking between each of them if
+ * the {@link ActiveGeneration active generation} should be abandoned. The project
+ * directory is removed right away if the generation does not complete. Each invocation
+ * is recorded as a {@link ProjectContributionEvent} and in the {@link GenerationProfile}
+ * of the generation, if any. Projects are generated in the
+ * {@link GenerationWorkspace workspace}, if any.
+ *
+ * @author agent
+ */
+public class StartProjectAssetGenerator implements ProjectAssetGenerator<Path> {
+
+	private final GenerationWorkspace workspace;
+
+	/**
+	 * Create a new instance that uses the {@link ProjectDirectoryFactory} of the
+	 * generation context.
+	 */
+	public StartProjectAssetGenerator() {
+		this(null);
+	}
+
+	/**
+	 * Create a new instance.
+	 * @param workspace the workspace to use, or {@code null} to use the
+	 * {@link ProjectDirectoryFactory} of the generation context
+	 */
+	public StartProjectAssetGenerator(GenerationWorkspace workspace) {
+		this.workspace = workspace;
+	}
+
+	@Override
+	public Path generate(ProjectGenerationContext context) throws IOException {
+		ActiveGeneration.checkNotCancelled();
+		ProjectDescription description = context.getBean(ProjectDescription.class);
+		Path projectRoot = (this.workspace != null) ? this.workspace.createProjectDirectory()
+				: context.getBean(ProjectDirectoryFactory.class).createProjectDirectory(description);
+		try {
+			Path projectDirectory = initializeProjectDirectory(projectRoot, description);
+			List<ProjectContributor> contributors = context.getBeanProvider(ProjectContributor.class)
+				.orderedStream()
+				.toList();
+			GenerationProfile profile = context.getBeanProvider(GenerationProfile.class).getIfAvailable();
+			for (ProjectContributor contributor : contributors) {
+				ActiveGeneration.checkNotCancelled();
+				contribute(contributor, projectDirectory, profile);
+			}
+			ActiveGeneration.checkNotCancelled();
+			if (this.workspace != null) {
+				this.workspace.record(projectRoot);
+			}
+			return projectRoot;
+		}
+		catch (IOException | RuntimeException ex) {
+			if (this.workspace == null || !this.workspace.release(projectRoot, null)) {
+				FileSystemUtils.deleteRecursively(projectRoot);
+			}
+			throw ex;
+		}
+	}
+
+	private void contribute(ProjectContributor contributor, Path projectDirectory, GenerationProfile profile)
+			throws IOException {
+		ProjectContributionEvent event = new ProjectContributionEvent(contributor);
+		event.begin();
+		GenerationProfile.Invocation invocation = (profile != null)
+				? profile.begin("project-contributor", contributor.getClass().getName()) : null;
+		try {
+			contributor.contribute(projectDirectory);
+		}
+		finally {
+			if (invocation != null) {
+				invocation.close();
+			}
+			event.complete();
+		}
+	}
+
+	private Path initializeProjectDirectory(Path projectRoot, ProjectDescription description) throws IOException {
+		Path projectDirectory = (description.getBaseDirectory() != null)
+				? projectRoot.resolve(description.getBaseDirectory()) : projectRoot;
+		Files.createDirectories(projectDirectory);
+		return projectDirectory;
+	}
+
+}
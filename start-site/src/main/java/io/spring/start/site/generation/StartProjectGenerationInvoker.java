@@ -0,0 +1,193 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.nio.file.Path;
+
+import io.spring.initializr.generator.project.ProjectAssetGenerator;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.ProjectRequestToDescriptionConverter;
+import io.spring.start.site.generation.jfr.ArchiveWritingEvent;
+import io.spring.start.site.generation.jfr.GenerationContextEventRecorder;
+import io.spring.start.site.multimodule.ModuleProjectRequest;
+import io.spring.start.site.multimodule.ProjectModule;
+
+import org.springframework.boot.type.classreading.ConcurrentReferenceCachingMetadataReaderFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/**
+ * The {@link ProjectGenerationInvoker} used by the service. Attaches the
+ * {@link CanonicalProjectRequest canonical request} to the {@link ActiveGeneration
+ * active generation}, only registers the project generation configurations that may
+ * match the request, shares the metadata of configuration classes between generations,
+ * serves build files from a {@link BuildFileCache cache}, generates projects in the
+ * {@link GenerationWorkspace workspace} and records flight recorder events for the
+ * generation context and the archive. The {@link ProjectModule} of a
+ * {@link ModuleProjectRequest module request} is registered in its generation context.
+ *
+ * @author agent
+ * @see StartProjectAssetGenerator
+ */
+public class StartProjectGenerationInvoker extends ProjectGenerationInvoker<ProjectRequest> {
+
+	private final ApplicationContext parentApplicationContext;
+
+	private final ProjectGenerationConfigurationIndex configurationIndex;
+
+	private final BuildFileCache buildFileCache;
+
+	private final GenerationProfiler profiler;
+
+	private final GenerationWorkspace workspace;
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+	private final ThreadLocal<ArchiveWritingEvent> archiveWriting = new ThreadLocal<>();
+
+	private final ThreadLocal<ProjectModule> projectModule = new ThreadLocal<>();
+
+	/**
+	 * Create a new instance.
+	 * @param parentApplicationContext the application context
+	 * @param requestConverter the converter to use
+	 * @param configurationIndex the index of the project generation configurations, or
+	 * {@code null} to register all of them
+	 * @param buildFileCache the cache of rendered build files, or {@code null} to render
+	 * build files for each request
+	 * @param profiler the profiler to use, or {@code null} to disable profiling
+	 * @param workspace the workspace to generate projects in, or {@code null} to use the
+	 * temporary directory
+	 */
+	public StartProjectGenerationInvoker(ApplicationContext parentApplicationContext,
+			ProjectRequestToDescriptionConverter<ProjectRequest> requestConverter,
+			ProjectGenerationConfigurationIndex configurationIndex, BuildFileCache buildFileCache,
+			GenerationProfiler profiler, GenerationWorkspace workspace) {
+		super(parentApplicationContext, requestConverter);
+		this.parentApplicationContext = parentApplicationContext;
+		this.configurationIndex = configurationIndex;
+		this.buildFileCache = buildFileCache;
+		this.profiler = profiler;
+		this.workspace = workspace;
+		this.metadataReaderFactory = new ConcurrentReferenceCachingMetadataReaderFactory(
+				parentApplicationContext.getClassLoader());
+	}
+
+	@Override
+	public ProjectGenerationResult invokeProjectStructureGeneration(ProjectRequest request) {
+		attachRequest(request);
+		if (!(request instanceof ModuleProjectRequest moduleRequest) || moduleRequest.getProjectModule() == null) {
+			return super.invokeProjectStructureGeneration(request);
+		}
+		this.projectModule.set(moduleRequest.getProjectModule());
+		try {
+			return super.invokeProjectStructureGeneration(request);
+		}
+		finally {
+			this.projectModule.remove();
+		}
+	}
+
+	@Override
+	public byte[] invokeBuildGeneration(ProjectRequest request) {
+		CanonicalProjectRequest canonicalRequest = attachRequest(request);
+		if (this.buildFileCache == null) {
+			return super.invokeBuildGeneration(request);
+		}
+		InitializrMetadata metadata = this.parentApplicationContext.getBean(InitializrMetadataProvider.class).get();
+		return this.buildFileCache.get(canonicalRequest, metadata, () -> super.invokeBuildGeneration(request),
+				() -> this.parentApplicationContext.publishEvent(new ProjectGeneratedEvent(request, metadata)));
+	}
+
+	private CanonicalProjectRequest attachRequest(ProjectRequest request) {
+		CanonicalProjectRequest canonicalRequest = CanonicalProjectRequest.of(request);
+		ActiveGeneration generation = ActiveGeneration.current();
+		if (generation != null) {
+			generation.setRequest(canonicalRequest);
+		}
+		return canonicalRequest;
+	}
+
+	@Override
+	public Path createDistributionFile(Path dir, String extension) {
+		// The archive is written by the controller once the file has been created
+		String format = (extension.startsWith(".")) ? extension.substring(1) : extension;
+		ArchiveWritingEvent event = new ArchiveWritingEvent(format);
+		event.begin();
+		this.archiveWriting.set(event);
+		Path file = super.createDistributionFile(dir, extension);
+		if (this.workspace != null) {
+			this.workspace.addFile(dir, file);
+		}
+		return file;
+	}
+
+	@Override
+	public void cleanTempFiles(Path dir) {
+		ArchiveWritingEvent event = this.archiveWriting.get();
+		if (event != null) {
+			this.archiveWriting.remove();
+			event.complete();
+		}
+		if (this.workspace == null || !this.workspace.release(dir, () -> super.cleanTempFiles(dir))) {
+			super.cleanTempFiles(dir);
+		}
+	}
+
+	@Override
+	protected void customizeProjectGenerationContext(AnnotationConfigApplicationContext context,
+			InitializrMetadata metadata) {
+		GenerationContextEventRecorder.register(context);
+		shareMetadataReaderFactory(context);
+		if (this.configurationIndex != null) {
+			context.addBeanFactoryPostProcessor(new ProjectGenerationConfigurationFilter(this.configurationIndex));
+		}
+		super.customizeProjectGenerationContext(context, metadata);
+		ProjectModule module = this.projectModule.get();
+		if (module != null) {
+			context.registerBean(ProjectModule.class, () -> module);
+		}
+		if (this.profiler != null) {
+			GenerationProfile profile = this.profiler.startProfile();
+			context.registerBean(GenerationProfile.class, () -> profile);
+			context.getBeanFactory().addBeanPostProcessor(new ExtensionInstrumentingBeanPostProcessor(profile));
+		}
+	}
+
+	private void shareMetadataReaderFactory(AnnotationConfigApplicationContext context) {
+		// Configuration classes are read once rather than for each generation
+		if (context.containsBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+			context.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+				.getPropertyValues()
+				.add("metadataReaderFactory", this.metadataReaderFactory);
+		}
+	}
+
+	@Override
+	protected ProjectAssetGenerator<Path> getProjectAssetGenerator(ProjectDescription description) {
+		return new StartProjectAssetGenerator(this.workspace);
+	}
+
+}
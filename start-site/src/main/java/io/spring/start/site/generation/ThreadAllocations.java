@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Access to the number of bytes allocated by the current thread, when the JVM supports
+ * it.
+ *
+ * @author agent
+ */
+final class ThreadAllocations {
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = resolveThreadMXBean();
+
+	private ThreadAllocations() {
+	}
+
+	/**
+	 * Return the total number of bytes allocated so far by the current thread.
+	 * @return the allocated bytes or {@code -1} if thread allocation accounting is not
+	 * available
+	 */
+	static long currentThreadAllocatedBytes() {
+		return (THREAD_MX_BEAN != null) ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	private static com.sun.management.ThreadMXBean resolveThreadMXBean() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean candidate
+				&& candidate.isThreadAllocatedMemorySupported() && candidate.isThreadAllocatedMemoryEnabled()) {
+			return candidate;
+		}
+		return null;
+	}
+
+}
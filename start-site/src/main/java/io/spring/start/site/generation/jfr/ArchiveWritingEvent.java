@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the writing of the archive of a generated project.
+ *
+ * @author agent
+ */
+@Name("io.spring.start.ArchiveWriting")
+@Label("Archive Writing")
+@Description("Writing of the archive of a generated project")
+public class ArchiveWritingEvent extends GenerationEvent {
+
+	@Label("Format")
+	String format;
+
+	/**
+	 * Create an event for an archive of the specified format.
+	 * @param format the format of the archive, such as {@code zip}
+	 */
+	public ArchiveWritingEvent(String format) {
+		this.format = format;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the resolution of the dependency or plugin management of a BOM.
+ *
+ * @author agent
+ */
+@Name("io.spring.start.BomLookup")
+@Label("BOM Lookup")
+@Description("Resolution of the dependency or plugin management of a BOM")
+public class BomLookupEvent extends GenerationEvent {
+
+	@Label("Group ID")
+	String groupId;
+
+	@Label("Artifact ID")
+	String artifactId;
+
+	@Label("Version")
+	String version;
+
+	@Label("Scope")
+	@Description("Whether dependencies or plugins are resolved")
+	String scope;
+
+	/**
+	 * Create an event for the specified BOM.
+	 * @param scope {@code dependencies} or {@code plugins}
+	 * @param groupId the group ID of the BOM
+	 * @param artifactId the artifact ID of the BOM
+	 * @param version the version of the BOM
+	 */
+	public BomLookupEvent(String scope, String groupId, String artifactId, String version) {
+		this.scope = scope;
+		this.groupId = groupId;
+		this.artifactId = artifactId;
+		this.version = version;
+	}
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the customization of a project description by the available
+ * {@code ProjectDescriptionCustomizer} beans.
+ *
+ * @author agent
+ */
+@Name("io.spring.start.DescriptionCustomization")
+@Label("Description Customization")
+@Description("Customization of a project description")
+public class DescriptionCustomizationEvent extends GenerationEvent {
+
+}
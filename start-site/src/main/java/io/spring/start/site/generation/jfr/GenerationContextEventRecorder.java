@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import io.spring.initializr.generator.project.ProjectDescription;
+
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Records the {@link GenerationContextCreationEvent creation} of a project generation
+ * context and the {@link DescriptionCustomizationEvent customization} of its
+ * {@link ProjectDescription}, which happens lazily while the context refreshes.
+ *
+ * @author agent
+ */
+public final class GenerationContextEventRecorder
+		implements InstantiationAwareBeanPostProcessor, ApplicationListener<ContextRefreshedEvent> {
+
+	private final GenerationContextCreationEvent contextCreation = new GenerationContextCreationEvent();
+
+	private DescriptionCustomizationEvent descriptionCustomization;
+
+	private boolean descriptionCustomized;
+
+	private GenerationContextEventRecorder() {
+	}
+
+	/**
+	 * Start recording events for the specified project generation context, which must
+	 * not have been refreshed yet.
+	 * @param context the project generation context
+	 */
+	public static void register(GenericApplicationContext context) {
+		GenerationContextEventRecorder recorder = new GenerationContextEventRecorder();
+		recorder.contextCreation.begin();
+		context.getBeanFactory().addBeanPostProcessor(recorder);
+		context.addApplicationListener(recorder);
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+		// The description is customized by the supplier of its bean
+		if (this.descriptionCustomization == null && ProjectDescription.class.isAssignableFrom(beanClass)) {
+			this.descriptionCustomization = new DescriptionCustomizationEvent();
+			this.descriptionCustomization.begin();
+		}
+		return null;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (this.descriptionCustomization != null && !this.descriptionCustomized
+				&& bean instanceof ProjectDescription) {
+			this.descriptionCustomized = true;
+			this.descriptionCustomization.complete();
+		}
+		return bean;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		this.contextCreation.complete();
+	}
+
+}
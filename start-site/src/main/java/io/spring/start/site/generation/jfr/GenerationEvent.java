@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import io.spring.start.site.generation.ActiveGeneration;
+import io.spring.start.site.generation.CanonicalProjectRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class for flight recorder events emitted while generating a project. Each event
+ * identifies the request it belongs to by the hash of its
+ * {@link CanonicalProjectRequest canonical form} and its number of dependencies, so
+ * that latency spikes can be correlated with the requests that caused them.
+ *
+ * @author agent
+ */
+@Category({ "Spring Initializr", "Project Generation" })
+@StackTrace(false)
+public abstract class GenerationEvent extends Event {
+
+	@Label("Request Hash")
+	@Description("Hash of the canonical form of the project request")
+	String requestHash;
+
+	@Label("Dependency Count")
+	@Description("Number of distinct dependencies requested, or -1 if unknown")
+	int dependencyCount = -1;
+
+	private final transient CanonicalProjectRequest request;
+
+	/**
+	 * Create an event for the request of the {@link ActiveGeneration active generation},
+	 * if any.
+	 */
+	protected GenerationEvent() {
+		this(ActiveGeneration.currentRequest());
+	}
+
+	/**
+	 * Create an event for the specified request.
+	 * @param request the request or {@code null} if it is not known
+	 */
+	protected GenerationEvent(CanonicalProjectRequest request) {
+		this.request = request;
+	}
+
+	/**
+	 * Return the request this event belongs to.
+	 * @return the canonical request or {@code null}
+	 */
+	public CanonicalProjectRequest getRequest() {
+		return this.request;
+	}
+
+	/**
+	 * End the timing of this event and commit it if it is enabled and exceeds its
+	 * threshold.
+	 */
+	public void complete() {
+		end();
+		if (shouldCommit()) {
+			if (this.request != null) {
+				this.requestHash = this.request.getHash();
+				this.dependencyCount = this.request.getDependencyCount();
+			}
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the resolution of the version of an artifact against Nexus.
+ *
+ * @author agent
+ */
+@Name("io.spring.start.NexusLookup")
+@Label("Nexus Lookup")
+@Description("Resolution of an artifact version against Nexus")
+public class NexusLookupEvent extends GenerationEvent {
+
+	@Label("Group ID")
+	String groupId;
+
+	@Label("Artifact ID")
+	String artifactId;
+
+	@Label("Requested Version")
+	String version;
+
+	@Label("Resolved Version")
+	String resolvedVersion;
+
+	/**
+	 * Create an event for the specified artifact, attributed to the request of the
+	 * active generation of the calling thread.
+	 * @param groupId the group ID of the artifact
+	 * @param artifactId the artifact ID of the artifact
+	 * @param version the requested version
+	 */
+	public NexusLookupEvent(String groupId, String artifactId, String version) {
+		this.groupId = groupId;
+		this.artifactId = artifactId;
+		this.version = version;
+	}
+
+	/**
+	 * Set the version that the lookup resolved.
+	 * @param resolvedVersion the resolved version or {@code null}
+	 */
+	public void setResolvedVersion(String resolvedVersion) {
+		this.resolvedVersion = resolvedVersion;
+	}
+
+}
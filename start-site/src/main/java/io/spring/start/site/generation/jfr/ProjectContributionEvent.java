@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import io.spring.initializr.generator.project.contributor.ProjectContributor;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import org.springframework.aop.framework.AopProxyUtils;
+
+/**
+ * Records the invocation of a {@link ProjectContributor}.
+ *
+ * @author agent
+ */
+@Name("io.spring.start.ProjectContribution")
+@Label("Project Contribution")
+@Description("Invocation of a project contributor")
+public class ProjectContributionEvent extends GenerationEvent {
+
+	@Label("Contributor")
+	String contributor;
+
+	/**
+	 * Create an event for the specified contributor.
+	 * @param contributor the contributor being invoked
+	 */
+	public ProjectContributionEvent(ProjectContributor contributor) {
+		this.contributor = AopProxyUtils.ultimateTargetClass(contributor).getName();
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation.jfr;
+
+import java.util.Set;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records the publication of a batch of project generation statistics. As a batch
+ * describes several requests, it is identified by the number of distinct
+ * {@link io.spring.start.site.generation.CanonicalProjectRequest canonical requests} it
+ * holds and their total number of dependencies, rather than by the hash of a single
+ * request. The hash is only set when every document of the batch describes the same
+ * request. Documents replayed from the spool carry no request.
+ *
+ * @author agent
+ */
+@Name("io.spring.start.StatsPublish")
+@Label("Stats Publish")
+@Description("Publication of a batch of statistics documents")
+@Category({ "Spring Initializr", "Statistics" })
+@StackTrace(false)
+public class StatsPublishEvent extends Event {
+
+	@Label("Documents")
+	@Description("Number of documents in the batch")
+	int documents;
+
+	@Label("Request Hash")
+	@Description("Hash of the canonical form of the project request, if all documents describe the same request")
+	String requestHash;
+
+	@Label("Distinct Requests")
+	@Description("Number of distinct canonical requests in the batch, or -1 if unknown")
+	int requests = -1;
+
+	@Label("Dependency Count")
+	@Description("Total number of distinct dependencies of the requests in the batch, or -1 if unknown")
+	int dependencyCount = -1;
+
+	@Label("Size")
+	@DataAmount
+	long size;
+
+	@Label("Replay")
+	@Description("Whether the documents were replayed from the spool")
+	boolean replay;
+
+	@Label("Outcome")
+	@Description("Whether the batch has been published, spooled or partially published")
+	String outcome;
+
+	/**
+	 * Create an event for the specified batch.
+	 * @param documents the number of documents
+	 * @param replay whether the documents are replayed from the spool
+	 */
+	public StatsPublishEvent(int documents, boolean replay) {
+		this.documents = documents;
+		this.replay = replay;
+	}
+
+	/**
+	 * Set the requests described by the documents of the batch.
+	 * @param requestHashes the hashes of the distinct canonical requests
+	 * @param dependencyCount the total number of distinct dependencies of each document
+	 */
+	public void setRequests(Set<String> requestHashes, int dependencyCount) {
+		this.requests = requestHashes.size();
+		this.requestHash = (requestHashes.size() == 1) ? requestHashes.iterator().next() : null;
+		this.dependencyCount = dependencyCount;
+	}
+
+	/**
+	 * Set the size of the request body.
+	 * @param size the size in bytes
+	 */
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	/**
+	 * Set the outcome of the publication.
+	 * @param outcome the outcome
+	 */
+	public void setOutcome(String outcome) {
+		this.outcome = outcome;
+	}
+
+	/**
+	 * End the timing of this event and commit it if it is enabled and exceeds its
+	 * threshold.
+	 */
+	public void complete() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.multimodule;
+
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+
+/**
+ * Callback interface that can be implemented by beans of the application context to
+ * customize the aggregator build of a multi-module Maven project. The aggregator build is
+ * customized once, rather than the build of each module.
+ *
+ * @author agent
+ */
+@FunctionalInterface
+public interface AggregatorBuildCustomizer {
+
+	/**
+	 * Customize the specified aggregator build.
+	 * @param build the build to customize
+	 */
+	void customize(MavenBuild build);
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.multimodule;
+
+import io.spring.initializr.web.project.WebProjectRequest;
+
+/**
+ * A {@link WebProjectRequest} for a module of a multi-module project.
+ *
+ * @author agent
+ */
+public class ModuleProjectRequest extends WebProjectRequest {
+
+	private ProjectModule projectModule;
+
+	/**
+	 * Return the module that this request generates, if any.
+	 * @return the project module or {@code null}
+	 */
+	public ProjectModule getProjectModule() {
+		return this.projectModule;
+	}
+
+	public void setProjectModule(ProjectModule projectModule) {
+		this.projectModule = projectModule;
+	}
+
+}
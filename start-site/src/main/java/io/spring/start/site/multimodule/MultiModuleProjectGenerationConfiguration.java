@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.multimodule;
+
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.condition.ConditionalOnBuildSystem;
+import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * {@link ProjectGenerationConfiguration} for the modules of a multi-module project.
+ *
+ * @author agent
+ */
+@ProjectGenerationConfiguration
+@ConditionalOnBuildSystem(MavenBuildSystem.ID)
+public class MultiModuleProjectGenerationConfiguration {
+
+	@Bean
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public BuildCustomizer<MavenBuild> projectModuleParentBuildCustomizer(ObjectProvider<ProjectModule> projectModule) {
+		return (build) -> {
+			ProjectModule module = projectModule.getIfAvailable();
+			if (module != null) {
+				build.settings().parent(module.parentGroupId(), module.parentArtifactId(), module.parentVersion());
+			}
+		};
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.multimodule;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.spring.initializr.generator.buildsystem.BuildSystem;
+import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildWriter;
+import io.spring.initializr.generator.io.IndentingWriter;
+import io.spring.initializr.generator.io.SimpleIndentStrategy;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.generation.BulkProjectGenerator;
+
+import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Generates a multi-module project: an aggregator build with several Spring Boot modules.
+ * The modules are generated concurrently by a {@link BulkProjectGenerator}, each as a
+ * {@link ProjectModule} of the aggregator, so that the configuration they share is
+ * {@link AggregatorBuildCustomizer applied once} to the aggregator build rather than to
+ * the build of each module.
+ * <p>
+ * With Maven, the aggregator is a {@code pom} project that inherits from the Spring Boot
+ * parent and that each module uses as its parent. With Gradle, the aggregator is a
+ * settings file that includes the modules. In both cases, the wrapper of the build is
+ * moved to the aggregator.
+ *
+ * @author agent
+ */
+public class MultiModuleProjectGenerator {
+
+	private static final List<String> MAVEN_WRAPPER_FILES = List.of("mvnw", "mvnw.cmd", ".mvn");
+
+	private static final List<String> GRADLE_WRAPPER_FILES = List.of("gradlew", "gradlew.bat", "gradle");
+
+	private final ProjectGenerationInvoker<ProjectRequest> invoker;
+
+	private final BulkProjectGenerator generator;
+
+	private final List<AggregatorBuildCustomizer> customizers;
+
+	/**
+	 * Create a new instance.
+	 * @param invoker the invoker used to clean up the generated modules
+	 * @param generator the generator to use to generate the modules
+	 * @param customizers the customizers of the aggregator build
+	 */
+	public MultiModuleProjectGenerator(ProjectGenerationInvoker<ProjectRequest> invoker,
+			BulkProjectGenerator generator, List<AggregatorBuildCustomizer> customizers) {
+		this.invoker = invoker;
+		this.generator = generator;
+		this.customizers = customizers;
+	}
+
+	/**
+	 * Generate a multi-module project. The aggregator is generated in a directory named
+	 * after the base directory or the artifact id of its request, with a directory for
+	 * each module. The project type and platform version of the modules are those of the
+	 * aggregator.
+	 * @param aggregator the request of the aggregator
+	 * @param modules the requests of the modules
+	 * @param listener the listener to notify of the progress of the generation of the
+	 * modules, or {@code null}
+	 * @return the result of the generation of each module, the first of which holds the
+	 * aggregator build
+	 * @throws IllegalArgumentException if there are no modules or too many of them
+	 */
+	public List<ProjectGenerationResult> generate(ProjectRequest aggregator, List<ModuleProjectRequest> modules,
+			BulkProjectGenerator.Listener listener) {
+		Assert.notEmpty(modules, "'modules' must not be empty");
+		String name = StringUtils.hasText(aggregator.getBaseDir()) ? aggregator.getBaseDir()
+				: aggregator.getArtifactId();
+		Assert.hasText(name, "'aggregator' must have a base directory or an artifact id");
+		List<String> moduleNames = assignModules(aggregator, name, modules);
+		List<ProjectGenerationResult> results = (listener != null) ? this.generator.generate(modules, listener)
+				: this.generator.generate(modules);
+		try {
+			Path root = results.get(0).getRootDirectory().resolve(name);
+			BuildSystem buildSystem = results.get(0).getProjectDescription().getBuildSystem();
+			if (buildSystem instanceof MavenBuildSystem) {
+				writeMavenAggregator(root, aggregator, results.get(0).getProjectDescription(), moduleNames);
+			}
+			else {
+				writeGradleSettings(root, aggregator, buildSystem, moduleNames, results, modules);
+			}
+			moveWrapper(root, buildSystem, results, modules);
+			return results;
+		}
+		catch (IOException ex) {
+			cleanUp(results);
+			throw new UncheckedIOException(ex);
+		}
+		catch (RuntimeException ex) {
+			cleanUp(results);
+			throw ex;
+		}
+	}
+
+	private void cleanUp(List<ProjectGenerationResult> results) {
+		results.forEach((result) -> this.invoker.cleanTempFiles(result.getRootDirectory()));
+	}
+
+	private List<String> assignModules(ProjectRequest aggregator, String name, List<ModuleProjectRequest> modules) {
+		ProjectModule projectModule = new ProjectModule(aggregator.getGroupId(), aggregator.getArtifactId(),
+				aggregator.getVersion());
+		Set<String> names = new HashSet<>();
+		for (ModuleProjectRequest module : modules) {
+			String candidate = StringUtils.hasText(module.getArtifactId()) ? module.getArtifactId() : "module";
+			String moduleName = candidate;
+			for (int i = 2; !names.add(moduleName); i++) {
+				moduleName = candidate + "-" + i;
+			}
+			module.setType(aggregator.getType());
+			module.setBootVersion(aggregator.getBootVersion());
+			module.setBaseDir(name + "/" + moduleName);
+			module.setProjectModule(projectModule);
+		}
+		return modules.stream().map((module) -> module.getBaseDir().substring(name.length() + 1)).toList();
+	}
+
+	private void writeMavenAggregator(Path root, ProjectRequest aggregator, ProjectDescription description,
+			List<String> moduleNames) throws IOException {
+		MavenBuild build = new MavenBuild();
+		build.settings()
+			.coordinates(aggregator.getGroupId(), aggregator.getArtifactId())
+			.version(aggregator.getVersion())
+			.packaging("pom")
+			.name(aggregator.getName())
+			.description(aggregator.getDescription())
+			.parent("org.springframework.boot", "spring-boot-starter-parent",
+					description.getPlatformVersion().toString());
+		this.customizers.forEach((customizer) -> customizer.customize(build));
+		StringWriter out = new StringWriter();
+		new MavenBuildWriter().writeTo(new IndentingWriter(out, new SimpleIndentStrategy("\t")), build);
+		Files.writeString(root.resolve("pom.xml"), addModules(out.toString(), moduleNames));
+	}
+
+	private String addModules(String pom, List<String> moduleNames) {
+		// The build model has no notion of modules
+		StringBuilder modules = new StringBuilder("\t<modules>\n");
+		moduleNames.forEach((moduleName) -> modules.append("\t\t<module>").append(moduleName).append("</module>\n"));
+		modules.append("\t</modules>\n");
+		int packaging = pom.indexOf("</packaging>");
+		int index = (packaging != -1) ? pom.indexOf('\n', packaging) + 1 : pom.lastIndexOf("</project>");
+		return pom.substring(0, index) + modules + pom.substring(index);
+	}
+
+	private void writeGradleSettings(Path root, ProjectRequest aggregator, BuildSystem buildSystem,
+			List<String> moduleNames, List<ProjectGenerationResult> results, List<ModuleProjectRequest> modules)
+			throws IOException {
+		boolean kotlin = GradleBuildSystem.DIALECT_KOTLIN.equals(buildSystem.dialect());
+		String settingsFile = (kotlin) ? "settings.gradle.kts" : "settings.gradle";
+		String quote = (kotlin) ? "\"" : "'";
+		String includes = moduleNames.stream()
+			.map((moduleName) -> quote + moduleName + quote)
+			.collect(Collectors.joining(", "));
+		String settings = "rootProject.name = " + quote + aggregator.getArtifactId() + quote + "\n"
+				+ ((kotlin) ? "include(" + includes + ")" : "include " + includes) + "\n";
+		for (int i = 0; i < results.size(); i++) {
+			Files.deleteIfExists(moduleDirectory(results.get(i), modules.get(i)).resolve(settingsFile));
+		}
+		Files.writeString(root.resolve(settingsFile), settings);
+	}
+
+	private void moveWrapper(Path root, BuildSystem buildSystem, List<ProjectGenerationResult> results,
+			List<ModuleProjectRequest> modules) throws IOException {
+		List<String> wrapperFiles = (buildSystem instanceof MavenBuildSystem) ? MAVEN_WRAPPER_FILES
+				: GRADLE_WRAPPER_FILES;
+		for (String wrapperFile : wrapperFiles) {
+			Path first = moduleDirectory(results.get(0), modules.get(0)).resolve(wrapperFile);
+			if (Files.exists(first)) {
+				Files.move(first, root.resolve(wrapperFile));
+			}
+			for (int i = 1; i < results.size(); i++) {
+				FileSystemUtils.deleteRecursively(moduleDirectory(results.get(i), modules.get(i)).resolve(wrapperFile));
+			}
+		}
+	}
+
+	private Path moduleDirectory(ProjectGenerationResult result, ModuleProjectRequest module) {
+		return result.getRootDirectory().resolve(module.getBaseDir());
+	}
+
+}
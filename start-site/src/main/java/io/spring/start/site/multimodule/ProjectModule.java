@@ -0,0 +1,31 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.multimodule;
+
+/**
+ * Identifies the project being generated as a module of a multi-module project. Available
+ * in the generation context of each module, so that the configuration shared by the
+ * modules can be left to the aggregator build.
+ *
+ * @param parentGroupId the group id of the aggregator build
+ * @param parentArtifactId the artifact id of the aggregator build
+ * @param parentVersion the version of the aggregator build
+ * @author agent
+ */
+public record ProjectModule(String parentGroupId, String parentArtifactId, String parentVersion) {
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.stats;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.actuate.stat.ProjectRequestDocumentFactory;
+import io.spring.initializr.web.project.ProjectRequestEvent;
+import io.spring.start.site.generation.ActiveGeneration;
+import io.spring.start.site.generation.CanonicalProjectRequest;
+import io.spring.start.site.generation.jfr.StatsPublishEvent;
+import io.spring.start.site.stats.ElasticBulkClient.BulkResult;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Publishes a statistics document for each project generation without holding the
+ * request thread. Documents are queued in a bounded buffer and published by a single
+ * thread in batches, as soon as a batch is full or the flush interval has elapsed.
+ * Documents that do not fit in the buffer, or that could not be published, are written
+ * to a {@link DiskSpool spool} that is replayed once Elasticsearch is available again,
+ * including after a restart.
+ *
+ * @author agent
+ */
+public class BulkStatsPublisher implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(BulkStatsPublisher.class);
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+	private final ProjectRequestDocumentFactory documentFactory;
+
+	private final ObjectMapper objectMapper;
+
+	private final ElasticBulkClient client;
+
+	private final DiskSpool spool;
+
+	private final BlockingQueue<QueuedDocument> queue;
+
+	private final int batchSize;
+
+	private final Duration flushInterval;
+
+	private final Counter published;
+
+	private final Counter rejected;
+
+	private final Counter spooled;
+
+	private volatile boolean running;
+
+	private volatile boolean available = true;
+
+	private Thread thread;
+
+	BulkStatsPublisher(ProjectRequestDocumentFactory documentFactory, ObjectMapper objectMapper,
+			ElasticBulkClient client, DiskSpool spool, int queueCapacity, int batchSize, Duration flushInterval,
+			MeterRegistry meterRegistry) {
+		this.documentFactory = documentFactory;
+		this.objectMapper = objectMapper;
+		this.client = client;
+		this.spool = spool;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.flushInterval = flushInterval;
+		this.published = documents("published", meterRegistry);
+		this.rejected = documents("rejected", meterRegistry);
+		this.spooled = documents("spooled", meterRegistry);
+		FunctionCounter.builder("initializr.stats.documents", spool, DiskSpool::dropped)
+			.description("Number of statistics documents")
+			.tag("outcome", "dropped")
+			.register(meterRegistry);
+		Gauge.builder("initializr.stats.queue.size", this.queue, BlockingQueue::size)
+			.description("Number of statistics documents waiting to be published")
+			.register(meterRegistry);
+		Gauge.builder("initializr.stats.spool.size", spool, DiskSpool::size)
+			.description("Size of the statistics documents spooled to disk")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+
+	private static Counter documents(String outcome, MeterRegistry meterRegistry) {
+		return Counter.builder("initializr.stats.documents")
+			.description("Number of statistics documents")
+			.tag("outcome", outcome)
+			.register(meterRegistry);
+	}
+
+	@EventListener
+	public void handleEvent(ProjectRequestEvent event) {
+		if (ActiveGeneration.isWarmup()) {
+			return;
+		}
+		QueuedDocument document;
+		try {
+			String content = this.objectMapper.writeValueAsString(this.documentFactory.createDocument(event));
+			document = new QueuedDocument(content, CanonicalProjectRequest.of(event.getProjectRequest()));
+		}
+		catch (JsonProcessingException | RuntimeException ex) {
+			logger.warn("Failed to create statistics document", ex);
+			return;
+		}
+		if (!this.queue.offer(document)) {
+			spool(List.of(document.content()));
+		}
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+		this.thread = new Thread(this::run, "stats-publisher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		Thread thread = this.thread;
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(SHUTDOWN_TIMEOUT.toMillis());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.thread = null;
+		}
+		// Pending documents are published on the next start
+		List<QueuedDocument> pending = new ArrayList<>();
+		this.queue.drainTo(pending);
+		if (!pending.isEmpty()) {
+			spool(pending.stream().map(QueuedDocument::content).toList());
+		}
+		try {
+			this.spool.close();
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to close statistics spool", ex);
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	private void run() {
+		while (this.running) {
+			try {
+				List<QueuedDocument> batch = nextBatch();
+				boolean published = batch.isEmpty() || publish(batch);
+				if (published && !this.spool.isEmpty()) {
+					this.spool.replay(this.batchSize, (documents) -> publish(documents, true));
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (IOException | RuntimeException ex) {
+				logger.warn("Failed to publish statistics", ex);
+			}
+		}
+	}
+
+	private List<QueuedDocument> nextBatch() throws InterruptedException {
+		List<QueuedDocument> batch = new ArrayList<>(this.batchSize);
+		long deadline = System.nanoTime() + this.flushInterval.toNanos();
+		while (batch.size() < this.batchSize) {
+			long remaining = deadline - System.nanoTime();
+			QueuedDocument document = (remaining > 0) ? this.queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+			if (document == null) {
+				break;
+			}
+			batch.add(document);
+			this.queue.drainTo(batch, this.batchSize - batch.size());
+		}
+		return batch;
+	}
+
+	private boolean publish(List<QueuedDocument> batch) {
+		Set<String> requests = new HashSet<>();
+		int dependencyCount = 0;
+		for (QueuedDocument document : batch) {
+			requests.add(document.request().getHash());
+			dependencyCount += document.request().getDependencyCount();
+		}
+		StatsPublishEvent event = new StatsPublishEvent(batch.size(), false);
+		event.setRequests(requests, dependencyCount);
+		return publish(batch.stream().map(QueuedDocument::content).toList(), false, event);
+	}
+
+	private boolean publish(List<String> documents, boolean replay) {
+		return publish(documents, replay, new StatsPublishEvent(documents.size(), replay));
+	}
+
+	private boolean publish(List<String> documents, boolean replay, StatsPublishEvent event) {
+		event.begin();
+		try {
+			BulkResult result = this.client.publish(documents);
+			event.setSize(result.size());
+			this.published.increment(documents.size() - result.retryable().size() - result.rejected());
+			this.rejected.increment(result.rejected());
+			if (!result.retryable().isEmpty()) {
+				spool(result.retryable());
+			}
+			event.setOutcome((result.retryable().isEmpty()) ? "published" : "partial");
+			if (!this.available) {
+				logger.info("Statistics publication has recovered");
+				this.available = true;
+			}
+			return true;
+		}
+		catch (RestClientException ex) {
+			if (this.available) {
+				logger.warn("Failed to publish statistics, spooling documents until Elasticsearch is available", ex);
+				this.available = false;
+			}
+			if (!replay) {
+				spool(documents);
+			}
+			event.setOutcome((replay) ? "failed" : "spooled");
+			return false;
+		}
+		finally {
+			event.complete();
+		}
+	}
+
+	private void spool(List<String> documents) {
+		try {
+			this.spool.append(documents);
+			this.spooled.increment(documents.size());
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to spool " + documents.size() + " statistics documents", ex);
+		}
+	}
+
+	/**
+	 * A statistics document waiting to be published.
+	 *
+	 * @param content the JSON document
+	 * @param request the canonical form of the request the document describes
+	 */
+	private record QueuedDocument(String content, CanonicalProjectRequest request) {
+
+	}
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.stats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.util.Assert;
+
+/**
+ * An append-only log of statistics documents that could not be published, split in
+ * segments of bounded size. Segments left by a previous run are picked up on creation.
+ * When the log exceeds its maximum size, its oldest segments are discarded.
+ * <p>
+ * Documents hold client details, and segments are replayed to Elasticsearch. On file
+ * systems that support POSIX permissions, the directory and its segments are therefore
+ * only accessible by their owner, and a directory that belongs to another user is
+ * rejected.
+ *
+ * @author agent
+ */
+class DiskSpool {
+
+	private static final String SEGMENT_SUFFIX = ".ndjson";
+
+	private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+	private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private final long segmentSize;
+
+	private final Deque<Path> segments = new ArrayDeque<>();
+
+	private long size;
+
+	private long sequence;
+
+	private Path currentSegment;
+
+	private BufferedWriter writer;
+
+	private long currentSegmentSize;
+
+	private long dropped;
+
+	/**
+	 * Create a new instance.
+	 * @param directory the directory of the segments
+	 * @param maxSize the maximum size of all segments, in bytes
+	 * @param segmentSize the size at which a segment is closed, in bytes
+	 */
+	DiskSpool(Path directory, long maxSize, long segmentSize) {
+		Assert.isTrue(segmentSize > 0 && segmentSize <= maxSize, "'segmentSize' must be positive and <= 'maxSize'");
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.segmentSize = segmentSize;
+		try {
+			createPrivateDirectory(directory);
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path segment : files.filter((file) -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+					.sorted()
+					.toList()) {
+					this.segments.add(segment);
+					this.size += Files.size(segment);
+					this.sequence = Math.max(this.sequence, sequenceOf(segment) + 1);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to open spool in " + directory, ex);
+		}
+	}
+
+	private static boolean isPosix() {
+		return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+	}
+
+	private static void createPrivateDirectory(Path directory) throws IOException {
+		if (!isPosix()) {
+			Files.createDirectories(directory);
+			return;
+		}
+		if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+			Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+			return;
+		}
+		if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+			throw new IOException("Spool location " + directory + " is not a directory");
+		}
+		UserPrincipal owner = Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS);
+		if (!owner.equals(currentUser())) {
+			throw new IOException("Spool directory " + directory + " is owned by " + owner.getName());
+		}
+		Files.setPosixFilePermissions(directory, OWNER_ONLY_DIRECTORY);
+	}
+
+	private static UserPrincipal currentUser() throws IOException {
+		// The user name does not always map to a principal, for instance in containers
+		Path probe = Files.createTempFile("initializr-stats", ".owner");
+		try {
+			return Files.getOwner(probe);
+		}
+		finally {
+			Files.delete(probe);
+		}
+	}
+
+	private static long sequenceOf(Path segment) {
+		String name = segment.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+		}
+		catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Append the specified documents.
+	 * @param documents the documents, one per line
+	 * @throws IOException if the documents could not be written
+	 */
+	synchronized void append(List<String> documents) throws IOException {
+		if (this.writer == null) {
+			this.currentSegment = this.directory.resolve(String.format("%020d%s", this.sequence++, SEGMENT_SUFFIX));
+			if (isPosix()) {
+				Files.createFile(this.currentSegment, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+			}
+			else {
+				Files.createFile(this.currentSegment);
+			}
+			this.writer = Files.newBufferedWriter(this.currentSegment, StandardCharsets.UTF_8,
+					StandardOpenOption.WRITE);
+			this.segments.add(this.currentSegment);
+			this.currentSegmentSize = 0;
+		}
+		long written = 0;
+		for (String document : documents) {
+			this.writer.write(document);
+			this.writer.write('\n');
+			written += document.getBytes(StandardCharsets.UTF_8).length + 1;
+		}
+		this.writer.flush();
+		this.currentSegmentSize += written;
+		this.size += written;
+		if (this.currentSegmentSize >= this.segmentSize) {
+			closeCurrentSegment();
+		}
+		while (this.size > this.maxSize && this.segments.size() > 1) {
+			discard(this.segments.peekFirst());
+		}
+	}
+
+	private void closeCurrentSegment() throws IOException {
+		if (this.writer != null) {
+			this.writer.close();
+			this.writer = null;
+			this.currentSegment = null;
+		}
+	}
+
+	private void discard(Path segment) throws IOException {
+		long segmentSize = Files.size(segment);
+		try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+			this.dropped += lines.count();
+		}
+		Files.delete(segment);
+		this.segments.remove(segment);
+		this.size -= segmentSize;
+	}
+
+	/**
+	 * Replay the oldest segment, in batches. Documents that have been replayed
+	 * successfully are removed from the spool. Replay stops at the first batch that
+	 * could not be published.
+	 * @param batchSize the maximum number of documents per batch
+	 * @param publisher publishes a batch and returns whether it succeeded
+	 * @return the number of documents that have been replayed
+	 * @throws IOException if the spool could not be read
+	 */
+	int replay(int batchSize, Predicate<List<String>> publisher) throws IOException {
+		Path segment;
+		synchronized (this) {
+			segment = this.segments.peekFirst();
+			if (segment == null) {
+				return 0;
+			}
+			if (segment.equals(this.currentSegment)) {
+				closeCurrentSegment();
+			}
+		}
+		// Closed segments are never modified by appends
+		List<String> documents = Files.readAllLines(segment, StandardCharsets.UTF_8);
+		int replayed = 0;
+		while (replayed < documents.size()) {
+			List<String> batch = documents.subList(replayed, Math.min(replayed + batchSize, documents.size()));
+			if (!publisher.test(batch)) {
+				break;
+			}
+			replayed += batch.size();
+		}
+		synchronized (this) {
+			if (!this.segments.contains(segment)) {
+				// Discarded in the meantime
+				return replayed;
+			}
+			long previousSize = Files.size(segment);
+			if (replayed == documents.size()) {
+				Files.delete(segment);
+				this.segments.remove(segment);
+				this.size -= previousSize;
+			}
+			else if (replayed > 0) {
+				Files.write(segment, documents.subList(replayed, documents.size()), StandardCharsets.UTF_8);
+				this.size += Files.size(segment) - previousSize;
+			}
+		}
+		return replayed;
+	}
+
+	/**
+	 * Close the segment being written, if any.
+	 * @throws IOException if the segment could not be closed
+	 */
+	synchronized void close() throws IOException {
+		closeCurrentSegment();
+	}
+
+	synchronized boolean isEmpty() {
+		return this.segments.isEmpty();
+	}
+
+	/**
+	 * Return the size of all segments.
+	 * @return the size of the spool, in bytes
+	 */
+	synchronized long size() {
+		return this.size;
+	}
+
+	/**
+	 * Return the number of documents that have been discarded because the spool was
+	 * full.
+	 * @return the number of discarded documents
+	 */
+	synchronized long dropped() {
+		return this.dropped;
+	}
+
+}
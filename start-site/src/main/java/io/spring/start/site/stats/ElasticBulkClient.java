@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.stats;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Publishes statistics documents to Elasticsearch using the {@code _bulk} API.
+ *
+ * @author agent
+ */
+class ElasticBulkClient {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private final RestTemplate restTemplate;
+
+	private final URI bulkUri;
+
+	private final ObjectMapper objectMapper;
+
+	private final byte[] action;
+
+	/**
+	 * Create a new instance.
+	 * @param restTemplate the rest template to use
+	 * @param uri the URI of Elasticsearch
+	 * @param indexName the name of the index
+	 * @param objectMapper the object mapper to use to read responses
+	 */
+	ElasticBulkClient(RestTemplate restTemplate, URI uri, String indexName, ObjectMapper objectMapper) {
+		this.restTemplate = restTemplate;
+		this.bulkUri = URI.create(uri.toString().replaceAll("/+$", "") + "/_bulk");
+		this.objectMapper = objectMapper;
+		this.action = ("{\"index\":{\"_index\":\"" + indexName + "\"}}\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Publish the specified documents.
+	 * @param documents the documents to publish, as single-line JSON
+	 * @return the result of the publication
+	 * @throws RestClientException if the request failed
+	 */
+	BulkResult publish(List<String> documents) {
+		byte[] body = createBody(documents);
+		RequestEntity<byte[]> request = RequestEntity.post(this.bulkUri).contentType(NDJSON).body(body);
+		String response = this.restTemplate.exchange(request, String.class).getBody();
+		return parseResponse(documents, body.length, response);
+	}
+
+	private byte[] createBody(List<String> documents) {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(documents.size() * 512);
+		for (String document : documents) {
+			body.writeBytes(this.action);
+			body.writeBytes(document.getBytes(StandardCharsets.UTF_8));
+			body.write('\n');
+		}
+		return body.toByteArray();
+	}
+
+	private BulkResult parseResponse(List<String> documents, long size, String response) {
+		try {
+			JsonNode root = (response != null) ? this.objectMapper.readTree(response) : null;
+			if (root == null || !root.path("errors").asBoolean(false)) {
+				return new BulkResult(size, List.of(), 0);
+			}
+			List<String> retryable = new ArrayList<>();
+			int rejected = 0;
+			JsonNode items = root.path("items");
+			for (int i = 0; i < items.size() && i < documents.size(); i++) {
+				int status = items.get(i).path("index").path("status").asInt(200);
+				if (status == 429 || status >= 500) {
+					retryable.add(documents.get(i));
+				}
+				else if (status >= 300) {
+					rejected++;
+				}
+			}
+			return new BulkResult(size, retryable, rejected);
+		}
+		catch (IOException ex) {
+			// The request has been accepted, do not publish the documents twice
+			return new BulkResult(size, List.of(), 0);
+		}
+	}
+
+	/**
+	 * The result of a bulk request.
+	 *
+	 * @param size the size of the request body, in bytes
+	 * @param retryable the documents that failed and can be retried
+	 * @param rejected the number of documents that have been rejected and cannot be
+	 * retried
+	 */
+	record BulkResult(long size, List<String> retryable, int rejected) {
+
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.stats;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.actuate.stat.ProjectRequestDocumentFactory;
+import io.spring.initializr.actuate.stat.StatsProperties;
+import io.spring.initializr.actuate.stat.StatsProperties.Elastic;
+import io.spring.start.site.StartConfigurationProperties;
+import io.spring.start.site.StartConfigurationProperties.Stats;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Configuration for the publication of project generation statistics to Elasticsearch.
+ * Replaces the publisher of Initializr, that sends a request per generation.
+ *
+ * @author agent
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("'${initializr.stats.elastic.uri:}' != ''")
+@EnableConfigurationProperties(StatsProperties.class)
+public class StatsConfiguration {
+
+	@Bean
+	BulkStatsPublisher bulkStatsPublisher(StatsProperties statsProperties,
+			StartConfigurationProperties properties, RestTemplateBuilder restTemplateBuilder,
+			MeterRegistry meterRegistry) {
+		Elastic elastic = statsProperties.getElastic();
+		Stats stats = properties.getStats();
+		URI uri = URI.create(elastic.getUri());
+		String username = elastic.getUsername();
+		String password = elastic.getPassword();
+		if (StringUtils.hasText(uri.getUserInfo())) {
+			String[] userInfo = uri.getUserInfo().split(":", 2);
+			username = userInfo[0];
+			password = (userInfo.length > 1) ? userInfo[1] : null;
+			uri = withoutUserInfo(uri);
+		}
+		if (StringUtils.hasText(username)) {
+			restTemplateBuilder = restTemplateBuilder.basicAuthentication(username, password);
+		}
+		RestTemplate restTemplate = restTemplateBuilder.build();
+		ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+		ElasticBulkClient client = new ElasticBulkClient(restTemplate, uri, elastic.getIndexName(), objectMapper);
+		Path spoolDirectory = StringUtils.hasText(stats.getSpool().getDirectory())
+				? Path.of(stats.getSpool().getDirectory())
+				: Path.of(System.getProperty("java.io.tmpdir"), "initializr-stats-" + System.getProperty("user.name"));
+		DiskSpool spool = new DiskSpool(spoolDirectory, stats.getSpool().getMaxSize().toBytes(),
+				stats.getSpool().getSegmentSize().toBytes());
+		return new BulkStatsPublisher(new ProjectRequestDocumentFactory(), objectMapper, client, spool,
+				stats.getQueueCapacity(), stats.getBatchSize(), stats.getFlushInterval(), meterRegistry);
+	}
+
+	private static URI withoutUserInfo(URI uri) {
+		try {
+			return new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), uri.getPath(), uri.getQuery(),
+					uri.getFragment());
+		}
+		catch (URISyntaxException ex) {
+			throw new IllegalStateException("Invalid Elasticsearch URI: " + uri, ex);
+		}
+	}
+
+}
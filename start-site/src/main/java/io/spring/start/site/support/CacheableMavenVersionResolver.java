@@ -20,6 +20,7 @@ import java.lang.reflect.Method;
 import java.util.Map;
 
 import io.spring.initializr.versionresolver.MavenVersionResolver;
+import io.spring.start.site.generation.jfr.BomLookupEvent;
 
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
@@ -27,7 +28,9 @@ import org.springframework.cache.interceptor.KeyGenerator;
 
 /**
  * A {@link MavenVersionResolver} that uses the metadata cache to store dependency and
- * plugin management resolution.
+ * plugin management resolution. Resolutions that miss the cache are recorded as
+ * {@link BomLookupEvent flight recorder events}. Concurrent resolutions of the same
+ * artifact, such as those of a bulk generation, share a single lookup.
  *
  * @author Stephane Nicoll
  */
@@ -41,15 +44,29 @@ public class CacheableMavenVersionResolver implements MavenVersionResolver, KeyG
 	}
 
 	@Override
-	@Cacheable
+	@Cacheable(sync = true)
 	public Map<String, String> resolveDependencies(String groupId, String artifactId, String version) {
-		return this.delegate.resolveDependencies(groupId, artifactId, version);
+		BomLookupEvent event = new BomLookupEvent("dependencies", groupId, artifactId, version);
+		event.begin();
+		try {
+			return this.delegate.resolveDependencies(groupId, artifactId, version);
+		}
+		finally {
+			event.complete();
+		}
 	}
 
 	@Override
-	@Cacheable
+	@Cacheable(sync = true)
 	public Map<String, String> resolvePlugins(String groupId, String artifactId, String version) {
-		return this.delegate.resolvePlugins(groupId, artifactId, version);
+		BomLookupEvent event = new BomLookupEvent("plugins", groupId, artifactId, version);
+		event.begin();
+		try {
+			return this.delegate.resolvePlugins(groupId, artifactId, version);
+		}
+		finally {
+			event.complete();
+		}
 	}
 
 	@Override
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration of the training run that creates the class data sharing archive of the
+ * application: the application exits as soon as it is ready, once the generations of the
+ * warm-up have completed, so that the classes they loaded are archived.
+ *
+ * @author agent
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("cds-training")
+public class CdsTrainingConfiguration {
+
+	@Bean
+	public ApplicationListener<ApplicationReadyEvent> cdsTrainingExit() {
+		// Ready is published once the warm-up runner has completed
+		return (event) -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+	}
+
+}
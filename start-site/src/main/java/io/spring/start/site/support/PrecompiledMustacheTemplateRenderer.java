@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.samskivert.mustache.Template;
+import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
+
+import org.springframework.cache.Cache;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+/**
+ * A {@link MustacheTemplateRenderer} that compiles all the templates available under its
+ * resource prefix on creation, rather than on first use. Renderings that only depend on
+ * the name of the template and on a model of simple values, such as help document
+ * sections with an empty model, are memoized.
+ *
+ * @author agent
+ */
+public class PrecompiledMustacheTemplateRenderer extends MustacheTemplateRenderer {
+
+	private static final int MAX_RENDERINGS = 1024;
+
+	private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+	private final Map<Rendering, String> renderings = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new instance.
+	 * @param location the location of the templates, such as
+	 * {@code classpath:/templates}
+	 * @param templateCache the cache to use for templates that could not be compiled
+	 * upfront, or {@code null}
+	 */
+	public PrecompiledMustacheTemplateRenderer(String location, Cache templateCache) {
+		super(location, templateCache);
+		String prefix = location.endsWith("/") ? location.substring(0, location.length() - 1) : location;
+		precompile(prefix.replace("classpath:", "classpath*:"));
+	}
+
+	private void precompile(String prefix) {
+		try {
+			ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+			String root = prefix.substring(prefix.lastIndexOf(':') + 1) + "/";
+			for (Resource resource : resolver.getResources(prefix + "/**/*.mustache")) {
+				String path = resource.getURL().toString();
+				String name = path.substring(path.lastIndexOf(root) + root.length(),
+						path.length() - ".mustache".length());
+				this.templates.computeIfAbsent(name, this::compile);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to list templates in " + prefix, ex);
+		}
+	}
+
+	private Template compile(String name) {
+		try {
+			return loadTemplate(name);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Cannot compile template " + name, ex);
+		}
+	}
+
+	@Override
+	public String render(String templateName, Map<String, ?> model) {
+		Template template = this.templates.get(templateName);
+		if (template == null) {
+			return super.render(templateName, model);
+		}
+		if (!isMemoizable(model)) {
+			return template.execute(model);
+		}
+		Rendering rendering = new Rendering(templateName, Map.copyOf(model));
+		String text = this.renderings.get(rendering);
+		if (text == null) {
+			text = template.execute(model);
+			if (this.renderings.size() < MAX_RENDERINGS) {
+				this.renderings.putIfAbsent(rendering, text);
+			}
+		}
+		return text;
+	}
+
+	private boolean isMemoizable(Map<String, ?> model) {
+		for (Map.Entry<String, ?> entry : model.entrySet()) {
+			Object value = entry.getValue();
+			if (entry.getKey() == null || !(value instanceof String || value instanceof Number
+					|| value instanceof Boolean || value instanceof Character || value instanceof Enum<?>)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private record Rendering(String templateName, Map<String, ?> model) {
+
+	}
+
+}
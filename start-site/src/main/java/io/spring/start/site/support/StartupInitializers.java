@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Runs independent initializers in parallel once the singletons have been instantiated,
+ * so that they overlap with the rest of the startup, and waits for them before the
+ * application is ready. Each initializer is recorded as a {@code start.initializer}
+ * {@link StartupStep startup step}. An initializer that fails or does not complete in
+ * time is logged: the work it was doing is then done on first use.
+ *
+ * @author agent
+ */
+public class StartupInitializers implements SmartInitializingSingleton, ApplicationRunner, Ordered {
+
+	private static final Log logger = LogFactory.getLog(StartupInitializers.class);
+
+	private final Map<String, Runnable> initializers;
+
+	private final ApplicationStartup applicationStartup;
+
+	private final Duration timeout;
+
+	private final Map<String, Future<?>> running = new LinkedHashMap<>();
+
+	/**
+	 * Create a new instance.
+	 * @param initializers the initializers to run, by name
+	 * @param applicationStartup the application startup to record the initializers with
+	 * @param timeout the maximum time to wait for the initializers
+	 */
+	public StartupInitializers(Map<String, Runnable> initializers, ApplicationStartup applicationStartup,
+			Duration timeout) {
+		this.initializers = initializers;
+		this.applicationStartup = applicationStartup;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		start();
+	}
+
+	/**
+	 * Start the initializers, each on its own thread.
+	 */
+	public void start() {
+		if (this.initializers.isEmpty()) {
+			return;
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("startup-initializer-");
+		threadFactory.setDaemon(true);
+		ExecutorService executor = Executors.newFixedThreadPool(this.initializers.size(), threadFactory);
+		this.initializers.forEach((name, initializer) -> {
+			Future<?> future = executor.submit(() -> initialize(name, initializer));
+			this.running.put(name, future);
+		});
+		executor.shutdown();
+	}
+
+	private void initialize(String name, Runnable initializer) {
+		StartupStep step = this.applicationStartup.start("start.initializer").tag("name", name);
+		try {
+			initializer.run();
+		}
+		catch (RuntimeException ex) {
+			step.tag("failure", ex.getClass().getName());
+			throw ex;
+		}
+		finally {
+			step.end();
+		}
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Set<String> completed = await();
+		if (logger.isInfoEnabled()) {
+			logger.info("Startup initializers completed: " + completed);
+		}
+	}
+
+	/**
+	 * Wait for the initializers that have been started.
+	 * @return the names of the initializers that completed successfully
+	 */
+	public Set<String> await() {
+		Set<String> completed = new LinkedHashSet<>();
+		long deadline = System.nanoTime() + this.timeout.toNanos();
+		for (Map.Entry<String, Future<?>> entry : this.running.entrySet()) {
+			try {
+				entry.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+				completed.add(entry.getKey());
+			}
+			catch (ExecutionException ex) {
+				logger.warn("Startup initializer '" + entry.getKey() + "' failed", ex.getCause());
+			}
+			catch (TimeoutException ex) {
+				logger.warn("Startup initializer '" + entry.getKey() + "' did not complete in " + this.timeout);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return completed;
+	}
+
+	@Override
+	public int getOrder() {
+		// Initializers complete before the generation warm-up
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2022 the original author or authors.
+ * Copyright 2012-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package io.spring.start.site.support.implicit;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -30,6 +34,10 @@ import io.spring.initializr.generator.spring.documentation.HelpDocument;
  */
 public final class ImplicitDependency {
 
+	private final List<Set<String>> anyDependencyIds;
+
+	private final List<Set<String>> allDependencyIds;
+
 	private final Predicate<Build> buildPredicate;
 
 	private final Consumer<Build> buildCustomizer;
@@ -37,6 +45,8 @@ public final class ImplicitDependency {
 	private final Consumer<HelpDocument> helpDocumentCustomizer;
 
 	private ImplicitDependency(Builder builder) {
+		this.anyDependencyIds = List.copyOf(builder.anyDependencyIds);
+		this.allDependencyIds = List.copyOf(builder.allDependencyIds);
 		this.buildPredicate = builder.buildPredicate;
 		this.buildCustomizer = builder.buildCustomizer;
 		this.helpDocumentCustomizer = builder.helpDocumentCustomizer;
@@ -47,7 +57,7 @@ public final class ImplicitDependency {
 	 * @param build a build
 	 */
 	public void customize(Build build) {
-		if (this.buildCustomizer != null && this.buildPredicate.test(build)) {
+		if (this.buildCustomizer != null && matches(build)) {
 			this.buildCustomizer.accept(build);
 		}
 	}
@@ -59,16 +69,68 @@ public final class ImplicitDependency {
 	 * @param build a build
 	 */
 	public void customize(HelpDocument helpDocument, Build build) {
-		if (this.helpDocumentCustomizer != null && this.buildPredicate.test(build)) {
+		if (this.helpDocumentCustomizer != null && matches(build)) {
 			this.helpDocumentCustomizer.accept(helpDocument);
 		}
 	}
 
+	private boolean matches(Build build) {
+		for (Set<String> dependencyIds : this.anyDependencyIds) {
+			if (dependencyIds.stream().noneMatch(build.dependencies()::has)) {
+				return false;
+			}
+		}
+		for (Set<String> dependencyIds : this.allDependencyIds) {
+			if (!dependencyIds.stream().allMatch(build.dependencies()::has)) {
+				return false;
+			}
+		}
+		return this.buildPredicate.test(build);
+	}
+
+	/**
+	 * Return the groups of dependency ids of which at least one must be present.
+	 * @return the groups of dependency ids to match any of
+	 */
+	List<Set<String>> getAnyDependencyIds() {
+		return this.anyDependencyIds;
+	}
+
+	/**
+	 * Return the groups of dependency ids that must all be present.
+	 * @return the groups of dependency ids to match all of
+	 */
+	List<Set<String>> getAllDependencyIds() {
+		return this.allDependencyIds;
+	}
+
+	/**
+	 * Test the predicates registered with {@link Builder#match(Predicate)}, ignoring the
+	 * dependency ids to match.
+	 * @param build the build
+	 * @return whether the build matches the predicates
+	 */
+	boolean matchesBuildPredicate(Build build) {
+		return this.buildPredicate.test(build);
+	}
+
+	Consumer<Build> getBuildCustomizer() {
+		return this.buildCustomizer;
+	}
+
+	Consumer<HelpDocument> getHelpDocumentCustomizer() {
+		return this.helpDocumentCustomizer;
+	}
+
 	/**
 	 * Builder for {@link ImplicitDependency}.
 	 */
 	public static class Builder {
 
+		private final List<Set<String>> anyDependencyIds = new ArrayList<>();
+
+		private final List<Set<String>> allDependencyIds = new ArrayList<>();
+
 		private Predicate<Build> buildPredicate = (build) -> true;
 
 		private Consumer<Build> buildCustomizer;
@@ -84,7 +146,8 @@ public final class ImplicitDependency {
 		 * @see #match(Predicate)
 		 */
 		public Builder matchAnyDependencyIds(String... dependencies) {
-			return match((build) -> matchAny(build, dependencies));
+			this.anyDependencyIds.add(new LinkedHashSet<>(List.of(dependencies)));
+			return this;
 		}
 
 		/**
@@ -96,7 +159,8 @@ public final class ImplicitDependency {
 		 * @see #match(Predicate)
 		 */
 		public Builder matchAllDependencyIds(String... dependencies) {
-			return match((build) -> matchAll(build, dependencies));
+			this.allDependencyIds.add(new LinkedHashSet<>(List.of(dependencies)));
+			return this;
 		}
 
 		/**
@@ -138,24 +202,6 @@ public final class ImplicitDependency {
 			return new ImplicitDependency(this);
 		}
 
-		private static boolean matchAny(Build build, String... dependencies) {
-			for (String dependency : dependencies) {
-				if (build.dependencies().has(dependency)) {
-					return true;
-				}
-			}
-			return false;
-		}
-
-		private static boolean matchAll(Build build, String... dependencies) {
-			for (String dependency : dependencies) {
-				if (!build.dependencies().has(dependency)) {
-					return false;
-				}
-			}
-			return true;
-		}
-
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2021 the original author or authors.
+ * Copyright 2012-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,23 +21,31 @@ import io.spring.initializr.generator.spring.build.BuildCustomizer;
 
 /**
  * A {@link BuildCustomizer} that customize the build if necessary based on
- * {@link ImplicitDependency implicit dependencies}.
+ * {@link ImplicitDependency implicit dependencies}. Only the implicit dependencies that
+ * are triggered by the dependencies of the build are evaluated.
  *
  * @author Stephane Nicoll
  */
 public class ImplicitDependencyBuildCustomizer implements BuildCustomizer<Build> {
 
-	private final Iterable<ImplicitDependency> dependencies;
+	private final ImplicitDependencyEvaluation evaluation;
 
 	public ImplicitDependencyBuildCustomizer(Iterable<ImplicitDependency> dependencies) {
-		this.dependencies = dependencies;
+		this(ImplicitDependencyIndex.of(dependencies).newEvaluation());
+	}
+
+	/**
+	 * Create an instance that records its matches in the specified evaluation, so that
+	 * they can be reused to customize the help document.
+	 * @param evaluation the evaluation to use
+	 */
+	public ImplicitDependencyBuildCustomizer(ImplicitDependencyEvaluation evaluation) {
+		this.evaluation = evaluation;
 	}
 
 	@Override
 	public void customize(Build build) {
-		for (ImplicitDependency dependency : this.dependencies) {
-			dependency.customize(build);
-		}
+		this.evaluation.customize(build);
 	}
 
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support.implicit;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.spring.documentation.HelpDocument;
+
+/**
+ * The evaluation of an {@link ImplicitDependencyIndex} for a single project generation.
+ * Remembers which implicit dependencies matched when the build was customized so that
+ * the help document can be customized without evaluating them again, as long as the
+ * dependencies of the build have not changed in the meantime.
+ *
+ * @author agent
+ */
+public final class ImplicitDependencyEvaluation {
+
+	private final ImplicitDependencyIndex index;
+
+	private BitSet matches;
+
+	private BitSet matchedDependencyIds;
+
+	ImplicitDependencyEvaluation(ImplicitDependencyIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * Customize the specified {@link Build} with the implicit dependencies that match
+	 * it. Implicit dependencies are applied in order, each of them seeing the changes of
+	 * the previous ones.
+	 * @param build the build to customize
+	 */
+	public void customize(Build build) {
+		BitSet matches = new BitSet(this.index.size());
+		BitSet present = this.index.presentDependencyIds(build);
+		BitSet candidates = new BitSet(this.index.size());
+		this.index.addCandidates(present, candidates);
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (this.index.matches(i, present, build)) {
+				matches.set(i);
+				Consumer<Build> buildCustomizer = this.index.get(i).getBuildCustomizer();
+				if (buildCustomizer != null) {
+					buildCustomizer.accept(build);
+					present = this.index.presentDependencyIds(build);
+					this.index.addCandidates(present, candidates);
+				}
+			}
+		}
+		this.matches = matches;
+		this.matchedDependencyIds = present;
+	}
+
+	/**
+	 * Customize the specified {@link HelpDocument} with the implicit dependencies that
+	 * match the specified {@link Build}.
+	 * @param helpDocument the help document to customize
+	 * @param build the build
+	 */
+	public void customize(HelpDocument helpDocument, Build build) {
+		BitSet matches = getMatches(build);
+		for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+			Consumer<HelpDocument> helpDocumentCustomizer = this.index.get(i).getHelpDocumentCustomizer();
+			if (helpDocumentCustomizer != null) {
+				helpDocumentCustomizer.accept(helpDocument);
+			}
+		}
+	}
+
+	private BitSet getMatches(Build build) {
+		BitSet present = this.index.presentDependencyIds(build);
+		if (this.matches != null && present.equals(this.matchedDependencyIds)) {
+			return this.matches;
+		}
+		BitSet matches = new BitSet(this.index.size());
+		BitSet candidates = new BitSet(this.index.size());
+		this.index.addCandidates(present, candidates);
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (this.index.matches(i, present, build)) {
+				matches.set(i);
+			}
+		}
+		return matches;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012-2021 the original author or authors.
+ * Copyright 2012-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,20 +28,28 @@ import io.spring.initializr.generator.spring.documentation.HelpDocumentCustomize
  */
 public class ImplicitDependencyHelpDocumentCustomizer implements HelpDocumentCustomizer {
 
-	private final Iterable<ImplicitDependency> dependencies;
+	private final ImplicitDependencyEvaluation evaluation;
 
 	private final Build build;
 
 	public ImplicitDependencyHelpDocumentCustomizer(Iterable<ImplicitDependency> dependencies, Build build) {
-		this.dependencies = dependencies;
+		this(ImplicitDependencyIndex.of(dependencies).newEvaluation(), build);
+	}
+
+	/**
+	 * Create an instance that reuses the matches recorded in the specified evaluation
+	 * when the build was customized.
+	 * @param evaluation the evaluation to use
+	 * @param build the build
+	 */
+	public ImplicitDependencyHelpDocumentCustomizer(ImplicitDependencyEvaluation evaluation, Build build) {
+		this.evaluation = evaluation;
 		this.build = build;
 	}
 
 	@Override
 	public void customize(HelpDocument document) {
-		for (ImplicitDependency dependency : this.dependencies) {
-			dependency.customize(document, this.build);
-		}
+		this.evaluation.customize(document, this.build);
 	}
 
 }
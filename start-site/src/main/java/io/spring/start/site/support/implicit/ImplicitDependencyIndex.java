@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support.implicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.spring.initializr.generator.buildsystem.Build;
+
+/**
+ * A compiled set of {@link ImplicitDependency implicit dependencies}, indexed by the
+ * dependency ids they match on. Dependency ids are mapped to bits so that evaluating a
+ * build only considers the implicit dependencies that are triggered by one of its
+ * dependencies, and matches them using {@link BitSet} operations. An index is immutable
+ * and can be shared by any number of generations.
+ *
+ * @author agent
+ * @see ImplicitDependencyEvaluation
+ */
+public final class ImplicitDependencyIndex {
+
+	private final List<ImplicitDependency> dependencies;
+
+	private final Map<String, Integer> bits;
+
+	private final BitSet[] triggers;
+
+	private final BitSet untriggered;
+
+	private final List<BitSet[]> anyDependencyIds;
+
+	private final List<BitSet> allDependencyIds;
+
+	private ImplicitDependencyIndex(List<ImplicitDependency> dependencies) {
+		this.dependencies = dependencies;
+		this.bits = new HashMap<>();
+		for (ImplicitDependency dependency : dependencies) {
+			dependency.getAnyDependencyIds().forEach(this::assignBits);
+			dependency.getAllDependencyIds().forEach(this::assignBits);
+		}
+		this.triggers = new BitSet[this.bits.size()];
+		for (int bit = 0; bit < this.triggers.length; bit++) {
+			this.triggers[bit] = new BitSet(dependencies.size());
+		}
+		this.untriggered = new BitSet(dependencies.size());
+		this.anyDependencyIds = new ArrayList<>(dependencies.size());
+		this.allDependencyIds = new ArrayList<>(dependencies.size());
+		for (int index = 0; index < dependencies.size(); index++) {
+			ImplicitDependency dependency = dependencies.get(index);
+			BitSet[] any = dependency.getAnyDependencyIds().stream().map(this::toBitSet).toArray(BitSet[]::new);
+			BitSet all = new BitSet(this.bits.size());
+			dependency.getAllDependencyIds().forEach((ids) -> all.or(toBitSet(ids)));
+			this.anyDependencyIds.add(any);
+			this.allDependencyIds.add(all);
+			BitSet referenced = (BitSet) all.clone();
+			for (BitSet ids : any) {
+				referenced.or(ids);
+			}
+			if (referenced.isEmpty()) {
+				// Only matches on arbitrary predicates, evaluated for every build
+				this.untriggered.set(index);
+			}
+			for (int bit = referenced.nextSetBit(0); bit >= 0; bit = referenced.nextSetBit(bit + 1)) {
+				this.triggers[bit].set(index);
+			}
+		}
+	}
+
+	private void assignBits(Set<String> dependencyIds) {
+		dependencyIds.forEach((id) -> this.bits.computeIfAbsent(id, (key) -> this.bits.size()));
+	}
+
+	private BitSet toBitSet(Set<String> dependencyIds) {
+		BitSet bitSet = new BitSet(this.bits.size());
+		dependencyIds.forEach((id) -> bitSet.set(this.bits.get(id)));
+		return bitSet;
+	}
+
+	/**
+	 * Compile the specified implicit dependencies into an index.
+	 * @param dependencies the implicit dependencies, in the order they should be applied
+	 * @return an index of the implicit dependencies
+	 */
+	public static ImplicitDependencyIndex of(Iterable<ImplicitDependency> dependencies) {
+		List<ImplicitDependency> list = new ArrayList<>();
+		dependencies.forEach(list::add);
+		return new ImplicitDependencyIndex(List.copyOf(list));
+	}
+
+	/**
+	 * Create a new evaluation of this index, to use for a single project generation.
+	 * @return a new evaluation
+	 */
+	public ImplicitDependencyEvaluation newEvaluation() {
+		return new ImplicitDependencyEvaluation(this);
+	}
+
+	/**
+	 * Return the bits of the indexed dependency ids present in the specified build.
+	 * @param build the build
+	 * @return the dependency ids present in the build
+	 */
+	BitSet presentDependencyIds(Build build) {
+		BitSet present = new BitSet(this.bits.size());
+		build.dependencies().ids().forEach((id) -> {
+			Integer bit = this.bits.get(id);
+			if (bit != null) {
+				present.set(bit);
+			}
+		});
+		return present;
+	}
+
+	/**
+	 * Add the implicit dependencies that may match the specified dependency ids to the
+	 * specified candidates.
+	 * @param present the dependency ids present in the build
+	 * @param candidates the candidates to update
+	 */
+	void addCandidates(BitSet present, BitSet candidates) {
+		candidates.or(this.untriggered);
+		for (int bit = present.nextSetBit(0); bit >= 0; bit = present.nextSetBit(bit + 1)) {
+			candidates.or(this.triggers[bit]);
+		}
+	}
+
+	/**
+	 * Return whether the implicit dependency at the specified index matches.
+	 * @param index the index of the implicit dependency
+	 * @param present the dependency ids present in the build
+	 * @param build the build
+	 * @return whether the implicit dependency matches the build
+	 */
+	boolean matches(int index, BitSet present, Build build) {
+		for (BitSet ids : this.anyDependencyIds.get(index)) {
+			if (!ids.intersects(present)) {
+				return false;
+			}
+		}
+		BitSet missing = (BitSet) this.allDependencyIds.get(index).clone();
+		missing.andNot(present);
+		return missing.isEmpty() && this.dependencies.get(index).matchesBuildPredicate(build);
+	}
+
+	ImplicitDependency get(int index) {
+		return this.dependencies.get(index);
+	}
+
+	int size() {
+		return this.dependencies.size();
+	}
+
+}
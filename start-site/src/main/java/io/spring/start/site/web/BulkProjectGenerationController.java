@@ -0,0 +1,383 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.project.InvalidProjectRequestException;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.archive.ProjectArchiver;
+import io.spring.start.site.archive.ProjectArchiver.ArchivedProject;
+import io.spring.start.site.generation.ActiveGeneration;
+import io.spring.start.site.generation.BulkProjectGenerator;
+import io.spring.start.site.generation.BulkProjectGenerator.Listener;
+import io.spring.start.site.generation.GenerationCancelledException;
+import io.spring.start.site.generation.GenerationRejectedException;
+import io.spring.start.site.multimodule.ModuleProjectRequest;
+import io.spring.start.site.multimodule.MultiModuleProjectGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+/**
+ * Generates several projects in one call and returns them as a single {@code zip}
+ * archive, with one folder per project. Each project is described by a JSON object with
+ * the same attributes as a regular project generation request and the projects are
+ * generated concurrently, sharing the metadata of the service, each with its own
+ * generation permit. The archive is streamed from disk rather than held in memory.
+ * <p>
+ * When the client accepts {@code application/x-ndjson}, the progress of the generation
+ * is streamed as newline-delimited JSON events, the last of which holds the archive,
+ * Base64-encoded as it is read. As soon as an event cannot be written because the client
+ * went away, the {@link ActiveGeneration active generation} is cancelled so that the
+ * projects that are still being generated stop at their next checkpoint.
+ * <p>
+ * A multi-module project is described by the attributes of its aggregator and a
+ * {@code modules} list. Unless they are specified, the group id, version, java version,
+ * language and packaging of each module are those of the aggregator.
+ * <p>
+ * The {@link BulkProjectGenerator generator} is shut down when this controller is
+ * destroyed.
+ *
+ * @author agent
+ * @see BulkProjectGenerator
+ * @see MultiModuleProjectGenerator
+ */
+@Controller
+public class BulkProjectGenerationController implements DisposableBean {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private static final String FILE_NAME = "projects.zip";
+
+	private static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker;
+
+	private final BulkProjectGenerator generator;
+
+	private final MultiModuleProjectGenerator multiModuleGenerator;
+
+	private final ProjectArchiver archiver;
+
+	private final ObjectMapper objectMapper;
+
+	public BulkProjectGenerationController(InitializrMetadataProvider metadataProvider,
+			ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker, BulkProjectGenerator generator,
+			MultiModuleProjectGenerator multiModuleGenerator, ProjectArchiver archiver, ObjectMapper objectMapper) {
+		this.metadataProvider = metadataProvider;
+		this.projectGenerationInvoker = projectGenerationInvoker;
+		this.generator = generator;
+		this.multiModuleGenerator = multiModuleGenerator;
+		this.archiver = (archiver != null) ? archiver : new ProjectArchiver(null, DEFAULT_CHUNK_SIZE, Map.of());
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void destroy() {
+		this.generator.shutdown();
+	}
+
+	@PostMapping(path = "/starter-bulk.zip", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public void springBulkZip(@RequestBody List<Map<String, Object>> projects,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept, HttpServletResponse response)
+			throws IOException {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		List<ProjectRequest> requests = new ArrayList<>();
+		for (Map<String, Object> project : projects) {
+			requests.add(createRequest(metadata, project));
+		}
+		write(accept, response, FILE_NAME, requests.size(), (listener) -> (listener != null)
+				? this.generator.generate(requests, listener) : this.generator.generate(requests));
+	}
+
+	@PostMapping(path = "/starter-multimodule.zip", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public void springMultiModuleZip(@RequestBody Map<String, Object> project,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept, HttpServletResponse response)
+			throws IOException {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		Map<String, Object> attributes = new LinkedHashMap<>(project);
+		if (!(attributes.remove("modules") instanceof List<?> modules)) {
+			throw new InvalidProjectRequestException("'modules' must be a list of projects");
+		}
+		ProjectRequest aggregator = createRequest(metadata, attributes);
+		List<ModuleProjectRequest> requests = new ArrayList<>();
+		for (Object module : modules) {
+			if (!(module instanceof Map<?, ?> moduleAttributes)) {
+				throw new InvalidProjectRequestException("Each module must be a JSON object");
+			}
+			requests.add(createModuleRequest(metadata, aggregator, moduleAttributes));
+		}
+		String fileName = (StringUtils.hasText(aggregator.getBaseDir()) ? aggregator.getBaseDir()
+				: aggregator.getArtifactId()) + ".zip";
+		write(accept, response, fileName, requests.size(),
+				(listener) -> this.multiModuleGenerator.generate(aggregator, requests, listener));
+	}
+
+	private void write(String accept, HttpServletResponse response, String fileName, int projects,
+			Function<Listener, List<ProjectGenerationResult>> generation) throws IOException {
+		if (acceptsProgress(accept)) {
+			generateWithProgress(response, fileName, projects, generation);
+			return;
+		}
+		generate(generation, null, (archive) -> {
+			response.setContentType("application/zip");
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+					ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+			response.setContentLengthLong(Files.size(archive));
+			Files.copy(archive, response.getOutputStream());
+		});
+	}
+
+	private boolean acceptsProgress(String accept) {
+		if (!StringUtils.hasText(accept)) {
+			return false;
+		}
+		// A wildcard does not opt in for progress events
+		return MediaType.parseMediaTypes(accept).stream().anyMatch(NDJSON::equalsTypeAndSubtype);
+	}
+
+	private void generateWithProgress(HttpServletResponse response, String fileName, int projects,
+			Function<Listener, List<ProjectGenerationResult>> generation) throws IOException {
+		response.setContentType(NDJSON.toString());
+		ProgressWriter progress = new ProgressWriter(response.getOutputStream());
+		progress.write("started", Map.of("projects", projects));
+		try {
+			generate(generation, progress, (archive) -> progress.writeCompleted(fileName, archive));
+		}
+		catch (RuntimeException ex) {
+			progress.write("failed", Map.of("message", String.valueOf(ex.getMessage())));
+			if (!(ex instanceof InvalidProjectRequestException || ex instanceof GenerationRejectedException)) {
+				throw ex;
+			}
+		}
+	}
+
+	private void generate(Function<Listener, List<ProjectGenerationResult>> generation, Listener listener,
+			ArchiveWriter writer) throws IOException {
+		List<ProjectGenerationResult> results;
+		try {
+			results = generation.apply(listener);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new InvalidProjectRequestException(ex.getMessage());
+		}
+		try {
+			Path archive = this.projectGenerationInvoker.createDistributionFile(results.get(0).getRootDirectory(),
+					".zip");
+			try (OutputStream out = Files.newOutputStream(archive)) {
+				this.archiver.writeZip(results.stream()
+					.map((result) -> new ArchivedProject(result.getRootDirectory(),
+							getWrapperScript(result.getProjectDescription())))
+					.toList(), out);
+			}
+			writer.write(archive);
+		}
+		finally {
+			results.forEach((result) -> this.projectGenerationInvoker.cleanTempFiles(result.getRootDirectory()));
+		}
+	}
+
+	private ModuleProjectRequest createModuleRequest(InitializrMetadata metadata, ProjectRequest aggregator,
+			Map<?, ?> attributes) {
+		ModuleProjectRequest request = new ModuleProjectRequest();
+		request.initialize(metadata);
+		request.setGroupId(aggregator.getGroupId());
+		request.setVersion(aggregator.getVersion());
+		request.setJavaVersion(aggregator.getJavaVersion());
+		request.setLanguage(aggregator.getLanguage());
+		request.setPackaging(aggregator.getPackaging());
+		update(request, attributes);
+		if (!attributes.containsKey("name")) {
+			request.setName(request.getArtifactId());
+		}
+		if (!attributes.containsKey("packageName")) {
+			request.setPackageName(request.getGroupId() + "." + request.getArtifactId());
+		}
+		return request;
+	}
+
+	private ProjectRequest createRequest(InitializrMetadata metadata, Map<?, ?> attributes) {
+		WebProjectRequest request = new WebProjectRequest();
+		request.initialize(metadata);
+		return update(request, attributes);
+	}
+
+	private <T extends ProjectRequest> T update(T request, Map<?, ?> attributes) {
+		try {
+			return this.objectMapper.updateValue(request, attributes);
+		}
+		catch (IOException ex) {
+			throw new InvalidProjectRequestException("Invalid project request: " + ex.getMessage());
+		}
+	}
+
+	private String getWrapperScript(ProjectDescription description) {
+		return (description.getBuildSystem() instanceof MavenBuildSystem) ? "mvnw" : "gradlew";
+	}
+
+	@ExceptionHandler
+	public void invalidProjectRequest(HttpServletResponse response, InvalidProjectRequestException ex)
+			throws IOException {
+		response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+	}
+
+	@ExceptionHandler
+	public void generationRejected(HttpServletResponse response, GenerationRejectedException ex) throws IOException {
+		response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage());
+	}
+
+	/**
+	 * Writes a generated archive to the response.
+	 */
+	@FunctionalInterface
+	private interface ArchiveWriter {
+
+		void write(Path archive) throws IOException;
+
+	}
+
+	/**
+	 * Writes the attributes of a progress event.
+	 */
+	@FunctionalInterface
+	private interface EventContent {
+
+		void write(JsonGenerator json) throws IOException;
+
+	}
+
+	/**
+	 * Writes the progress of a bulk generation as newline-delimited JSON events. Events
+	 * are written on the thread that runs the generation.
+	 */
+	private final class ProgressWriter implements Listener {
+
+		private final OutputStream out;
+
+		private final long start = System.nanoTime();
+
+		private boolean disconnected;
+
+		private ProgressWriter(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void onGenerated(int index, ProjectRequest request) {
+			write("generated", Map.of("index", index, "name", request.getBaseDir()));
+		}
+
+		@Override
+		public void onFailed(int index, ProjectRequest request, Throwable failure) {
+			write("failed", Map.of("index", index, "name", request.getBaseDir(), "message",
+					String.valueOf(failure.getMessage())));
+		}
+
+		/**
+		 * Write the event that completes the generation. The archive is Base64-encoded as
+		 * it is read so that it is never held in memory.
+		 * @param fileName the name of the archive
+		 * @param archive the archive
+		 */
+		private void writeCompleted(String fileName, Path archive) throws IOException {
+			long size = Files.size(archive);
+			write((json) -> {
+				json.writeStringField("event", "completed");
+				json.writeStringField("fileName", fileName);
+				json.writeNumberField("size", size);
+				json.writeFieldName("archive");
+				try (InputStream in = Files.newInputStream(archive)) {
+					json.writeBinary(in, -1);
+				}
+				json.writeNumberField("elapsed", getElapsed());
+			});
+		}
+
+		private void write(String event, Map<String, Object> attributes) {
+			write((json) -> {
+				json.writeStringField("event", event);
+				for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+					json.writeObjectField(attribute.getKey(), attribute.getValue());
+				}
+				json.writeNumberField("elapsed", getElapsed());
+			});
+		}
+
+		private long getElapsed() {
+			return (System.nanoTime() - this.start) / 1_000_000;
+		}
+
+		private void write(EventContent content) {
+			if (this.disconnected) {
+				return;
+			}
+			try {
+				JsonGenerator json = BulkProjectGenerationController.this.objectMapper.getFactory()
+					.createGenerator(this.out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				json.writeStartObject();
+				content.write(json);
+				json.writeEndObject();
+				json.close();
+				this.out.write('\n');
+				this.out.flush();
+			}
+			catch (IOException ex) {
+				this.disconnected = true;
+				ActiveGeneration generation = ActiveGeneration.current();
+				if (generation != null) {
+					generation.cancel(GenerationCancelledException.DISCONNECT);
+				}
+				throw new GenerationCancelledException(GenerationCancelledException.DISCONNECT);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+/**
+ * Serves the content-hashed assets of the client, located under {@code assets/} in the
+ * static locations, as immutable resources. The {@code .br} and {@code .gz} variants
+ * produced by the client build are served to clients that accept them, so that the
+ * assets are not compressed for each request.
+ *
+ * @author agent
+ */
+public class ClientAssetsConfigurer implements WebMvcConfigurer {
+
+	private static final String ASSETS = "assets/";
+
+	private static final Duration MAX_AGE = Duration.ofDays(365);
+
+	private final String[] staticLocations;
+
+	/**
+	 * Create a new instance.
+	 * @param staticLocations the locations of the static resources
+	 */
+	public ClientAssetsConfigurer(String... staticLocations) {
+		this.staticLocations = staticLocations;
+	}
+
+	@Override
+	public void addResourceHandlers(ResourceHandlerRegistry registry) {
+		String[] locations = Arrays.stream(this.staticLocations)
+			.map((location) -> (location.endsWith("/") ? location : location + "/") + ASSETS)
+			.toArray(String[]::new);
+		registry.addResourceHandler("/" + ASSETS + "**")
+			.addResourceLocations(locations)
+			.setCacheControl(CacheControl.maxAge(MAX_AGE).cachePublic().immutable())
+			.setUseLastModified(false)
+			.resourceChain(true)
+			.addResolver(new EncodedResourceResolver());
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import io.spring.start.site.generation.ClientType;
+import io.spring.start.site.generation.GenerationRejectedException;
+import io.spring.start.site.generation.GenerationScheduler;
+import io.spring.start.site.generation.GenerationScheduler.Permit;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * A filter that runs project generation requests through a {@link GenerationScheduler},
+ * rejecting them with a {@code 503} and a {@code Retry-After} header when the node is
+ * saturated.
+ *
+ * @author agent
+ */
+public class GenerationAdmissionFilter extends OncePerRequestFilter {
+
+	private final GenerationScheduler scheduler;
+
+	private final Duration retryAfter;
+
+	public GenerationAdmissionFilter(GenerationScheduler scheduler, Duration retryAfter) {
+		this.scheduler = scheduler;
+		this.retryAfter = retryAfter;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		ClientType clientType = ClientType.fromUserAgent(request.getHeader(HttpHeaders.USER_AGENT));
+		Permit permit;
+		try {
+			permit = this.scheduler.acquire(clientType);
+		}
+		catch (GenerationRejectedException ex) {
+			reject(response, ex.getMessage());
+			return;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			reject(response, "Interrupted while waiting for a generation slot");
+			return;
+		}
+		try (permit) {
+			filterChain.doFilter(request, response);
+		}
+	}
+
+	private void reject(HttpServletResponse response, String message) throws IOException {
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, this.retryAfter.toSeconds())));
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.getWriter().write(message);
+	}
+
+}
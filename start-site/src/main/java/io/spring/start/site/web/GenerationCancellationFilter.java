@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.start.site.generation.ActiveGeneration;
+import io.spring.start.site.generation.GenerationCancelledException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * A filter that bounds the time a project generation request can take and accounts for
+ * generations that are abandoned. Single project generations are only bounded by their
+ * deadline: a blocking request cannot tell that the client went away before it writes
+ * the response, at which point the generation is complete. Bulk generations that stream
+ * their progress are also cancelled as soon as an event cannot be written.
+ *
+ * @author agent
+ * @see ActiveGeneration
+ */
+public class GenerationCancellationFilter extends OncePerRequestFilter {
+
+	private final Duration timeout;
+
+	private final MeterRegistry meterRegistry;
+
+	public GenerationCancellationFilter(Duration timeout, MeterRegistry meterRegistry) {
+		this.timeout = timeout;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try (ActiveGeneration generation = ActiveGeneration.start(this.timeout)) {
+			filterChain.doFilter(request, response);
+		}
+		catch (IOException | ServletException | RuntimeException ex) {
+			GenerationCancelledException cancelled = findCancellation(ex);
+			if (cancelled != null) {
+				recordCancellation(cancelled.getReason());
+				if (!response.isCommitted()) {
+					response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), cancelled.getMessage());
+				}
+				return;
+			}
+			throw ex;
+		}
+	}
+
+	private GenerationCancelledException findCancellation(Throwable ex) {
+		Throwable candidate = ex;
+		while (candidate != null) {
+			if (candidate instanceof GenerationCancelledException cancelled) {
+				return cancelled;
+			}
+			candidate = candidate.getCause();
+		}
+		return null;
+	}
+
+	private void recordCancellation(String reason) {
+		Counter.builder("initializr.generation.cancelled")
+			.description("Number of project generations abandoned before completion")
+			.tag("reason", reason)
+			.register(this.meterRegistry)
+			.increment();
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.controller.DefaultProjectGenerationController;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.archive.ProjectArchiver;
+import io.spring.start.site.generation.ActiveGeneration;
+import io.spring.start.site.generation.BuildFileCache;
+import io.spring.start.site.generation.CanonicalProjectRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * The project generation controller of the service. Build files are served with an
+ * {@code ETag} derived from their content so that clients that repeatedly preview the
+ * same build, such as the build preview of the website or IDE integrations, can
+ * revalidate it with {@code If-None-Match} and get a {@code 304 Not Modified} response.
+ * The tag of a build file that is served from the {@link BuildFileCache} is computed
+ * when it is cached.
+ * Archives are written by a {@link ProjectArchiver}, if any. Projects can also be
+ * downloaded as a Zstandard-compressed {@code tar.zst} or an uncompressed {@code tar}
+ * archive, for clients that favor the CPU time over the bytes on the wire.
+ *
+ * @author agent
+ */
+public class StartProjectGenerationController extends DefaultProjectGenerationController {
+
+	private static final String ZSTD_CONTENT_TYPE = "application/zstd";
+
+	private static final String TAR_CONTENT_TYPE = "application/x-tar";
+
+	private static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker;
+
+	private final ProjectArchiver archiver;
+
+	private final ProjectArchiver tarArchiver;
+
+	private final BuildFileCache buildFileCache;
+
+	public StartProjectGenerationController(InitializrMetadataProvider metadataProvider,
+			ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker) {
+		this(metadataProvider, projectGenerationInvoker, null);
+	}
+
+	public StartProjectGenerationController(InitializrMetadataProvider metadataProvider,
+			ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker, ProjectArchiver archiver) {
+		this(metadataProvider, projectGenerationInvoker, archiver, null);
+	}
+
+	public StartProjectGenerationController(InitializrMetadataProvider metadataProvider,
+			ProjectGenerationInvoker<ProjectRequest> projectGenerationInvoker, ProjectArchiver archiver,
+			BuildFileCache buildFileCache) {
+		super(metadataProvider, projectGenerationInvoker);
+		this.metadataProvider = metadataProvider;
+		this.projectGenerationInvoker = projectGenerationInvoker;
+		this.archiver = archiver;
+		this.tarArchiver = (archiver != null) ? archiver : new ProjectArchiver(null, DEFAULT_CHUNK_SIZE, Map.of());
+		this.buildFileCache = buildFileCache;
+	}
+
+	@Override
+	public ResponseEntity<byte[]> springZip(ProjectRequest request) throws IOException {
+		if (this.archiver == null) {
+			return super.springZip(request);
+		}
+		return archive(request, "zip", "application/zip", this.archiver::writeZip);
+	}
+
+	@Override
+	public ResponseEntity<byte[]> springTgz(ProjectRequest request) throws IOException {
+		if (this.archiver == null) {
+			return super.springTgz(request);
+		}
+		return archive(request, "tar.gz", "application/x-compress", this.archiver::writeTgz);
+	}
+
+	@RequestMapping(path = "/starter.tar.zst", method = { RequestMethod.GET, RequestMethod.POST },
+			produces = ZSTD_CONTENT_TYPE)
+	@ResponseBody
+	public ResponseEntity<byte[]> springTarZst(ProjectRequest request) throws IOException {
+		return archive(request, "tar.zst", ZSTD_CONTENT_TYPE, this.tarArchiver::writeTarZst);
+	}
+
+	@RequestMapping(path = "/starter.tar", method = { RequestMethod.GET, RequestMethod.POST },
+			produces = TAR_CONTENT_TYPE)
+	@ResponseBody
+	public ResponseEntity<byte[]> springTar(ProjectRequest request) throws IOException {
+		return archive(request, "tar", TAR_CONTENT_TYPE, this.tarArchiver::writeTar);
+	}
+
+	private ResponseEntity<byte[]> archive(ProjectRequest request, String extension, String contentType,
+			ArchiveWriter writer) throws IOException {
+		ProjectGenerationResult result = this.projectGenerationInvoker.invokeProjectStructureGeneration(request);
+		Path root = result.getRootDirectory();
+		try {
+			Path archive = this.projectGenerationInvoker.createDistributionFile(root, "." + extension);
+			try (OutputStream out = Files.newOutputStream(archive)) {
+				writer.write(root, getWrapperScript(result.getProjectDescription()), out);
+			}
+			byte[] content = Files.readAllBytes(archive);
+			String fileName = getFileName(result.getProjectDescription().getArtifactId(), extension);
+			return ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_TYPE, contentType)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(content);
+		}
+		finally {
+			this.projectGenerationInvoker.cleanTempFiles(root);
+		}
+	}
+
+	private String getWrapperScript(ProjectDescription description) {
+		return (description.getBuildSystem() instanceof MavenBuildSystem) ? "mvnw" : "gradlew";
+	}
+
+	private String getFileName(String artifactId, String extension) {
+		String candidate = (StringUtils.hasText(artifactId)) ? artifactId
+				: this.metadataProvider.get().getArtifactId().getContent();
+		return URLEncoder.encode(candidate.replace(' ', '_'), StandardCharsets.UTF_8) + "." + extension;
+	}
+
+	@Override
+	public ResponseEntity<byte[]> pom(ProjectRequest request) {
+		return withETag(request, super.pom(request));
+	}
+
+	@Override
+	public ResponseEntity<byte[]> gradle(ProjectRequest request) {
+		return withETag(request, super.gradle(request));
+	}
+
+	private ResponseEntity<byte[]> withETag(ProjectRequest request, ResponseEntity<byte[]> response) {
+		byte[] content = response.getBody();
+		if (content == null || response.getHeaders().getETag() != null) {
+			return response;
+		}
+		// Not modified responses are handled for conditional requests with a matching tag
+		return ResponseEntity.status(response.getStatusCode())
+			.headers(response.getHeaders())
+			.eTag(getETag(request, content))
+			.body(content);
+	}
+
+	private String getETag(ProjectRequest request, byte[] content) {
+		if (this.buildFileCache == null) {
+			return DigestUtils.md5DigestAsHex(content);
+		}
+		CanonicalProjectRequest canonicalRequest = ActiveGeneration.currentRequest();
+		return this.buildFileCache.getETag(
+				(canonicalRequest != null) ? canonicalRequest : CanonicalProjectRequest.of(request), content);
+	}
+
+	@FunctionalInterface
+	private interface ArchiveWriter {
+
+		void write(Path root, String wrapperScript, OutputStream out) throws IOException;
+
+	}
+
+}
@@ -0,0 +1,41 @@
+#!/bin/sh
+#
+# Measures the startup time and the time to the first generation, with and without the
+# class data sharing archive. Each run starts the application with start-site.sh and
+# requests /starter.zip until it succeeds.
+#
+
+cd "$(dirname "$0")" || exit 1
+
+PORT="${PORT:-8080}"
+RUNS="${RUNS:-3}"
+
+now() {
+	date +%s%3N
+}
+
+measure() {
+	log="measure-startup-$1.log"
+	start=$(now)
+	CDS="$1" sh start-site.sh --server.port="$PORT" > "$log" 2>&1 &
+	pid=$!
+	until curl -sf -o /dev/null "http://localhost:$PORT/starter.zip?dependencies=web"; do
+		if ! kill -0 "$pid" 2> /dev/null; then
+			echo "Application did not start, see $log" >&2
+			exit 1
+		fi
+		sleep 0.05
+	done
+	first_generation=$(( $(now) - start ))
+	started=$(sed -n 's/.*Started StartApplication in \([0-9.]*\) seconds.*/\1/p' "$log")
+	kill "$pid"
+	wait "$pid" 2> /dev/null
+	echo "cds=$1 startup=${started}s first-generation=${first_generation}ms"
+}
+
+i=0
+while [ "$i" -lt "$RUNS" ]; do
+	measure false
+	measure true
+	i=$(( i + 1 ))
+done
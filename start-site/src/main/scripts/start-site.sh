@@ -0,0 +1,20 @@
+#!/bin/sh
+#
+# Starts the application extracted by the "cds" profile. The class data sharing archive
+# created by the training run is used when present. Additional JVM options can be set
+# with JAVA_OPTS, arguments are passed to the application.
+#
+
+cd "$(dirname "$0")" || exit 1
+
+JAVA="java"
+if [ -n "$JAVA_HOME" ]; then
+	JAVA="$JAVA_HOME/bin/java"
+fi
+
+CDS_OPTS=""
+if [ -f application.jsa ] && [ "$CDS" != "false" ]; then
+	CDS_OPTS="-XX:SharedArchiveFile=application.jsa"
+fi
+
+exec "$JAVA" $CDS_OPTS $JAVA_OPTS -jar start-site-exec.jar "$@"
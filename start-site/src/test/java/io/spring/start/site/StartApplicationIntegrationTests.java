@@ -16,14 +16,23 @@
 
 package io.spring.start.site;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.InitializrMetadataBuilder;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,7 +54,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  *
  * @author Stephane Nicoll
  */
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "application.generation.bulk.enabled=true")
 @ActiveProfiles("test")
 @AutoConfigureCache
 class StartApplicationIntegrationTests {
@@ -83,4 +92,65 @@ class StartApplicationIntegrationTests {
 			.isEqualTo(expected.getConfiguration().getEnv().getBoms().size());
 	}
 
+	@Test
+	void bulkGenerationHasOneFolderPerProject() throws URISyntaxException, IOException {
+		RequestEntity<List<Map<String, Object>>> request = RequestEntity.post(new URI("/starter-bulk.zip"))
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(List.of(Map.of("artifactId", "orders", "type", "maven-project"),
+					Map.of("artifactId", "billing", "type", "gradle-project", "dependencies", List.of("web"))));
+		ResponseEntity<byte[]> response = this.restTemplate.exchange(request, byte[].class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		List<String> entries = new ArrayList<>();
+		try (ZipArchiveInputStream input = new ZipArchiveInputStream(new ByteArrayInputStream(response.getBody()))) {
+			ZipArchiveEntry entry;
+			while ((entry = input.getNextZipEntry()) != null) {
+				entries.add(entry.getName());
+			}
+		}
+		assertThat(entries).contains("orders/pom.xml", "orders/mvnw", "billing/build.gradle", "billing/gradlew");
+	}
+
+	@Test
+	void bulkGenerationReportsProgressAsNdjson() throws URISyntaxException, IOException {
+		RequestEntity<List<Map<String, Object>>> request = RequestEntity.post(new URI("/starter-bulk.zip"))
+			.contentType(MediaType.APPLICATION_JSON)
+			.accept(MediaType.parseMediaType("application/x-ndjson"))
+			.body(List.of(Map.of("artifactId", "orders"), Map.of("artifactId", "billing")));
+		ResponseEntity<String> response = this.restTemplate.exchange(request, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		ObjectMapper objectMapper = new ObjectMapper();
+		List<JsonNode> events = new ArrayList<>();
+		for (String line : response.getBody().split("\n")) {
+			events.add(objectMapper.readTree(line));
+		}
+		assertThat(events).extracting((event) -> event.get("event").asText())
+			.containsExactly("started", "generated", "generated", "completed");
+		JsonNode completed = events.get(3);
+		assertThat(completed.get("archive").binaryValue()).hasSize(completed.get("size").asInt());
+	}
+
+	@Test
+	void multiModuleGenerationHasAggregatorBuild() throws URISyntaxException, IOException {
+		RequestEntity<Map<String, Object>> request = RequestEntity.post(new URI("/starter-multimodule.zip"))
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(Map.of("artifactId", "shop", "type", "maven-project", "modules",
+					List.of(Map.of("artifactId", "orders", "dependencies", List.of("web")),
+							Map.of("artifactId", "billing"))));
+		ResponseEntity<byte[]> response = this.restTemplate.exchange(request, byte[].class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Map<String, String> entries = new LinkedHashMap<>();
+		try (ZipArchiveInputStream input = new ZipArchiveInputStream(new ByteArrayInputStream(response.getBody()))) {
+			ZipArchiveEntry entry;
+			while ((entry = input.getNextZipEntry()) != null) {
+				entries.put(entry.getName(), new String(input.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+		assertThat(entries).containsKeys("shop/pom.xml", "shop/mvnw", "shop/orders/pom.xml", "shop/billing/pom.xml")
+			.doesNotContainKeys("shop/orders/mvnw", "shop/billing/mvnw");
+		assertThat(entries.get("shop/pom.xml")).contains("<packaging>pom</packaging>",
+				"<module>orders</module>", "<module>billing</module>", "maven-enforcer-plugin");
+		assertThat(entries.get("shop/orders/pom.xml")).contains("<artifactId>shop</artifactId>")
+			.doesNotContain("maven-enforcer-plugin", "<distributionManagement>");
+	}
+
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectArchiver}.
+ *
+ * @author agent
+ */
+class ProjectArchiverTests {
+
+	private static final int CHUNK_SIZE = 32 * 1024;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@TempDir
+	Path root;
+
+	private String largeText;
+
+	private byte[] jar;
+
+	@BeforeEach
+	void createProject() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; text.length() < CHUNK_SIZE * 5; i++) {
+			text.append("public class Sample").append(i).append(" { String value = \"").append(i).append("\"; }\n");
+		}
+		this.largeText = text.toString();
+		this.jar = new byte[8192];
+		new Random(42).nextBytes(this.jar);
+		Path project = Files.createDirectories(this.root.resolve("demo/.mvn/wrapper"));
+		Files.write(project.resolve("maven-wrapper.jar"), this.jar);
+		Files.writeString(this.root.resolve("demo/mvnw"), "#!/bin/sh\necho test\n");
+		Files.writeString(this.root.resolve("demo/pom.xml"), "<project>\n</project>\n");
+		Files.writeString(this.root.resolve("demo/Large.java"), this.largeText);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdown();
+	}
+
+	@Test
+	void zipStoresPrecompressedFilesAndDeflatesOthers() throws IOException {
+		Map<String, ZipArchiveEntry> entries = new HashMap<>();
+		Map<String, byte[]> contents = new HashMap<>();
+		try (ZipArchiveInputStream input = new ZipArchiveInputStream(
+				new ByteArrayInputStream(writeZip(createArchiver(Map.of()))))) {
+			ZipArchiveEntry entry;
+			while ((entry = input.getNextZipEntry()) != null) {
+				entries.put(entry.getName(), entry);
+				contents.put(entry.getName(), input.readAllBytes());
+			}
+		}
+		assertThat(entries).containsKeys("demo/", "demo/.mvn/", "demo/.mvn/wrapper/");
+		assertThat(entries.get("demo/.mvn/wrapper/maven-wrapper.jar").getMethod()).isEqualTo(ZipEntry.STORED);
+		assertThat(contents.get("demo/.mvn/wrapper/maven-wrapper.jar")).isEqualTo(this.jar);
+		assertThat(entries.get("demo/Large.java").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+		assertThat(entries.get("demo/Large.java").getCompressedSize()).isLessThan(this.largeText.length() / 4);
+		assertThat(new String(contents.get("demo/Large.java"), StandardCharsets.UTF_8)).isEqualTo(this.largeText);
+		assertThat(new String(contents.get("demo/pom.xml"), StandardCharsets.UTF_8))
+			.isEqualTo("<project>\n</project>\n");
+		assertThat(entries.get("demo/mvnw").getUnixMode() & 0777).isEqualTo(0755);
+		assertThat(entries.get("demo/pom.xml").getUnixMode() & 0777).isEqualTo(0644);
+	}
+
+	@Test
+	void zipWithoutCompressionStoresAllFiles() throws IOException {
+		try (ZipArchiveInputStream input = new ZipArchiveInputStream(
+				new ByteArrayInputStream(writeZip(createArchiver(Map.of("zip", 0)))))) {
+			ZipArchiveEntry entry;
+			while ((entry = input.getNextZipEntry()) != null) {
+				if (!entry.isDirectory()) {
+					assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+				}
+			}
+		}
+	}
+
+	@Test
+	void tgzHasSameContentAsProject() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		createArchiver(Map.of("tgz", 9)).writeTgz(this.root, "mvnw", out);
+		Map<String, byte[]> contents = new HashMap<>();
+		Map<String, Integer> modes = new HashMap<>();
+		try (TarArchiveInputStream input = new TarArchiveInputStream(
+				new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+			TarArchiveEntry entry;
+			while ((entry = input.getNextTarEntry()) != null) {
+				contents.put(entry.getName(), input.readAllBytes());
+				modes.put(entry.getName(), entry.getMode());
+			}
+		}
+		assertThat(contents).containsKeys("demo/", "demo/.mvn/wrapper/");
+		assertThat(contents.get("demo/.mvn/wrapper/maven-wrapper.jar")).isEqualTo(this.jar);
+		assertThat(new String(contents.get("demo/Large.java"), StandardCharsets.UTF_8)).isEqualTo(this.largeText);
+		assertThat(modes.get("demo/mvnw") & 0777).isEqualTo(0755);
+		assertThat(out.size()).isLessThan(this.largeText.length() / 4 + this.jar.length);
+	}
+
+	@Test
+	void tarZstHasSameContentAsProject() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		createArchiver(Map.of()).writeTarZst(this.root, "mvnw", out);
+		Map<String, byte[]> contents = readTar(new ZstdInputStream(new ByteArrayInputStream(out.toByteArray())));
+		assertThat(contents.get("demo/.mvn/wrapper/maven-wrapper.jar")).isEqualTo(this.jar);
+		assertThat(new String(contents.get("demo/Large.java"), StandardCharsets.UTF_8)).isEqualTo(this.largeText);
+		assertThat(out.size()).isLessThan(this.largeText.length() / 4 + this.jar.length);
+	}
+
+	@Test
+	void tarIsNotCompressed() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		createArchiver(Map.of()).writeTar(this.root, "mvnw", out);
+		Map<String, byte[]> contents = readTar(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(contents).containsKeys("demo/", "demo/.mvn/wrapper/");
+		assertThat(new String(contents.get("demo/Large.java"), StandardCharsets.UTF_8)).isEqualTo(this.largeText);
+		assertThat(out.size()).isGreaterThan(this.largeText.length() + this.jar.length);
+	}
+
+	@Test
+	void zstdCompressionLevelDefaultsToThree() {
+		assertThat(createArchiver(Map.of()).getCompressionLevel("zst")).isEqualTo(3);
+		assertThat(createArchiver(Map.of("zst", 19)).getCompressionLevel("zst")).isEqualTo(19);
+	}
+
+	@Test
+	void archivesAreIdenticalWithoutExecutor() throws IOException {
+		assertThat(writeZip(new ProjectArchiver(null, CHUNK_SIZE, Map.of())))
+			.isEqualTo(writeZip(createArchiver(Map.of())));
+	}
+
+	@Test
+	void destroyShutsDownExecutor() {
+		createArchiver(Map.of()).destroy();
+		assertThat(this.executor.isShutdown()).isTrue();
+	}
+
+	@Test
+	void sharedFilesHaveSameContentWhenSpliced() throws IOException {
+		ProjectArchiver archiver = new ProjectArchiver(this.executor, CHUNK_SIZE, Map.of(), List.of("**/mvnw"),
+				1024 * 1024);
+		byte[] expected = writeZip(createArchiver(Map.of()));
+		assertThat(writeZip(archiver)).isEqualTo(expected);
+		assertThat(writeZip(archiver)).isEqualTo(expected);
+		Files.writeString(this.root.resolve("demo/mvnw"), "#!/bin/sh
+echo changed
+");
+		assertThat(writeZip(archiver)).isEqualTo(writeZip(createArchiver(Map.of())));
+	}
+
+	@Test
+	void precompressedFilesAreDetectedByExtension() {
+		assertThat(ProjectArchiver.isPrecompressed("static/favicon.ico")).isTrue();
+		assertThat(ProjectArchiver.isPrecompressed("fonts/icons.WOFF2")).isTrue();
+		assertThat(ProjectArchiver.isPrecompressed("pom.xml")).isFalse();
+		assertThat(ProjectArchiver.isPrecompressed("mvnw")).isFalse();
+	}
+
+	private Map<String, byte[]> readTar(InputStream content) throws IOException {
+		Map<String, byte[]> contents = new HashMap<>();
+		try (TarArchiveInputStream input = new TarArchiveInputStream(content)) {
+			TarArchiveEntry entry;
+			while ((entry = input.getNextTarEntry()) != null) {
+				contents.put(entry.getName(), input.readAllBytes());
+			}
+		}
+		return contents;
+	}
+
+	private ProjectArchiver createArchiver(Map<String, Integer> compressionLevels) {
+		return new ProjectArchiver(this.executor, CHUNK_SIZE, compressionLevels);
+	}
+
+	private byte[] writeZip(ProjectArchiver archiver) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		archiver.writeZip(this.root, "mvnw", out);
+		return out.toByteArray();
+	}
+
+}
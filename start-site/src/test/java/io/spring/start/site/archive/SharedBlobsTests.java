@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.archive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import io.spring.start.site.archive.SharedBlobs.Blob;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SharedBlobs}.
+ *
+ * @author agent
+ */
+class SharedBlobsTests {
+
+	@Test
+	void sharedEntriesAreMatchedWithOrWithoutBaseDirectory() {
+		SharedBlobs blobs = new SharedBlobs(List.of("**/mvnw", "**/.mvn/wrapper/*"), 1024);
+		assertThat(blobs.isShared("mvnw")).isTrue();
+		assertThat(blobs.isShared("demo/mvnw")).isTrue();
+		assertThat(blobs.isShared("demo/.mvn/wrapper/maven-wrapper.properties")).isTrue();
+		assertThat(blobs.isShared("demo/pom.xml")).isFalse();
+	}
+
+	@Test
+	void blobIsReturnedForSameContent() {
+		SharedBlobs blobs = new SharedBlobs(List.of("**/mvnw"), 1024);
+		Blob blob = blob("echo test");
+		blobs.put("demo/mvnw", 6, blob);
+		assertThat(blobs.get("another/mvnw", content("echo test"), 6)).isSameAs(blob);
+		assertThat(blobs.getHits()).isEqualTo(1);
+	}
+
+	@Test
+	void blobIsNotReturnedForDifferentContentOfSameLength() {
+		SharedBlobs blobs = new SharedBlobs(List.of("**/mvnw"), 1024);
+		blobs.put("demo/mvnw", 6, blob("echo test"));
+		assertThat(blobs.get("demo/mvnw", content("echo TEST"), 6)).isNull();
+		assertThat(blobs.getHits()).isZero();
+	}
+
+	@Test
+	void blobIsNotReturnedForDifferentLevel() {
+		SharedBlobs blobs = new SharedBlobs(List.of("**/mvnw"), 1024);
+		blobs.put("demo/mvnw", 6, blob("echo test"));
+		assertThat(blobs.get("demo/mvnw", content("echo test"), 9)).isNull();
+	}
+
+	@Test
+	void leastRecentlyUsedBlobsAreEvicted() {
+		SharedBlobs blobs = new SharedBlobs(List.of("**"), 20);
+		blobs.put("first", 6, blob("0123456789"));
+		blobs.put("second", 6, blob("abcdefghij"));
+		assertThat(blobs.get("first", content("0123456789"), 6)).isNotNull();
+		blobs.put("third", 6, blob("ABCDEFGHIJ"));
+		assertThat(blobs.getSize()).isEqualTo(20);
+		assertThat(blobs.get("first", content("0123456789"), 6)).isNotNull();
+		assertThat(blobs.get("second", content("abcdefghij"), 6)).isNull();
+		assertThat(blobs.get("third", content("ABCDEFGHIJ"), 6)).isNotNull();
+	}
+
+	@Test
+	void blobLargerThanMaximumSizeIsNotKept() {
+		SharedBlobs blobs = new SharedBlobs(List.of("**"), 5);
+		blobs.put("first", 6, blob("0123456789"));
+		assertThat(blobs.getSize()).isZero();
+	}
+
+	private Blob blob(String text) {
+		byte[] content = content(text);
+		return new Blob(content, ZipEntry.STORED, content, 0);
+	}
+
+	private byte[] content(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FileSystemSharedCacheStore}.
+ *
+ * @author agent
+ */
+class FileSystemSharedCacheStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void valueIsSharedByStoresOfSameDirectory() {
+		new FileSystemSharedCacheStore(this.directory).put("a:b/c", bytes("value"), Duration.ofMinutes(1));
+		assertThat(new FileSystemSharedCacheStore(this.directory).get("a:b/c")).isEqualTo(bytes("value"));
+	}
+
+	@Test
+	void missingValueIsNull() {
+		assertThat(new FileSystemSharedCacheStore(this.directory).get("test")).isNull();
+	}
+
+	@Test
+	void expiredValueIsNull() throws InterruptedException {
+		FileSystemSharedCacheStore store = new FileSystemSharedCacheStore(this.directory);
+		store.put("test", bytes("value"), Duration.ofMillis(1));
+		Thread.sleep(10);
+		assertThat(store.get("test")).isNull();
+	}
+
+	@Test
+	void valueIsDeleted() {
+		FileSystemSharedCacheStore store = new FileSystemSharedCacheStore(this.directory);
+		store.put("test", bytes("value"), Duration.ofMinutes(1));
+		store.delete("test");
+		assertThat(store.get("test")).isNull();
+	}
+
+	@Test
+	void concurrentIncrementsAreAtomic() throws Exception {
+		FileSystemSharedCacheStore first = new FileSystemSharedCacheStore(this.directory);
+		FileSystemSharedCacheStore second = new FileSystemSharedCacheStore(this.directory);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Long>> increments = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				FileSystemSharedCacheStore store = (i % 2 == 0) ? first : second;
+				increments.add(executor.submit(() -> store.increment("counter")));
+			}
+			List<Long> values = new ArrayList<>();
+			for (Future<Long> increment : increments) {
+				values.add(increment.get());
+			}
+			assertThat(values).doesNotHaveDuplicates().hasSize(40);
+			assertThat(first.get("counter")).isEqualTo(bytes("40"));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
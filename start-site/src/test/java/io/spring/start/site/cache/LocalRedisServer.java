@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal in-memory server that speaks the Redis serialization protocol, supporting the
+ * commands used by {@link RedisSharedCacheStore}. A {@code GET} of the {@code malformed}
+ * key returns a reply that cannot be parsed.
+ *
+ * @author agent
+ */
+class LocalRedisServer implements AutoCloseable {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicInteger openConnections = new AtomicInteger();
+
+	private final String password;
+
+	private final ServerSocket serverSocket;
+
+	LocalRedisServer() throws IOException {
+		this(null);
+	}
+
+	LocalRedisServer(String password) throws IOException {
+		this.password = password;
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		Thread acceptor = new Thread(this::accept, "local-redis-server");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	int getPort() {
+		return this.serverSocket.getLocalPort();
+	}
+
+	int getOpenConnections() {
+		return this.openConnections.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.serverSocket.close();
+	}
+
+	private void accept() {
+		while (!this.serverSocket.isClosed()) {
+			try {
+				Socket socket = this.serverSocket.accept();
+				Thread handler = new Thread(() -> handle(socket), "local-redis-connection");
+				handler.setDaemon(true);
+				handler.start();
+			}
+			catch (IOException ex) {
+				// Closed
+			}
+		}
+	}
+
+	private void handle(Socket socket) {
+		this.openConnections.incrementAndGet();
+		try (socket) {
+			InputStream in = new BufferedInputStream(socket.getInputStream());
+			OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+			boolean authenticated = this.password == null;
+			while (in.read() == '*') {
+				byte[][] command = new byte[Integer.parseInt(readLine(in))][];
+				for (int i = 0; i < command.length; i++) {
+					in.read();
+					command[i] = in.readNBytes(Integer.parseInt(readLine(in)));
+					in.readNBytes(2);
+				}
+				String name = new String(command[0], StandardCharsets.UTF_8);
+				if (name.equals("AUTH")) {
+					authenticated = authenticate(command);
+					out.write((authenticated ? "+OK\r\n" : "-WRONGPASS invalid password\r\n")
+						.getBytes(StandardCharsets.US_ASCII));
+				}
+				else if (!authenticated) {
+					out.write("-NOAUTH Authentication required\r\n".getBytes(StandardCharsets.US_ASCII));
+				}
+				else {
+					out.write(execute(name, command));
+				}
+				out.flush();
+			}
+		}
+		catch (IOException ex) {
+			// Connection closed
+		}
+		finally {
+			this.openConnections.decrementAndGet();
+		}
+	}
+
+	private boolean authenticate(byte[][] command) {
+		byte[] password = command[command.length - 1];
+		return this.password != null && Arrays.equals(password, this.password.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private byte[] execute(String name, byte[][] command) {
+		String key = new String(command[1], StandardCharsets.UTF_8);
+		if (name.equals("GET") && key.equals("malformed")) {
+			return ":malformed\r\n".getBytes(StandardCharsets.US_ASCII);
+		}
+		if (name.equals("GET")) {
+			Entry entry = this.entries.get(key);
+			if (entry == null || entry.expired()) {
+				return "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+			}
+			ByteArrayOutputStream reply = new ByteArrayOutputStream();
+			reply.writeBytes(("$" + entry.value().length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			reply.writeBytes(entry.value());
+			reply.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+			return reply.toByteArray();
+		}
+		if (name.equals("SET")) {
+			long timeToLive = Long.parseLong(new String(command[4], StandardCharsets.US_ASCII));
+			this.entries.put(key, new Entry(command[2], System.currentTimeMillis() + timeToLive));
+			return "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+		}
+		if (name.equals("DEL")) {
+			return (":" + ((this.entries.remove(key) != null) ? 1 : 0) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+		}
+		if (name.equals("INCR")) {
+			Entry entry = this.entries.compute(key, (candidate, current) -> {
+				long value = (current != null) ? Long.parseLong(new String(current.value(), StandardCharsets.US_ASCII))
+						: 0;
+				return new Entry(Long.toString(value + 1).getBytes(StandardCharsets.US_ASCII), 0);
+			});
+			return (":" + new String(entry.value(), StandardCharsets.US_ASCII) + "\r\n")
+				.getBytes(StandardCharsets.US_ASCII);
+		}
+		return ("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		for (int current = in.read(); current != '\r'; current = in.read()) {
+			if (current == -1) {
+				throw new IOException("Connection closed");
+			}
+			line.append((char) current);
+		}
+		in.read();
+		return line.toString();
+	}
+
+	private record Entry(byte[] value, long expiresAt) {
+
+		boolean expired() {
+			return this.expiresAt != 0 && this.expiresAt < System.currentTimeMillis();
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link RedisSharedCacheStore}.
+ *
+ * @author agent
+ */
+class RedisSharedCacheStoreTests {
+
+	private LocalRedisServer server;
+
+	private RedisSharedCacheStore store;
+
+	@BeforeEach
+	void start() throws IOException {
+		this.server = new LocalRedisServer();
+		this.store = new RedisSharedCacheStore("localhost", this.server.getPort(), Duration.ofSeconds(1), 2);
+	}
+
+	@AfterEach
+	void stop() throws IOException {
+		this.store.close();
+		this.server.close();
+	}
+
+	@Test
+	void valueIsStored() {
+		this.store.put("test", bytes("value"), Duration.ofMinutes(1));
+		assertThat(this.store.get("test")).isEqualTo(bytes("value"));
+	}
+
+	@Test
+	void binaryValueIsStored() {
+		byte[] value = { 0, '\r', '\n', (byte) 0xff };
+		this.store.put("test", value, Duration.ofMinutes(1));
+		assertThat(this.store.get("test")).isEqualTo(value);
+	}
+
+	@Test
+	void missingValueIsNull() {
+		assertThat(this.store.get("test")).isNull();
+	}
+
+	@Test
+	void expiredValueIsNull() throws InterruptedException {
+		this.store.put("test", bytes("value"), Duration.ofMillis(1));
+		Thread.sleep(10);
+		assertThat(this.store.get("test")).isNull();
+	}
+
+	@Test
+	void valueIsDeleted() {
+		this.store.put("test", bytes("value"), Duration.ofMinutes(1));
+		this.store.delete("test");
+		assertThat(this.store.get("test")).isNull();
+	}
+
+	@Test
+	void counterIsIncremented() {
+		assertThat(this.store.increment("counter")).isEqualTo(1);
+		assertThat(this.store.increment("counter")).isEqualTo(2);
+		assertThat(this.store.get("counter")).isEqualTo(bytes("2"));
+	}
+
+	@Test
+	void connectionIsClosedWhenReplyIsMalformed() throws InterruptedException {
+		this.store.put("test", bytes("value"), Duration.ofMinutes(1));
+		assertThat(this.server.getOpenConnections()).isOne();
+		assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> this.store.get("malformed"));
+		for (int i = 0; i < 100 && this.server.getOpenConnections() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(this.server.getOpenConnections()).isZero();
+		assertThat(this.store.get("test")).isEqualTo(bytes("value"));
+	}
+
+	@Test
+	void authenticatedConnection() throws IOException {
+		try (LocalRedisServer server = new LocalRedisServer("secret")) {
+			RedisSharedCacheStore store = new RedisSharedCacheStore("localhost", server.getPort(),
+					Duration.ofSeconds(1), 1, "default", "secret", null);
+			store.put("test", bytes("value"), Duration.ofMinutes(1));
+			assertThat(store.get("test")).isEqualTo(bytes("value"));
+			store.close();
+		}
+	}
+
+	@Test
+	void connectionWithWrongPasswordFails() throws IOException {
+		try (LocalRedisServer server = new LocalRedisServer("secret")) {
+			RedisSharedCacheStore store = new RedisSharedCacheStore("localhost", server.getPort(),
+					Duration.ofSeconds(1), 1, null, "wrong", null);
+			assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> store.get("test"))
+				.withMessageContaining("Authentication failed");
+		}
+	}
+
+	@Test
+	void connectionWithoutPasswordIsRejected() throws IOException {
+		try (LocalRedisServer server = new LocalRedisServer("secret")) {
+			RedisSharedCacheStore store = new RedisSharedCacheStore("localhost", server.getPort(),
+					Duration.ofSeconds(1), 1);
+			assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> store.get("test"))
+				.withMessageContaining("NOAUTH");
+		}
+	}
+
+	@Test
+	void unreachableServerFails() throws IOException {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		RedisSharedCacheStore unreachable = new RedisSharedCacheStore("localhost", port, Duration.ofMillis(200), 1);
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(() -> unreachable.get("test"));
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
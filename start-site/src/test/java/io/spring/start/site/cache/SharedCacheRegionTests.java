@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SharedCacheRegion}.
+ *
+ * @author agent
+ */
+class SharedCacheRegionTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void storeIsNotUsedOnceACallHasFailed() {
+		AtomicInteger calls = new AtomicInteger();
+		SharedCacheRegion region = new SharedCacheRegion(new FailingStore(calls, new AtomicBoolean(true)), "test",
+				"test", Duration.ofMinutes(1));
+		int initialCalls = calls.get();
+		assertThat(region.get("key")).isNull();
+		region.put("key", new byte[] { 1 });
+		region.evict("key");
+		region.invalidate();
+		assertThat(calls.get() - initialCalls).isZero();
+	}
+
+	@Test
+	void storeIsUsedAgainOnceARefreshSucceeds() {
+		AtomicInteger calls = new AtomicInteger();
+		AtomicBoolean failing = new AtomicBoolean(true);
+		SharedCacheRegion region = new SharedCacheRegion(new FailingStore(calls, failing), "test", "test",
+				Duration.ofMinutes(1));
+		region.refresh();
+		assertThat(region.get("key")).isNull();
+		failing.set(false);
+		region.refresh();
+		region.put("key", new byte[] { 1 });
+		assertThat(region.get("key")).containsExactly(1);
+	}
+
+	private final class FailingStore extends FileSystemSharedCacheStore {
+
+		private final AtomicInteger calls;
+
+		private final AtomicBoolean failing;
+
+		private FailingStore(AtomicInteger calls, AtomicBoolean failing) {
+			super(SharedCacheRegionTests.this.directory);
+			this.calls = calls;
+			this.failing = failing;
+		}
+
+		@Override
+		public byte[] get(String key) {
+			check();
+			return super.get(key);
+		}
+
+		@Override
+		public void put(String key, byte[] value, Duration timeToLive) {
+			check();
+			super.put(key, value, timeToLive);
+		}
+
+		@Override
+		public void delete(String key) {
+			check();
+			super.delete(key);
+		}
+
+		@Override
+		public long increment(String key) {
+			check();
+			return super.increment(key);
+		}
+
+		private void check() {
+			this.calls.incrementAndGet();
+			if (this.failing.get()) {
+				throw new IllegalStateException("Unavailable");
+			}
+		}
+
+	}
+
+}
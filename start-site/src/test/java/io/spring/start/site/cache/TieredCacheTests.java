@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TieredCache}.
+ *
+ * @author agent
+ */
+class TieredCacheTests {
+
+	@TempDir
+	Path directory;
+
+	private SharedCacheRegions firstNode;
+
+	private SharedCacheRegions secondNode;
+
+	@BeforeEach
+	void createNodes() {
+		this.firstNode = regions(new FileSystemSharedCacheStore(this.directory));
+		this.secondNode = regions(new FileSystemSharedCacheStore(this.directory));
+	}
+
+	@Test
+	void valueLoadedByOneNodeIsSharedWithOtherNode() {
+		AtomicInteger loads = new AtomicInteger();
+		TieredCache first = cache(this.firstNode);
+		TieredCache second = cache(this.secondNode);
+		Map<String, String> value = first.get("key", () -> load(loads));
+		assertThat(second.get("key", () -> load(loads))).isEqualTo(value);
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void valuePutByOneNodeIsVisibleToOtherNode() {
+		cache(this.firstNode).put("key", "value");
+		assertThat(cache(this.secondNode).get("key", String.class)).isEqualTo("value");
+	}
+
+	@Test
+	void valueThatIsNotStringsIsNotShared() {
+		cache(this.firstNode).put("key", Duration.ofSeconds(1));
+		assertThat(this.secondNode.getRegion("test").get("key")).isNull();
+		assertThat(cache(this.secondNode).get("key")).isNull();
+	}
+
+	@Test
+	void valueIsSharedAsJson() {
+		cache(this.firstNode).put("key", Map.of("spring-boot", "3.3.3"));
+		assertThat(new String(this.secondNode.getRegion("test").get("key"), StandardCharsets.UTF_8))
+			.isEqualTo("{\"spring-boot\":\"3.3.3\"}");
+	}
+
+	@Test
+	void serializedJavaObjectIsIgnored() throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(content)) {
+			out.writeObject(new HashMap<>(Map.of("spring-boot", "3.3.3")));
+		}
+		this.firstNode.getRegion("test").put("key", content.toByteArray());
+		assertThat(cache(this.secondNode).get("key")).isNull();
+	}
+
+	@Test
+	void valueIsServedFromLocalCacheOnceRead() {
+		ConcurrentMapCache local = new ConcurrentMapCache("test");
+		TieredCache second = new TieredCache(local, this.secondNode.getRegion("test"));
+		cache(this.firstNode).put("key", "value");
+		second.get("key");
+		assertThat(local.get("key", String.class)).isEqualTo("value");
+	}
+
+	@Test
+	void clearInvalidatesLocalCacheOfOtherNodes() {
+		ConcurrentMapCache local = new ConcurrentMapCache("test");
+		TieredCache second = new TieredCache(local, this.secondNode.getRegion("test"));
+		TieredCache first = cache(this.firstNode);
+		second.put("key", "value");
+		first.clear();
+		assertThat(local.get("key")).isNotNull();
+		this.secondNode.refresh();
+		assertThat(local.get("key")).isNull();
+		assertThat(second.get("key")).isNull();
+	}
+
+	@Test
+	void unavailableStoreFallsBackToLocalCache() {
+		SharedCacheRegions unavailable = regions(new FileSystemSharedCacheStore(this.directory.resolve("file")) {
+
+			@Override
+			public byte[] get(String key) {
+				throw new IllegalStateException("Unavailable");
+			}
+
+			@Override
+			public void put(String key, byte[] value, Duration timeToLive) {
+				throw new IllegalStateException("Unavailable");
+			}
+
+		});
+		AtomicInteger loads = new AtomicInteger();
+		TieredCache cache = cache(unavailable);
+		cache.get("key", () -> load(loads));
+		cache.get("key", () -> load(loads));
+		assertThat(loads).hasValue(1);
+	}
+
+	private SharedCacheRegions regions(SharedCacheStore store) {
+		return new SharedCacheRegions(store, "test", Duration.ofMinutes(1), Duration.ofSeconds(1));
+	}
+
+	private TieredCache cache(SharedCacheRegions regions) {
+		return new TieredCache(new ConcurrentMapCache("test"), regions.getRegion("test"));
+	}
+
+	private Map<String, String> load(AtomicInteger loads) {
+		loads.incrementAndGet();
+		Map<String, String> versions = new HashMap<>();
+		versions.put("spring-boot", "3.3.3");
+		return versions;
+	}
+
+}
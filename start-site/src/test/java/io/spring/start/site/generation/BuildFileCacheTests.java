@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.cache.FileSystemSharedCacheStore;
+import io.spring.start.site.cache.SharedCacheRegion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.util.DigestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BuildFileCache}.
+ *
+ * @author agent
+ */
+class BuildFileCacheTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final InitializrMetadata metadata = new InitializrMetadata();
+
+	@Test
+	void sameRequestIsRenderedOnce() {
+		BuildFileCache cache = new BuildFileCache(10, this.meterRegistry);
+		AtomicInteger renderings = new AtomicInteger();
+		AtomicInteger hits = new AtomicInteger();
+		byte[] first = cache.get(request("web"), this.metadata, () -> render(renderings), hits::incrementAndGet);
+		byte[] second = cache.get(request("web"), this.metadata, () -> render(renderings), hits::incrementAndGet);
+		assertThat(second).isSameAs(first);
+		assertThat(renderings).hasValue(1);
+		assertThat(hits).hasValue(1);
+		assertThat(this.meterRegistry.get("initializr.build-files.cache").tag("result", "hit").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void differentRequestIsRenderedAgain() {
+		BuildFileCache cache = new BuildFileCache(10, this.meterRegistry);
+		AtomicInteger renderings = new AtomicInteger();
+		cache.get(request("web"), this.metadata, () -> render(renderings), () -> {
+		});
+		cache.get(request("web", "data-jpa"), this.metadata, () -> render(renderings), () -> {
+		});
+		assertThat(renderings).hasValue(2);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void differentMetadataClearsCache() {
+		BuildFileCache cache = new BuildFileCache(10, this.meterRegistry);
+		AtomicInteger renderings = new AtomicInteger();
+		cache.get(request("web"), this.metadata, () -> render(renderings), () -> {
+		});
+		cache.get(request("web"), new InitializrMetadata(), () -> render(renderings), () -> {
+		});
+		assertThat(renderings).hasValue(2);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		BuildFileCache cache = new BuildFileCache(2, this.meterRegistry);
+		AtomicInteger renderings = new AtomicInteger();
+		cache.get(request("web"), this.metadata, () -> render(renderings), () -> {
+		});
+		cache.get(request("data-jpa"), this.metadata, () -> render(renderings), () -> {
+		});
+		cache.get(request("web"), this.metadata, () -> render(renderings), () -> {
+		});
+		cache.get(request("security"), this.metadata, () -> render(renderings), () -> {
+		});
+		assertThat(cache.size()).isEqualTo(2);
+		cache.get(request("web"), this.metadata, () -> render(renderings), () -> {
+		});
+		assertThat(renderings).hasValue(3);
+		cache.get(request("data-jpa"), this.metadata, () -> render(renderings), () -> {
+		});
+		assertThat(renderings).hasValue(4);
+	}
+
+	@Test
+	void uncacheableRequestIsAlwaysRendered() {
+		BuildFileCache cache = new BuildFileCache(10, this.meterRegistry, null,
+				(request) -> !request.getDependencies().contains("nth-common-mail"));
+		AtomicInteger renderings = new AtomicInteger();
+		AtomicInteger hits = new AtomicInteger();
+		byte[] first = cache.get(request("nth-common-mail"), this.metadata, () -> render(renderings),
+				hits::incrementAndGet);
+		byte[] second = cache.get(request("nth-common-mail"), this.metadata, () -> render(renderings),
+				hits::incrementAndGet);
+		assertThat(second).isNotEqualTo(first);
+		assertThat(renderings).hasValue(2);
+		assertThat(hits).hasValue(0);
+		assertThat(cache.size()).isZero();
+		assertThat(this.meterRegistry.get("initializr.build-files.cache").tag("result", "bypass").counter().count())
+			.isEqualTo(2);
+	}
+
+	@Test
+	void buildFileIsSharedWithOtherNodes(@TempDir Path directory) {
+		BuildFileCache first = new BuildFileCache(10, this.meterRegistry, sharedRegion(directory));
+		BuildFileCache second = new BuildFileCache(10, new SimpleMeterRegistry(), sharedRegion(directory));
+		AtomicInteger renderings = new AtomicInteger();
+		AtomicInteger hits = new AtomicInteger();
+		byte[] content = first.get(request("web"), this.metadata, () -> render(renderings), hits::incrementAndGet);
+		assertThat(second.get(request("web"), new InitializrMetadata(), () -> render(renderings),
+				hits::incrementAndGet))
+			.isEqualTo(content);
+		assertThat(renderings).hasValue(1);
+		assertThat(hits).hasValue(1);
+		assertThat(second.size()).isEqualTo(1);
+	}
+
+	@Test
+	void uncacheableRequestIsNotShared(@TempDir Path directory) {
+		SharedCacheRegion sharedRegion = sharedRegion(directory);
+		BuildFileCache first = new BuildFileCache(10, this.meterRegistry, sharedRegion,
+				(request) -> !request.getDependencies().contains("nth-common-mail"));
+		BuildFileCache second = new BuildFileCache(10, new SimpleMeterRegistry(), sharedRegion(directory),
+				(request) -> true);
+		AtomicInteger renderings = new AtomicInteger();
+		first.get(request("nth-common-mail"), this.metadata, () -> render(renderings), () -> {
+		});
+		second.get(request("nth-common-mail"), this.metadata, () -> render(renderings), () -> {
+		});
+		assertThat(renderings).hasValue(2);
+	}
+
+	@Test
+	void eTagIsMd5OfContent() {
+		BuildFileCache cache = new BuildFileCache(10, this.meterRegistry);
+		byte[] content = cache.get(request("web"), this.metadata, () -> render(new AtomicInteger()), () -> {
+		});
+		String expected = DigestUtils.md5DigestAsHex(content);
+		assertThat(cache.getETag(request("web"), content)).isEqualTo(expected);
+		assertThat(cache.getETag(request("data-jpa"), content)).isEqualTo(expected);
+	}
+
+	private SharedCacheRegion sharedRegion(Path directory) {
+		return new SharedCacheRegion(new FileSystemSharedCacheStore(directory), "test", "build-files",
+				Duration.ofMinutes(1));
+	}
+
+	private byte[] render(AtomicInteger renderings) {
+		return ("build-" + renderings.incrementAndGet()).getBytes();
+	}
+
+	private CanonicalProjectRequest request(String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("maven-build");
+		request.setDependencies(List.of(dependencies));
+		return CanonicalProjectRequest.of(request);
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.project.MutableProjectDescription;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.support.StaticApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BulkProjectGenerator}.
+ *
+ * @author agent
+ */
+class BulkProjectGeneratorTests {
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final TestProjectGenerationInvoker invoker = new TestProjectGenerationInvoker();
+
+	private final BulkProjectGenerator generator = new BulkProjectGenerator(this.invoker, this.executor, 3);
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdown();
+	}
+
+	@Test
+	void projectsAreGeneratedInDistinctBaseDirectories() {
+		List<ProjectRequest> requests = List.of(request("orders"), request("orders"), request(null));
+		List<ProjectGenerationResult> results = this.generator.generate(requests);
+		assertThat(requests).extracting(ProjectRequest::getBaseDir).containsExactly("orders", "orders-2", "project");
+		assertThat(results).extracting(ProjectGenerationResult::getRootDirectory)
+			.containsExactly(Path.of("orders"), Path.of("orders-2"), Path.of("project"));
+		assertThat(this.invoker.cleaned).isEmpty();
+	}
+
+	@Test
+	void listenerIsNotifiedOfEachProject() {
+		List<Integer> generated = Collections.synchronizedList(new ArrayList<>());
+		this.generator.generate(List.of(request("first"), request("second")), new BulkProjectGenerator.Listener() {
+
+			@Override
+			public void onGenerated(int index, ProjectRequest request) {
+				generated.add(index);
+			}
+
+		});
+		assertThat(generated).containsExactlyInAnyOrder(0, 1);
+	}
+
+	@Test
+	void failureCleansUpGeneratedProjects() {
+		List<String> failed = Collections.synchronizedList(new ArrayList<>());
+		assertThatExceptionOfType(IllegalStateException.class)
+			.isThrownBy(() -> this.generator.generate(List.of(request("first"), request("broken")),
+					new BulkProjectGenerator.Listener() {
+
+						@Override
+						public void onFailed(int index, ProjectRequest request, Throwable failure) {
+							failed.add(request.getBaseDir());
+						}
+
+					}))
+			.withMessage("broken");
+		assertThat(failed).containsExactly("broken");
+		assertThat(this.invoker.cleaned).containsExactly(Path.of("first"));
+	}
+
+	@Test
+	void tooManyProjectsAreRejected() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.generator
+				.generate(List.of(request("a"), request("b"), request("c"), request("d"))))
+			.withMessageContaining("At most 3 projects");
+	}
+
+	@Test
+	void projectsShareTheDeadlineOfTheActiveGeneration() {
+		try (ActiveGeneration generation = ActiveGeneration.start(Duration.ZERO)) {
+			assertThatExceptionOfType(GenerationCancelledException.class)
+				.isThrownBy(() -> this.generator.generate(List.of(request("first"))))
+				.satisfies((ex) -> assertThat(ex.getReason()).isEqualTo(GenerationCancelledException.DEADLINE));
+		}
+	}
+
+	@Test
+	void projectsAreCancelledWithTheActiveGeneration() {
+		try (ActiveGeneration generation = ActiveGeneration.start(Duration.ofMinutes(1))) {
+			generation.cancel(GenerationCancelledException.DISCONNECT);
+			assertThatExceptionOfType(GenerationCancelledException.class)
+				.isThrownBy(() -> this.generator.generate(List.of(request("first"))))
+				.satisfies((ex) -> assertThat(ex.getReason()).isEqualTo(GenerationCancelledException.DISCONNECT));
+		}
+	}
+
+	@Test
+	void cancellingTheActiveGenerationFromTheListenerStopsProjectsInProgress() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		TestProjectGenerationInvoker invoker = new TestProjectGenerationInvoker() {
+
+			@Override
+			public ProjectGenerationResult invokeProjectStructureGeneration(ProjectRequest request) {
+				if ("slow".equals(request.getArtifactId())) {
+					try {
+						cancelled.await();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.invokeProjectStructureGeneration(request);
+			}
+
+		};
+		List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+		try (ActiveGeneration generation = ActiveGeneration.start(Duration.ofMinutes(1))) {
+			assertThatExceptionOfType(GenerationCancelledException.class)
+				.isThrownBy(() -> new BulkProjectGenerator(invoker, executor, 2)
+					.generate(List.of(request("fast"), request("slow")), new BulkProjectGenerator.Listener() {
+
+						@Override
+						public void onGenerated(int index, ProjectRequest request) {
+							generation.cancel(GenerationCancelledException.DISCONNECT);
+							cancelled.countDown();
+							throw new GenerationCancelledException(GenerationCancelledException.DISCONNECT);
+						}
+
+						@Override
+						public void onFailed(int index, ProjectRequest request, Throwable failure) {
+							failures.add(failure);
+						}
+
+					}));
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(failures).singleElement()
+			.isInstanceOfSatisfying(GenerationCancelledException.class,
+					(ex) -> assertThat(ex.getReason()).isEqualTo(GenerationCancelledException.DISCONNECT));
+		assertThat(invoker.cleaned).containsExactly(Path.of("fast"));
+	}
+
+	@Test
+	void eachProjectAcquiresAPermit() {
+		GenerationScheduler scheduler = new GenerationScheduler(1, 0, Duration.ZERO, new SimpleMeterRegistry());
+		List<Integer> active = Collections.synchronizedList(new ArrayList<>());
+		TestProjectGenerationInvoker invoker = new TestProjectGenerationInvoker() {
+
+			@Override
+			public ProjectGenerationResult invokeProjectStructureGeneration(ProjectRequest request) {
+				active.add(scheduler.getActive());
+				return super.invokeProjectStructureGeneration(request);
+			}
+
+		};
+		new BulkProjectGenerator(invoker, this.executor, 3, scheduler)
+			.generate(List.of(request("first"), request("second")));
+		assertThat(active).containsExactly(1, 1);
+		assertThat(scheduler.getActive()).isZero();
+	}
+
+	@Test
+	void projectThatCannotAcquireAPermitFailsTheGeneration() throws Exception {
+		GenerationScheduler scheduler = new GenerationScheduler(1, 0, Duration.ZERO, new SimpleMeterRegistry());
+		try (GenerationScheduler.Permit permit = scheduler.acquire(ClientType.BROWSER)) {
+			assertThatExceptionOfType(GenerationRejectedException.class).isThrownBy(
+					() -> new BulkProjectGenerator(this.invoker, this.executor, 3, scheduler)
+						.generate(List.of(request("first"))));
+		}
+		assertThat(scheduler.getActive()).isZero();
+	}
+
+	private ProjectRequest request(String artifactId) {
+		ProjectRequest request = new ProjectRequest();
+		request.setArtifactId(artifactId);
+		return request;
+	}
+
+	static class TestProjectGenerationInvoker extends ProjectGenerationInvoker<ProjectRequest> {
+
+		private final List<Path> cleaned = Collections.synchronizedList(new ArrayList<>());
+
+		TestProjectGenerationInvoker() {
+			super(new StaticApplicationContext(), (request, metadata) -> new MutableProjectDescription());
+		}
+
+		@Override
+		public ProjectGenerationResult invokeProjectStructureGeneration(ProjectRequest request) {
+			ActiveGeneration.checkNotCancelled();
+			if ("broken".equals(request.getArtifactId())) {
+				throw new IllegalStateException("broken");
+			}
+			return new ProjectGenerationResult(new MutableProjectDescription(), Path.of(request.getBaseDir()));
+		}
+
+		@Override
+		public void cleanTempFiles(Path dir) {
+			this.cleaned.add(dir);
+		}
+
+	}
+
+}
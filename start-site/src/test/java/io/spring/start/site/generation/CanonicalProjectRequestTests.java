@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.spring.initializr.web.project.ProjectRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CanonicalProjectRequest}.
+ *
+ * @author agent
+ */
+class CanonicalProjectRequestTests {
+
+	@Test
+	void dependenciesAreSortedAndDistinct() {
+		CanonicalProjectRequest request = CanonicalProjectRequest.of(request("web", "data-jpa", "web"));
+		assertThat(request.getDependencies()).containsExactly("data-jpa", "web");
+		assertThat(request.getDependencyCount()).isEqualTo(2);
+	}
+
+	@Test
+	void orderOfDependenciesDoesNotChangeHash() {
+		CanonicalProjectRequest first = CanonicalProjectRequest.of(request("web", "data-jpa"));
+		CanonicalProjectRequest second = CanonicalProjectRequest.of(request("data-jpa", "web"));
+		assertThat(first).isEqualTo(second);
+		assertThat(first.getHash()).isEqualTo(second.getHash());
+	}
+
+	@Test
+	void differentAttributeChangesHash() {
+		ProjectRequest request = request("web");
+		CanonicalProjectRequest first = CanonicalProjectRequest.of(request);
+		request.setArtifactId("another");
+		CanonicalProjectRequest second = CanonicalProjectRequest.of(request);
+		assertThat(first).isNotEqualTo(second);
+		assertThat(first.getHash()).isNotEqualTo(second.getHash());
+	}
+
+	@Test
+	void valueThatLooksLikeAnotherAttributeDoesNotCollide() {
+		Map<String, String> first = new HashMap<>();
+		first.put("name", "demo\ndescription=test");
+		Map<String, String> second = new HashMap<>();
+		second.put("name", "demo");
+		second.put("description", "test\ndescription=");
+		assertThat(CanonicalProjectRequest.of(first)).isNotEqualTo(CanonicalProjectRequest.of(second));
+	}
+
+	@Test
+	void missingAndEmptyValuesAreDistinct() {
+		assertThat(CanonicalProjectRequest.of(Map.of("description", "")))
+			.isNotEqualTo(CanonicalProjectRequest.of(Map.of()));
+	}
+
+	@Test
+	void hashIsHexEncodedSha256() {
+		assertThat(CanonicalProjectRequest.of(request("web")).getHash()).hasSize(64).matches("[0-9a-f]+");
+	}
+
+	@Test
+	void longHashIsPrefixOfHash() {
+		CanonicalProjectRequest request = CanonicalProjectRequest.of(request("web"));
+		assertThat(String.format("%016x", request.getLongHash())).isEqualTo(request.getHash().substring(0, 16));
+	}
+
+	@Test
+	void attributesRoundTrip() {
+		CanonicalProjectRequest request = CanonicalProjectRequest.of(request("web", "data-jpa"));
+		assertThat(request.getAttributes()).containsEntry("artifactId", "demo")
+			.containsEntry("dependencies", "data-jpa,web");
+		assertThat(CanonicalProjectRequest.of(request.getAttributes())).isEqualTo(request);
+	}
+
+	@Test
+	void toProjectRequestHasSameCanonicalForm() {
+		CanonicalProjectRequest request = CanonicalProjectRequest.of(request("web", "data-jpa"));
+		ProjectRequest projectRequest = request.toProjectRequest();
+		assertThat(projectRequest.getDependencies()).containsExactly("data-jpa", "web");
+		assertThat(CanonicalProjectRequest.of(projectRequest)).isEqualTo(request);
+	}
+
+	private ProjectRequest request(String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("maven-project");
+		request.setGroupId("com.example");
+		request.setArtifactId("demo");
+		request.setBootVersion("3.3.3");
+		request.setDependencies(List.of(dependencies));
+		return request;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClientType}.
+ *
+ * @author agent
+ */
+class ClientTypeTests {
+
+	@Test
+	void browserIsDetected() {
+		assertThat(ClientType.fromUserAgent("Mozilla/5.0 (X11; Linux x86_64; rv:131.0) Gecko/20100101 Firefox/131.0"))
+			.isEqualTo(ClientType.BROWSER);
+	}
+
+	@Test
+	void commandLineToolIsDetected() {
+		assertThat(ClientType.fromUserAgent("curl/8.5.0")).isEqualTo(ClientType.CLI);
+		assertThat(ClientType.fromUserAgent("HTTPie/3.2.2")).isEqualTo(ClientType.CLI);
+		assertThat(ClientType.fromUserAgent("SpringBootCli/3.3.3")).isEqualTo(ClientType.CLI);
+	}
+
+	@Test
+	void ideIsDetected() {
+		assertThat(ClientType.fromUserAgent("IntelliJ IDEA/2024.2")).isEqualTo(ClientType.IDE);
+		assertThat(ClientType.fromUserAgent("vscode/0.1.0")).isEqualTo(ClientType.IDE);
+	}
+
+	@Test
+	void missingUserAgentIsOther() {
+		assertThat(ClientType.fromUserAgent(null)).isEqualTo(ClientType.OTHER);
+	}
+
+}
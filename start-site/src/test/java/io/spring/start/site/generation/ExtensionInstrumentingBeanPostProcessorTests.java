@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.project.contributor.ProjectContributor;
+import io.spring.initializr.generator.spring.build.BuildCustomizer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExtensionInstrumentingBeanPostProcessor}.
+ *
+ * @author agent
+ */
+class ExtensionInstrumentingBeanPostProcessorTests {
+
+	private final GenerationProfiler profiler = new GenerationProfiler(new SimpleMeterRegistry(), 10, 0);
+
+	@Test
+	void customizerInvocationIsRecorded() throws Exception {
+		GenerationProfile profile = this.profiler.startProfile();
+		BuildCustomizer<Build> customizer = (build) -> build.properties().property("test", "value");
+		Object proxy = new ExtensionInstrumentingBeanPostProcessor(profile)
+			.postProcessAfterInitialization(customizer, "testBuildCustomizer");
+		assertThat(proxy).isInstanceOf(BuildCustomizer.class).isNotSameAs(customizer);
+		MavenBuild build = new MavenBuild();
+		invoke(proxy, build);
+		assertThat(build.properties().has("test")).isTrue();
+		profile.destroy();
+		assertThat(this.profiler.getSlowestExtensions(10)).singleElement().satisfies((statistics) -> {
+			assertThat(statistics.extension()).isEqualTo(getClass().getName() + "#testBuildCustomizer");
+			assertThat(statistics.type()).isEqualTo("build-customizer");
+			assertThat(statistics.invocations()).isOne();
+		});
+	}
+
+	@Test
+	void orderIsNotRecorded() throws Exception {
+		GenerationProfile profile = this.profiler.startProfile();
+		BuildCustomizer<Build> customizer = (build) -> {
+		};
+		BuildCustomizer<?> proxy = (BuildCustomizer<?>) new ExtensionInstrumentingBeanPostProcessor(profile)
+			.postProcessAfterInitialization(customizer, "testBuildCustomizer");
+		assertThat(proxy.getOrder()).isEqualTo(customizer.getOrder());
+		profile.destroy();
+		assertThat(this.profiler.getSlowestExtensions(10)).isEmpty();
+	}
+
+	@Test
+	void customizerClassIsProxiedAsItsConcreteType() {
+		GenerationProfile profile = this.profiler.startProfile();
+		TestBuildCustomizer customizer = new TestBuildCustomizer();
+		Object proxy = new ExtensionInstrumentingBeanPostProcessor(profile)
+			.postProcessAfterInitialization(customizer, "testBuildCustomizer");
+		assertThat(proxy).isInstanceOf(TestBuildCustomizer.class).isNotSameAs(customizer);
+		((TestBuildCustomizer) proxy).customize(new MavenBuild());
+		assertThat(customizer.invocations).isOne();
+	}
+
+	@Test
+	void finalCustomizerClassIsNotProxied() {
+		GenerationProfile profile = this.profiler.startProfile();
+		FinalBuildCustomizer customizer = new FinalBuildCustomizer();
+		assertThat(new ExtensionInstrumentingBeanPostProcessor(profile).postProcessAfterInitialization(customizer,
+				"finalBuildCustomizer"))
+			.isSameAs(customizer);
+	}
+
+	@Test
+	void projectContributorIsNotProxied() {
+		GenerationProfile profile = this.profiler.startProfile();
+		ProjectContributor contributor = (projectRoot) -> {
+		};
+		assertThat(new ExtensionInstrumentingBeanPostProcessor(profile).postProcessAfterInitialization(contributor,
+				"testContributor"))
+			.isSameAs(contributor);
+	}
+
+	@Test
+	void unrelatedBeanIsNotProxied() {
+		GenerationProfile profile = this.profiler.startProfile();
+		Object bean = new Object();
+		assertThat(new ExtensionInstrumentingBeanPostProcessor(profile).postProcessAfterInitialization(bean, "test"))
+			.isSameAs(bean);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void invoke(Object customizer, Build build) {
+		((BuildCustomizer<Build>) customizer).customize(build);
+	}
+
+	static class TestBuildCustomizer implements BuildCustomizer<MavenBuild> {
+
+		private int invocations;
+
+		@Override
+		public void customize(MavenBuild build) {
+			this.invocations++;
+		}
+
+	}
+
+	static final class FinalBuildCustomizer implements BuildCustomizer<MavenBuild> {
+
+		@Override
+		public void customize(MavenBuild build) {
+		}
+
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.start.site.generation.GenerationProfiler.ExtensionStatistics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GenerationProfiler}.
+ *
+ * @author agent
+ */
+class GenerationProfilerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void invocationIsRecordedAsTimer() {
+		GenerationProfiler profiler = new GenerationProfiler(this.meterRegistry, 10, 0);
+		profiler.startProfile().record("build-customizer", "com.example.Test", 1000, -1);
+		assertThat(this.meterRegistry.get("initializr.generation.extension")
+			.tags("type", "build-customizer", "extension", "com.example.Test")
+			.timer()
+			.count()).isOne();
+	}
+
+	@Test
+	void extensionsAreRankedByTotalTime() throws Exception {
+		GenerationProfiler profiler = new GenerationProfiler(this.meterRegistry, 10, 0);
+		GenerationProfile first = profiler.startProfile();
+		first.record("build-customizer", "fast", Duration.ofMillis(1).toNanos(), -1);
+		first.record("build-customizer", "slow", Duration.ofMillis(10).toNanos(), -1);
+		first.destroy();
+		GenerationProfile second = profiler.startProfile();
+		second.record("build-customizer", "slow", Duration.ofMillis(20).toNanos(), -1);
+		second.destroy();
+		List<ExtensionStatistics> slowest = profiler.getSlowestExtensions(10);
+		assertThat(slowest).extracting(ExtensionStatistics::extension).containsExactly("slow", "fast");
+		assertThat(slowest.get(0).invocations()).isEqualTo(2);
+		assertThat(slowest.get(0).totalTime()).isEqualTo(Duration.ofMillis(30));
+		assertThat(slowest.get(0).maxTime()).isEqualTo(Duration.ofMillis(20));
+		assertThat(profiler.getMostAllocatingExtensions(10)).isEmpty();
+	}
+
+	@Test
+	void extensionsAreRankedByAllocationPerInvocation() throws Exception {
+		GenerationProfiler profiler = new GenerationProfiler(this.meterRegistry, 10, 1);
+		GenerationProfile profile = profiler.startProfile();
+		profile.record("project-contributor", "light", 10, 100);
+		profile.record("project-contributor", "heavy", 10, 5000);
+		profile.destroy();
+		assertThat(profiler.getMostAllocatingExtensions(1)).extracting(ExtensionStatistics::extension)
+			.containsExactly("heavy");
+	}
+
+	@Test
+	void nestedInvocationIsNotAccountedToItsParent() throws Exception {
+		GenerationProfiler profiler = new GenerationProfiler(this.meterRegistry, 10, 0);
+		GenerationProfile profile = profiler.startProfile();
+		try (GenerationProfile.Invocation outer = profile.begin("project-contributor", "outer")) {
+			try (GenerationProfile.Invocation inner = profile.begin("build-customizer", "inner")) {
+				Thread.sleep(50);
+			}
+		}
+		profile.destroy();
+		List<ExtensionStatistics> slowest = profiler.getSlowestExtensions(10);
+		assertThat(slowest).extracting(ExtensionStatistics::extension).containsExactly("inner", "outer");
+		assertThat(slowest.get(0).totalTime()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+		assertThat(slowest.get(1).totalTime()).isLessThan(Duration.ofMillis(50));
+	}
+
+	@Test
+	void onlyRecentGenerationsAreKept() throws Exception {
+		GenerationProfiler profiler = new GenerationProfiler(this.meterRegistry, 1, 0);
+		GenerationProfile first = profiler.startProfile();
+		first.record("build-customizer", "first", 10, -1);
+		first.destroy();
+		GenerationProfile second = profiler.startProfile();
+		second.record("build-customizer", "second", 10, -1);
+		second.destroy();
+		assertThat(profiler.getRecentGenerations()).isOne();
+		assertThat(profiler.getSlowestExtensions(10)).extracting(ExtensionStatistics::extension)
+			.containsExactly("second");
+	}
+
+	@Test
+	void allocationsAreSampledAtConfiguredInterval() {
+		GenerationProfiler profiler = new GenerationProfiler(this.meterRegistry, 10, 2);
+		GenerationProfile first = profiler.startProfile();
+		GenerationProfile second = profiler.startProfile();
+		assertThat(first.isAllocationSampled()).isEqualTo(ThreadAllocations.currentThreadAllocatedBytes() >= 0);
+		assertThat(second.isAllocationSampled()).isFalse();
+	}
+
+}
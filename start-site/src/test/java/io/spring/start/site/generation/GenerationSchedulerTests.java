@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.start.site.generation.GenerationScheduler.Permit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link GenerationScheduler}.
+ *
+ * @author agent
+ */
+class GenerationSchedulerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void permitIsGrantedWhenBelowLimit() throws InterruptedException {
+		GenerationScheduler scheduler = new GenerationScheduler(2, 0, Duration.ofSeconds(1), this.meterRegistry);
+		try (Permit permit = scheduler.acquire(ClientType.BROWSER)) {
+			assertThat(scheduler.getActive()).isOne();
+		}
+		assertThat(scheduler.getActive()).isZero();
+	}
+
+	@Test
+	void generationIsRejectedWhenQueueIsFull() throws InterruptedException {
+		GenerationScheduler scheduler = new GenerationScheduler(1, 0, Duration.ofSeconds(1), this.meterRegistry);
+		try (Permit permit = scheduler.acquire(ClientType.BROWSER)) {
+			assertThatExceptionOfType(GenerationRejectedException.class)
+				.isThrownBy(() -> scheduler.acquire(ClientType.CLI));
+		}
+		assertThat(this.meterRegistry.get("initializr.generation.rejected")
+			.tags("client", "cli", "reason", "queue-full")
+			.counter()
+			.count()).isOne();
+	}
+
+	@Test
+	void generationIsRejectedWhenWaitingTooLong() throws InterruptedException {
+		GenerationScheduler scheduler = new GenerationScheduler(1, 1, Duration.ofMillis(50), this.meterRegistry);
+		try (Permit permit = scheduler.acquire(ClientType.BROWSER)) {
+			assertThatExceptionOfType(GenerationRejectedException.class)
+				.isThrownBy(() -> scheduler.acquire(ClientType.IDE));
+			assertThat(scheduler.getQueued()).isZero();
+		}
+		assertThat(this.meterRegistry.get("initializr.generation.rejected")
+			.tags("client", "ide", "reason", "timeout")
+			.counter()
+			.count()).isOne();
+	}
+
+	@Test
+	void releasedSlotIsHandedOverToWaitingGeneration() throws InterruptedException {
+		GenerationScheduler scheduler = new GenerationScheduler(1, 1, Duration.ofSeconds(10), this.meterRegistry);
+		Permit permit = scheduler.acquire(ClientType.BROWSER);
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread waiter = new Thread(() -> {
+			try (Permit other = scheduler.acquire(ClientType.CLI)) {
+				acquired.countDown();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		waiter.start();
+		await().atMost(Duration.ofSeconds(5)).until(() -> scheduler.getQueued() == 1);
+		permit.close();
+		assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+		waiter.join();
+		assertThat(scheduler.getActive()).isZero();
+		assertThat(scheduler.getQueued()).isZero();
+	}
+
+	@Test
+	void waitingGenerationsAreDispatchedFairlyAcrossClientTypes() throws InterruptedException {
+		GenerationScheduler scheduler = new GenerationScheduler(1, 10, Duration.ofSeconds(10), this.meterRegistry);
+		Permit permit = scheduler.acquire(ClientType.BROWSER);
+		List<ClientType> order = new CopyOnWriteArrayList<>();
+		List<Thread> threads = List.of(waitFor(scheduler, ClientType.CLI, order),
+				waitFor(scheduler, ClientType.CLI, order), waitFor(scheduler, ClientType.CLI, order));
+		await().atMost(Duration.ofSeconds(5)).until(() -> scheduler.getQueued() == 3);
+		Thread browser = waitFor(scheduler, ClientType.BROWSER, order);
+		await().atMost(Duration.ofSeconds(5)).until(() -> scheduler.getQueued() == 4);
+		permit.close();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		browser.join();
+		assertThat(order).hasSize(4);
+		assertThat(order.indexOf(ClientType.BROWSER)).isLessThan(3);
+	}
+
+	private Thread waitFor(GenerationScheduler scheduler, ClientType clientType, List<ClientType> order) {
+		Thread thread = new Thread(() -> {
+			try (Permit permit = scheduler.acquire(clientType)) {
+				order.add(clientType);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.spring.initializr.generator.project.MutableProjectDescription;
+import io.spring.initializr.generator.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.generation.GenerationWarmup.LatencyPlateau;
+import io.spring.start.site.generation.GenerationWarmup.Result;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.support.StaticApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GenerationWarmup}.
+ *
+ * @author agent
+ */
+class GenerationWarmupTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults().build();
+
+	private final TestProjectGenerationInvoker invoker = new TestProjectGenerationInvoker();
+
+	@Test
+	void syntheticRequestsAreGeneratedInTurnUntilIterationCount() {
+		GenerationWarmup warmup = warmup(List.of(Map.of("dependencies", "web"), Map.of("dependencies", "data-jpa")),
+				5);
+		Result result = warmup.warmUp();
+		assertThat(result.iterations()).isEqualTo(5);
+		assertThat(result.failures()).isZero();
+		assertThat(result.plateau()).isFalse();
+		assertThat(this.invoker.requests).extracting(ProjectRequest::getDependencies)
+			.containsExactly(List.of("web"), List.of("data-jpa"), List.of("web"), List.of("data-jpa"), List.of("web"));
+		assertThat(this.invoker.cleaned).hasSize(5);
+	}
+
+	@Test
+	void syntheticRequestsUseDefaultAttributes() {
+		warmup(List.of(Map.of("artifactId", "warmup")), 1).warmUp();
+		ProjectRequest request = this.invoker.requests.get(0);
+		assertThat(request.getArtifactId()).isEqualTo("warmup");
+		assertThat(request.getType()).isEqualTo(this.metadata.getTypes().getDefault().getId());
+		assertThat(request.getBootVersion()).isEqualTo(this.metadata.getBootVersions().getDefault().getId());
+	}
+
+	@Test
+	void warmupWithoutRequestsCompletesImmediately() {
+		Result result = warmup(List.of(), 10).warmUp();
+		assertThat(result.iterations()).isZero();
+		assertThat(this.invoker.requests).isEmpty();
+	}
+
+	@Test
+	void warmupStopsWhenEveryRequestFails() {
+		Result result = warmup(List.of(Map.of("artifactId", "broken")), 10).warmUp();
+		assertThat(result.iterations()).isEqualTo(1);
+		assertThat(result.failures()).isEqualTo(1);
+	}
+
+	@Test
+	void latencyReachesPlateauWhenMedianIsStable() {
+		LatencyPlateau plateau = new LatencyPlateau(3, 0.05);
+		assertThat(plateau.record(500)).isFalse();
+		assertThat(plateau.record(100)).isFalse();
+		assertThat(plateau.record(400)).isFalse();
+		assertThat(plateau.record(100)).isFalse();
+		assertThat(plateau.record(390)).isFalse();
+		assertThat(plateau.record(900)).isTrue();
+		assertThat(plateau.getLatency()).isEqualTo(Duration.ofNanos(390));
+	}
+
+	@Test
+	void latencyDoesNotReachPlateauWhenMedianDecreases() {
+		LatencyPlateau plateau = new LatencyPlateau(2, 0.05);
+		plateau.record(1000);
+		plateau.record(1000);
+		plateau.record(500);
+		assertThat(plateau.record(500)).isFalse();
+	}
+
+	private GenerationWarmup warmup(List<Map<String, String>> requests, int iterations) {
+		return new GenerationWarmup(this.invoker, () -> this.metadata, null, requests, 0, iterations, 1000, 0.05,
+				Duration.ofMinutes(1), Duration.ofSeconds(30));
+	}
+
+	static class TestProjectGenerationInvoker extends ProjectGenerationInvoker<ProjectRequest> {
+
+		private final List<ProjectRequest> requests = new ArrayList<>();
+
+		private final List<Path> cleaned = new ArrayList<>();
+
+		TestProjectGenerationInvoker() {
+			super(new StaticApplicationContext(), (request, metadata) -> new MutableProjectDescription());
+		}
+
+		@Override
+		public ProjectGenerationResult invokeProjectStructureGeneration(ProjectRequest request) {
+			assertThat(ActiveGeneration.isWarmup()).isTrue();
+			this.requests.add(request);
+			if ("broken".equals(request.getArtifactId())) {
+				throw new IllegalStateException("broken");
+			}
+			return new ProjectGenerationResult(new MutableProjectDescription(), Path.of("project"));
+		}
+
+		@Override
+		public void cleanTempFiles(Path dir) {
+			this.cleaned.add(dir);
+		}
+
+	}
+
+}
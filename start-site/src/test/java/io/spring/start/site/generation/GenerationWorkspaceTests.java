@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GenerationWorkspace}.
+ *
+ * @author agent
+ */
+class GenerationWorkspaceTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@TempDir
+	Path directory;
+
+	private GenerationWorkspace workspace;
+
+	@AfterEach
+	void stop() {
+		if (this.workspace != null) {
+			this.workspace.stop();
+		}
+	}
+
+	@Test
+	void usageIsRecordedAndReleasedOnceDeleted() throws Exception {
+		this.workspace = createWorkspace(1024 * 1024, 1000);
+		Path root = this.workspace.createProjectDirectory();
+		Files.createDirectories(root.resolve("demo/src"));
+		Files.writeString(root.resolve("demo/pom.xml"), "<project/>");
+		this.workspace.record(root);
+		assertThat(this.workspace.getSize()).isEqualTo(10);
+		assertThat(this.workspace.getInodes()).isEqualTo(4);
+		Path archive = root.resolveSibling(root.getFileName() + ".zip");
+		Files.write(archive, new byte[5]);
+		this.workspace.addFile(root, archive);
+		CountDownLatch cleanup = new CountDownLatch(1);
+		assertThat(this.workspace.release(root, cleanup::countDown)).isTrue();
+		this.workspace.start();
+		assertThat(cleanup.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(root).doesNotExist();
+		assertThat(archive).doesNotExist();
+		assertThat(this.workspace.getSize()).isZero();
+		assertThat(this.workspace.getInodes()).isZero();
+	}
+
+	@Test
+	void failingCleanupDoesNotStopCleaner() throws Exception {
+		this.workspace = createWorkspace(1024 * 1024, 1000);
+		this.workspace.start();
+		Path first = this.workspace.createProjectDirectory();
+		this.workspace.release(first, () -> {
+			throw new IllegalStateException("test");
+		});
+		await(() -> this.meterRegistry.get("initializr.workspace.deleted").counter().count() == 1);
+		Path second = this.workspace.createProjectDirectory();
+		CountDownLatch cleanup = new CountDownLatch(1);
+		this.workspace.release(second, cleanup::countDown);
+		assertThat(cleanup.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(second).doesNotExist();
+	}
+
+	@Test
+	void unknownDirectoryIsNotReleased() throws IOException {
+		this.workspace = createWorkspace(1024, 1000);
+		assertThat(this.workspace.release(this.directory.resolve("another"), null)).isFalse();
+	}
+
+	@Test
+	void projectIsRefusedWhenQuotaIsReached() throws IOException {
+		this.workspace = createWorkspace(1024, 2);
+		this.workspace.createProjectDirectory();
+		this.workspace.createProjectDirectory();
+		assertThatExceptionOfType(GenerationCancelledException.class)
+			.isThrownBy(this.workspace::createProjectDirectory)
+			.satisfies((ex) -> assertThat(ex.getReason()).isEqualTo(GenerationCancelledException.WORKSPACE_FULL));
+	}
+
+	@Test
+	void estimateIsReservedUntilProjectIsRecorded() throws IOException {
+		this.workspace = new GenerationWorkspace(this.directory, 1024, 1000, 512, 20, 10, this.meterRegistry);
+		Path root = this.workspace.createProjectDirectory();
+		this.workspace.createProjectDirectory();
+		assertThat(this.workspace.getSize()).isEqualTo(1024);
+		assertThat(this.workspace.getInodes()).isEqualTo(42);
+		assertThatExceptionOfType(GenerationCancelledException.class)
+			.isThrownBy(this.workspace::createProjectDirectory);
+		Files.writeString(root.resolve("pom.xml"), "<project/>");
+		this.workspace.record(root);
+		assertThat(this.workspace.getSize()).isEqualTo(522);
+		assertThat(this.workspace.getInodes()).isEqualTo(23);
+		this.workspace.createProjectDirectory();
+	}
+
+	@Test
+	void orphansAreDeletedOnStart() throws Exception {
+		Path orphan = Files.createDirectories(this.directory.resolve("project-1/demo"));
+		Files.writeString(orphan.resolve("pom.xml"), "<project/>");
+		this.workspace = createWorkspace(1024, 1000);
+		assertThat(this.workspace.getInodes()).isEqualTo(3);
+		this.workspace.start();
+		await(() -> this.meterRegistry.get("initializr.workspace.deleted").counter().count() == 1);
+		assertThat(this.directory).isEmptyDirectory();
+		assertThat(this.workspace.getInodes()).isZero();
+	}
+
+	private GenerationWorkspace createWorkspace(long maxSize, long maxInodes) throws IOException {
+		return new GenerationWorkspace(this.directory, maxSize, maxInodes, 10, this.meterRegistry);
+	}
+
+	private void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+}
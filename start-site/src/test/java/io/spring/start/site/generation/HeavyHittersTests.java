@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.stream.IntStream;
+
+import io.spring.start.site.generation.HeavyHitters.Estimate;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HeavyHitters}.
+ *
+ * @author agent
+ */
+class HeavyHittersTests {
+
+	@Test
+	void mostFrequentItemsAreRetained() {
+		HeavyHitters<String> heavyHitters = new HeavyHitters<>(3, 256, 4);
+		IntStream.range(0, 1000).forEach((i) -> heavyHitters.add("rare-" + i));
+		IntStream.range(0, 50).forEach((i) -> {
+			heavyHitters.add("first");
+			heavyHitters.add("first");
+			heavyHitters.add("second");
+		});
+		IntStream.range(0, 1000).forEach((i) -> heavyHitters.add("other-" + i));
+		assertThat(heavyHitters.top(2)).extracting(Estimate::item).containsExactly("first", "second");
+		assertThat(heavyHitters.total()).isEqualTo(2150);
+	}
+
+	@Test
+	void estimateIsNeverLowerThanActualCount() {
+		HeavyHitters<String> heavyHitters = new HeavyHitters<>(10, 16, 2);
+		IntStream.range(0, 500).forEach((i) -> heavyHitters.add("item-" + (i % 50)));
+		assertThat(heavyHitters.top(10))
+			.allSatisfy((estimate) -> assertThat(estimate.count()).isGreaterThanOrEqualTo(10));
+	}
+
+	@Test
+	void itemsWithSameHashCodeShareTheirEstimate() {
+		HeavyHitters<String> heavyHitters = new HeavyHitters<>(10, 256, 4);
+		heavyHitters.add("Aa", 10);
+		assertThat(heavyHitters.add("BB")).isEqualTo(11);
+	}
+
+	@Test
+	void hashFunctionIsUsedToEstimate() {
+		HeavyHitters<String> heavyHitters = new HeavyHitters<>(10, 256, 4, (item) -> item.equals("Aa") ? 1 : 2);
+		heavyHitters.add("Aa", 10);
+		assertThat(heavyHitters.add("BB")).isEqualTo(1);
+	}
+
+	@Test
+	void countIsAddedToEstimate() {
+		HeavyHitters<String> heavyHitters = new HeavyHitters<>(10, 256, 4);
+		heavyHitters.add("web", 5);
+		assertThat(heavyHitters.add("web")).isEqualTo(6);
+		assertThat(heavyHitters.top(1)).containsExactly(new Estimate<>("web", 6));
+	}
+
+}
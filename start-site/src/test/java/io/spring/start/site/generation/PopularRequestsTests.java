@@ -0,0 +1,112 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.start.site.generation.HeavyHitters.Estimate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PopularRequests}.
+ *
+ * @author agent
+ */
+class PopularRequestsTests {
+
+	private final InitializrMetadata metadata = new InitializrMetadata();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void requestsAndDependenciesAreRanked() {
+		PopularRequests popularRequests = new PopularRequests(10);
+		generate(popularRequests, "web", "data-jpa");
+		generate(popularRequests, "data-jpa", "web");
+		generate(popularRequests, "web");
+		assertThat(popularRequests.getTotal()).isEqualTo(3);
+		assertThat(popularRequests.getRequests(1)).singleElement().satisfies((estimate) -> {
+			assertThat(estimate.item().getDependencies()).containsExactly("data-jpa", "web");
+			assertThat(estimate.count()).isEqualTo(2);
+		});
+		assertThat(popularRequests.getDependencies(10)).containsExactly(new Estimate<>("web", 3),
+				new Estimate<>("data-jpa", 2));
+	}
+
+	@Test
+	void warmupGenerationsAreNotTracked() {
+		PopularRequests popularRequests = new PopularRequests(10);
+		try (ActiveGeneration generation = ActiveGeneration.startWarmup(Duration.ofSeconds(5))) {
+			generate(popularRequests, "web");
+		}
+		assertThat(popularRequests.getTotal()).isZero();
+	}
+
+	@Test
+	void popularRequestsAreRestoredWithHalvedCounts() throws IOException {
+		PopularRequests popularRequests = new PopularRequests(10);
+		for (int i = 0; i < 4; i++) {
+			generate(popularRequests, "web");
+		}
+		generate(popularRequests, "data-jpa");
+		Path snapshot = this.directory.resolve("popular-requests.json");
+		popularRequests.store(snapshot);
+		PopularRequests restored = new PopularRequests(10);
+		restored.restore(snapshot);
+		assertThat(restored.getRequests(10)).singleElement().satisfies((estimate) -> {
+			assertThat(estimate.item()).isEqualTo(popularRequests.getRequests(1).get(0).item());
+			assertThat(estimate.count()).isEqualTo(2);
+		});
+	}
+
+	@Test
+	@EnabledOnOs({ OS.LINUX, OS.MAC })
+	void snapshotIsOnlyAccessibleByItsOwner() throws IOException {
+		PopularRequests popularRequests = new PopularRequests(10);
+		generate(popularRequests, "web");
+		Path snapshot = this.directory.resolve("snapshots/popular-requests.json");
+		popularRequests.store(snapshot);
+		assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshot))).isEqualTo("rw-------");
+		assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshot.getParent())))
+			.isEqualTo("rwx------");
+		assertThat(snapshot.getParent()).isDirectoryContaining((file) -> file.equals(snapshot))
+			.isDirectoryNotContaining("glob:**.tmp");
+	}
+
+	private void generate(PopularRequests popularRequests, String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("maven-project");
+		request.setArtifactId("demo");
+		request.setDependencies(List.of(dependencies));
+		popularRequests.onProjectGenerated(new ProjectGeneratedEvent(request, this.metadata));
+	}
+
+}
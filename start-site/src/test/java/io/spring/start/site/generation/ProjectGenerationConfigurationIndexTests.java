@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.spring.initializr.generator.buildsystem.Dependency;
+import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.condition.ConditionalOnBuildSystem;
+import io.spring.initializr.generator.condition.ConditionalOnLanguage;
+import io.spring.initializr.generator.condition.ConditionalOnPlatformVersion;
+import io.spring.initializr.generator.condition.ConditionalOnRequestedDependency;
+import io.spring.initializr.generator.language.java.JavaLanguage;
+import io.spring.initializr.generator.language.kotlin.KotlinLanguage;
+import io.spring.initializr.generator.project.MutableProjectDescription;
+import io.spring.initializr.generator.project.ProjectGenerationConfiguration;
+import io.spring.initializr.generator.version.Version;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectGenerationConfigurationIndex}.
+ *
+ * @author agent
+ */
+class ProjectGenerationConfigurationIndexTests {
+
+	private final ProjectGenerationConfigurationIndex index = ProjectGenerationConfigurationIndex.of(
+			Stream.of(UnconditionalConfiguration.class, WebConfiguration.class, DataJpaConfiguration.class,
+					MavenConfiguration.class, GradleKotlinDslConfiguration.class, KotlinConfiguration.class,
+					PlatformConfiguration.class, CustomConditionConfiguration.class)
+				.map(Class::getName)
+				.toList(),
+			getClass().getClassLoader());
+
+	@Test
+	void configurationsWithUnrequestedDependencyAreExcluded() {
+		MutableProjectDescription description = createDescription();
+		assertThat(this.index.getExcludedConfigurations(description)).contains(WebConfiguration.class.getName(),
+				DataJpaConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationWithRequestedDependencyIsCandidate() {
+		MutableProjectDescription description = createDescription("web");
+		assertThat(this.index.getExcludedConfigurations(description)).doesNotContain(WebConfiguration.class.getName())
+			.contains(DataJpaConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationsWithNonMatchingBuildSystemAreExcluded() {
+		MutableProjectDescription description = createDescription();
+		description.setBuildSystem(new GradleBuildSystem(GradleBuildSystem.DIALECT_GROOVY));
+		assertThat(this.index.getExcludedConfigurations(description)).contains(MavenConfiguration.class.getName(),
+				GradleKotlinDslConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationWithMatchingBuildSystemDialectIsCandidate() {
+		MutableProjectDescription description = createDescription();
+		description.setBuildSystem(new GradleBuildSystem(GradleBuildSystem.DIALECT_KOTLIN));
+		assertThat(this.index.getExcludedConfigurations(description))
+			.doesNotContain(GradleKotlinDslConfiguration.class.getName())
+			.contains(MavenConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationWithNonMatchingLanguageIsExcluded() {
+		MutableProjectDescription description = createDescription();
+		assertThat(this.index.getExcludedConfigurations(description)).contains(KotlinConfiguration.class.getName());
+		description.setLanguage(new KotlinLanguage());
+		assertThat(this.index.getExcludedConfigurations(description))
+			.doesNotContain(KotlinConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationWithNonMatchingPlatformVersionIsExcluded() {
+		MutableProjectDescription description = createDescription();
+		description.setPlatformVersion(Version.parse("3.2.0"));
+		assertThat(this.index.getExcludedConfigurations(description)).contains(PlatformConfiguration.class.getName());
+		description.setPlatformVersion(Version.parse("3.3.1"));
+		assertThat(this.index.getExcludedConfigurations(description))
+			.doesNotContain(PlatformConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationsWithoutKnownConditionsAreNeverExcluded() {
+		MutableProjectDescription description = createDescription();
+		assertThat(this.index.getExcludedConfigurations(description)).doesNotContain(
+				UnconditionalConfiguration.class.getName(), CustomConditionConfiguration.class.getName());
+	}
+
+	@Test
+	void configurationsAreNotExcludedWhenAttributeIsUnknown() {
+		MutableProjectDescription description = new MutableProjectDescription();
+		assertThat(this.index.getExcludedConfigurations(description)).doesNotContain(MavenConfiguration.class.getName(),
+				KotlinConfiguration.class.getName(), PlatformConfiguration.class.getName());
+	}
+
+	@Test
+	void unknownConfigurationIsIgnored() {
+		ProjectGenerationConfigurationIndex index = ProjectGenerationConfigurationIndex
+			.of(List.of("com.example.DoesNotExist"), getClass().getClassLoader());
+		assertThat(index.getExcludedConfigurations(createDescription())).isEmpty();
+	}
+
+	private MutableProjectDescription createDescription(String... dependencies) {
+		MutableProjectDescription description = new MutableProjectDescription();
+		description.setBuildSystem(new MavenBuildSystem());
+		description.setLanguage(new JavaLanguage());
+		description.setPlatformVersion(Version.parse("3.3.0"));
+		for (String dependency : dependencies) {
+			description.addDependency(dependency, Dependency.withCoordinates("com.example", dependency).build());
+		}
+		return description;
+	}
+
+	@ProjectGenerationConfiguration
+	static class UnconditionalConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@ConditionalOnRequestedDependency("web")
+	static class WebConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@ConditionalOnRequestedDependency("data-jpa")
+	static class DataJpaConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@ConditionalOnBuildSystem(MavenBuildSystem.ID)
+	static class MavenConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@ConditionalOnBuildSystem(value = GradleBuildSystem.ID, dialect = GradleBuildSystem.DIALECT_KOTLIN)
+	static class GradleKotlinDslConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@ConditionalOnLanguage(KotlinLanguage.ID)
+	static class KotlinConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@ConditionalOnPlatformVersion("3.3.0-M1")
+	static class PlatformConfiguration {
+
+	}
+
+	@ProjectGenerationConfiguration
+	@Conditional(NoMatchCondition.class)
+	static class CustomConditionConfiguration {
+
+	}
+
+	static class NoMatchCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import io.spring.initializr.generator.project.MutableProjectDescription;
+import io.spring.initializr.generator.project.ProjectDescription;
+import io.spring.initializr.generator.project.ProjectDirectoryFactory;
+import io.spring.initializr.generator.project.ProjectGenerationContext;
+import io.spring.initializr.generator.project.contributor.ProjectContributor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link StartProjectAssetGenerator}.
+ *
+ * @author agent
+ */
+class StartProjectAssetGeneratorTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void contributorsAreInvoked() throws IOException {
+		Path projectRoot = this.tempDir.resolve("project");
+		try (ProjectGenerationContext context = createContext(projectRoot)) {
+			context.registerBean(FileContributor.class, () -> new FileContributor("test.txt"));
+			context.refresh();
+			Path result = new StartProjectAssetGenerator().generate(context);
+			assertThat(result).isEqualTo(projectRoot);
+			assertThat(projectRoot.resolve("test.txt")).isRegularFile();
+		}
+	}
+
+	@Test
+	void cancelledGenerationStopsAndRemovesProjectDirectory() {
+		Path projectRoot = this.tempDir.resolve("project");
+		try (ProjectGenerationContext context = createContext(projectRoot);
+				ActiveGeneration generation = ActiveGeneration.start(Duration.ofMinutes(1))) {
+			context.registerBean(CancellingContributor.class, () -> new CancellingContributor(generation));
+			context.registerBean(FileContributor.class, () -> new FileContributor("test.txt"));
+			context.refresh();
+			assertThatExceptionOfType(GenerationCancelledException.class)
+				.isThrownBy(() -> new StartProjectAssetGenerator().generate(context))
+				.satisfies((ex) -> assertThat(ex.getReason()).isEqualTo(GenerationCancelledException.DISCONNECT));
+			assertThat(projectRoot).doesNotExist();
+		}
+	}
+
+	@Test
+	void generationPastDeadlineIsCancelled() {
+		Path projectRoot = this.tempDir.resolve("project");
+		try (ProjectGenerationContext context = createContext(projectRoot);
+				ActiveGeneration generation = ActiveGeneration.start(Duration.ZERO)) {
+			context.registerBean(FileContributor.class, () -> new FileContributor("test.txt"));
+			context.refresh();
+			assertThatExceptionOfType(GenerationCancelledException.class)
+				.isThrownBy(() -> new StartProjectAssetGenerator().generate(context))
+				.satisfies((ex) -> assertThat(ex.getReason()).isEqualTo(GenerationCancelledException.DEADLINE));
+		}
+	}
+
+	private ProjectGenerationContext createContext(Path projectRoot) {
+		ProjectGenerationContext context = new ProjectGenerationContext();
+		context.registerBean(ProjectDescription.class, MutableProjectDescription::new);
+		context.registerBean(ProjectDirectoryFactory.class, () -> (description) -> {
+			Files.createDirectories(projectRoot);
+			return projectRoot;
+		});
+		return context;
+	}
+
+	static class CancellingContributor implements ProjectContributor {
+
+		private final ActiveGeneration generation;
+
+		CancellingContributor(ActiveGeneration generation) {
+			this.generation = generation;
+		}
+
+		@Override
+		public void contribute(Path projectRoot) throws IOException {
+			Files.createFile(projectRoot.resolve("first.txt"));
+			this.generation.cancel(GenerationCancelledException.DISCONNECT);
+		}
+
+		@Override
+		public int getOrder() {
+			return 1;
+		}
+
+	}
+
+	static class FileContributor implements ProjectContributor {
+
+		private final String fileName;
+
+		FileContributor(String fileName) {
+			this.fileName = fileName;
+		}
+
+		@Override
+		public void contribute(Path projectRoot) throws IOException {
+			Files.createFile(projectRoot.resolve(this.fileName));
+		}
+
+		@Override
+		public int getOrder() {
+			return 2;
+		}
+
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.generation;
+
+import io.spring.initializr.generator.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.DefaultProjectRequestToDescriptionConverter;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link StartProjectGenerationInvoker}.
+ *
+ * @author agent
+ */
+class StartProjectGenerationInvokerTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults().build();
+
+	private final StartProjectGenerationInvoker invoker = new StartProjectGenerationInvoker(
+			new StaticApplicationContext(), new DefaultProjectRequestToDescriptionConverter(), null, null, null, null);
+
+	@Test
+	void metadataReaderFactoryIsSharedBetweenGenerationContexts() {
+		Object metadataReaderFactory = getMetadataReaderFactory();
+		assertThat(metadataReaderFactory).isInstanceOf(MetadataReaderFactory.class);
+		assertThat(getMetadataReaderFactory()).isSameAs(metadataReaderFactory);
+	}
+
+	private Object getMetadataReaderFactory() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			this.invoker.customizeProjectGenerationContext(context, this.metadata);
+			return context.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+				.getPropertyValues()
+				.get("metadataReaderFactory");
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.multimodule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.spring.initializr.generator.buildsystem.BuildSystem;
+import io.spring.initializr.generator.buildsystem.gradle.GradleBuildSystem;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildSystem;
+import io.spring.initializr.generator.project.MutableProjectDescription;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.web.project.ProjectGenerationInvoker;
+import io.spring.initializr.web.project.ProjectGenerationResult;
+import io.spring.initializr.web.project.ProjectRequest;
+import io.spring.initializr.web.project.WebProjectRequest;
+import io.spring.start.site.generation.BulkProjectGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.support.StaticApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MultiModuleProjectGenerator}.
+ *
+ * @author agent
+ */
+class MultiModuleProjectGeneratorTests {
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdown();
+	}
+
+	@Test
+	void mavenModulesShareAggregatorBuild() throws IOException {
+		TestProjectGenerationInvoker invoker = new TestProjectGenerationInvoker(new MavenBuildSystem());
+		MultiModuleProjectGenerator generator = generator(invoker,
+				(build) -> build.properties().property("shared", "true"));
+		List<ModuleProjectRequest> modules = List.of(module("orders"), module("orders"));
+		List<ProjectGenerationResult> results = generator.generate(aggregator(), modules, null);
+		assertThat(results).hasSize(2);
+		assertThat(modules).extracting(ModuleProjectRequest::getBaseDir)
+			.containsExactly("shop/orders", "shop/orders-2");
+		assertThat(modules).extracting(ModuleProjectRequest::getProjectModule)
+			.containsOnly(new ProjectModule("com.example", "shop", "1.0.0"));
+		Path aggregator = results.get(0).getRootDirectory().resolve("shop");
+		assertThat(Files.readString(aggregator.resolve("pom.xml"))).contains("<packaging>pom</packaging>",
+				"<module>orders</module>", "<module>orders-2</module>", "<shared>true</shared>",
+				"<artifactId>spring-boot-starter-parent</artifactId>");
+		assertThat(aggregator.resolve("mvnw")).isRegularFile();
+		assertThat(aggregator.resolve(".mvn/wrapper/maven-wrapper.properties")).isRegularFile();
+		assertThat(aggregator.resolve("orders/mvnw")).doesNotExist();
+		assertThat(results.get(1).getRootDirectory().resolve("shop/orders-2/mvnw")).doesNotExist();
+		assertThat(results.get(1).getRootDirectory().resolve("shop/orders-2/pom.xml")).isRegularFile();
+	}
+
+	@Test
+	void gradleModulesAreIncludedInSettings() throws IOException {
+		TestProjectGenerationInvoker invoker = new TestProjectGenerationInvoker(
+				new GradleBuildSystem(GradleBuildSystem.DIALECT_KOTLIN));
+		List<ProjectGenerationResult> results = generator(invoker).generate(aggregator(),
+				List.of(module("orders"), module("billing")), null);
+		Path aggregator = results.get(0).getRootDirectory().resolve("shop");
+		assertThat(Files.readString(aggregator.resolve("settings.gradle.kts")))
+			.isEqualTo("rootProject.name = \"shop\"\ninclude(\"orders\", \"billing\")\n");
+		assertThat(aggregator.resolve("orders/settings.gradle.kts")).doesNotExist();
+		assertThat(aggregator.resolve("gradlew")).isRegularFile();
+		assertThat(results.get(1).getRootDirectory().resolve("shop/billing/gradlew")).doesNotExist();
+	}
+
+	private MultiModuleProjectGenerator generator(TestProjectGenerationInvoker invoker,
+			AggregatorBuildCustomizer... customizers) {
+		return new MultiModuleProjectGenerator(invoker, new BulkProjectGenerator(invoker, this.executor, 5),
+				List.of(customizers));
+	}
+
+	private ProjectRequest aggregator() {
+		WebProjectRequest request = new WebProjectRequest();
+		request.setGroupId("com.example");
+		request.setArtifactId("shop");
+		request.setVersion("1.0.0");
+		request.setType("maven-project");
+		request.setBootVersion("3.3.3");
+		return request;
+	}
+
+	private ModuleProjectRequest module(String artifactId) {
+		ModuleProjectRequest request = new ModuleProjectRequest();
+		request.setArtifactId(artifactId);
+		return request;
+	}
+
+	class TestProjectGenerationInvoker extends ProjectGenerationInvoker<ProjectRequest> {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		private final BuildSystem buildSystem;
+
+		TestProjectGenerationInvoker(BuildSystem buildSystem) {
+			super(new StaticApplicationContext(), (request, metadata) -> new MutableProjectDescription());
+			this.buildSystem = buildSystem;
+		}
+
+		@Override
+		public ProjectGenerationResult invokeProjectStructureGeneration(ProjectRequest request) {
+			MutableProjectDescription description = new MutableProjectDescription();
+			description.setBuildSystem(this.buildSystem);
+			description.setPlatformVersion(Version.parse("3.3.3"));
+			Path root = MultiModuleProjectGeneratorTests.this.directory
+				.resolve("root-" + this.counter.incrementAndGet());
+			Path module = root.resolve(request.getBaseDir());
+			try {
+				if (this.buildSystem instanceof MavenBuildSystem) {
+					write(module, "pom.xml", "mvnw", "mvnw.cmd", ".mvn/wrapper/maven-wrapper.properties");
+				}
+				else {
+					write(module, "build.gradle.kts", "settings.gradle.kts", "gradlew", "gradlew.bat",
+							"gradle/wrapper/gradle-wrapper.properties");
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			return new ProjectGenerationResult(description, root);
+		}
+
+		private void write(Path module, String... files) throws IOException {
+			for (String file : files) {
+				Path path = module.resolve(file);
+				Files.createDirectories(path.getParent());
+				Files.writeString(path, file);
+			}
+		}
+
+	}
+
+}
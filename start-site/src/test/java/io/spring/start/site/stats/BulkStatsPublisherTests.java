@@ -0,0 +1,211 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.stats;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.actuate.stat.ProjectRequestDocumentFactory;
+import io.spring.initializr.generator.test.InitializrMetadataTestBuilder;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.web.project.ProjectGeneratedEvent;
+import io.spring.initializr.web.project.ProjectRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BulkStatsPublisher}, using a local stand-in for the {@code _bulk} API
+ * of Elasticsearch.
+ *
+ * @author agent
+ */
+class BulkStatsPublisherTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults().build();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+
+	private volatile int status = 200;
+
+	private volatile String response = "{\"errors\":false,\"items\":[]}";
+
+	private HttpServer server;
+
+	private BulkStatsPublisher publisher;
+
+	@TempDir
+	Path spoolDirectory;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/_bulk", this::handleBulk);
+		this.server.start();
+	}
+
+	@AfterEach
+	void stop() {
+		if (this.publisher != null) {
+			this.publisher.stop();
+		}
+		this.server.stop(0);
+	}
+
+	@Test
+	void fullBatchIsPublishedRightAway() throws Exception {
+		this.publisher = createPublisher(10, 2, Duration.ofMinutes(1));
+		this.publisher.start();
+		this.publisher.handleEvent(event("demo-1"));
+		this.publisher.handleEvent(event("demo-2"));
+		List<String> lines = nextRequest();
+		assertThat(lines).hasSize(4);
+		assertThat(lines.get(0)).isEqualTo("{\"index\":{\"_index\":\"initializr\"}}");
+		assertThat(lines.get(1)).contains("demo-1");
+		assertThat(lines.get(3)).contains("demo-2");
+		assertThat(documents("published")).isEqualTo(2);
+	}
+
+	@Test
+	void incompleteBatchIsPublishedAfterFlushInterval() throws Exception {
+		this.publisher = createPublisher(10, 100, Duration.ofMillis(50));
+		this.publisher.start();
+		this.publisher.handleEvent(event("demo-1"));
+		List<String> lines = nextRequest();
+		assertThat(lines).hasSize(2);
+		assertThat(lines.get(1)).contains("demo-1");
+	}
+
+	@Test
+	void documentsThatDoNotFitInQueueAreSpooled() throws Exception {
+		this.publisher = createPublisher(1, 10, Duration.ofMillis(50));
+		this.publisher.handleEvent(event("demo-1"));
+		this.publisher.handleEvent(event("demo-2"));
+		assertThat(documents("spooled")).isEqualTo(1);
+		this.publisher.start();
+		assertThat(String.join("\n", nextRequest())).contains("demo-1");
+		assertThat(String.join("\n", nextRequest())).contains("demo-2");
+		await(() -> documents("published") == 2);
+	}
+
+	@Test
+	void documentsAreSpooledWhileUnavailableAndReplayedOnRecovery() throws Exception {
+		this.status = 503;
+		this.publisher = createPublisher(10, 10, Duration.ofMillis(50));
+		this.publisher.start();
+		this.publisher.handleEvent(event("demo-1"));
+		nextRequest();
+		await(() -> documents("spooled") == 1);
+		this.status = 200;
+		await(() -> documents("published") == 1);
+		assertThat(this.meterRegistry.get("initializr.stats.spool.size").gauge().value()).isZero();
+	}
+
+	@Test
+	void retryableItemsAreSpooled() throws Exception {
+		this.response = "{\"errors\":true,\"items\":[{\"index\":{\"status\":201}},{\"index\":{\"status\":429}},"
+				+ "{\"index\":{\"status\":400}}]}";
+		this.publisher = createPublisher(10, 3, Duration.ofMinutes(1));
+		this.publisher.start();
+		this.publisher.handleEvent(event("demo-1"));
+		this.publisher.handleEvent(event("demo-2"));
+		this.publisher.handleEvent(event("demo-3"));
+		nextRequest();
+		await(() -> documents("spooled") == 1);
+		assertThat(documents("published")).isEqualTo(1);
+		assertThat(documents("rejected")).isEqualTo(1);
+	}
+
+	@Test
+	void pendingDocumentsAreSpooledOnStop() {
+		this.publisher = createPublisher(10, 10, Duration.ofMinutes(1));
+		this.publisher.handleEvent(event("demo-1"));
+		this.publisher.stop();
+		assertThat(documents("spooled")).isEqualTo(1);
+		assertThat(this.spoolDirectory.toFile().list()).hasSize(1);
+	}
+
+	private BulkStatsPublisher createPublisher(int queueCapacity, int batchSize, Duration flushInterval) {
+		ObjectMapper objectMapper = new ObjectMapper();
+		URI uri = URI.create("http://localhost:" + this.server.getAddress().getPort());
+		ElasticBulkClient client = new ElasticBulkClient(new RestTemplate(), uri, "initializr", objectMapper);
+		DiskSpool spool = new DiskSpool(this.spoolDirectory, 1024 * 1024, 1024);
+		return new BulkStatsPublisher(new ProjectRequestDocumentFactory(), objectMapper, client, spool, queueCapacity,
+				batchSize, flushInterval, this.meterRegistry);
+	}
+
+	private ProjectGeneratedEvent event(String artifactId) {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("maven-project");
+		request.setLanguage("java");
+		request.setBootVersion("3.3.3");
+		request.setGroupId("com.example");
+		request.setArtifactId(artifactId);
+		request.setDependencies(List.of("web"));
+		return new ProjectGeneratedEvent(request, this.metadata);
+	}
+
+	private void handleBulk(HttpExchange exchange) throws IOException {
+		this.requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+		byte[] body = this.response.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(this.status, body.length);
+		exchange.getResponseBody().write(body);
+		exchange.close();
+	}
+
+	private List<String> nextRequest() throws InterruptedException {
+		String body = this.requests.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+		assertThat(body).as("bulk request").isNotNull();
+		return body.lines().toList();
+	}
+
+	private double documents(String outcome) {
+		return this.meterRegistry.get("initializr.stats.documents").tag("outcome", outcome).counter().count();
+	}
+
+	private void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.stats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DiskSpool}.
+ *
+ * @author agent
+ */
+class DiskSpoolTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void documentsAreReplayedInOrder() throws IOException {
+		DiskSpool spool = new DiskSpool(this.directory, 1024, 1024);
+		spool.append(List.of("{\"id\":1}", "{\"id\":2}"));
+		spool.append(List.of("{\"id\":3}"));
+		List<List<String>> batches = new ArrayList<>();
+		assertThat(spool.replay(2, (batch) -> batches.add(List.copyOf(batch)))).isEqualTo(3);
+		assertThat(batches).containsExactly(List.of("{\"id\":1}", "{\"id\":2}"), List.of("{\"id\":3}"));
+		assertThat(spool.isEmpty()).isTrue();
+		assertThat(spool.size()).isZero();
+	}
+
+	@Test
+	@EnabledOnOs({ OS.LINUX, OS.MAC })
+	void spoolIsOnlyAccessibleByItsOwner() throws IOException {
+		Path spoolDirectory = this.directory.resolve("spool");
+		DiskSpool spool = new DiskSpool(spoolDirectory, 1024, 1024);
+		spool.append(List.of("{\"id\":1}"));
+		assertThat(permissions(spoolDirectory)).isEqualTo("rwx------");
+		try (Stream<Path> segments = Files.list(spoolDirectory)) {
+			assertThat(segments).singleElement()
+				.satisfies((segment) -> assertThat(permissions(segment)).isEqualTo("rw-------"));
+		}
+	}
+
+	@Test
+	@EnabledOnOs({ OS.LINUX, OS.MAC })
+	void existingDirectoryIsMadePrivate() throws IOException {
+		Path spoolDirectory = Files.createDirectory(this.directory.resolve("spool"),
+				PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxrwxrwx")));
+		new DiskSpool(spoolDirectory, 1024, 1024);
+		assertThat(permissions(spoolDirectory)).isEqualTo("rwx------");
+	}
+
+	@Test
+	void documentsThatFailedAreKept() throws IOException {
+		DiskSpool spool = new DiskSpool(this.directory, 1024, 1024);
+		spool.append(List.of("{\"id\":1}", "{\"id\":2}", "{\"id\":3}"));
+		assertThat(spool.replay(1, (batch) -> !batch.contains("{\"id\":2}"))).isEqualTo(1);
+		List<String> replayed = new ArrayList<>();
+		assertThat(spool.replay(10, replayed::addAll)).isEqualTo(2);
+		assertThat(replayed).containsExactly("{\"id\":2}", "{\"id\":3}");
+		assertThat(spool.isEmpty()).isTrue();
+	}
+
+	@Test
+	void documentsAreReloadedFromDirectory() throws IOException {
+		DiskSpool spool = new DiskSpool(this.directory, 1024, 1024);
+		spool.append(List.of("{\"id\":1}"));
+		spool.close();
+		DiskSpool reloaded = new DiskSpool(this.directory, 1024, 1024);
+		assertThat(reloaded.isEmpty()).isFalse();
+		reloaded.append(List.of("{\"id\":2}"));
+		List<String> replayed = new ArrayList<>();
+		reloaded.replay(10, replayed::addAll);
+		reloaded.replay(10, replayed::addAll);
+		assertThat(replayed).containsExactly("{\"id\":1}", "{\"id\":2}");
+	}
+
+	@Test
+	void oldestDocumentsAreDiscardedWhenFull() throws IOException {
+		DiskSpool spool = new DiskSpool(this.directory, 30, 10);
+		spool.append(List.of("{\"id\":1}", "{\"id\":2}"));
+		spool.append(List.of("{\"id\":3}", "{\"id\":4}"));
+		spool.append(List.of("{\"id\":5}"));
+		assertThat(spool.dropped()).isEqualTo(2);
+		assertThat(spool.size()).isLessThanOrEqualTo(30);
+		List<String> replayed = new ArrayList<>();
+		while (!spool.isEmpty()) {
+			spool.replay(10, replayed::addAll);
+		}
+		assertThat(replayed).containsExactly("{\"id\":3}", "{\"id\":4}", "{\"id\":5}");
+	}
+
+	private String permissions(Path path) throws IOException {
+		return PosixFilePermissions.toString(Files.getPosixFilePermissions(path));
+	}
+
+}
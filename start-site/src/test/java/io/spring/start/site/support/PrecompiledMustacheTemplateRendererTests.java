@@ -0,0 +1,67 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.util.List;
+import java.util.Map;
+
+import io.spring.initializr.generator.io.template.MustacheTemplateRenderer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PrecompiledMustacheTemplateRenderer}.
+ *
+ * @author agent
+ */
+class PrecompiledMustacheTemplateRendererTests {
+
+	private final MustacheTemplateRenderer reference = new MustacheTemplateRenderer("classpath:/templates");
+
+	private final PrecompiledMustacheTemplateRenderer renderer = new PrecompiledMustacheTemplateRenderer(
+			"classpath:/templates", null);
+
+	@Test
+	void renderWithEmptyModelIsMemoized() {
+		String text = this.renderer.render("nth-gradle", Map.of());
+		assertThat(text).isEqualTo(this.reference.render("nth-gradle", Map.of()));
+		assertThat(this.renderer.render("nth-gradle", Map.of())).isSameAs(text);
+	}
+
+	@Test
+	void renderWithSimpleModelIsMemoizedPerModel() {
+		Map<String, Object> model = Map.of("platform", "Azure", "buildTool", "gradle", "version", "4.1.0");
+		String text = this.renderer.render("spring-cloud-function-build-setup-missing", model);
+		assertThat(text).isEqualTo(this.reference.render("spring-cloud-function-build-setup-missing", model))
+			.contains("Azure");
+		assertThat(this.renderer.render("spring-cloud-function-build-setup-missing", model)).isSameAs(text);
+		assertThat(this.renderer.render("spring-cloud-function-build-setup-missing",
+				Map.of("platform", "AWS", "buildTool", "maven", "version", "4.1.0")))
+			.contains("AWS");
+	}
+
+	@Test
+	void renderWithComplexModelIsNotMemoized() {
+		Map<String, Object> model = Map.of("testcontainersAtDevelopmentTimeLink", "https://example.com", "services",
+				List.of(Map.of("image", "postgres", "imageTag", "latest", "website", "https://example.com/postgres")));
+		String text = this.renderer.render("testcontainers", model);
+		assertThat(text).isEqualTo(this.reference.render("testcontainers", model)).contains("postgres:latest");
+		assertThat(this.renderer.render("testcontainers", model)).isNotSameAs(text);
+	}
+
+}
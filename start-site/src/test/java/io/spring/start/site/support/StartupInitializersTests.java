@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep.Tag;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for {@link StartupInitializers}.
+ *
+ * @author agent
+ */
+class StartupInitializersTests {
+
+	@Test
+	void initializersRunInParallel() {
+		CountDownLatch first = new CountDownLatch(1);
+		CountDownLatch second = new CountDownLatch(1);
+		Map<String, Runnable> initializers = new LinkedHashMap<>();
+		initializers.put("first", () -> {
+			first.countDown();
+			await(second);
+		});
+		initializers.put("second", () -> {
+			second.countDown();
+			await(first);
+		});
+		StartupInitializers startupInitializers = new StartupInitializers(initializers, ApplicationStartup.DEFAULT,
+				Duration.ofSeconds(5));
+		startupInitializers.start();
+		assertThat(startupInitializers.await()).containsExactly("first", "second");
+	}
+
+	@Test
+	void failedInitializerIsNotCompleted() {
+		Map<String, Runnable> initializers = new LinkedHashMap<>();
+		initializers.put("failing", () -> {
+			throw new IllegalStateException("test");
+		});
+		initializers.put("succeeding", () -> {
+		});
+		StartupInitializers startupInitializers = new StartupInitializers(initializers, ApplicationStartup.DEFAULT,
+				Duration.ofSeconds(5));
+		startupInitializers.start();
+		assertThat(startupInitializers.await()).containsExactly("succeeding");
+	}
+
+	@Test
+	void slowInitializerIsNotCompleted() {
+		CountDownLatch release = new CountDownLatch(1);
+		StartupInitializers startupInitializers = new StartupInitializers(Map.of("slow", () -> await(release)),
+				ApplicationStartup.DEFAULT, Duration.ofMillis(50));
+		startupInitializers.start();
+		try {
+			assertThat(startupInitializers.await()).isEmpty();
+		}
+		finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void initializersAreRecordedAsStartupSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(16);
+		StartupInitializers startupInitializers = new StartupInitializers(Map.of("test", () -> {
+		}), applicationStartup, Duration.ofSeconds(5));
+		startupInitializers.start();
+		assertThat(startupInitializers.await()).containsExactly("test");
+		assertThat(applicationStartup.getBufferedTimeline().getEvents()).singleElement().satisfies((event) -> {
+			assertThat(event.getStartupStep().getName()).isEqualTo("start.initializer");
+			assertThat(event.getStartupStep().getTags()).extracting(Tag::getKey, Tag::getValue)
+				.containsExactly(tuple("name", "test"));
+		});
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
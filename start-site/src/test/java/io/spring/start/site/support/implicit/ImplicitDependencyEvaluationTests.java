@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.support.implicit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.spring.initializr.generator.buildsystem.Build;
+import io.spring.initializr.generator.buildsystem.Dependency;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.spring.documentation.HelpDocument;
+import io.spring.start.site.support.implicit.ImplicitDependency.Builder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link ImplicitDependencyEvaluation}.
+ *
+ * @author agent
+ */
+class ImplicitDependencyEvaluationTests {
+
+	@Test
+	void customizeBuildOnlyEvaluatesTriggeredDependencies() {
+		AtomicInteger evaluations = new AtomicInteger();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex
+			.of(List.of(new Builder().matchAnyDependencyIds("one").match(counting(evaluations, true)).build()));
+		index.newEvaluation().customize(build("another"));
+		assertThat(evaluations).hasValue(0);
+	}
+
+	@Test
+	void customizeBuildWithAnyMatchingDependencyInvokesConsumer() {
+		Consumer<Build> buildCustomizer = mockBuildCustomizer();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex
+			.of(List.of(new Builder().matchAnyDependencyIds("one", "two").customizeBuild(buildCustomizer).build()));
+		Build build = build("two");
+		index.newEvaluation().customize(build);
+		verify(buildCustomizer).accept(build);
+	}
+
+	@Test
+	void customizeBuildWithSomeOfAllDependenciesDoesNotInvokeConsumer() {
+		Consumer<Build> buildCustomizer = mockBuildCustomizer();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex
+			.of(List.of(new Builder().matchAllDependencyIds("one", "two").customizeBuild(buildCustomizer).build()));
+		index.newEvaluation().customize(build("one", "three"));
+		verifyNoInteractions(buildCustomizer);
+	}
+
+	@Test
+	void customizeBuildWithAllDependenciesInvokesConsumer() {
+		Consumer<Build> buildCustomizer = mockBuildCustomizer();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex
+			.of(List.of(new Builder().matchAllDependencyIds("one", "two").customizeBuild(buildCustomizer).build()));
+		Build build = build("one", "two");
+		index.newEvaluation().customize(build);
+		verify(buildCustomizer).accept(build);
+	}
+
+	@Test
+	void customizeBuildEvaluatesDependencyWithoutDependencyIds() {
+		Consumer<Build> buildCustomizer = mockBuildCustomizer();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex
+			.of(List.of(new Builder().match((build) -> true).customizeBuild(buildCustomizer).build()));
+		Build build = build("one");
+		index.newEvaluation().customize(build);
+		verify(buildCustomizer).accept(build);
+	}
+
+	@Test
+	void customizeBuildSeesChangesOfPreviousDependencies() {
+		Consumer<Build> buildCustomizer = mockBuildCustomizer();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex.of(List.of(
+				new Builder().matchAnyDependencyIds("one")
+					.customizeBuild((build) -> build.dependencies().add("two", mock(Dependency.class)))
+					.build(),
+				new Builder().matchAnyDependencyIds("two").customizeBuild(buildCustomizer).build()));
+		Build build = build("one");
+		index.newEvaluation().customize(build);
+		verify(buildCustomizer).accept(build);
+	}
+
+	@Test
+	void customizeHelpDocumentReusesMatchesOfBuild() {
+		AtomicInteger evaluations = new AtomicInteger();
+		Consumer<HelpDocument> helpDocumentCustomizer = mockHelpDocumentCustomizer();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex.of(List.of(new Builder().matchAnyDependencyIds("one")
+			.match(counting(evaluations, true))
+			.customizeHelpDocument(helpDocumentCustomizer)
+			.build()));
+		ImplicitDependencyEvaluation evaluation = index.newEvaluation();
+		Build build = build("one");
+		evaluation.customize(build);
+		HelpDocument helpDocument = mock(HelpDocument.class);
+		evaluation.customize(helpDocument, build);
+		verify(helpDocumentCustomizer).accept(helpDocument);
+		assertThat(evaluations).hasValue(1);
+	}
+
+	@Test
+	void customizeHelpDocumentReevaluatesWhenDependenciesChanged() {
+		Consumer<HelpDocument> helpDocumentCustomizer = mockHelpDocumentCustomizer();
+		ImplicitDependency dependency = new Builder().matchAnyDependencyIds("one")
+			.customizeHelpDocument(helpDocumentCustomizer)
+			.build();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex.of(List.of(dependency));
+		ImplicitDependencyEvaluation evaluation = index.newEvaluation();
+		Build build = build("one");
+		evaluation.customize(build);
+		build.dependencies().remove("one");
+		evaluation.customize(mock(HelpDocument.class), build);
+		verifyNoInteractions(helpDocumentCustomizer);
+	}
+
+	@Test
+	void customizeHelpDocumentWithoutBuildPassEvaluatesDependencies() {
+		Consumer<HelpDocument> helpDocumentCustomizer = mockHelpDocumentCustomizer();
+		ImplicitDependency dependency = new Builder().matchAnyDependencyIds("one")
+			.customizeHelpDocument(helpDocumentCustomizer)
+			.build();
+		ImplicitDependencyIndex index = ImplicitDependencyIndex.of(List.of(dependency));
+		HelpDocument helpDocument = mock(HelpDocument.class);
+		index.newEvaluation().customize(helpDocument, build("one"));
+		verify(helpDocumentCustomizer).accept(helpDocument);
+	}
+
+	private Build build(String... dependencies) {
+		Build build = new MavenBuild();
+		for (String dependency : dependencies) {
+			build.dependencies().add(dependency, mock(Dependency.class));
+		}
+		return build;
+	}
+
+	private Predicate<Build> counting(AtomicInteger evaluations, boolean result) {
+		return (build) -> {
+			evaluations.incrementAndGet();
+			return result;
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private Consumer<Build> mockBuildCustomizer() {
+		return mock(Consumer.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Consumer<HelpDocument> mockHelpDocumentCustomizer() {
+		return mock(Consumer.class);
+	}
+
+}
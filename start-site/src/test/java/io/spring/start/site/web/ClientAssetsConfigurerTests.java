@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.start.site.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link ClientAssetsConfigurer}.
+ *
+ * @author agent
+ */
+class ClientAssetsConfigurerTests {
+
+	@TempDir
+	Path staticLocation;
+
+	private AnnotationConfigWebApplicationContext context;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setup() {
+		this.context = new AnnotationConfigWebApplicationContext();
+		this.context.setServletContext(new MockServletContext());
+		this.context.register(WebMvcConfiguration.class);
+		this.context.registerBean(ClientAssetsConfigurer.class,
+				() -> new ClientAssetsConfigurer(this.staticLocation.toUri().toString()));
+		this.context.refresh();
+		this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context).build();
+	}
+
+	@AfterEach
+	void close() {
+		this.context.close();
+	}
+
+	@Test
+	void assetIsImmutable() throws Exception {
+		writeAsset("main.1.abc123.js", "original");
+		this.mockMvc.perform(get("/assets/main.1.abc123.js"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(content().string("original"));
+	}
+
+	@Test
+	void brotliVariantIsServedWhenAccepted() throws Exception {
+		writeAsset("main.1.abc123.js", "original");
+		writeAsset("main.1.abc123.js.br", "brotli");
+		writeAsset("main.1.abc123.js.gz", "gzip");
+		this.mockMvc.perform(get("/assets/main.1.abc123.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+			.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+			.andExpect(content().string("brotli"));
+	}
+
+	@Test
+	void gzipVariantIsServedWhenBrotliIsNotAccepted() throws Exception {
+		writeAsset("main.1.abc123.js", "original");
+		writeAsset("main.1.abc123.js.br", "brotli");
+		writeAsset("main.1.abc123.js.gz", "gzip");
+		this.mockMvc.perform(get("/assets/main.1.abc123.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(content().string("gzip"));
+	}
+
+	@Test
+	void originalIsServedWhenNoVariantIsAvailable() throws Exception {
+		writeAsset("main.1.abc123.js", "original");
+		this.mockMvc.perform(get("/assets/main.1.abc123.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(content().string("original"));
+	}
+
+	@Test
+	void resourceOutsideOfAssetsIsNotHandled() throws Exception {
+		Files.writeString(this.staticLocation.resolve("index.html"), "index");
+		this.mockMvc.perform(get("/index.html")).andExpect(status().isNotFound());
+	}
+
+	private void writeAsset(String name, String content) throws IOException {
+		Path assets = Files.createDirectories(this.staticLocation.resolve("assets"));
+		Files.writeString(assets.resolve(name), content, StandardCharsets.UTF_8);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableWebMvc
+	static class WebMvcConfiguration {
+
+	}
+
+}